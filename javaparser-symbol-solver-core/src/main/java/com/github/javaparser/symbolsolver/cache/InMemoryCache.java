@@ -21,6 +21,7 @@
 
 package com.github.javaparser.symbolsolver.cache;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.WeakHashMap;
@@ -28,7 +29,8 @@ import java.util.WeakHashMap;
 /**
  * A cache implementation that stores the information in memory.
  * <br>
- * The current implementation stores the values in memory in a {@link WeakHashMap}.
+ * The current implementation stores the values in memory in a synchronized {@link WeakHashMap},
+ * so that it may be shared by the threads that resolve symbols at the same time.
  *
  * @param <K> The type of the key.
  * @param <V> The type of the value.
@@ -47,7 +49,7 @@ public class InMemoryCache<K, V> implements Cache<K, V>  {
         return new InMemoryCache<>();
     }
 
-    private final Map<K, V> mappedValues = new WeakHashMap<>();
+    private final Map<K, V> mappedValues = Collections.synchronizedMap(new WeakHashMap<>());
 
     @Override
     public void put(K key, V value) {
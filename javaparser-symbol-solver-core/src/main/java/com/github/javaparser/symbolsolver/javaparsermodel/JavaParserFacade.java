@@ -50,8 +50,10 @@ import com.github.javaparser.symbolsolver.resolution.ConstructorResolutionLogic;
 import com.github.javaparser.symbolsolver.resolution.MethodResolutionLogic;
 import com.github.javaparser.symbolsolver.resolution.SymbolSolver;
 import com.github.javaparser.utils.Log;
+import com.google.common.cache.CacheBuilder;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 import static com.github.javaparser.symbolsolver.javaparser.Navigator.demandParentNode;
@@ -60,6 +62,8 @@ import static com.github.javaparser.symbolsolver.model.resolution.SymbolReferenc
 
 /**
  * Class to be used by final users to solve symbols for JavaParser ASTs.
+ * <br>
+ * The facades may be used from several threads at the same time, even to resolve the same AST.
  *
  * @author Federico Tomassetti
  */
@@ -70,13 +74,26 @@ public class JavaParserFacade {
     private static final DataKey<ResolvedType> TYPE_WITHOUT_LAMBDAS_RESOLVED = new DataKey<ResolvedType>() {
     };
 
-    private static final Map<TypeSolver, JavaParserFacade> instances = new WeakHashMap<>();
+    /**
+     * The facade of each type solver. The type solvers are weakly referenced and compared by identity,
+     * and finding the facade of a type solver that already has one does not take any lock.
+     */
+    private static final ConcurrentMap<TypeSolver, JavaParserFacade> instances = CacheBuilder.newBuilder()
+            .weakKeys()
+            .<TypeSolver, JavaParserFacade>build()
+            .asMap();
     
-    private static String JAVA_LANG_STRING = String.class.getCanonicalName();
+    private static final String JAVA_LANG_STRING = String.class.getCanonicalName();
     
     private final TypeSolver typeSolver;
     private final TypeExtractor typeExtractor;
     private final SymbolSolver symbolSolver;
+    /**
+     * The first-pass types of the method calls whose arguments are being resolved by each thread (see
+     * {@link #getType(Node, boolean)}). They are only visible to the thread that computed them, so that
+     * other threads never read a type that is about to be replaced.
+     */
+    private final ThreadLocal<Map<Node, ResolvedType>> pendingTypes = ThreadLocal.withInitial(IdentityHashMap::new);
 
     private JavaParserFacade(TypeSolver typeSolver) {
         this.typeSolver = typeSolver.getRoot();
@@ -93,16 +110,17 @@ public class JavaParserFacade {
     }
 
     /**
-     * Note that the addition of the modifier {@code synchronized} is specific and directly in response to issue #2668.
-     * <br>This <strong>MUST NOT</strong> be misinterpreted as a signal that JavaParser is safe to use within a multi-threaded environment.
-     * <br>
-     * <br>Additional discussion and context from a user attempting multithreading can be found within issue #2671 .
-     * <br>
+     * Obtain the facade of the given type solver, creating it the first time it is requested.
+     * This method is safe to call from several threads, and it does not lock when the facade already exists.
      *
      * @see <a href="https://github.com/javaparser/javaparser/issues/2668">https://github.com/javaparser/javaparser/issues/2668</a>
      * @see <a href="https://github.com/javaparser/javaparser/issues/2671">https://github.com/javaparser/javaparser/issues/2671</a>
      */
-    public synchronized static JavaParserFacade get(TypeSolver typeSolver) {
+    public static JavaParserFacade get(TypeSolver typeSolver) {
+        JavaParserFacade facade = instances.get(typeSolver);
+        if (facade != null) {
+            return facade;
+        }
         return instances.computeIfAbsent(typeSolver, JavaParserFacade::new);
     }
 
@@ -356,32 +374,50 @@ public class JavaParserFacade {
         }
     }
 
+    /**
+     * The types are cached in the data of each node. The cache may be read and written by several threads,
+     * which then resolve the same type independently; the access to the data of each node is synchronized on it.
+     * <p>
+     * The type of a method call whose arguments haven't been resolved is computed twice: the first pass is only
+     * visible to the current thread while the arguments are resolved, and only the second one is cached.
+     */
     public ResolvedType getType(Node node, boolean solveLambdas) {
         if (solveLambdas) {
-            if (!node.containsData(TYPE_WITH_LAMBDAS_RESOLVED)) {
-                ResolvedType res = getTypeConcrete(node, solveLambdas);
-
-                node.setData(TYPE_WITH_LAMBDAS_RESOLVED, res);
+            Optional<ResolvedType> cached = find(TYPE_WITH_LAMBDAS_RESOLVED, node);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            // Other threads may resolve the arguments while the first pass is computed, so the arguments
+            // that are missing before it require a second pass, even if they are found afterwards.
+            boolean secondPassNecessary = false;
+            if (node instanceof MethodCallExpr) {
+                for (Node arg : ((MethodCallExpr) node).getArguments()) {
+                    if (!find(TYPE_WITH_LAMBDAS_RESOLVED, arg).isPresent()) {
+                        secondPassNecessary = true;
+                    }
+                }
+            }
+            ResolvedType res = getTypeConcrete(node, solveLambdas);
 
-                boolean secondPassNecessary = false;
-                if (node instanceof MethodCallExpr) {
-                    MethodCallExpr methodCallExpr = (MethodCallExpr) node;
+            if (node instanceof MethodCallExpr) {
+                MethodCallExpr methodCallExpr = (MethodCallExpr) node;
+                Map<Node, ResolvedType> pending = pendingTypes.get();
+                pending.put(node, res);
+                try {
                     for (Node arg : methodCallExpr.getArguments()) {
-                        if (!arg.containsData(TYPE_WITH_LAMBDAS_RESOLVED)) {
+                        if (!find(TYPE_WITH_LAMBDAS_RESOLVED, arg).isPresent()) {
                             getType(arg, true);
                             secondPassNecessary = true;
                         }
                     }
+                } finally {
+                    pending.remove(node);
                 }
-                if (secondPassNecessary) {
-                    node.removeData(TYPE_WITH_LAMBDAS_RESOLVED);
-                    ResolvedType type = getType(node, true);
-                    node.setData(TYPE_WITH_LAMBDAS_RESOLVED, type);
-
-                }
-                Log.trace("getType on %s  -> %s", () -> node, () -> res);
             }
-            return node.getData(TYPE_WITH_LAMBDAS_RESOLVED);
+            Log.trace("getType on %s  -> %s", () -> node, () -> res);
+            ResolvedType type = secondPassNecessary ? getTypeConcrete(node, solveLambdas) : res;
+            store(TYPE_WITH_LAMBDAS_RESOLVED, node, type);
+            return type;
         } else {
             Optional<ResolvedType> res = find(TYPE_WITH_LAMBDAS_RESOLVED, node);
             if (res.isPresent()) {
@@ -390,7 +426,7 @@ public class JavaParserFacade {
             res = find(TYPE_WITHOUT_LAMBDAS_RESOLVED, node);
             if (!res.isPresent()) {
                 ResolvedType resType = getTypeConcrete(node, solveLambdas);
-                node.setData(TYPE_WITHOUT_LAMBDAS_RESOLVED, resType);
+                store(TYPE_WITHOUT_LAMBDAS_RESOLVED, node, resType);
                 Optional<ResolvedType> finalRes = res;
                 Log.trace("getType on %s (no solveLambdas) -> %s", () -> node, () -> finalRes);
                 return resType;
@@ -400,10 +436,24 @@ public class JavaParserFacade {
     }
 
     private Optional<ResolvedType> find(DataKey<ResolvedType> dataKey, Node node) {
-        if (node.containsData(dataKey)) {
-            return Optional.of(node.getData(dataKey));
+        if (dataKey == TYPE_WITH_LAMBDAS_RESOLVED) {
+            ResolvedType pending = pendingTypes.get().get(node);
+            if (pending != null) {
+                return Optional.of(pending);
+            }
+        }
+        synchronized (node) {
+            if (node.containsData(dataKey)) {
+                return Optional.of(node.getData(dataKey));
+            }
+            return Optional.empty();
+        }
+    }
+
+    private void store(DataKey<ResolvedType> dataKey, Node node, ResolvedType type) {
+        synchronized (node) {
+            node.setData(dataKey, type);
         }
-        return Optional.empty();
     }
 
     protected MethodUsage toMethodUsage(MethodReferenceExpr methodReferenceExpr, List<ResolvedType> paramTypes) {
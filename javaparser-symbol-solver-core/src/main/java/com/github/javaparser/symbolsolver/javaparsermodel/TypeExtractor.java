@@ -68,10 +68,10 @@ public class TypeExtractor extends DefaultVisitorAdapter {
 
     private static final String JAVA_LANG_STRING = String.class.getCanonicalName();
     
-    private TypeSolver typeSolver;
-    private JavaParserFacade facade;
+    private final TypeSolver typeSolver;
+    private final JavaParserFacade facade;
     
-    private ReferenceTypeImpl StringReferenceType;
+    private final ReferenceTypeImpl StringReferenceType;
 
     public TypeExtractor(TypeSolver typeSolver, JavaParserFacade facade) {
         this.typeSolver = typeSolver;
@@ -41,7 +41,7 @@ import java.util.Optional;
  */
 public class DefaultConstructorDeclaration<N extends ResolvedReferenceTypeDeclaration> implements ResolvedConstructorDeclaration {
 
-    private N declaringType;
+    private final N declaringType;
 
     DefaultConstructorDeclaration(N declaringType) {
         this.declaringType = declaringType;
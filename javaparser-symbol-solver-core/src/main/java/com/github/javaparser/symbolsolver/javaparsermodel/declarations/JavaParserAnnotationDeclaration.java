@@ -39,9 +39,9 @@ import java.util.stream.Collectors;
  */
 public class JavaParserAnnotationDeclaration extends AbstractTypeDeclaration implements ResolvedAnnotationDeclaration {
 
-    private com.github.javaparser.ast.body.AnnotationDeclaration wrappedNode;
-    private TypeSolver typeSolver;
-    private JavaParserTypeAdapter<AnnotationDeclaration> javaParserTypeAdapter;
+    private final com.github.javaparser.ast.body.AnnotationDeclaration wrappedNode;
+    private final TypeSolver typeSolver;
+    private final JavaParserTypeAdapter<AnnotationDeclaration> javaParserTypeAdapter;
 
     public JavaParserAnnotationDeclaration(AnnotationDeclaration wrappedNode, TypeSolver typeSolver) {
         this.wrappedNode = wrappedNode;
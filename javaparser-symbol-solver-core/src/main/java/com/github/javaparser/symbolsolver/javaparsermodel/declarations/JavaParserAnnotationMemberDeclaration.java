@@ -35,8 +35,8 @@ import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
  */
 public class JavaParserAnnotationMemberDeclaration implements ResolvedAnnotationMemberDeclaration {
 
-    private com.github.javaparser.ast.body.AnnotationMemberDeclaration wrappedNode;
-    private TypeSolver typeSolver;
+    private final com.github.javaparser.ast.body.AnnotationMemberDeclaration wrappedNode;
+    private final TypeSolver typeSolver;
 
     public AnnotationMemberDeclaration getWrappedNode() {
         return wrappedNode;
@@ -56,9 +56,9 @@ public class JavaParserClassDeclaration extends AbstractClassDeclaration impleme
     /// Fields
     ///
 
-    private TypeSolver typeSolver;
-    private ClassOrInterfaceDeclaration wrappedNode;
-    private JavaParserTypeAdapter<ClassOrInterfaceDeclaration> javaParserTypeAdapter;
+    private final TypeSolver typeSolver;
+    private final ClassOrInterfaceDeclaration wrappedNode;
+    private final JavaParserTypeAdapter<ClassOrInterfaceDeclaration> javaParserTypeAdapter;
 
     ///
     /// Constructors
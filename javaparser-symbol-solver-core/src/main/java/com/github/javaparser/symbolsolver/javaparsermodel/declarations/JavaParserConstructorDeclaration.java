@@ -40,9 +40,9 @@ import java.util.stream.Collectors;
  */
 public class JavaParserConstructorDeclaration<N extends ResolvedReferenceTypeDeclaration> implements ResolvedConstructorDeclaration {
 
-    private N declaringType;
-    private com.github.javaparser.ast.body.ConstructorDeclaration wrappedNode;
-    private TypeSolver typeSolver;
+    private final N declaringType;
+    private final com.github.javaparser.ast.body.ConstructorDeclaration wrappedNode;
+    private final TypeSolver typeSolver;
 
     JavaParserConstructorDeclaration(N declaringType, com.github.javaparser.ast.body.ConstructorDeclaration wrappedNode,
                                      TypeSolver typeSolver) {
@@ -34,8 +34,8 @@ import static com.github.javaparser.symbolsolver.javaparser.Navigator.demandPare
  */
 public class JavaParserEnumConstantDeclaration implements ResolvedEnumConstantDeclaration {
 
-    private TypeSolver typeSolver;
-    private com.github.javaparser.ast.body.EnumConstantDeclaration wrappedNode;
+    private final TypeSolver typeSolver;
+    private final com.github.javaparser.ast.body.EnumConstantDeclaration wrappedNode;
 
     public JavaParserEnumConstantDeclaration(com.github.javaparser.ast.body.EnumConstantDeclaration wrappedNode, TypeSolver typeSolver) {
         this.wrappedNode = wrappedNode;
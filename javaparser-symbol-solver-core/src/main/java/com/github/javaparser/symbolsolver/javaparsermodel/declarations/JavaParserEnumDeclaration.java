@@ -63,9 +63,9 @@ public class JavaParserEnumDeclaration extends AbstractTypeDeclaration
     private static String JAVA_LANG_COMPARABLE = java.lang.Comparable.class.getCanonicalName();
     private static String JAVA_IO_SERIALIZABLE = Serializable.class.getCanonicalName();
 
-    private TypeSolver typeSolver;
-    private EnumDeclaration wrappedNode;
-    private JavaParserTypeAdapter<com.github.javaparser.ast.body.EnumDeclaration> javaParserTypeAdapter;
+    private final TypeSolver typeSolver;
+    private final EnumDeclaration wrappedNode;
+    private final JavaParserTypeAdapter<com.github.javaparser.ast.body.EnumDeclaration> javaParserTypeAdapter;
 
     public JavaParserEnumDeclaration(com.github.javaparser.ast.body.EnumDeclaration wrappedNode, TypeSolver typeSolver) {
         this.wrappedNode = wrappedNode;
@@ -344,8 +344,8 @@ public class JavaParserEnumDeclaration extends AbstractTypeDeclaration
      */
     public static class ValuesMethod implements ResolvedMethodDeclaration, TypeVariableResolutionCapability {
 
-        private JavaParserEnumDeclaration enumDeclaration;
-        private TypeSolver typeSolver;
+        private final JavaParserEnumDeclaration enumDeclaration;
+        private final TypeSolver typeSolver;
 
         public ValuesMethod(JavaParserEnumDeclaration enumDeclaration, TypeSolver typeSolver) {
             this.enumDeclaration = enumDeclaration;
@@ -438,8 +438,8 @@ public class JavaParserEnumDeclaration extends AbstractTypeDeclaration
      */
     public static class ValueOfMethod implements ResolvedMethodDeclaration, TypeVariableResolutionCapability {
 
-        private JavaParserEnumDeclaration enumDeclaration;
-        private TypeSolver typeSolver;
+        private final JavaParserEnumDeclaration enumDeclaration;
+        private final TypeSolver typeSolver;
 
         public ValueOfMethod(JavaParserEnumDeclaration enumDeclaration, TypeSolver typeSolver) {
             this.enumDeclaration = enumDeclaration;
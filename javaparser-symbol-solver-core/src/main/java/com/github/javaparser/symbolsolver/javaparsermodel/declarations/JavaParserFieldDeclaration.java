@@ -42,9 +42,9 @@ import static com.github.javaparser.symbolsolver.javaparser.Navigator.demandPare
  */
 public class JavaParserFieldDeclaration implements ResolvedFieldDeclaration, AssociableToAST<FieldDeclaration> {
 
-    private VariableDeclarator variableDeclarator;
-    private com.github.javaparser.ast.body.FieldDeclaration wrappedNode;
-    private TypeSolver typeSolver;
+    private final VariableDeclarator variableDeclarator;
+    private final com.github.javaparser.ast.body.FieldDeclaration wrappedNode;
+    private final TypeSolver typeSolver;
 
     public JavaParserFieldDeclaration(VariableDeclarator variableDeclarator, TypeSolver typeSolver) {
         if (typeSolver == null) {
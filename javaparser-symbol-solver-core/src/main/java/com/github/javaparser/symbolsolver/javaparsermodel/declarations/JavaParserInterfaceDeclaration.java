@@ -53,9 +53,9 @@ import java.util.stream.Collectors;
 public class JavaParserInterfaceDeclaration extends AbstractTypeDeclaration
         implements ResolvedInterfaceDeclaration, MethodResolutionCapability, MethodUsageResolutionCapability {
 
-    private TypeSolver typeSolver;
-    private ClassOrInterfaceDeclaration wrappedNode;
-    private JavaParserTypeAdapter<ClassOrInterfaceDeclaration> javaParserTypeAdapter;
+    private final TypeSolver typeSolver;
+    private final ClassOrInterfaceDeclaration wrappedNode;
+    private final JavaParserTypeAdapter<ClassOrInterfaceDeclaration> javaParserTypeAdapter;
 
     public JavaParserInterfaceDeclaration(ClassOrInterfaceDeclaration wrappedNode, TypeSolver typeSolver) {
         if (!wrappedNode.isInterface()) {
@@ -49,8 +49,8 @@ import static com.github.javaparser.symbolsolver.javaparser.Navigator.demandPare
  */
 public class JavaParserMethodDeclaration implements ResolvedMethodDeclaration, TypeVariableResolutionCapability {
 
-    private com.github.javaparser.ast.body.MethodDeclaration wrappedNode;
-    private TypeSolver typeSolver;
+    private final com.github.javaparser.ast.body.MethodDeclaration wrappedNode;
+    private final TypeSolver typeSolver;
 
     public JavaParserMethodDeclaration(com.github.javaparser.ast.body.MethodDeclaration wrappedNode, TypeSolver typeSolver) {
         this.wrappedNode = wrappedNode;
@@ -47,8 +47,8 @@ import java.util.*;
  */
 public class JavaParserTypeAdapter<T extends Node & NodeWithSimpleName<T> & NodeWithMembers<T>> {
 
-    private T wrappedNode;
-    private TypeSolver typeSolver;
+    private final T wrappedNode;
+    private final TypeSolver typeSolver;
 
     public JavaParserTypeAdapter(T wrappedNode, TypeSolver typeSolver) {
         this.wrappedNode = wrappedNode;
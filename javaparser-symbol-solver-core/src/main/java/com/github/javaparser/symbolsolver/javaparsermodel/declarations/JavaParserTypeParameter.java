@@ -44,8 +44,8 @@ import static com.github.javaparser.symbolsolver.javaparser.Navigator.demandPare
  */
 public class JavaParserTypeParameter extends AbstractTypeDeclaration implements ResolvedTypeParameterDeclaration {
 
-    private com.github.javaparser.ast.type.TypeParameter wrappedNode;
-    private TypeSolver typeSolver;
+    private final com.github.javaparser.ast.type.TypeParameter wrappedNode;
+    private final TypeSolver typeSolver;
 
     public JavaParserTypeParameter(com.github.javaparser.ast.type.TypeParameter wrappedNode, TypeSolver typeSolver) {
         this.wrappedNode = wrappedNode;
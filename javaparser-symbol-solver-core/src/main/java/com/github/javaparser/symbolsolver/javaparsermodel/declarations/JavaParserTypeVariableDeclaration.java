@@ -39,8 +39,8 @@ import java.util.*;
  */
 public class JavaParserTypeVariableDeclaration extends AbstractTypeDeclaration implements AssociableToAST<TypeParameter> {
 
-    private TypeParameter wrappedNode;
-    private TypeSolver typeSolver;
+    private final TypeParameter wrappedNode;
+    private final TypeSolver typeSolver;
 
     public JavaParserTypeVariableDeclaration(TypeParameter wrappedNode, TypeSolver typeSolver) {
         this.wrappedNode = wrappedNode;
@@ -38,9 +38,9 @@ import static com.github.javaparser.symbolsolver.javaparser.Navigator.demandPare
  */
 public class JavaParserVariableDeclaration implements ResolvedValueDeclaration, AssociableToAST<VariableDeclarationExpr> {
 
-    private VariableDeclarator variableDeclarator;
-    private VariableDeclarationExpr wrappedNode;
-    private TypeSolver typeSolver;
+    private final VariableDeclarator variableDeclarator;
+    private final VariableDeclarationExpr wrappedNode;
+    private final TypeSolver typeSolver;
 
     public JavaParserVariableDeclaration(VariableDeclarator variableDeclarator, TypeSolver typeSolver) {
         if (typeSolver == null) {
@@ -42,9 +42,9 @@ import java.util.stream.Stream;
  */
 public class JavassistAnnotationDeclaration extends AbstractTypeDeclaration implements ResolvedAnnotationDeclaration {
 
-    private CtClass ctClass;
-    private TypeSolver typeSolver;
-    private JavassistTypeDeclarationAdapter javassistTypeDeclarationAdapter;
+    private final CtClass ctClass;
+    private final TypeSolver typeSolver;
+    private final JavassistTypeDeclarationAdapter javassistTypeDeclarationAdapter;
 
     @Override
     public String toString() {
@@ -43,7 +43,7 @@ import java.util.function.Function;
  */
 public class JavassistAnnotationMemberDeclaration implements ResolvedAnnotationMemberDeclaration {
     
-    private static Map<Class<? extends MemberValue>, Function<MemberValue, ? extends Expression>> memberValueAsExressionConverter = new HashMap<>();
+    private static final Map<Class<? extends MemberValue>, Function<MemberValue, ? extends Expression>> memberValueAsExressionConverter = new HashMap<>();
     static {
         memberValueAsExressionConverter.put(BooleanMemberValue.class, (memberValue) -> new BooleanLiteralExpr(BooleanMemberValue.class.cast(memberValue).getValue()));
         memberValueAsExressionConverter.put(CharMemberValue.class, (memberValue) -> new CharLiteralExpr(CharMemberValue.class.cast(memberValue).getValue()));
@@ -53,8 +53,8 @@ public class JavassistAnnotationMemberDeclaration implements ResolvedAnnotationM
         memberValueAsExressionConverter.put(StringMemberValue.class, (memberValue) -> new StringLiteralExpr(StringMemberValue.class.cast(memberValue).getValue()));
     }
 
-    private CtMethod annotationMember;
-    private TypeSolver typeSolver;
+    private final CtMethod annotationMember;
+    private final TypeSolver typeSolver;
 
     public JavassistAnnotationMemberDeclaration(CtMethod annotationMember, TypeSolver typeSolver) {
         this.annotationMember = annotationMember;
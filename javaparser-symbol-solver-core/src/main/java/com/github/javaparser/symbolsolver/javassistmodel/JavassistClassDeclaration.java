@@ -48,9 +48,9 @@ import java.util.Set;
  */
 public class JavassistClassDeclaration extends AbstractClassDeclaration implements MethodUsageResolutionCapability {
 
-    private CtClass ctClass;
-    private TypeSolver typeSolver;
-    private JavassistTypeDeclarationAdapter javassistTypeDeclarationAdapter;
+    private final CtClass ctClass;
+    private final TypeSolver typeSolver;
+    private final JavassistTypeDeclarationAdapter javassistTypeDeclarationAdapter;
 
     public JavassistClassDeclaration(CtClass ctClass, TypeSolver typeSolver) {
         if (ctClass == null) {
@@ -33,8 +33,8 @@ import javassist.bytecode.AccessFlag;
  */
 public class JavassistEnumConstantDeclaration implements ResolvedEnumConstantDeclaration {
 
-    private CtField ctField;
-    private TypeSolver typeSolver;
+    private final CtField ctField;
+    private final TypeSolver typeSolver;
     private ResolvedType type;
 
     public JavassistEnumConstantDeclaration(CtField ctField, TypeSolver typeSolver) {
@@ -50,9 +50,9 @@ import java.util.stream.Collectors;
 public class JavassistEnumDeclaration extends AbstractTypeDeclaration
         implements ResolvedEnumDeclaration, MethodResolutionCapability, MethodUsageResolutionCapability {
 
-    private CtClass ctClass;
-    private TypeSolver typeSolver;
-    private JavassistTypeDeclarationAdapter javassistTypeDeclarationAdapter;
+    private final CtClass ctClass;
+    private final TypeSolver typeSolver;
+    private final JavassistTypeDeclarationAdapter javassistTypeDeclarationAdapter;
 
     public JavassistEnumDeclaration(CtClass ctClass, TypeSolver typeSolver) {
         if (ctClass == null) {
@@ -37,8 +37,8 @@ import java.lang.reflect.Modifier;
  * @author Federico Tomassetti
  */
 public class JavassistFieldDeclaration implements ResolvedFieldDeclaration {
-    private CtField ctField;
-    private TypeSolver typeSolver;
+    private final CtField ctField;
+    private final TypeSolver typeSolver;
 
     public JavassistFieldDeclaration(CtField ctField, TypeSolver typeSolver) {
         this.ctField = ctField;
@@ -44,8 +44,8 @@ import java.util.Optional;
  * @author Federico Tomassetti
  */
 public class JavassistMethodDeclaration implements ResolvedMethodDeclaration, TypeVariableResolutionCapability {
-    private CtMethod ctMethod;
-    private TypeSolver typeSolver;
+    private final CtMethod ctMethod;
+    private final TypeSolver typeSolver;
     private final JavassistMethodLikeDeclarationAdapter methodLikeAdaper;
 
     public JavassistMethodDeclaration(CtMethod ctMethod, TypeSolver typeSolver) {
@@ -38,11 +38,11 @@ import java.util.stream.Collectors;
 
 public class JavassistMethodLikeDeclarationAdapter {
 
-    private CtBehavior ctBehavior;
-    private TypeSolver typeSolver;
-    private ResolvedMethodLikeDeclaration declaration;
+    private final CtBehavior ctBehavior;
+    private final TypeSolver typeSolver;
+    private final ResolvedMethodLikeDeclaration declaration;
 
-    private SignatureAttribute.MethodSignature methodSignature;
+    private final SignatureAttribute.MethodSignature methodSignature;
 
     public JavassistMethodLikeDeclarationAdapter(CtBehavior ctBehavior, TypeSolver typeSolver, ResolvedMethodLikeDeclaration declaration) {
         this.ctBehavior = ctBehavior;
@@ -30,10 +30,10 @@ import javassist.CtClass;
  * @author Federico Tomassetti
  */
 public class JavassistParameterDeclaration implements ResolvedParameterDeclaration {
-    private ResolvedType type;
-    private TypeSolver typeSolver;
-    private boolean variadic;
-    private String name;
+    private final ResolvedType type;
+    private final TypeSolver typeSolver;
+    private final boolean variadic;
+    private final String name;
 
     public JavassistParameterDeclaration(CtClass type, TypeSolver typeSolver, boolean variadic, String name) {
         this(JavassistFactory.typeUsageFor(type, typeSolver), typeSolver, variadic, name);
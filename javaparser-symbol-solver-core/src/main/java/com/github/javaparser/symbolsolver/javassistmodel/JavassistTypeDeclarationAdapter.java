@@ -44,9 +44,9 @@ import java.util.stream.Stream;
  */
 public class JavassistTypeDeclarationAdapter {
 
-    private CtClass ctClass;
-    private TypeSolver typeSolver;
-    private ResolvedReferenceTypeDeclaration typeDeclaration;
+    private final CtClass ctClass;
+    private final TypeSolver typeSolver;
+    private final ResolvedReferenceTypeDeclaration typeDeclaration;
 
     public JavassistTypeDeclarationAdapter(CtClass ctClass, TypeSolver typeSolver, ResolvedReferenceTypeDeclaration typeDeclaration) {
         this.ctClass = ctClass;
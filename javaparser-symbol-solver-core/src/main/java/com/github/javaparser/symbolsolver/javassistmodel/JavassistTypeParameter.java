@@ -37,9 +37,9 @@ import java.util.Optional;
  */
 public class JavassistTypeParameter implements ResolvedTypeParameterDeclaration {
 
-    private SignatureAttribute.TypeParameter wrapped;
-    private TypeSolver typeSolver;
-    private ResolvedTypeParametrizable container;
+    private final SignatureAttribute.TypeParameter wrapped;
+    private final TypeSolver typeSolver;
+    private final ResolvedTypeParametrizable container;
 
     public JavassistTypeParameter(SignatureAttribute.TypeParameter wrapped, ResolvedTypeParametrizable container, TypeSolver typeSolver) {
         this.wrapped = wrapped;
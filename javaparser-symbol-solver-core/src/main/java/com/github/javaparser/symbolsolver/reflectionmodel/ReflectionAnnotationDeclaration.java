@@ -51,9 +51,9 @@ public class ReflectionAnnotationDeclaration extends AbstractTypeDeclaration imp
     /// Fields
     ///
 
-    private Class<?> clazz;
-    private TypeSolver typeSolver;
-    private ReflectionClassAdapter reflectionClassAdapter;
+    private final Class<?> clazz;
+    private final TypeSolver typeSolver;
+    private final ReflectionClassAdapter reflectionClassAdapter;
 
     ///
     /// Constructor
@@ -40,7 +40,7 @@ import java.util.function.Function;
  */
 public class ReflectionAnnotationMemberDeclaration implements ResolvedAnnotationMemberDeclaration {
 
-    private static Map<Class<?>, Function<Object, ? extends Expression>> valueAsExressionConverter = new HashMap<>();
+    private static final Map<Class<?>, Function<Object, ? extends Expression>> valueAsExressionConverter = new HashMap<>();
     static {
         valueAsExressionConverter.put(Boolean.class, (value) -> new BooleanLiteralExpr(Boolean.class.cast(value)));
         valueAsExressionConverter.put(Character.class, (value) -> new CharLiteralExpr(Character.class.cast(value)));
@@ -50,8 +50,8 @@ public class ReflectionAnnotationMemberDeclaration implements ResolvedAnnotation
         valueAsExressionConverter.put(String.class, (value) -> new StringLiteralExpr(String.class.cast(value)));
     }
     
-    private Method annotationMember;
-    private TypeSolver typeSolver;
+    private final Method annotationMember;
+    private final TypeSolver typeSolver;
 
     public ReflectionAnnotationMemberDeclaration(Method annotationMember, TypeSolver typeSolver) {
         this.annotationMember = annotationMember;
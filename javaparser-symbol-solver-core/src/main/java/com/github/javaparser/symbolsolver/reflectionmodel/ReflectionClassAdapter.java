@@ -43,9 +43,9 @@ import java.util.stream.Collectors;
  */
 class ReflectionClassAdapter {
 
-    private Class<?> clazz;
-    private TypeSolver typeSolver;
-    private ResolvedReferenceTypeDeclaration typeDeclaration;
+    private final Class<?> clazz;
+    private final TypeSolver typeSolver;
+    private final ResolvedReferenceTypeDeclaration typeDeclaration;
 
     public ReflectionClassAdapter(Class<?> clazz, TypeSolver typeSolver, ResolvedReferenceTypeDeclaration typeDeclaration) {
         this.clazz = clazz;
@@ -41,8 +41,8 @@ import java.util.stream.Collectors;
  */
 public class ReflectionConstructorDeclaration implements ResolvedConstructorDeclaration {
 
-    private Constructor<?> constructor;
-    private TypeSolver typeSolver;
+    private final Constructor<?> constructor;
+    private final TypeSolver typeSolver;
 
     public ReflectionConstructorDeclaration(Constructor<?> constructor, TypeSolver typeSolver) {
         this.constructor = constructor;
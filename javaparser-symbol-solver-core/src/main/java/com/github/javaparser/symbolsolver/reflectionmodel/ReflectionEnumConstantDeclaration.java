@@ -31,8 +31,8 @@ import java.lang.reflect.Field;
 
 public class ReflectionEnumConstantDeclaration implements ResolvedEnumConstantDeclaration {
 
-    private Field enumConstant;
-    private TypeSolver typeSolver;
+    private final Field enumConstant;
+    private final TypeSolver typeSolver;
 
     public ReflectionEnumConstantDeclaration(Field enumConstant, TypeSolver typeSolver) {
         if (!enumConstant.isEnumConstant()) {
@@ -50,9 +50,9 @@ public class ReflectionEnumDeclaration extends AbstractTypeDeclaration
   /// Fields
   ///
 
-  private Class<?> clazz;
-  private TypeSolver typeSolver;
-  private ReflectionClassAdapter reflectionClassAdapter;
+  private final Class<?> clazz;
+  private final TypeSolver typeSolver;
+  private final ReflectionClassAdapter reflectionClassAdapter;
 
   ///
   /// Constructors
@@ -35,9 +35,9 @@ import java.lang.reflect.Modifier;
  */
 public class ReflectionFieldDeclaration implements ResolvedFieldDeclaration {
 
-    private Field field;
-    private TypeSolver typeSolver;
-    private ResolvedType type;
+    private final Field field;
+    private final TypeSolver typeSolver;
+    private final ResolvedType type;
 
     public ReflectionFieldDeclaration(Field field, TypeSolver typeSolver) {
         this.field = field;
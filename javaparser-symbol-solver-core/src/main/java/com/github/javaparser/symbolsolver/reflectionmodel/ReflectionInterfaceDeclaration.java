@@ -54,9 +54,9 @@ public class ReflectionInterfaceDeclaration extends AbstractTypeDeclaration
     /// Fields
     ///
 
-    private Class<?> clazz;
-    private TypeSolver typeSolver;
-    private ReflectionClassAdapter reflectionClassAdapter;
+    private final Class<?> clazz;
+    private final TypeSolver typeSolver;
+    private final ReflectionClassAdapter reflectionClassAdapter;
 
     ///
     /// Constructor
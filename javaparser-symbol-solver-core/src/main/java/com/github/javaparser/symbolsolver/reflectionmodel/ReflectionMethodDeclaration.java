@@ -46,8 +46,8 @@ import java.util.stream.Collectors;
  */
 public class ReflectionMethodDeclaration implements ResolvedMethodDeclaration, TypeVariableResolutionCapability {
 
-    private Method method;
-    private TypeSolver typeSolver;
+    private final Method method;
+    private final TypeSolver typeSolver;
 
     public ReflectionMethodDeclaration(Method method, TypeSolver typeSolver) {
         this.method = method;
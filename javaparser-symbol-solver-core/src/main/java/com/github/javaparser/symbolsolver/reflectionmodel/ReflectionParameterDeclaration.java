@@ -31,11 +31,11 @@ import java.util.Objects;
  * @author Federico Tomassetti
  */
 public class ReflectionParameterDeclaration implements ResolvedParameterDeclaration {
-    private Class<?> type;
-    private java.lang.reflect.Type genericType;
-    private TypeSolver typeSolver;
-    private boolean variadic;
-    private String name;
+    private final Class<?> type;
+    private final java.lang.reflect.Type genericType;
+    private final TypeSolver typeSolver;
+    private final boolean variadic;
+    private final String name;
 
     /**
      *
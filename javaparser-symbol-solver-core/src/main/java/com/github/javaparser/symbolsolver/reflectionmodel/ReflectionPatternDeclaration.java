@@ -32,9 +32,9 @@ import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
  */
 public class ReflectionPatternDeclaration implements ResolvedPatternDeclaration {
 
-    private Class<?> type;
-    private TypeSolver typeSolver;
-    private String name;
+    private final Class<?> type;
+    private final TypeSolver typeSolver;
+    private final String name;
 
     /**
      * @param type
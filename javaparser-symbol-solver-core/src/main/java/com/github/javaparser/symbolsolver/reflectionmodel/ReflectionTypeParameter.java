@@ -41,8 +41,8 @@ import java.util.stream.Collectors;
  */
 public class ReflectionTypeParameter implements ResolvedTypeParameterDeclaration {
 
-    private TypeVariable typeVariable;
-    private TypeSolver typeSolver;
+    private final TypeVariable typeVariable;
+    private final TypeSolver typeSolver;
     private ResolvedTypeParametrizable container;
 
     public ReflectionTypeParameter(TypeVariable typeVariable, boolean declaredOnClass, TypeSolver typeSolver) {
@@ -24,54 +24,60 @@ package com.github.javaparser.symbolsolver.resolution.typeinference;
 import com.github.javaparser.ast.expr.LambdaExpr;
 import com.github.javaparser.resolution.types.ResolvedType;
 import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.google.common.cache.CacheBuilder;
 
-import java.util.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * The types inferred for the parameters of each lambda expression, and the inference variables created for it.
+ * <br>
+ * The records may be added and retrieved from several threads at the same time. The type solvers and lambda
+ * expressions are compared by identity and weakly referenced, so that their records are dropped with them.
+ *
  * @author Federico Tomassetti
  */
 public class TypeInferenceCache {
 
-    private static Map<TypeSolver, IdentityHashMap<LambdaExpr, Map<String, ResolvedType>>> typeForLambdaParameters = new HashMap<>();
-    private static Map<TypeSolver, IdentityHashMap<LambdaExpr, List<InferenceVariable>>> inferenceVariables = new HashMap<>();
+    private static final ConcurrentMap<TypeSolver, ConcurrentMap<LambdaExpr, Map<String, ResolvedType>>> typeForLambdaParameters = newWeakIdentityMap();
+    private static final ConcurrentMap<TypeSolver, ConcurrentMap<LambdaExpr, List<InferenceVariable>>> inferenceVariables = newWeakIdentityMap();
 
     public static void addRecord(TypeSolver typeSolver, LambdaExpr lambdaExpr, String paramName, ResolvedType type) {
-        if (!typeForLambdaParameters.containsKey(typeSolver)) {
-            typeForLambdaParameters.put(typeSolver, new IdentityHashMap<>());
-        }
-        if (!typeForLambdaParameters.get(typeSolver).containsKey(lambdaExpr)) {
-            typeForLambdaParameters.get(typeSolver).put(lambdaExpr, new HashMap<>());
-        }
-        typeForLambdaParameters.get(typeSolver).get(lambdaExpr).put(paramName, type);
+        typeForLambdaParameters.computeIfAbsent(typeSolver, ts -> newWeakIdentityMap())
+                .computeIfAbsent(lambdaExpr, l -> new ConcurrentHashMap<>())
+                .put(paramName, type);
     }
 
     public static Optional<ResolvedType> retrieve(TypeSolver typeSolver, LambdaExpr lambdaExpr, String paramName) {
-        if (!typeForLambdaParameters.containsKey(typeSolver)) {
-            return Optional.empty();
-        }
-        if (!typeForLambdaParameters.get(typeSolver).containsKey(lambdaExpr)) {
+        Map<LambdaExpr, Map<String, ResolvedType>> lambdas = typeForLambdaParameters.get(typeSolver);
+        if (lambdas == null) {
             return Optional.empty();
         }
-        if (!typeForLambdaParameters.get(typeSolver).get(lambdaExpr).containsKey(paramName)) {
+        Map<String, ResolvedType> parameters = lambdas.get(lambdaExpr);
+        if (parameters == null) {
             return Optional.empty();
         }
-        return Optional.of(typeForLambdaParameters.get(typeSolver).get(lambdaExpr).get(paramName));
+        return Optional.ofNullable(parameters.get(paramName));
     }
 
     public static void recordInferenceVariables(TypeSolver typeSolver, LambdaExpr lambdaExpr, List<InferenceVariable> _inferenceVariables) {
-        if (!inferenceVariables.containsKey(typeSolver)) {
-            inferenceVariables.put(typeSolver, new IdentityHashMap<>());
-        }
-        inferenceVariables.get(typeSolver).put(lambdaExpr, _inferenceVariables);
+        inferenceVariables.computeIfAbsent(typeSolver, ts -> newWeakIdentityMap())
+                .put(lambdaExpr, _inferenceVariables);
     }
 
     public static Optional<List<InferenceVariable>> retrieveInferenceVariables(TypeSolver typeSolver, LambdaExpr lambdaExpr) {
-        if (!inferenceVariables.containsKey(typeSolver)) {
-            return Optional.empty();
-        }
-        if (!inferenceVariables.get(typeSolver).containsKey(lambdaExpr)) {
+        Map<LambdaExpr, List<InferenceVariable>> lambdas = inferenceVariables.get(typeSolver);
+        if (lambdas == null) {
             return Optional.empty();
         }
-        return Optional.of(inferenceVariables.get(typeSolver).get(lambdaExpr));
+        return Optional.ofNullable(lambdas.get(lambdaExpr));
+    }
+
+    /** A concurrent map whose keys are compared by identity and weakly referenced. */
+    private static <K, V> ConcurrentMap<K, V> newWeakIdentityMap() {
+        return CacheBuilder.newBuilder().weakKeys().<K, V>build().asMap();
     }
 }
@@ -0,0 +1,158 @@
+package com.github.javaparser.symbolsolver;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Resolves the same expressions from several threads at once, which share the ASTs and the type solver,
+ * and checks that they obtain the same results as a sequential run.
+ */
+class ConcurrentResolutionTest {
+
+    /** The sources of this module, against which (and the classpath) their calls are resolved. */
+    private static final Path SOURCES = Path.of("src/main/java");
+    private static final int THREADS = 4;
+    /** A chain of calls whose types depend on the types of the lambdas passed to them. */
+    private static final String LAMBDA_CHAIN = "import java.util.*;\n" +
+            "import java.util.stream.*;\n" +
+            "class A {\n" +
+            "    List<Integer> f(List<String> list) {\n" +
+            "        return list.stream().map(s -> s.length()).filter(n -> n > 0).map(n -> n + 1).collect(Collectors.toList());\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    void concurrentResolutionMatchesSequentialTest() throws Exception {
+        List<String> expected = resolveAll(parse());
+        assertTrue(expected.size() > 5_000, "The corpus is too small: " + expected.size() + " calls");
+        // Every thread resolves the same ASTs with the same type solver, as the threads that build
+        // an SDG in parallel do. The result of resolving an expression may depend on those resolved
+        // before it, so the threads resolve them in the same order as the sequential run.
+        List<CompilationUnit> units = parse();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> resolveAll(units)));
+            }
+            for (Future<List<String>> result : results) {
+                assertEquals(expected, result.get(), "The symbols resolved concurrently differ from the sequential ones");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The type of a call with lambda arguments is computed twice, and only the second one is correct. Other
+     * threads must neither observe the first one, nor keep it because the arguments were resolved meanwhile.
+     */
+    @Test
+    void callTypesMatchSequentialTest() throws Exception {
+        TypeSolver typeSolver = new ReflectionTypeSolver();
+        JavaParser parser = new JavaParser(new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(typeSolver)));
+        List<String> expected = callTypes(parser.parse(LAMBDA_CHAIN).getResult().get(), typeSolver);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < 200; i++) {
+                CompilationUnit unit = parser.parse(LAMBDA_CHAIN).getResult().get();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<String>>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return callTypes(unit, typeSolver);
+                    }));
+                }
+                start.countDown();
+                for (Future<List<String>> result : results) {
+                    assertEquals(expected, result.get(), "The types of the calls resolved concurrently differ from the sequential ones");
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** The types of the method calls of the given compilation unit. */
+    private static List<String> callTypes(CompilationUnit unit, TypeSolver typeSolver) {
+        return unit.findAll(MethodCallExpr.class).stream()
+                .map(call -> JavaParserFacade.get(typeSolver).getType(call).describe())
+                .collect(Collectors.toList());
+    }
+
+    /** Parse the sources with a new type solver. */
+    private static List<CompilationUnit> parse() throws IOException {
+        TypeSolver typeSolver = new CombinedTypeSolver(new JavaParserTypeSolver(SOURCES), new ReflectionTypeSolver(false));
+        JavaParser parser = new JavaParser(new ParserConfiguration()
+                .setAttributeComments(false)
+                .setSymbolResolver(new JavaSymbolSolver(typeSolver)));
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(SOURCES)) {
+            files = paths.filter(path -> path.toString().endsWith(".java"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        List<CompilationUnit> units = new ArrayList<>(files.size());
+        for (Path file : files) {
+            ParseResult<CompilationUnit> result = parser.parse(file);
+            units.add(result.getResult().orElseThrow(() -> new IllegalStateException(result.getProblems().toString())));
+        }
+        return units;
+    }
+
+    /** Resolve every call in the given compilation units. */
+    private static List<String> resolveAll(List<CompilationUnit> units) {
+        List<String> results = new ArrayList<>();
+        for (CompilationUnit unit : units) {
+            unit.walk(Expression.class, e -> {
+                if (e instanceof MethodCallExpr || e instanceof ObjectCreationExpr) {
+                    results.add(resolve(e));
+                }
+            });
+        }
+        return results;
+    }
+
+    /** Resolve a call, describing its declaration or the exception thrown. The random names
+     *  of anonymous classes are removed, as they change each time a class is resolved. */
+    private static String resolve(Expression call) {
+        String result;
+        try {
+            if (call instanceof MethodCallExpr) {
+                result = ((MethodCallExpr) call).resolve().getQualifiedSignature();
+            } else {
+                result = ((ObjectCreationExpr) call).resolve().getQualifiedSignature();
+            }
+        } catch (RuntimeException e) {
+            result = e.getClass().getName();
+        }
+        return result.replaceAll("Anonymous-[0-9a-f-]+", "Anonymous");
+    }
+}
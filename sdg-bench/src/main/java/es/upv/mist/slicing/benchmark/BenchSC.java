@@ -2,11 +2,14 @@ package es.upv.mist.slicing.benchmark;
 
 import com.github.javaparser.ParseException;
 import com.github.javaparser.Problem;
-import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import es.upv.mist.slicing.arcs.pdg.StructuralArc;
 import es.upv.mist.slicing.graphs.augmented.ASDG;
 import es.upv.mist.slicing.graphs.augmented.PSDG;
@@ -19,21 +22,24 @@ import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.SyntheticNode;
 import es.upv.mist.slicing.slicing.OriginalJSysDGSlicingAlgorithm;
 import es.upv.mist.slicing.slicing.SlicingCriterion;
-import es.upv.mist.slicing.utils.NodeHashSet;
-import es.upv.mist.slicing.utils.StaticTypeSolver;
+import es.upv.mist.slicing.utils.AnalysisContext;
+import es.upv.mist.slicing.utils.SourceParser;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class BenchSC {
     protected static final int BUILD_TIMES = 0, SLICE_TIMES = 1, SLICE_SIZES = 2, EXIT = 3;
     protected final String[] dirIncludeSet = System.getProperty("sInclude", "").split(":");
     protected String graphType;
+    protected TypeSolver typeSolver;
 
     public void benchmark() {
         // Obtain parameters
@@ -50,10 +56,10 @@ public class BenchSC {
         File sliceBenchTime = new File(outputPrefix + "sliceBenchTime.out");
 
         // Configure JavaParser
-        StaticJavaParser.getConfiguration().setAttributeComments(false);
-        StaticTypeSolver.addTypeSolverJRE();
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver(true));
         for (String directory : dirIncludeSet)
-            StaticTypeSolver.addTypeSolver(new JavaParserTypeSolver(directory));
+            typeSolver.add(new JavaParserTypeSolver(directory));
+        this.typeSolver = typeSolver;
 
         while (true) {
             switch (selectOption()) {
@@ -74,8 +80,8 @@ public class BenchSC {
                         System.out.printf("There are %d real nodes SCs", findRealSCs(baseSDG).size());
                         System.exit(0);
                         for (SlicingCriterion sc : baseCriteria) {
-                            int baseNodes = new OriginalJSysDGSlicingAlgorithm((JSysDG) baseSDG).traverse(sc.findNode(baseSDG)).getGraphNodes().size();
-                            int benchNodes = baseSDG.slice(sc).getGraphNodes().size();
+                            int baseNodes = new OriginalJSysDGSlicingAlgorithm((JSysDG) baseSDG).traverse(sc.findNode(baseSDG)).size();
+                            int benchNodes = baseSDG.slice(sc).size();
                             pw.printf("\"%s\",%d,%d\n", sc, baseNodes, benchNodes);
                         }
                     } catch (FileNotFoundException e) {
@@ -86,6 +92,7 @@ public class BenchSC {
                     try {
                         graphType = baselineGraph;
                         SDG sdg1 = buildGraph();
+                        sdg1.freeze();
                         try (PrintWriter pw = new PrintWriter(sliceBaseTime)) {
                             pw.println("# SC id, SC time sequence");
                             for (SlicingCriterion sc : findSCs(sdg1))
@@ -93,6 +100,7 @@ public class BenchSC {
                         }
                         graphType = benchGraph;
                         SDG sdg2 = buildGraph();
+                        sdg2.freeze();
                         try (PrintWriter pw = new PrintWriter(sliceBenchTime)) {
                             pw.println("# SC id, SC time sequence");
                             for (SlicingCriterion sc : findSCs(sdg2))
@@ -122,10 +130,9 @@ public class BenchSC {
     protected SDG buildGraph() {
         try {
             // Build the SDG
-            Set<CompilationUnit> units = new NodeHashSet<>();
+            AnalysisContext context = new AnalysisContext(typeSolver);
             List<Problem> problems = new LinkedList<>();
-            for (File file : (Iterable<File>) findAllJavaFiles(dirIncludeSet)::iterator)
-                parse(file, units, problems);
+            NodeList<CompilationUnit> units = parseFiles(context.newParserConfiguration().setAttributeComments(false), problems);
             if (!problems.isEmpty()) {
                 for (Problem p : problems)
                     System.out.println(" * " + p.getVerboseMessage());
@@ -133,42 +140,23 @@ public class BenchSC {
             }
 
             SDG sdg = createGraph(graphType);
-            sdg.build(new NodeList<>(units));
+            sdg.setContext(context);
+            sdg.build(units);
             return sdg;
         } catch (ParseException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void parse(File file, Set<CompilationUnit> units, List<Problem> problems) {
+    /** Parse every Java file in the included directories, in parallel. */
+    protected NodeList<CompilationUnit> parseFiles(ParserConfiguration configuration, List<Problem> problems) {
+        List<Path> paths = new LinkedList<>();
+        for (String directory : dirIncludeSet)
+            paths.add(Path.of(directory));
         try {
-            units.add(StaticJavaParser.parse(file));
-        } catch (FileNotFoundException e) {
-            problems.add(new Problem(e.getLocalizedMessage(), null, e));
-        }
-    }
-
-    protected Stream<File> findAllJavaFiles(String[] files) {
-        Stream.Builder<File> builder = Stream.builder();
-        for (String fileName : files) {
-            File file = new File(fileName);
-            if (file.isDirectory())
-                findAllJavaFiles(file, builder);
-            else
-                builder.accept(file);
-        }
-        return builder.build();
-    }
-
-    protected void findAllJavaFiles(File directory, Stream.Builder<File> builder) {
-        File[] files = directory.listFiles();
-        if (files == null)
-            return;
-        for (File f : files) {
-            if (f.isDirectory())
-                findAllJavaFiles(f, builder);
-            else if (f.getName().endsWith(".java"))
-                builder.accept(f);
+            return new SourceParser(configuration).parse(SourceParser.findJavaFiles(paths), problems);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -1,9 +1,11 @@
 package es.upv.mist.slicing.cli;
 
-import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.comments.BlockComment;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import es.upv.mist.slicing.graphs.augmented.ASDG;
 import es.upv.mist.slicing.graphs.augmented.PSDG;
 import es.upv.mist.slicing.graphs.cfg.CFG;
@@ -12,7 +14,7 @@ import es.upv.mist.slicing.graphs.sdg.SDG;
 import es.upv.mist.slicing.slicing.FileLineSlicingCriterion;
 import es.upv.mist.slicing.slicing.Slice;
 import es.upv.mist.slicing.slicing.SlicingCriterion;
-import es.upv.mist.slicing.utils.StaticTypeSolver;
+import es.upv.mist.slicing.utils.AnalysisContext;
 import org.apache.commons.cli.*;
 
 import java.io.File;
@@ -85,13 +87,16 @@ public class PHPSlice {
 
     public void slice() throws ParseException, IOException {
         // Configure JavaParser
-        StaticTypeSolver.addTypeSolverJRE();
-        StaticJavaParser.getConfiguration().setAttributeComments(false);
+        AnalysisContext context = new AnalysisContext(new ReflectionTypeSolver(true));
+        JavaParser parser = new JavaParser(context.newParserConfiguration().setAttributeComments(false));
 
         // Build the SDG
         NodeList<CompilationUnit> units = new NodeList<>();
         try {
-            units.add(StaticJavaParser.parse(scFile));
+            ParseResult<CompilationUnit> result = parser.parse(scFile);
+            if (!result.isSuccessful())
+                throw new ParseException("Could not parse " + scFile + ": " + result.getProblems());
+            units.add(result.getResult().orElseThrow());
         } catch (FileNotFoundException e) {
             throw new ParseException(e.getMessage());
         }
@@ -105,6 +110,7 @@ public class PHPSlice {
             default:
                 throw new IllegalArgumentException("Unknown type of graph. Available graphs are SDG, ASDG, PSDG, ESSDG");
         }
+        sdg.setContext(context);
         sdg.build(units);
 
         if (scLine < 1)
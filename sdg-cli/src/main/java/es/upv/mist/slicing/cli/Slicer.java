@@ -1,33 +1,37 @@
 package es.upv.mist.slicing.cli;
 
+import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.Problem;
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.comments.BlockComment;
 import com.github.javaparser.ast.nodeTypes.NodeWithName;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import es.upv.mist.slicing.graphs.augmented.ASDG;
 import es.upv.mist.slicing.graphs.augmented.PSDG;
 import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
 import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
 import es.upv.mist.slicing.graphs.sdg.SDG;
+import es.upv.mist.slicing.graphs.sdg.SDGSnapshot;
 import es.upv.mist.slicing.slicing.FileLineSlicingCriterion;
 import es.upv.mist.slicing.slicing.Slice;
 import es.upv.mist.slicing.slicing.SlicingCriterion;
-import es.upv.mist.slicing.utils.NodeHashSet;
-import es.upv.mist.slicing.utils.StaticTypeSolver;
+import es.upv.mist.slicing.utils.AnalysisContext;
+import es.upv.mist.slicing.utils.SourceParser;
 import org.apache.commons.cli.*;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 public class Slicer {
     protected static final String HELP_HEADER = "Java SDG Slicer: extract a slice from a Java program. At least" +
@@ -86,6 +90,18 @@ public class Slicer {
                 .hasArg().argName("graph-type")
                 .desc("The type of graph to be built. Available options are SDG, ASDG, PSDG, ESSDG.")
                 .build());
+        OPTIONS.addOption(Option
+                .builder().longOpt("save-graph")
+                .hasArg().argName("snapshot-file")
+                .desc("Stores the graph in the given file after building it, so that it can be sliced again with" +
+                        " \"--load-graph\". Only graphs of type SDG can be stored.")
+                .build());
+        OPTIONS.addOption(Option
+                .builder().longOpt("load-graph")
+                .hasArg().argName("snapshot-file")
+                .desc("Slices a graph stored with \"--save-graph\" instead of parsing the program and building" +
+                        " the graph. The options \"-i\" and \"-t\" are ignored.")
+                .build());
         OPTIONS.addOption(Option
                 .builder("h").longOpt("help")
                 .desc("Shows this text")
@@ -132,6 +148,10 @@ public class Slicer {
                 dirIncludeSet.add(dir);
             }
         }
+
+        if (cliOpts.hasOption("save-graph") && !cliOpts.getOptionValue("type", "SDG").equals("SDG"))
+            throw new ParseException("Only graphs of type SDG can be stored with \"--save-graph\", not "
+                    + cliOpts.getOptionValue("type"));
     }
 
     private void setScFile(String fileName) throws ParseException {
@@ -172,22 +192,20 @@ public class Slicer {
     }
 
     public void slice() throws ParseException {
-        // Configure JavaParser
-        StaticJavaParser.getConfiguration().setAttributeComments(false);
+        if (cliOpts.hasOption("load-graph")) {
+            sliceSnapshot(new File(cliOpts.getOptionValue("load-graph")));
+            return;
+        }
         Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Configuring JavaParser");
-        StaticTypeSolver.addTypeSolverJRE();
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver(true));
         for (File directory : dirIncludeSet)
-            StaticTypeSolver.addTypeSolver(new JavaParserTypeSolver(directory));
+            typeSolver.add(new JavaParserTypeSolver(directory));
+        AnalysisContext context = new AnalysisContext(typeSolver);
 
         // Build the SDG
         Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Parsing files");
-        Set<CompilationUnit> units = new NodeHashSet<>();
         List<Problem> problems = new LinkedList<>();
-        boolean scFileFound = false;
-        for (File file : (Iterable<File>) findAllJavaFiles(dirIncludeSet)::iterator)
-            scFileFound |= parse(file, units, problems);
-        if (!scFileFound)
-            parse(scFile, units, problems);
+        NodeList<CompilationUnit> units = parseFiles(context.newParserConfiguration().setAttributeComments(false), problems);
         if (!problems.isEmpty()) {
             for (Problem p : problems)
                 System.out.println(" * " + p.getVerboseMessage());
@@ -205,7 +223,16 @@ public class Slicer {
                 throw new IllegalArgumentException("Unknown type of graph. Available graphs are SDG, ASDG, PSDG, ESSDG");
         }
         Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Building the SDG");
-        sdg.build(new NodeList<>(units));
+        sdg.setContext(context);
+        sdg.build(units);
+        if (cliOpts.hasOption("save-graph")) {
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Storing the SDG");
+            try {
+                SDGSnapshot.save(sdg, Path.of(cliOpts.getOptionValue("save-graph")));
+            } catch (IOException e) {
+                throw new ParseException("Could not store the graph: " + e.getLocalizedMessage());
+            }
+        }
 
         // Slice the SDG
         Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Searching for criterion and slicing");
@@ -214,7 +241,26 @@ public class Slicer {
 
         // Convert the slice to code and output the result to `outputDir`
         Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Printing slice to files");
-        for (CompilationUnit cu : slice.toAst()) {
+        printSlice(slice.toAst());
+    }
+
+    /** Slice a graph stored with {@link SDGSnapshot#save(SDG, Path)}, parsing only the files that contain the slice. */
+    protected void sliceSnapshot(File snapshotFile) throws ParseException {
+        Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Loading the SDG");
+        try {
+            SDGSnapshot snapshot = SDGSnapshot.load(snapshotFile.toPath());
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Searching for criterion and slicing");
+            BitSet slice = snapshot.slice(snapshot.findNodes(scFile, scLine, scVar));
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Printing slice to files");
+            printSlice(snapshot.toAst(slice));
+        } catch (IOException e) {
+            throw new ParseException("Could not load the graph: " + e.getLocalizedMessage());
+        }
+    }
+
+    /** Output each compilation unit of a slice to `outputDir`. */
+    protected void printSlice(NodeList<CompilationUnit> units) {
+        for (CompilationUnit cu : units) {
             if (cu.getStorage().isEmpty())
                 throw new IllegalStateException("A synthetic CompilationUnit was discovered, with no file associated to it.");
             Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Printing slice for " + cu.getStorage().get().getFileName());
@@ -231,40 +277,16 @@ public class Slicer {
         }
     }
 
-    private boolean parse(File file, Set<CompilationUnit> units, List<Problem> problems) {
+    /** Parse the criterion's file and every Java file in the included directories, in parallel. */
+    protected NodeList<CompilationUnit> parseFiles(ParserConfiguration configuration, List<Problem> problems) throws ParseException {
+        List<Path> paths = new LinkedList<>();
+        for (File file : dirIncludeSet)
+            paths.add(file.toPath());
+        paths.add(scFile.toPath());
         try {
-            units.add(StaticJavaParser.parse(file));
-        } catch (FileNotFoundException e) {
-            problems.add(new Problem(e.getLocalizedMessage(), null, e));
-        }
-        return Objects.equals(file.getAbsoluteFile(), scFile.getAbsoluteFile());
-    }
-
-    protected Stream<File> findAllJavaFiles(Collection<File> files) {
-        Stream.Builder<File> builder = Stream.builder();
-        for (File file : files)
-            if (file.isDirectory())
-                findAllJavaFiles(file, builder);
-            else
-                builder.accept(file);
-        return builder.build();
-    }
-
-    protected Stream<File> findAllJavaFiles(File directory) {
-        Stream.Builder<File> builder = Stream.builder();
-        findAllJavaFiles(directory, builder);
-        return builder.build();
-    }
-
-    protected void findAllJavaFiles(File directory, Stream.Builder<File> builder) {
-        File[] files = directory.listFiles();
-        if (files == null)
-            return;
-        for (File f : files) {
-            if (f.isDirectory())
-                findAllJavaFiles(f, builder);
-            else if (f.getName().endsWith(".java"))
-                builder.accept(f);
+            return new SourceParser(configuration).parse(SourceParser.findJavaFiles(paths), problems);
+        } catch (IOException e) {
+            throw new ParseException("Could not list the files to parse: " + e.getLocalizedMessage());
         }
     }
 
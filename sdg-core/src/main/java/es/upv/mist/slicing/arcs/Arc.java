@@ -19,6 +19,8 @@ import java.util.Objects;
  * and {@link SDG SDG} inherit. */
 public abstract class Arc extends DefaultEdge {
     protected final String label;
+    /** The kind of this arc, computed on first use. */
+    private ArcKind kind;
 
     protected Arc() {
         this(null);
@@ -32,6 +34,19 @@ public abstract class Arc extends DefaultEdge {
         return label;
     }
 
+    /** The kind of this arc, which summarizes its type checks. The arc must be part of a graph.
+     *  @see ArcKind#of(Arc) */
+    public final ArcKind getKind() {
+        if (kind == null)
+            kind = ArcKind.of(this);
+        return kind;
+    }
+
+    /** Discard the cached kind of this arc, after a change that may alter it. */
+    protected void resetKind() {
+        kind = null;
+    }
+
     // =========================== CFG ===========================
 
     /** @see ControlFlowArc */
@@ -0,0 +1,132 @@
+package es.upv.mist.slicing.arcs;
+
+import es.upv.mist.slicing.arcs.cfg.ControlFlowArc;
+import es.upv.mist.slicing.arcs.pdg.*;
+import es.upv.mist.slicing.arcs.sdg.CallArc;
+import es.upv.mist.slicing.arcs.sdg.ParameterInOutArc;
+import es.upv.mist.slicing.arcs.sdg.ReturnArc;
+import es.upv.mist.slicing.arcs.sdg.SummaryArc;
+
+/**
+ * The kind of an {@link Arc}, which determines the result of its type checks ({@code is*Arc()}).
+ * Arcs whose behaviour depends on the nodes they connect (e.g. {@link ParameterInOutArc}) or on a
+ * flag (e.g. {@link ControlDependencyArc#isPPDGExclusive()}) are split into several kinds.
+ * The ordinal of each kind fits in a byte, and sets of kinds are represented as bitmasks (see {@link #mask()}).
+ */
+public enum ArcKind {
+    CONTROL_FLOW,
+    NON_EXECUTABLE_CONTROL_FLOW,
+    CONTROL_DEPENDENCY,
+    PPDG_EXCLUSIVE_CONTROL_DEPENDENCY,
+    CONDITIONAL_CONTROL_DEPENDENCY_CC1,
+    CONDITIONAL_CONTROL_DEPENDENCY_CC2,
+    DATA_DEPENDENCY,
+    FLOW_DEPENDENCY,
+    OBJECT_FLOW_DEPENDENCY,
+    TOTAL_DEFINITION_DEPENDENCE,
+    STRUCTURAL,
+    CALL,
+    PARAMETER_INPUT,
+    PARAMETER_OUTPUT,
+    PARAMETER,
+    OBJECT_FLOW_PARAMETER_INPUT,
+    OBJECT_FLOW_PARAMETER_OUTPUT,
+    OBJECT_FLOW_PARAMETER,
+    RETURN,
+    SUMMARY,
+    OTHER;
+
+    /** Control dependency arcs, including conditional ones. */
+    public static final int CONTROL_DEPENDENCIES = maskOf(CONTROL_DEPENDENCY, PPDG_EXCLUSIVE_CONTROL_DEPENDENCY,
+            CONDITIONAL_CONTROL_DEPENDENCY_CC1, CONDITIONAL_CONTROL_DEPENDENCY_CC2);
+    /** @see Arc#isUnconditionalControlDependencyArc() */
+    public static final int UNCONDITIONAL_CONTROL_DEPENDENCIES = maskOf(CONTROL_DEPENDENCY, PPDG_EXCLUSIVE_CONTROL_DEPENDENCY);
+    /** @see Arc#isConditionalControlDependencyArc() */
+    public static final int CONDITIONAL_CONTROL_DEPENDENCIES = maskOf(CONDITIONAL_CONTROL_DEPENDENCY_CC1,
+            CONDITIONAL_CONTROL_DEPENDENCY_CC2);
+    /** @see Arc#isInterproceduralInputArc() */
+    public static final int INTERPROCEDURAL_INPUTS = maskOf(CALL, PARAMETER_INPUT, OBJECT_FLOW_PARAMETER_INPUT);
+    /** @see Arc#isInterproceduralOutputArc() */
+    public static final int INTERPROCEDURAL_OUTPUTS = maskOf(PARAMETER_OUTPUT, OBJECT_FLOW_PARAMETER_OUTPUT, RETURN);
+    /** @see es.upv.mist.slicing.arcs.sdg.InterproceduralArc */
+    public static final int INTERPROCEDURAL = INTERPROCEDURAL_INPUTS | INTERPROCEDURAL_OUTPUTS
+            | maskOf(PARAMETER, OBJECT_FLOW_PARAMETER);
+    /** @see Arc#isObjectFlow() */
+    public static final int OBJECT_FLOW = maskOf(OBJECT_FLOW_DEPENDENCY, OBJECT_FLOW_PARAMETER_INPUT,
+            OBJECT_FLOW_PARAMETER_OUTPUT, OBJECT_FLOW_PARAMETER);
+
+    private static final ArcKind[] VALUES = values();
+
+    /** The bit that represents this kind in a set of kinds. */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /** Whether this kind is part of the given set of kinds. */
+    public boolean in(int mask) {
+        return (mask & mask()) != 0;
+    }
+
+    /** Obtain the set of kinds that contains exactly the given ones. */
+    public static int maskOf(ArcKind... kinds) {
+        int mask = 0;
+        for (ArcKind kind : kinds)
+            mask |= kind.mask();
+        return mask;
+    }
+
+    /** Whether the given set of kinds includes the kind represented by the given byte. */
+    public static boolean contains(int mask, byte kind) {
+        return (mask & (1 << kind)) != 0;
+    }
+
+    /** The value that represents this kind in a byte column. */
+    public byte toByte() {
+        return (byte) ordinal();
+    }
+
+    /** Obtain the kind represented by the given byte. */
+    public static ArcKind fromByte(byte b) {
+        return VALUES[b];
+    }
+
+    /** Obtain the kind of the given arc. As some kinds depend on the nodes connected by the arc,
+     *  it must be part of a graph. */
+    public static ArcKind of(Arc arc) {
+        if (arc instanceof ControlFlowArc)
+            return arc.isNonExecutableControlFlowArc() ? NON_EXECUTABLE_CONTROL_FLOW : CONTROL_FLOW;
+        if (arc instanceof ConditionalControlDependencyArc.CC1)
+            return CONDITIONAL_CONTROL_DEPENDENCY_CC1;
+        if (arc instanceof ConditionalControlDependencyArc.CC2)
+            return CONDITIONAL_CONTROL_DEPENDENCY_CC2;
+        if (arc instanceof ControlDependencyArc)
+            return ((ControlDependencyArc) arc).isPPDGExclusive() ? PPDG_EXCLUSIVE_CONTROL_DEPENDENCY : CONTROL_DEPENDENCY;
+        if (arc instanceof DataDependencyArc)
+            return DATA_DEPENDENCY;
+        if (arc instanceof FlowDependencyArc)
+            return FLOW_DEPENDENCY;
+        if (arc instanceof ObjectFlowDependencyArc)
+            return OBJECT_FLOW_DEPENDENCY;
+        if (arc instanceof TotalDefinitionDependenceArc)
+            return TOTAL_DEFINITION_DEPENDENCE;
+        if (arc instanceof StructuralArc)
+            return STRUCTURAL;
+        if (arc instanceof CallArc)
+            return CALL;
+        if (arc instanceof ParameterInOutArc.ObjectFlow) {
+            if (arc.isInterproceduralInputArc())
+                return OBJECT_FLOW_PARAMETER_INPUT;
+            return arc.isInterproceduralOutputArc() ? OBJECT_FLOW_PARAMETER_OUTPUT : OBJECT_FLOW_PARAMETER;
+        }
+        if (arc instanceof ParameterInOutArc) {
+            if (arc.isInterproceduralInputArc())
+                return PARAMETER_INPUT;
+            return arc.isInterproceduralOutputArc() ? PARAMETER_OUTPUT : PARAMETER;
+        }
+        if (arc instanceof ReturnArc)
+            return RETURN;
+        if (arc instanceof SummaryArc)
+            return SUMMARY;
+        return OTHER;
+    }
+}
@@ -17,6 +17,7 @@ public class ControlDependencyArc extends Arc {
      * @see #isPPDGExclusive() */
     public void setPPDGExclusive() {
         this.ppdgExclusive = true;
+        resetKind();
     }
 
     /** Whether this arc appears in the PPDG or subsequent graphs, but not in the APDG. */
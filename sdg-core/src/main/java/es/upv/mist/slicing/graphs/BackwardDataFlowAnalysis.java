@@ -1,13 +1,20 @@
 package es.upv.mist.slicing.graphs;
 
 import es.upv.mist.slicing.utils.ASTUtils;
+import es.upv.mist.slicing.utils.Utils;
 import org.jgrapht.graph.AbstractGraph;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A fixed-point analysis algorithm that propagates changes backwards through a given graph.
+ * <br/>
+ * The graph is split into strongly connected components, which are analyzed in reverse topological
+ * order: when a component is analyzed, the values of all the vertices it may depend on are already final.
+ * Inside each component, a work-list without duplicates is iterated until a local fixed point is reached.
+ * Independent components may be analyzed in parallel (see {@link #setParallelism(int)}); in that case,
+ * {@link #compute(Object, Set)} may only modify the state associated to the vertex it receives.
  * @param <V> The graph's vertices type.
  * @param <E> The graph's edges type.
  * @param <D> The value to be computed for each vertex.
@@ -17,34 +24,70 @@ public abstract class BackwardDataFlowAnalysis<V, E, D> {
     /** The graph on which this algorithm iterates. */
     protected final AbstractGraph<V, E> graph;
     /** A mapping of the latest value computed per node. */
-    protected final Map<V, D> vertexDataMap = new HashMap<>();
+    protected final Map<V, D> vertexDataMap = new ConcurrentHashMap<>();
 
     protected boolean built = false;
+    protected int parallelism = 1;
 
     public BackwardDataFlowAnalysis(AbstractGraph<V, E> graph) {
         this.graph = graph;
     }
 
+    /** Set the maximum number of components that may be analyzed at the same time. It must be set before the analysis. */
+    public void setParallelism(int parallelism) {
+        if (built)
+            throw new IllegalStateException("The analysis has already been performed");
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism level must be positive");
+        this.parallelism = parallelism;
+    }
+
     /** Iterate through the graph until a fixed-point is reached.
      *  This method only performs the analysis on its first call. */
     public void analyze() {
         assert !built;
-        List<V> workList = new LinkedList<>(graph.vertexSet());
-        graph.vertexSet().forEach(v -> vertexDataMap.put(v, initialValue(v)));
+        new ComponentScheduler<>(graph).run(parallelism, this::analyzeComponent);
+        built = true;
+    }
+
+    /**
+     * Iterate through a strongly connected component until a fixed-point is reached. The values of the
+     * vertices outside the component that it depends on must be final. {@link #compute(Object, Set)} may
+     * depend on the value stored for the vertex itself, so each vertex is computed at least once after
+     * its value last changed.
+     */
+    protected void analyzeComponent(List<V> component) {
+        Set<V> componentSet = new HashSet<>(component);
+        for (V vertex : component)
+            vertexDataMap.put(vertex, initialValue(vertex));
+        Set<V> workList = new LinkedHashSet<>(component);
+        Set<V> unconfirmed = new LinkedHashSet<>(component);
         while (!workList.isEmpty()) {
-            List<V> newWorkList = new LinkedList<>();
-            for (V vertex : workList) {
-                Set<V> mayAffectVertex = graph.outgoingEdgesOf(vertex).stream()
-                        .map(graph::getEdgeTarget).collect(Collectors.toCollection(ASTUtils::newIdentityHashSet));
-                D newValue = compute(vertex, mayAffectVertex);
-                if (!dataMatch(vertexDataMap.get(vertex), newValue)) {
-                    vertexDataMap.put(vertex, newValue);
-                    graph.incomingEdgesOf(vertex).stream().map(graph::getEdgeSource).forEach(newWorkList::add);
+            while (!workList.isEmpty()) {
+                V vertex = Utils.setPop(workList);
+                D newValue = compute(vertex, successorsOf(vertex));
+                if (dataMatch(vertexDataMap.get(vertex), newValue)) {
+                    unconfirmed.remove(vertex);
+                    continue;
+                }
+                vertexDataMap.put(vertex, newValue);
+                unconfirmed.add(vertex);
+                for (E edge : graph.incomingEdgesOf(vertex)) {
+                    V source = graph.getEdgeSource(edge);
+                    if (componentSet.contains(source))
+                        workList.add(source);
                 }
             }
-            workList = newWorkList;
+            workList.addAll(unconfirmed);
         }
-        built = true;
+    }
+
+    /** Obtain the vertices that may affect the value of the given one. */
+    protected Set<V> successorsOf(V vertex) {
+        Set<V> successors = ASTUtils.newIdentityHashSet();
+        for (E edge : graph.outgoingEdgesOf(vertex))
+            successors.add(graph.getEdgeTarget(edge));
+        return successors;
     }
 
     /** Checks whether the computed value has changed or not. */
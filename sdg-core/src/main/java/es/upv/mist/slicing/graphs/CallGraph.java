@@ -40,6 +40,12 @@ import java.util.stream.Stream;
 public class CallGraph extends DirectedPseudograph<CallGraph.Vertex, CallGraph.Edge<?>> implements Buildable<NodeList<CompilationUnit>> {
     private final Map<CallableDeclaration<?>, CFG> cfgMap;
     private final ClassGraph classGraph;
+    /** The vertices of this graph, indexed by the signature of their declaration. */
+    private final Map<String, List<Vertex>> vertexIndex = new HashMap<>();
+    /** The vertices of this graph, indexed by the identity of their declaration. */
+    private final Map<CallableDeclaration<?>, Vertex> declarationIndex = new IdentityHashMap<>();
+    /** The edges of this graph, indexed by the type and range of their call. */
+    private final Map<Graph.ASTKey, List<Edge<?>>> callIndex = new HashMap<>();
 
     private boolean built = false;
 
@@ -51,11 +57,19 @@ public class CallGraph extends DirectedPseudograph<CallGraph.Vertex, CallGraph.E
 
     /** Resolve a call to all its possible declarations, by using the call AST nodes stored on the edges. */
     public Stream<CallableDeclaration<?>> getCallTargets(Resolvable<? extends ResolvedMethodLikeDeclaration> call) {
-        return edgeSet().stream()
-                .filter(e -> ASTUtils.equalsWithRange(e.getCall(), call))
-                .map(this::getEdgeTarget)
-                .map(Vertex::getDeclaration)
-                .map(decl -> (CallableDeclaration<?>) decl);
+        return Arrays.stream(findCallTargets(call));
+    }
+
+    /** Resolve a call to all its possible declarations, in the order in which the edges were added.
+     *  @see #getCallTargets(Resolvable) */
+    public CallableDeclaration<?>[] findCallTargets(Resolvable<? extends ResolvedMethodLikeDeclaration> call) {
+        List<Edge<?>> edges = callIndex.getOrDefault(new Graph.ASTKey((Node) call), Collections.emptyList());
+        CallableDeclaration<?>[] targets = new CallableDeclaration<?>[edges.size()];
+        int size = 0;
+        for (Edge<?> edge : edges)
+            if (ASTUtils.equalsWithRange(edge.getCall(), call))
+                targets[size++] = getEdgeTarget(edge).getDeclaration();
+        return size == targets.length ? targets : Arrays.copyOf(targets, size);
     }
 
     /** Locates the calls to a given declaration. The result is any node that represents a call. */
@@ -87,11 +101,132 @@ public class CallGraph extends DirectedPseudograph<CallGraph.Vertex, CallGraph.E
                 .map(Vertex::getDeclaration);
     }
 
-    /** Locate the vertex that represents in this graph the given declaration. */
-    protected Vertex findVertexByDeclaration(CallableDeclaration<?> declaration) {
-        return vertexSet().stream()
-                .filter(v -> v.matches(declaration))
-                .findFirst().orElseThrow();
+    /** Locate the vertex that represents in this graph the given declaration.
+     *  @throws NoSuchElementException If there is no such vertex. */
+    public Vertex findVertexByDeclaration(CallableDeclaration<?> declaration) {
+        Vertex vertex = declarationIndex.get(declaration);
+        if (vertex != null)
+            return vertex;
+        for (Vertex v : vertexIndex.getOrDefault(declaration.getSignature().toString(), Collections.emptyList()))
+            if (v.matches(declaration))
+                return v;
+        throw new NoSuchElementException("No vertex for " + ASTUtils.getDeclarationAsString(declaration));
+    }
+
+    @Override
+    public boolean addVertex(Vertex vertex) {
+        if (!super.addVertex(vertex))
+            return false;
+        vertexIndex.computeIfAbsent(vertex.signature, k -> new ArrayList<>(1)).add(vertex);
+        declarationIndex.putIfAbsent(vertex.declaration, vertex);
+        return true;
+    }
+
+    @Override
+    public boolean removeVertex(Vertex vertex) {
+        // The vertex's edges are removed through removeEdge(Edge)
+        if (!super.removeVertex(vertex))
+            return false;
+        vertexIndex.get(vertex.signature).remove(vertex);
+        declarationIndex.remove(vertex.declaration, vertex);
+        return true;
+    }
+
+    @Override
+    public boolean addEdge(Vertex source, Vertex target, Edge<?> edge) {
+        if (!super.addEdge(source, target, edge))
+            return false;
+        callIndex.computeIfAbsent(new Graph.ASTKey((Node) edge.getCall()), k -> new ArrayList<>(1)).add(edge);
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(Edge<?> edge) {
+        if (!super.removeEdge(edge))
+            return false;
+        Graph.ASTKey key = new Graph.ASTKey((Node) edge.getCall());
+        List<Edge<?>> list = callIndex.get(key);
+        list.remove(edge);
+        if (list.isEmpty())
+            callIndex.remove(key);
+        return true;
+    }
+
+    /** Remove from the index the edges of the given calls, whose range is about to change. They must
+     *  be indexed again with {@link #addCallsToIndex(Collection)} once the ranges have been changed.
+     *  @return The edges removed from the index. */
+    public List<Edge<?>> removeCallsFromIndex(Collection<? extends Node> calls) {
+        List<Edge<?>> removed = new ArrayList<>();
+        for (Node call : calls) {
+            Graph.ASTKey key = new Graph.ASTKey(call);
+            List<Edge<?>> list = callIndex.get(key);
+            if (list == null)
+                continue;
+            for (Iterator<Edge<?>> it = list.iterator(); it.hasNext(); ) {
+                Edge<?> edge = it.next();
+                if (edge.getCall() == call) {
+                    removed.add(edge);
+                    it.remove();
+                }
+            }
+            if (list.isEmpty())
+                callIndex.remove(key);
+        }
+        return removed;
+    }
+
+    /** Index the given edges again, after the range of their calls has changed.
+     *  @see #removeCallsFromIndex(Collection) */
+    public void addCallsToIndex(Collection<Edge<?>> edges) {
+        for (Edge<?> edge : edges)
+            callIndex.computeIfAbsent(new Graph.ASTKey((Node) edge.getCall()), k -> new ArrayList<>(1)).add(edge);
+    }
+
+    /** Replace the declaration of a vertex with a new version of it, which must have the same signature and
+     *  be placed in the same type. The edges of the calls to it are kept, and those of the calls it contains
+     *  are built again (see {@link #rebuildEdges(CallableDeclaration)}).
+     *  @return The edges removed, with the vertex that each of them targeted. */
+    public Map<Edge<?>, Vertex> replaceDeclaration(CallableDeclaration<?> oldDeclaration, CallableDeclaration<?> newDeclaration) {
+        Vertex vertex = findVertexByDeclaration(oldDeclaration);
+        assert vertex.signature.equals(newDeclaration.getSignature().toString());
+        declarationIndex.remove(oldDeclaration);
+        vertex.declaration = newDeclaration;
+        declarationIndex.put(newDeclaration, vertex);
+        return rebuildEdges(newDeclaration);
+    }
+
+    /** Build again the edges of the calls contained in the given declaration, after its CFG has been replaced
+     *  in the map of CFGs, or add them if it is a new vertex. Calls in the initializers of the fields of its type
+     *  are included for constructors, and those of the declarations nested in it are not.
+     *  @return The edges removed, with the vertex that each of them targeted. */
+    public Map<Edge<?>, Vertex> rebuildEdges(CallableDeclaration<?> declaration) {
+        Vertex vertex = findVertexByDeclaration(declaration);
+        Map<Edge<?>, Vertex> removed = new LinkedHashMap<>();
+        for (Edge<?> edge : List.copyOf(outgoingEdgesOf(vertex))) {
+            removed.put(edge, getEdgeTarget(edge));
+            removeEdge(edge);
+        }
+        new EdgeBuilder(declaration).visitDeclaration();
+        return removed;
+    }
+
+    /** Resolve the calls contained in the given declaration, without adding them to this graph or requiring
+     *  its CFG. Calls in the initializers of the fields of its type are included for constructors.
+     *  @return The declarations that may be called, as found by the resolution of each call. */
+    public Set<CallableDeclaration<?>> findCallees(CallableDeclaration<?> declaration) {
+        Set<CallableDeclaration<?>> callees = ASTUtils.newIdentityHashSet();
+        new EdgeBuilder(declaration) {
+            @Override
+            protected void createNormalEdge(CallableDeclaration<?> decl, Resolvable<? extends ResolvedMethodLikeDeclaration> call) {
+                callees.add(decl);
+            }
+        }.visitDeclaration();
+        return callees;
+    }
+
+    /** Whether there is a vertex for the given declaration (compared by identity) in this graph. */
+    public boolean containsDeclaration(CallableDeclaration<?> declaration) {
+        return declarationIndex.containsKey(declaration);
     }
 
     @Override
@@ -136,126 +271,158 @@ public class CallGraph extends DirectedPseudograph<CallGraph.Vertex, CallGraph.E
 
     /** Find the calls to methods and constructors (edges) in the given list of compilation units. */
     protected void buildEdges(NodeList<CompilationUnit> arg) {
-        arg.accept(new VoidVisitorAdapter<Void>() {
-            private final Deque<TypeDeclaration<?>> typeStack = new LinkedList<>();
-            private final Deque<CallableDeclaration<?>> declStack = new LinkedList<>();
+        arg.accept(new EdgeBuilder(), null);
+    }
 
-            @Override
-            public void visit(ClassOrInterfaceDeclaration n, Void arg) {
-                typeStack.push(n);
-                super.visit(n, arg);
-                typeStack.pop();
-            }
+    /** Creates the edges of the calls found while visiting a part of the program. */
+    protected class EdgeBuilder extends VoidVisitorAdapter<Void> {
+        protected final Deque<TypeDeclaration<?>> typeStack = new LinkedList<>();
+        protected final Deque<CallableDeclaration<?>> declStack = new LinkedList<>();
+        /** The only declaration whose calls are visited, or {@code null} to visit all of them. */
+        protected final CallableDeclaration<?> root;
 
-            @Override
-            public void visit(EnumDeclaration n, Void arg) {
-                typeStack.push(n);
-                super.visit(n, arg);
-                typeStack.pop();
-            }
+        public EdgeBuilder() {
+            this(null);
+        }
 
-            // ============ Method declarations ===========
-            // There are some locations not considered, which may lead to an error in the stack.
-            // 1. Method calls in non-static field initializations are assigned to all constructors of that class
-            // 2. Method calls in static field initializations are assigned to the static block of that class
+        public EdgeBuilder(CallableDeclaration<?> root) {
+            this.root = root;
+        }
 
-            @Override
-            public void visit(MethodDeclaration n, Void arg) {
-                declStack.push(n);
-                super.visit(n, arg);
-                declStack.pop();
-            }
+        /** Visit the calls of the root declaration, and those of the initializers of its type if it is a constructor. */
+        protected void visitDeclaration() {
+            TypeDeclaration<?> type = root.findAncestor(TypeDeclaration.class).orElseThrow();
+            typeStack.push(type);
+            root.accept(this, null);
+            if (root.isConstructorDeclaration())
+                for (FieldDeclaration field : type.getFields())
+                    if (!field.isStatic())
+                        visitInitializer(field, root.asConstructorDeclaration());
+            typeStack.pop();
+        }
 
-            @Override
-            public void visit(ConstructorDeclaration n, Void arg) {
-                declStack.push(n);
-                super.visit(n, arg);
-                declStack.pop();
-            }
+        @Override
+        public void visit(ClassOrInterfaceDeclaration n, Void arg) {
+            typeStack.push(n);
+            super.visit(n, arg);
+            typeStack.pop();
+        }
 
-            // =============== Method calls ===============
-            @Override
-            public void visit(MethodCallExpr n, Void arg) {
-                n.resolve().toAst().ifPresent(decl -> createPolyEdges(decl, n));
-                super.visit(n, arg);
-            }
+        @Override
+        public void visit(EnumDeclaration n, Void arg) {
+            typeStack.push(n);
+            super.visit(n, arg);
+            typeStack.pop();
+        }
 
-            @Override
-            public void visit(ObjectCreationExpr n, Void arg) {
-                n.resolve().toAst().ifPresent(decl -> createNormalEdge(decl, n));
-                super.visit(n, arg);
-            }
+        // ============ Method declarations ===========
+        // There are some locations not considered, which may lead to an error in the stack.
+        // 1. Method calls in non-static field initializations are assigned to all constructors of that class
+        // 2. Method calls in static field initializations are assigned to the static block of that class
 
-            @Override
-            public void visit(ExplicitConstructorInvocationStmt n, Void arg) {
-                n.resolve().toAst().ifPresent(decl -> createNormalEdge(decl, n));
-                super.visit(n, arg);
-            }
+        @Override
+        public void visit(MethodDeclaration n, Void arg) {
+            if (root != null && n != root)
+                return;
+            declStack.push(n);
+            super.visit(n, arg);
+            declStack.pop();
+        }
 
-            protected void createPolyEdges(MethodDeclaration decl, MethodCallExpr call) {
-                // Static calls have no polymorphism, ignore
-                if (decl.isStatic()) {
-                    createNormalEdge(decl, call);
-                    return;
-                }
-                Optional<Expression> scope = call.getScope();
-                // Determine the type of the call's scope
-                Set<? extends TypeDeclaration<?>> dynamicTypes;
-                if (scope.isEmpty()) {
-                    // a) No scope: any class the method is in, or any outer class if the class is not static.
-                    // Early exit: it is easier to find the methods that override the
-                    // detected call than to account for all cases (implicit inner or outer class)
-                    classGraph.overriddenSetOf(decl)
-                            .forEach(methodDecl -> createNormalEdge(methodDecl, call));
-                    return;
-                } else if (scope.get().isThisExpr() && scope.get().asThisExpr().getTypeName().isEmpty()) {
-                    // b) just 'this', the current class and any subclass
-                    dynamicTypes = classGraph.subclassesOf(typeStack.peek());
-                } else if (scope.get().isThisExpr()) {
-                    // c) 'ClassName.this', the given class and any subclass
-                    dynamicTypes = classGraph.subclassesOf(scope.get().asThisExpr().resolve().asClass());
-                } else if (scope.get().isSuperExpr()) {
-                    // d) 'super': start with the parent type and get the first implementation
-                    dynamicTypes = Set.of(classGraph.parentOf(typeStack.peek()).orElseThrow());
-                } else {
-                    // e) others: compute possible dynamic types of the expression (TODO)
-                    dynamicTypes = classGraph.subclassesOf(scope.get().calculateResolvedType().asReferenceType());
-                }
-                // Locate the corresponding methods for each possible dynamic type, they must be available to all
-                // To locate them, use the method signature and search for it in the class graph
-                // Connect to each declaration
-                AtomicInteger edgesCreated = new AtomicInteger();
-                dynamicTypes.stream()
-                        .map(t -> classGraph.findMethodByTypeAndSignature(t, decl))
-                        .collect(Collectors.toCollection(NodeHashSet::new))
-                        .forEach(methodDecl -> {
-                            edgesCreated.getAndIncrement();
-                            createNormalEdge(methodDecl, call);
-                        });
-                assert edgesCreated.get() > 0;
-            }
+        @Override
+        public void visit(ConstructorDeclaration n, Void arg) {
+            if (root != null && n != root)
+                return;
+            declStack.push(n);
+            super.visit(n, arg);
+            declStack.pop();
+        }
 
-            protected void createNormalEdge(CallableDeclaration<?> decl, Resolvable<? extends ResolvedMethodLikeDeclaration> call) {
-                if (declStack.isEmpty() && typeStack.isEmpty())
-                    throw new IllegalStateException("Trying to link call with empty declaration stack! " + decl.getDeclarationAsString() + " : " + call.toString());
-                if (declStack.isEmpty())
-                    addEdge(typeStack.peek(), decl, call);
-                else
-                    addEdge(declStack.peek(), decl, call);
-            }
+        // =============== Method calls ===============
+        @Override
+        public void visit(MethodCallExpr n, Void arg) {
+            n.resolve().toAst().ifPresent(decl -> createPolyEdges(decl, n));
+            super.visit(n, arg);
+        }
 
-            // Other structures
-            @Override
-            public void visit(FieldDeclaration n, Void arg) {
-                if (declStack.isEmpty() && !n.isStatic()) {
-                    for (ConstructorDeclaration cd : typeStack.peek().getConstructors()) {
-                        declStack.push(cd);
-                        super.visit(n, arg);
-                        declStack.pop();
-                    }
-                }
+        @Override
+        public void visit(ObjectCreationExpr n, Void arg) {
+            n.resolve().toAst().ifPresent(decl -> createNormalEdge(decl, n));
+            super.visit(n, arg);
+        }
+
+        @Override
+        public void visit(ExplicitConstructorInvocationStmt n, Void arg) {
+            n.resolve().toAst().ifPresent(decl -> createNormalEdge(decl, n));
+            super.visit(n, arg);
+        }
+
+        protected void createPolyEdges(MethodDeclaration decl, MethodCallExpr call) {
+            // Static calls have no polymorphism, ignore
+            if (decl.isStatic()) {
+                createNormalEdge(decl, call);
+                return;
             }
-        }, null);
+            Optional<Expression> scope = call.getScope();
+            // Determine the type of the call's scope
+            Set<? extends TypeDeclaration<?>> dynamicTypes;
+            if (scope.isEmpty()) {
+                // a) No scope: any class the method is in, or any outer class if the class is not static.
+                // Early exit: it is easier to find the methods that override the
+                // detected call than to account for all cases (implicit inner or outer class)
+                classGraph.overriddenSetOf(decl)
+                        .forEach(methodDecl -> createNormalEdge(methodDecl, call));
+                return;
+            } else if (scope.get().isThisExpr() && scope.get().asThisExpr().getTypeName().isEmpty()) {
+                // b) just 'this', the current class and any subclass
+                dynamicTypes = classGraph.subclassesOf(typeStack.peek());
+            } else if (scope.get().isThisExpr()) {
+                // c) 'ClassName.this', the given class and any subclass
+                dynamicTypes = classGraph.subclassesOf(scope.get().asThisExpr().resolve().asClass());
+            } else if (scope.get().isSuperExpr()) {
+                // d) 'super': start with the parent type and get the first implementation
+                dynamicTypes = Set.of(classGraph.parentOf(typeStack.peek()).orElseThrow());
+            } else {
+                // e) others: compute possible dynamic types of the expression (TODO)
+                dynamicTypes = classGraph.subclassesOf(scope.get().calculateResolvedType().asReferenceType());
+            }
+            // Locate the corresponding methods for each possible dynamic type, they must be available to all
+            // To locate them, use the method signature and search for it in the class graph
+            // Connect to each declaration
+            AtomicInteger edgesCreated = new AtomicInteger();
+            dynamicTypes.stream()
+                    .map(t -> classGraph.findMethodByTypeAndSignature(t, decl))
+                    .collect(Collectors.toCollection(NodeHashSet::new))
+                    .forEach(methodDecl -> {
+                        edgesCreated.getAndIncrement();
+                        createNormalEdge(methodDecl, call);
+                    });
+            assert edgesCreated.get() > 0;
+        }
+
+        protected void createNormalEdge(CallableDeclaration<?> decl, Resolvable<? extends ResolvedMethodLikeDeclaration> call) {
+            if (declStack.isEmpty() && typeStack.isEmpty())
+                throw new IllegalStateException("Trying to link call with empty declaration stack! " + ASTUtils.getDeclarationAsString(decl) + " : " + call.toString());
+            if (declStack.isEmpty())
+                addEdge(typeStack.peek(), decl, call);
+            else
+                addEdge(declStack.peek(), decl, call);
+        }
+
+        // Other structures
+        @Override
+        public void visit(FieldDeclaration n, Void arg) {
+            if (declStack.isEmpty() && !n.isStatic())
+                for (ConstructorDeclaration cd : typeStack.peek().getConstructors())
+                    visitInitializer(n, cd);
+        }
+
+        /** Visit the initializer of a non-static field, whose calls are assigned to the given constructor. */
+        protected void visitInitializer(FieldDeclaration n, ConstructorDeclaration constructor) {
+            declStack.push(constructor);
+            super.visit(n, null);
+            declStack.pop();
+        }
     }
 
     /** Locates the node in the collection of CFGs that contains the given call. */
@@ -263,17 +430,20 @@ public class CallGraph extends DirectedPseudograph<CallGraph.Vertex, CallGraph.E
         for (GraphNode<?> node : cfgMap.get(declaration).vertexSet())
             if (node.containsCall(n))
                 return node;
-        throw new NodeNotFoundException("call " + n + " could not be located! cfg was " + cfgMap.get(declaration).rootNode.getLongLabel() + " and declaration was " + declaration.getDeclarationAsString());
+        throw new NodeNotFoundException("call " + n + " could not be located! cfg was " + cfgMap.get(declaration).rootNode.getLongLabel() + " and declaration was " + ASTUtils.getDeclarationAsString(declaration));
     }
 
     /** A vertex containing the declaration it represents. It only exists because
      *  JGraphT relies heavily on equals comparison, which may not be correct in declarations. */
     public static class Vertex {
-        protected final CallableDeclaration<?> declaration;
+        protected CallableDeclaration<?> declaration;
+        /** The signature of the declaration, computed once. */
+        protected final String signature;
 
         public Vertex(CallableDeclaration<?> declaration) {
             assert declaration instanceof ConstructorDeclaration || declaration instanceof MethodDeclaration;
             this.declaration = declaration;
+            this.signature = declaration.getSignature().toString();
         }
 
         /** The declaration represented by this node. */
@@ -283,7 +453,7 @@ public class CallGraph extends DirectedPseudograph<CallGraph.Vertex, CallGraph.E
 
         @Override
         public int hashCode() {
-            return Objects.hash(declaration.getSignature());
+            return signature.hashCode();
         }
 
         @Override
@@ -299,7 +469,7 @@ public class CallGraph extends DirectedPseudograph<CallGraph.Vertex, CallGraph.E
         public boolean matches(CallableDeclaration<?> declaration) {
             if (this.declaration == declaration)
                 return true;
-            if (!this.declaration.getSignature().toString().equals(declaration.getSignature().toString()))
+            if (!signature.equals(declaration.getSignature().toString()))
                 return false;
             var t1 = this.declaration.findAncestor(NodeWithSimpleName.class).orElse(null);
             var t2 = declaration.findAncestor(NodeWithSimpleName.class).orElse(null);
@@ -332,9 +502,9 @@ public class CallGraph extends DirectedPseudograph<CallGraph.Vertex, CallGraph.E
         @Override
         public String toString() {
             return String.format("%s -%d-> %s",
-                    ((CallableDeclaration<?>) getSource()).getDeclarationAsString(false, false, false),
+                    ASTUtils.getDeclarationAsString((CallableDeclaration<?>) getSource()),
                     graphNode.getId(),
-                    ((CallableDeclaration<?>) getTarget()).getDeclarationAsString(false, false, false));
+                    ASTUtils.getDeclarationAsString((CallableDeclaration<?>) getTarget()));
         }
     }
 }
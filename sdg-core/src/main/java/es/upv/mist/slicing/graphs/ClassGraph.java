@@ -1,6 +1,5 @@
 package es.upv.mist.slicing.graphs;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
@@ -16,7 +15,7 @@ import com.github.javaparser.resolution.types.ResolvedType;
 import es.upv.mist.slicing.arcs.Arc;
 import es.upv.mist.slicing.nodes.ObjectTree;
 import es.upv.mist.slicing.utils.ASTUtils;
-import es.upv.mist.slicing.utils.StaticConfig;
+import es.upv.mist.slicing.utils.AnalysisContext;
 import org.jgrapht.graph.DirectedPseudograph;
 
 import java.util.*;
@@ -26,20 +25,6 @@ import java.util.stream.Stream;
 import static es.upv.mist.slicing.nodes.ObjectTree.ROOT_NODE;
 
 public class ClassGraph extends DirectedPseudograph<ClassGraph.Vertex<?>, ClassGraph.ClassArc> implements Buildable<NodeList<CompilationUnit>> {
-    private static ClassGraph instance = null;
-
-    /** Generates and returns a new class graph. This destroys the reference to the previous instance. */
-    public static ClassGraph getNewInstance() {
-        instance = null;
-        return getInstance();
-    }
-
-    public static ClassGraph getInstance() {
-        if (instance == null)
-            instance = new ClassGraph();
-        return instance;
-    }
-
     /** A map from the FQ class name to its corresponding vertex. Use {@code mapKey(...)} to locate the key. */
     private final Map<String, ClassGraph.Vertex<? extends TypeDeclaration<?>>> classDeclarationMap = new HashMap<>();
     /** A map from the field name to its corresponding vertex. Use {@code mapKey(...)} to locate the key. */
@@ -48,9 +33,18 @@ public class ClassGraph extends DirectedPseudograph<ClassGraph.Vertex<?>, ClassG
     private final Map<String, ClassGraph.Vertex<CallableDeclaration<?>>> methodDeclarationMap = new HashMap<>();
 
     private boolean built = false;
+    /** The context of the analysis that uses this graph. */
+    private final AnalysisContext context;
 
-    private ClassGraph() {
+    /** Create an empty class graph. Each {@link AnalysisContext} creates its own. */
+    public ClassGraph(AnalysisContext context) {
         super(null, null, false);
+        this.context = Objects.requireNonNull(context);
+    }
+
+    /** The context of the analysis that uses this graph. */
+    public AnalysisContext getContext() {
+        return context;
     }
 
     public Collection<ClassGraph.Vertex<? extends TypeDeclaration<?>>> typeVertices() {
@@ -175,9 +169,12 @@ public class ClassGraph extends DirectedPseudograph<ClassGraph.Vertex<?>, ClassG
             if (method.getType().isClassOrInterfaceType())
                 try {
                     // TODO: improve. Sometimes, the cu doesn't have the symbol solver. We readd that here.
+                    // The CU may be shared with other threads building CFGs or PDGs.
                     method.getType().findCompilationUnit().ifPresentOrElse(cu -> {
-                        if (!cu.containsData(Node.SYMBOL_RESOLVER_KEY))
-                            cu.setData(Node.SYMBOL_RESOLVER_KEY, StaticJavaParser.getConfiguration().getSymbolResolver().orElseThrow(() -> new IllegalStateException("Symbol resolution not configured: to configure consider setting a SymbolResolver in the ParserConfiguration")));
+                        synchronized (cu) {
+                            if (!cu.containsData(Node.SYMBOL_RESOLVER_KEY))
+                                cu.setData(Node.SYMBOL_RESOLVER_KEY, context.getSymbolResolver());
+                        }
                     }, () -> { throw new IllegalStateException("The node is not inserted in a CompilationUnit"); });
                     return Optional.of(generateObjectTreeFor(method.getType().asClassOrInterfaceType().resolve()));
                 } catch (UnsolvedSymbolException e) {
@@ -216,7 +213,7 @@ public class ClassGraph extends DirectedPseudograph<ClassGraph.Vertex<?>, ClassG
     }
 
     protected ObjectTree generatePolyObjectTreeFor(Vertex<? extends TypeDeclaration<?>> classVertex, ObjectTree tree, String[] level, int depth) {
-        if (depth >= StaticConfig.K_LIMIT)
+        if (depth >= context.getKLimit())
             return tree;
         Set<? extends TypeDeclaration<?>> types = subclassesOf(classVertex);
         if (types.isEmpty()) {
@@ -225,7 +222,7 @@ public class ClassGraph extends DirectedPseudograph<ClassGraph.Vertex<?>, ClassG
             for (TypeDeclaration<?> type : types) {
                 Vertex<? extends TypeDeclaration<?>> subclassVertex = classDeclarationMap.get(mapKey(type));
                 if (!findAllFieldsOf(subclassVertex).isEmpty()) {
-                    ObjectTree newType = tree.addType(ASTUtils.resolvedTypeDeclarationToResolvedType(type.resolve()), level);
+                    ObjectTree newType = tree.addType(ASTUtils.resolvedTypeDeclarationToResolvedType(type.resolve(), context.getTypeSolver()), level);
                     String[] newLevel = new String[level.length + 1];
                     System.arraycopy(level, 0, newLevel, 0, level.length);
                     newLevel[level.length] = newType.getMemberNode().getLabel();
@@ -383,6 +380,30 @@ public class ClassGraph extends DirectedPseudograph<ClassGraph.Vertex<?>, ClassG
         addVertex(v);
     }
 
+    /** Find the method or constructor of this graph with the same signature and type as the given one, which
+     *  may be a different instance of it (e.g. if it was parsed again when resolving a call). */
+    public Optional<CallableDeclaration<?>> findCallableDeclaration(CallableDeclaration<?> declaration) {
+        Optional<TypeDeclaration<?>> type = declaration.findAncestor(TypeDeclaration.class).map(t -> (TypeDeclaration<?>) t);
+        if (type.isEmpty() || type.get().getFullyQualifiedName().isEmpty())
+            return Optional.empty();
+        return Optional.ofNullable(methodDeclarationMap.get(mapKey(declaration, type.get()))).map(Vertex::getDeclaration);
+    }
+
+    /** Replace the vertex of a method or constructor with one that represents a new version of it, which must
+     *  have the same signature and be placed in the same type, keeping its arcs. */
+    public void replaceCallableDeclaration(CallableDeclaration<?> oldDeclaration, CallableDeclaration<?> newDeclaration) {
+        String key = mapKey(newDeclaration, newDeclaration.findAncestor(TypeDeclaration.class).orElseThrow());
+        Vertex<CallableDeclaration<?>> oldVertex = methodDeclarationMap.get(key);
+        if (oldVertex == null || oldVertex.declaration != oldDeclaration)
+            return; // Another declaration with the same key was found last while building this graph
+        Vertex<CallableDeclaration<?>> newVertex = new Vertex<>(newDeclaration);
+        addVertex(newVertex);
+        for (ClassArc arc : List.copyOf(incomingEdgesOf(oldVertex)))
+            addEdge(getEdgeSource(arc), newVertex, new ClassArc.Member());
+        removeVertex(oldVertex);
+        methodDeclarationMap.put(key, newVertex);
+    }
+
     /** Find the class declarations, field declarations, and method declarations and build the corresponding
      * member/extends/implements relationships in the given list of compilation units. */
     protected void buildEdges(NodeList<CompilationUnit> arg) {
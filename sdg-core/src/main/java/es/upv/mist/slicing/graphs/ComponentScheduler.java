@@ -0,0 +1,192 @@
+package es.upv.mist.slicing.graphs;
+
+import org.jgrapht.graph.AbstractGraph;
+
+import java.util.*;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Splits a graph into strongly connected components and processes them so that each component
+ * is handled after all the components reachable from it.
+ * <br/>
+ * Components that do not depend on each other may be processed in parallel, in a fork/join pool.
+ * The order in which a component's dependencies finish is irrelevant, so the results do not depend on
+ * the parallelism level, as long as the action only modifies the state owned by the component it receives.
+ * @param <V> The graph's vertices type.
+ * @param <E> The graph's edges type.
+ */
+public class ComponentScheduler<V, E> {
+    protected final AbstractGraph<V, E> graph;
+    /** The strongly connected components, each listed after all the components reachable from it. */
+    protected final List<List<V>> components;
+    /** The position of the component that contains each vertex. */
+    protected final Map<V, Integer> componentIndex = new HashMap<>();
+
+    public ComponentScheduler(AbstractGraph<V, E> graph) {
+        this.graph = graph;
+        this.components = findStronglyConnectedComponents();
+        for (int i = 0; i < components.size(); i++)
+            for (V vertex : components.get(i))
+                componentIndex.put(vertex, i);
+    }
+
+    /** The strongly connected components of the graph, each listed after all the components reachable
+     *  from it. The vertices of each component keep the order of {@link AbstractGraph#vertexSet()}. */
+    public List<List<V>> getComponents() {
+        return Collections.unmodifiableList(components);
+    }
+
+    /**
+     * Run the given action on every component. A component is only processed once all the components
+     * reachable from it have been processed. With a parallelism of 1 the components are processed in the
+     * order of {@link #getComponents()}, in the calling thread.
+     * @throws IllegalArgumentException If the parallelism level is not positive.
+     */
+    public void run(int parallelism, Consumer<List<V>> action) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism level must be positive");
+        if (parallelism == 1 || components.size() < 2) {
+            components.forEach(action);
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RootTask(action));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Find the components that depend on each component, i.e., those that have an edge towards it. */
+    protected List<Set<Integer>> findDependents() {
+        List<Set<Integer>> dependents = new ArrayList<>(components.size());
+        for (int i = 0; i < components.size(); i++)
+            dependents.add(new LinkedHashSet<>());
+        for (int i = 0; i < components.size(); i++) {
+            for (V vertex : components.get(i)) {
+                for (E edge : graph.outgoingEdgesOf(vertex)) {
+                    int target = componentIndex.get(graph.getEdgeTarget(edge));
+                    if (target != i)
+                        dependents.get(target).add(i);
+                }
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Find the strongly connected components of the graph, with an iterative version of Tarjan's algorithm.
+     * Each component is listed after all the components reachable from it. The vertices of each component
+     * keep the order of {@link AbstractGraph#vertexSet()}.
+     */
+    protected List<List<V>> findStronglyConnectedComponents() {
+        Map<V, Integer> position = new HashMap<>();
+        for (V vertex : graph.vertexSet())
+            position.put(vertex, position.size());
+        Map<V, Integer> index = new HashMap<>();
+        Map<V, Integer> lowLink = new HashMap<>();
+        Deque<V> stack = new ArrayDeque<>();
+        Set<V> onStack = new HashSet<>();
+        Deque<V> callStack = new ArrayDeque<>();
+        Deque<Iterator<E>> edgeIterators = new ArrayDeque<>();
+        List<List<V>> components = new ArrayList<>();
+        for (V root : graph.vertexSet()) {
+            if (index.containsKey(root))
+                continue;
+            index.put(root, index.size());
+            lowLink.put(root, index.get(root));
+            stack.push(root);
+            onStack.add(root);
+            callStack.push(root);
+            edgeIterators.push(graph.outgoingEdgesOf(root).iterator());
+            while (!callStack.isEmpty()) {
+                V vertex = callStack.peek();
+                Iterator<E> edges = edgeIterators.peek();
+                if (edges.hasNext()) {
+                    V target = graph.getEdgeTarget(edges.next());
+                    if (!index.containsKey(target)) {
+                        index.put(target, index.size());
+                        lowLink.put(target, index.get(target));
+                        stack.push(target);
+                        onStack.add(target);
+                        callStack.push(target);
+                        edgeIterators.push(graph.outgoingEdgesOf(target).iterator());
+                    } else if (onStack.contains(target)) {
+                        lowLink.put(vertex, Math.min(lowLink.get(vertex), index.get(target)));
+                    }
+                    continue;
+                }
+                callStack.pop();
+                edgeIterators.pop();
+                if (!callStack.isEmpty())
+                    lowLink.put(callStack.peek(), Math.min(lowLink.get(callStack.peek()), lowLink.get(vertex)));
+                if (lowLink.get(vertex).equals(index.get(vertex))) {
+                    List<V> component = new ArrayList<>();
+                    V member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(vertex));
+                    component.sort(Comparator.comparing(position::get));
+                    components.add(component);
+                }
+            }
+        }
+        return components;
+    }
+
+    /** Starts the components without dependencies and completes once every component has been processed. */
+    protected class RootTask extends CountedCompleter<Void> {
+        protected final Consumer<List<V>> action;
+        protected final List<Set<Integer>> dependents = findDependents();
+        /** The number of dependencies of each component that have not been processed yet. */
+        protected final AtomicInteger[] remaining = new AtomicInteger[components.size()];
+
+        protected RootTask(Consumer<List<V>> action) {
+            this.action = action;
+            for (int i = 0; i < remaining.length; i++)
+                remaining[i] = new AtomicInteger();
+            for (Set<Integer> set : dependents)
+                for (int dependent : set)
+                    remaining[dependent].incrementAndGet();
+        }
+
+        @Override
+        public void compute() {
+            setPendingCount(components.size());
+            // Find them before starting any: once started, they may release other components, which would be started twice
+            List<Integer> ready = new ArrayList<>();
+            for (int i = 0; i < remaining.length; i++)
+                if (remaining[i].get() == 0)
+                    ready.add(i);
+            for (int i : ready)
+                new ComponentTask(this, i).fork();
+            tryComplete();
+        }
+    }
+
+    /** Processes a component and then starts the dependents that were only waiting for it. */
+    protected class ComponentTask extends CountedCompleter<Void> {
+        protected final RootTask root;
+        protected final int component;
+
+        protected ComponentTask(RootTask root, int component) {
+            super(root);
+            this.root = root;
+            this.component = component;
+        }
+
+        @Override
+        public void compute() {
+            root.action.accept(components.get(component));
+            for (int dependent : root.dependents.get(component))
+                if (root.remaining[dependent].decrementAndGet() == 0)
+                    new ComponentTask(root, dependent).fork();
+            tryComplete();
+        }
+    }
+}
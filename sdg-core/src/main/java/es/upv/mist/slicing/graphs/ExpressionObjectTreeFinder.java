@@ -52,10 +52,12 @@ public class ExpressionObjectTreeFinder {
     /** The node that contains both the expression to be scanned, the source variable action and
      *  the desired variable action target. */
     protected final GraphNode<?> graphNode;
+    protected final ClassGraph classGraph;
 
-    /** Creates a new ExpressionObjectTreeFinder for the given GraphNode. */
-    public ExpressionObjectTreeFinder(GraphNode<?> graphNode) {
+    /** Creates a new ExpressionObjectTreeFinder for the given GraphNode, which uses the given class graph. */
+    public ExpressionObjectTreeFinder(GraphNode<?> graphNode, ClassGraph classGraph) {
         this.graphNode = graphNode;
+        this.classGraph = classGraph;
     }
 
     /** Prepares the connection between the right-hand side of a variable declarator and the variable.
@@ -65,7 +67,7 @@ public class ExpressionObjectTreeFinder {
         if (variableDeclarator.getInitializer().isEmpty())
             throw new IllegalArgumentException("The variableDeclarator must have an initializer!");
         VariableAction targetAction = locateVAVariableDeclarator(realName);
-        ClassGraph.getInstance().generateObjectTreeForType(variableDeclarator.getType().resolve())
+        classGraph.generateObjectTreeForType(variableDeclarator.getType().resolve())
                 .ifPresent(objectTree -> targetAction.getObjectTree().addAll(objectTree));
         locateExpressionResultTrees(variableDeclarator.getInitializer().get())
                 .forEach(pair -> markTransference(pair, targetAction, ""));
@@ -98,7 +100,7 @@ public class ExpressionObjectTreeFinder {
      *  If the LHS of this assignment is an array access expression, the method
      *  {@link #handleArrayAssignExpr(AssignExpr)} should be used. */
     public void handleAssignExpr(AssignExpr assignExpr, VariableAction assignTarget, String targetMember) {
-        ClassGraph.getInstance().generateObjectTreeForType(assignExpr.getTarget().calculateResolvedType())
+        classGraph.generateObjectTreeForType(assignExpr.getTarget().calculateResolvedType())
                 .ifPresent(fields -> assignTarget.getObjectTree().addAll(fields));
         List<Pair<VariableAction, String>> list = new LinkedList<>();
         if (assignExpr.getOperator() != AssignExpr.Operator.ASSIGN)
@@ -334,7 +336,7 @@ public class ExpressionObjectTreeFinder {
         String sourceMember = sourcePair.b;
         if (targetAction.hasObjectTree()) {
             boolean sourceTypesInClassGraph = sourceAction.getDynamicTypes().stream()
-                    .anyMatch(ClassGraph.getInstance()::containsType);
+                    .anyMatch(classGraph::containsType);
             if (sourceTypesInClassGraph && !hasObjectTreeAt(sourceAction, sourceMember))
                 ObjectTree.copyTargetTreeToSource(sourceAction.getObjectTree(), targetAction.getObjectTree(), sourceMember, targetMember);
             sourceAction.setPDGTreeConnectionTo(targetAction, sourceMember, targetMember);
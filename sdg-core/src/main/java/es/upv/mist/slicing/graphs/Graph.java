@@ -1,26 +1,113 @@
 package es.upv.mist.slicing.graphs;
 
+import com.github.javaparser.Range;
 import com.github.javaparser.ast.Node;
 import es.upv.mist.slicing.arcs.Arc;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.SyntheticNode;
 import es.upv.mist.slicing.utils.ASTUtils;
+import es.upv.mist.slicing.utils.AnalysisContext;
 import org.jgrapht.graph.DirectedPseudograph;
 
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-/** A generic base graph with some utility methods to more easily create and locate nodes. */
-public abstract class Graph extends DirectedPseudograph<GraphNode<?>, Arc> {
+/** A generic base graph with some utility methods to more easily create and locate nodes.
+ *  Its nodes receive an id from the {@link AnalysisContext#getIdAllocator() allocator} of its context when they
+ *  are added, which allows slices to store them in bit sets. */
+public abstract class Graph extends DirectedPseudograph<GraphNode<?>, Arc> implements NodeIndex {
+    /** The nodes of this graph, indexed by the type and range of their AST node. Nodes without
+     *  an AST node are not indexed. */
+    protected final Map<ASTKey, List<GraphNode<?>>> astIndex = new HashMap<>();
+
     protected Graph() {
         super(null, null, false);
     }
 
-    /** Creates and adds to the graph a normal node with the given label and AST. */
+    /** Add a node to this graph, and give it an id if it has none. */
+    @Override
+    public boolean addVertex(GraphNode<?> graphNode) {
+        if (!super.addVertex(graphNode))
+            return false;
+        getContext().getIdAllocator().assign(graphNode);
+        if (graphNode.getAstNode() != null)
+            astIndex.computeIfAbsent(new ASTKey(graphNode.getAstNode()), k -> new ArrayList<>(1)).add(graphNode);
+        return true;
+    }
+
+    @Override
+    public boolean removeVertex(GraphNode<?> graphNode) {
+        if (!super.removeVertex(graphNode))
+            return false;
+        if (graphNode.getAstNode() != null) {
+            ASTKey key = new ASTKey(graphNode.getAstNode());
+            List<GraphNode<?>> list = astIndex.get(key);
+            list.remove(graphNode);
+            if (list.isEmpty())
+                astIndex.remove(key);
+        }
+        return true;
+    }
+
+    /** Remove from the index the nodes that represent the given AST nodes, whose range is about to change.
+     *  They must be indexed again with {@link #addToIndex(Collection)} once the ranges have been changed.
+     *  @return The nodes removed from the index. */
+    public List<GraphNode<?>> removeFromIndex(Collection<? extends Node> astNodes) {
+        List<GraphNode<?>> removed = new ArrayList<>();
+        for (Node astNode : astNodes) {
+            ASTKey key = new ASTKey(astNode);
+            List<GraphNode<?>> list = astIndex.get(key);
+            if (list == null)
+                continue;
+            for (Iterator<GraphNode<?>> it = list.iterator(); it.hasNext(); ) {
+                GraphNode<?> node = it.next();
+                if (node.getAstNode() == astNode) {
+                    removed.add(node);
+                    it.remove();
+                }
+            }
+            if (list.isEmpty())
+                astIndex.remove(key);
+        }
+        return removed;
+    }
+
+    /** Index the given nodes of this graph again, after the range of their AST nodes has changed.
+     *  @see #removeFromIndex(Collection) */
+    public void addToIndex(Collection<GraphNode<?>> nodes) {
+        for (GraphNode<?> node : nodes)
+            astIndex.computeIfAbsent(new ASTKey(node.getAstNode()), k -> new ArrayList<>(1)).add(node);
+    }
+
+    /** {@inheritDoc} The ids are shared by the graphs built in the same context, so this is an exclusive upper
+     *  bound of the ids of the nodes of all of them (see {@link es.upv.mist.slicing.nodes.IdAllocator#getBound()}). */
+    @Override
+    public int nodeCount() {
+        return getContext().getIdAllocator().getBound();
+    }
+
+    /** {@inheritDoc} It may be a node of another graph built in the same context, and it is {@code null}
+     *  if the node has been removed from the graphs of its build. */
+    @Override
+    public GraphNode<?> getNode(int id) {
+        return getContext().getIdAllocator().getNode(id);
+    }
+
+    /** {@inheritDoc} It is the id of the node, if it has been numbered by the context of this graph. */
+    @Override
+    public int indexOf(GraphNode<?> node) {
+        long id = node.getId();
+        return id != -1 && id < nodeCount() && getNode((int) id) == node ? (int) id : -1;
+    }
+
+    /** The context in which the nodes of this graph are analyzed. */
+    public abstract AnalysisContext getContext();
+
+    /** Creates and adds to the graph a normal node with the given label and AST,
+     *  whose variable actions are extracted in the context of this graph. */
     public <T extends Node> GraphNode<T> addVertex(String label, T astNode) {
-        GraphNode<T> node = new GraphNode<>(label, astNode);
+        GraphNode<T> node = new GraphNode<>(label, astNode, getContext());
         addVertex(node);
         return node;
     }
@@ -29,9 +116,19 @@ public abstract class Graph extends DirectedPseudograph<GraphNode<?>, Arc> {
      *  of them being synthetic, the non-synthetic one will be returned. <br/>
      *  @throws IllegalStateException If there are multiple non-synthetic nodes in this graph
      *                                representing the given AST node. */
-    @SuppressWarnings("unchecked")
     public <T extends Node> Optional<GraphNode<T>> findNodeByASTNode(T astNode) {
-        Set<GraphNode<?>> set = findAllNodes(n -> ASTUtils.equalsWithRangeInCU(n.getAstNode(), astNode));
+        if (astNode == null)
+            return findUniqueNode(findAllNodes(n -> n.getAstNode() == null));
+        Set<GraphNode<?>> set = new HashSet<>();
+        for (GraphNode<?> node : astIndex.getOrDefault(new ASTKey(astNode), Collections.emptyList()))
+            if (ASTUtils.equalsWithRangeInCU(node.getAstNode(), astNode))
+                set.add(node);
+        return findUniqueNode(set);
+    }
+
+    /** Select the only node of the set, or the only non-synthetic one if there are several. */
+    @SuppressWarnings("unchecked")
+    protected <T extends Node> Optional<GraphNode<T>> findUniqueNode(Set<GraphNode<?>> set) {
         if (set.isEmpty())
             return Optional.empty();
         if (set.size() == 1)
@@ -55,9 +152,35 @@ public abstract class Graph extends DirectedPseudograph<GraphNode<?>, Arc> {
         return vertexSet().stream().filter(p).collect(Collectors.toSet());
     }
 
+    /** The key of {@link #astIndex}. Nodes with the same key are compared with
+     *  {@link ASTUtils#equalsWithRangeInCU(Node, Node)}, which also checks their compilation unit. */
+    protected static class ASTKey {
+        protected final Class<?> type;
+        protected final Range range;
+
+        protected ASTKey(Node node) {
+            this.type = node.getClass();
+            this.range = node.getRange().orElse(null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof ASTKey))
+                return false;
+            return type == ((ASTKey) o).type && Objects.equals(range, ((ASTKey) o).range);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + Objects.hashCode(range);
+        }
+    }
+
     @Override
     public String toString() {
-        return vertexSet().stream().sorted()
+        return vertexSet().stream()
                 .map(GraphNode::toString)
                 .collect(Collectors.joining(System.lineSeparator()));
     }
@@ -0,0 +1,16 @@
+package es.upv.mist.slicing.graphs;
+
+import es.upv.mist.slicing.nodes.GraphNode;
+
+/** A numbering of a set of nodes, from 0 to {@link #nodeCount()} (exclusive), by their {@linkplain GraphNode#getId() ids}.
+ *  It is dense once a graph has been built, unless some nodes have been removed afterwards. */
+public interface NodeIndex {
+    /** An exclusive upper bound of the numbers of the nodes, including those that have been removed. */
+    int nodeCount();
+
+    /** Obtain the node with the given number. */
+    GraphNode<?> getNode(int id);
+
+    /** Obtain the number of the given node, or -1 if it is not part of this index. */
+    int indexOf(GraphNode<?> node);
+}
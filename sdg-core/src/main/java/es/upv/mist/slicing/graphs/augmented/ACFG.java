@@ -5,6 +5,7 @@ import es.upv.mist.slicing.arcs.cfg.ControlFlowArc;
 import es.upv.mist.slicing.graphs.cfg.CFG;
 import es.upv.mist.slicing.graphs.cfg.CFGBuilder;
 import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.utils.AnalysisContext;
 
 /**
  * An <b>augmented</b> version of the {@link CFG}. Its corresponding builder is the
@@ -18,6 +19,14 @@ import es.upv.mist.slicing.nodes.GraphNode;
  * @see ControlFlowArc.NonExecutable
  */
 public class ACFG extends CFG {
+    public ACFG() {
+        super();
+    }
+
+    public ACFG(AnalysisContext context) {
+        super(context);
+    }
+
     public void addNonExecutableControlFlowArc(GraphNode<?> from, GraphNode<?> to) {
         addControlFlowArc(from, to, new ControlFlowArc.NonExecutable());
     }
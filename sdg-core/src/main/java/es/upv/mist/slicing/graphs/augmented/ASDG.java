@@ -17,7 +17,7 @@ public class ASDG extends SDG {
     public class Builder extends SDG.Builder {
         @Override
         protected CFG createCFG() {
-            return new ACFG();
+            return new ACFG(context);
         }
 
         @Override
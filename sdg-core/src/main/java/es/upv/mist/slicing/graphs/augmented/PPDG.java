@@ -3,6 +3,7 @@ package es.upv.mist.slicing.graphs.augmented;
 import com.github.javaparser.ast.body.CallableDeclaration;
 import es.upv.mist.slicing.arcs.Arc;
 import es.upv.mist.slicing.arcs.pdg.ControlDependencyArc;
+import es.upv.mist.slicing.graphs.pdg.ControlDependencyBuilder;
 import es.upv.mist.slicing.graphs.pdg.PDG;
 
 import java.util.Set;
@@ -10,7 +11,8 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /** A pseudo-predicate PDG, equivalent to an APDG that is built using the {@link PPControlDependencyBuilder
- * pseudo-predicate control dependency algorithm} instead of the classic one. */
+ * pseudo-predicate control dependency algorithm} instead of the classic one. By default, it is computed
+ * with the {@link PPPostDominatorControlDependencyBuilder post-dominator tree}. */
 public class PPDG extends APDG {
     public PPDG() {
         this(new ACFG());
@@ -27,7 +29,8 @@ public class PPDG extends APDG {
 
     /** Populates a PPDG.
      * @see APDG.Builder
-     * @see PPControlDependencyBuilder */
+     * @see PPControlDependencyBuilder
+     * @see PPPostDominatorControlDependencyBuilder */
     public class Builder extends APDG.Builder {
         protected Builder() {
             super();
@@ -40,13 +43,20 @@ public class PPDG extends APDG {
         }
 
         @Override
-        protected void buildControlDependency() {
-            new PPControlDependencyBuilder((ACFG) cfg, PPDG.this).build();
+        protected ControlDependencyBuilder createControlDependencyBuilder() {
+            switch (controlDependencyAlgorithm) {
+                case PAIRWISE:
+                    return new PPControlDependencyBuilder((ACFG) cfg, PPDG.this);
+                case POST_DOMINATOR_TREE:
+                    return new PPPostDominatorControlDependencyBuilder((ACFG) cfg, PPDG.this);
+            }
+            throw new IllegalArgumentException("Unknown algorithm " + controlDependencyAlgorithm);
         }
 
         /** Finds the CD arcs that are only present in the PPDG and marks them as such. */
         protected void markPPDGExclusiveEdges(CallableDeclaration<?> declaration) {
-            APDG apdg = new APDG();
+            APDG apdg = new APDG(new ACFG(cfg.getContext()));
+            apdg.setControlDependencyAlgorithm(controlDependencyAlgorithm);
             apdg.build(declaration);
             Set<Arc> apdgArcs = apdg.edgeSet().stream()
                     .filter(Arc::isUnconditionalControlDependencyArc)
@@ -0,0 +1,20 @@
+package es.upv.mist.slicing.graphs.augmented;
+
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.graphs.cfg.PostDominatorTree;
+import es.upv.mist.slicing.graphs.pdg.PostDominatorControlDependencyBuilder;
+
+/** A builder for control dependencies in graphs based on the {@link PPDG}, using a post-dominator tree
+ *  that only considers executable control-flow arcs. It produces the same arcs as the
+ *  {@link PPControlDependencyBuilder}, in close to linear time.
+ *  @see PostDominatorControlDependencyBuilder */
+public class PPPostDominatorControlDependencyBuilder extends PostDominatorControlDependencyBuilder {
+    public PPPostDominatorControlDependencyBuilder(ACFG cfg, PPDG pdg) {
+        super(cfg, pdg);
+    }
+
+    @Override
+    protected PostDominatorTree createPostDominatorTree() {
+        return new PostDominatorTree(cfg, Arc::isExecutableControlFlowArc);
+    }
+}
@@ -24,10 +24,7 @@ public class PSDG extends ASDG {
     public boolean isPseudoPredicate(GraphNode<?> node) {
         if (node instanceof SyntheticNode)
             return false;
-        for (CFG cfg : cfgMap.values())
-            if (cfg.containsVertex(node))
-                return ((ACFG) cfg).isPseudoPredicate(node);
-        throw new IllegalArgumentException("Node " + node.getId() + "'s associated CFG cannot be found!");
+        return ((ACFG) findCFG(node)).isPseudoPredicate(node);
     }
 
     /** Populates a PSDG, using {@link ACFG} and {@link PPDG} as default graphs.
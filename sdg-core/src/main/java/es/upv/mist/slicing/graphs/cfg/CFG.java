@@ -7,12 +7,10 @@ import es.upv.mist.slicing.graphs.GraphWithRootNode;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.VariableAction;
 import es.upv.mist.slicing.nodes.io.MethodExitNode;
-import es.upv.mist.slicing.utils.NodeNotFoundException;
+import es.upv.mist.slicing.utils.ASTUtils;
+import es.upv.mist.slicing.utils.AnalysisContext;
 
 import java.util.*;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * The <b>Control Flow Graph</b> represents the statements of a method in
@@ -22,7 +20,34 @@ import java.util.stream.Stream;
  * @see ControlFlowArc
  */
 public class CFG extends GraphWithRootNode<CallableDeclaration<?>> {
+    /** Searches for the definitions of a variable, which also detect whether it may be undefined. */
+    protected static final ReachingDefinitions.Search DEFINITIONS =
+            ReachingDefinitions.Search.backward("definition", VariableAction::isDefinition, true);
+    /** Searches for the declaration of a variable. */
+    protected static final ReachingDefinitions.Search DECLARATIONS =
+            ReachingDefinitions.Search.backward("declaration", VariableAction::isDeclaration, false);
+
     protected GraphNode<?> exitNode;
+    protected ReachingDefinitions reachingDefinitions;
+    /** Incremented every time the nodes, arcs or variable actions of this graph change. */
+    protected long modificationCount = 0;
+    /** The context in which the nodes of this graph are analyzed. */
+    protected final AnalysisContext context;
+
+    /** Create an empty CFG, whose nodes are analyzed in a new {@link AnalysisContext}. */
+    public CFG() {
+        this(new AnalysisContext());
+    }
+
+    /** Create an empty CFG, whose nodes are analyzed in the given context. */
+    public CFG(AnalysisContext context) {
+        this.context = Objects.requireNonNull(context);
+    }
+
+    @Override
+    public AnalysisContext getContext() {
+        return context;
+    }
 
     /** Obtains the declaration on which this CFG is based. */
     public CallableDeclaration<?> getDeclaration() {
@@ -61,70 +86,101 @@ public class CFG extends GraphWithRootNode<CallableDeclaration<?>> {
 
     /** Obtain the definitions that may have reached the given variable action. */
     public List<VariableAction> findLastDefinitionsFrom(VariableAction variable) {
-        return findLastVarActionsFrom(variable, VariableAction::isDefinition);
+        return getReachingDefinitions().find(variable, DEFINITIONS);
     }
 
     /** Obtain the declaration of a given variable action, if any. */
     public Optional<VariableAction> findDeclarationFor(VariableAction variable) {
-        List<VariableAction> declarations = findLastVarActionsFrom(variable, VariableAction::isDeclaration);
+        List<VariableAction> declarations = getReachingDefinitions().find(variable, DECLARATIONS);
         assert declarations.size() <= 1;
         return Optional.ofNullable(declarations.isEmpty() ? null : declarations.get(0));
     }
 
     /** Check whether or not there is a definition in all paths from the argument to the start of the graph. */
     public boolean isCompletelyDefined(VariableAction.Usage usage) {
-        return findLastVarActionsFrom(new HashSet<>(), new LinkedList<>(), usage.getGraphNode(), usage, VariableAction::isDefinition);
-    }
-
-    /** Obtain a list of actions that can reach the variable, and match the variable and filter. */
-    protected List<VariableAction> findLastVarActionsFrom(VariableAction variable, Predicate<VariableAction> actionFilter) {
-        if (!this.containsVertex(variable.getGraphNode()))
-            throw new NodeNotFoundException(variable.getGraphNode(), this);
-        List<VariableAction> list = new LinkedList<>();
-        findLastVarActionsFrom(new HashSet<>(), list, variable.getGraphNode(), variable, actionFilter);
-        return list;
-    }
-
-    protected boolean findLastVarActionsFrom(Set<GraphNode<?>> visited, List<VariableAction> result,
-                                             GraphNode<?> currentNode, VariableAction var,
-                                             Predicate<VariableAction> filter) {
-        // Base case
-        if (visited.contains(currentNode))
-            return true;
-        visited.add(currentNode);
-
-        Stream<VariableAction> stream = currentNode.getVariableActions().stream();
-        if (var.getGraphNode().equals(currentNode))
-            stream = stream.takeWhile(va -> va != var);
-        List<VariableAction> list = stream.filter(var::matches).filter(filter).collect(Collectors.toList());
-        if (!list.isEmpty()) {
-            for (int i = list.size() - 1; i >= 0; i--) {
-                result.add(list.get(i));
-                if (!list.get(i).isOptional())
-                    return true;
-            }
-        }
-
-        // Not found: traverse backwards!
-        boolean allBranches = !incomingEdgesOf(currentNode).isEmpty();
-        for (Arc arc : incomingEdgesOf(currentNode))
-            if (arc.isExecutableControlFlowArc())
-                allBranches &= findLastVarActionsFrom(visited, result, getEdgeSource(arc), var, filter);
-        return allBranches;
+        return !getReachingDefinitions().mayBeUndefined(usage, DEFINITIONS);
+    }
+
+    /** The number of modifications made to this graph, which identifies its current state. */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /** Register a change in this graph or in the variable actions of its nodes,
+     *  which invalidates any analysis computed previously. */
+    public void markModified() {
+        modificationCount++;
+    }
+
+    /** Obtain the reaching definitions of this graph. They are computed again if the graph has
+     *  been modified since the last time. */
+    public ReachingDefinitions getReachingDefinitions() {
+        if (reachingDefinitions == null || !reachingDefinitions.isUpToDate())
+            reachingDefinitions = new ReachingDefinitions(this);
+        return reachingDefinitions;
+    }
+
+    /** Discard the reaching definitions of this graph, which are computed again if they are needed. */
+    public void releaseReachingDefinitions() {
+        reachingDefinitions = null;
     }
 
     /** Create and set the root node of this CFG, given a callable declaration. */
     public void buildRootNode(CallableDeclaration<?> rootNodeAst) {
-        super.buildRootNode("ENTER " + rootNodeAst.getDeclarationAsString(false, false, false), rootNodeAst);
+        super.buildRootNode("ENTER " + ASTUtils.getDeclarationAsString(rootNodeAst), rootNodeAst);
+    }
+
+    @Override
+    public boolean addVertex(GraphNode<?> graphNode) {
+        if (!super.addVertex(graphNode))
+            return false;
+        graphNode.setCFG(this);
+        markModified();
+        return true;
     }
 
     @Override
     public boolean removeVertex(GraphNode<?> graphNode) {
         // Cannot remove exit node
         // Enter node's removal is checked in super#removeVertex(GraphNode)
-        if (graphNode == exitNode)
+        if (graphNode == exitNode || !super.removeVertex(graphNode))
+            return false;
+        if (graphNode.getCFG() == this)
+            graphNode.setCFG(null);
+        markModified();
+        return true;
+    }
+
+    @Override
+    public Arc addEdge(GraphNode<?> source, GraphNode<?> target) {
+        Arc arc = super.addEdge(source, target);
+        if (arc != null)
+            markModified();
+        return arc;
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<?> source, GraphNode<?> target, Arc arc) {
+        if (!super.addEdge(source, target, arc))
+            return false;
+        markModified();
+        return true;
+    }
+
+    @Override
+    public Arc removeEdge(GraphNode<?> source, GraphNode<?> target) {
+        Arc arc = super.removeEdge(source, target);
+        if (arc != null)
+            markModified();
+        return arc;
+    }
+
+    @Override
+    public boolean removeEdge(Arc arc) {
+        if (!super.removeEdge(arc))
             return false;
-        return super.removeVertex(graphNode);
+        markModified();
+        return true;
     }
 
     @Override
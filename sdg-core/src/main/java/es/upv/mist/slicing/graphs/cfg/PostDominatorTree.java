@@ -0,0 +1,262 @@
+package es.upv.mist.slicing.graphs.cfg;
+
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.utils.NodeNotFoundException;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * The post-dominator tree of a {@link CFG}, computed once with the iterative algorithm by
+ * Cooper, Harvey and Kennedy over the reversed graph.
+ * <br/>
+ * A node <i>b</i> post-dominates another node <i>a</i> if and only if <i>b</i> appears in every path
+ * from <i>a</i> to a sink (a node without outgoing arcs, such as the "Exit" node). All sinks are
+ * connected to a virtual exit, which is the root of the tree. Nodes that cannot reach any sink are
+ * not part of the tree, and are considered to be post-dominated by every node.
+ * <br/>
+ * Once built, {@link #postDominates(GraphNode, GraphNode)} is answered in constant time.
+ * The tree is not updated if the CFG is modified afterwards.
+ */
+public class PostDominatorTree {
+    /** Marks a node that has no immediate post-dominator, because it cannot reach any sink. */
+    protected static final int UNREACHABLE = -1;
+
+    protected final CFG cfg;
+    /** The nodes of the CFG, indexed in the order of {@link CFG#vertexSet()}. */
+    protected final List<GraphNode<?>> nodes;
+    protected final Map<GraphNode<?>, Integer> indexMap;
+    /** The index of the virtual exit, which is also the number of real nodes. */
+    protected final int exit;
+    /** The immediate post-dominator of each node, {@link #UNREACHABLE} if it has none. */
+    protected final int[] ipdom;
+    /** Preorder and postorder numbers in the post-dominator tree, for constant-time ancestor queries. */
+    protected final int[] treePre, treePost;
+    /** The result of {@link #findPostDominatorsOfSome(Collection)} when some target can't reach a sink,
+     *  which only depends on the common ancestor of the rest, by the index of that ancestor. */
+    protected final Map<Integer, List<GraphNode<?>>> unreachableTargetResults = new HashMap<>();
+
+    /** Computes the post-dominator tree of a CFG, considering all of its arcs. */
+    public PostDominatorTree(CFG cfg) {
+        this(cfg, arc -> true);
+    }
+
+    /** Computes the post-dominator tree of a CFG, considering only the arcs that pass the given filter. */
+    public PostDominatorTree(CFG cfg, Predicate<Arc> arcFilter) {
+        this.cfg = Objects.requireNonNull(cfg);
+        this.nodes = new ArrayList<>(cfg.vertexSet());
+        this.exit = nodes.size();
+        this.indexMap = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++)
+            indexMap.put(nodes.get(i), i);
+        int[][] successors = new int[exit + 1][];
+        int[][] predecessors = new int[exit + 1][];
+        List<Integer> sinks = new ArrayList<>();
+        for (int i = 0; i < exit; i++) {
+            successors[i] = indicesOf(cfg.outgoingEdgesOf(nodes.get(i)), arcFilter, true);
+            predecessors[i] = indicesOf(cfg.incomingEdgesOf(nodes.get(i)), arcFilter, false);
+            if (successors[i].length == 0) {
+                successors[i] = new int[] { exit };
+                sinks.add(i);
+            }
+        }
+        successors[exit] = new int[0];
+        predecessors[exit] = sinks.stream().mapToInt(Integer::intValue).toArray();
+        this.ipdom = computeImmediatePostDominators(successors, predecessors);
+        this.treePre = new int[exit + 1];
+        this.treePost = new int[exit + 1];
+        numberTree();
+    }
+
+    /** Translates the arcs that pass the filter into the indices of their target (or source) nodes. */
+    protected int[] indicesOf(Set<Arc> arcs, Predicate<Arc> arcFilter, boolean targets) {
+        int[] result = new int[arcs.size()];
+        int size = 0;
+        for (Arc arc : arcs)
+            if (arcFilter.test(arc))
+                result[size++] = indexMap.get(targets ? cfg.getEdgeTarget(arc) : cfg.getEdgeSource(arc));
+        return Arrays.copyOf(result, size);
+    }
+
+    /** Solves the post-dominance equations on the reversed graph, visiting nodes in reverse postorder
+     *  until a fixed point is reached. Predecessors in the reversed graph are the CFG successors. */
+    protected int[] computeImmediatePostDominators(int[][] successors, int[][] predecessors) {
+        // Postorder of the reversed graph, starting from the virtual exit
+        int[] postorder = new int[exit + 1];
+        Arrays.fill(postorder, UNREACHABLE);
+        int[] order = new int[exit + 1];
+        int count = 0;
+        boolean[] visited = new boolean[exit + 1];
+        int[] stack = new int[exit + 1];
+        int[] nextChild = new int[exit + 1];
+        int top = 0;
+        stack[top++] = exit;
+        visited[exit] = true;
+        while (top > 0) {
+            int node = stack[top - 1];
+            if (nextChild[node] < predecessors[node].length) {
+                int child = predecessors[node][nextChild[node]++];
+                if (!visited[child]) {
+                    visited[child] = true;
+                    stack[top++] = child;
+                }
+            } else {
+                top--;
+                postorder[node] = count;
+                order[count++] = node;
+            }
+        }
+
+        int[] idom = new int[exit + 1];
+        Arrays.fill(idom, UNREACHABLE);
+        idom[exit] = exit;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            // Reverse postorder, skipping the virtual exit (the last node in postorder)
+            for (int i = count - 2; i >= 0; i--) {
+                int node = order[i];
+                int newIdom = UNREACHABLE;
+                for (int succ : successors[node]) {
+                    if (idom[succ] == UNREACHABLE)
+                        continue;
+                    newIdom = newIdom == UNREACHABLE ? succ : intersect(idom, postorder, succ, newIdom);
+                }
+                if (idom[node] != newIdom) {
+                    idom[node] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+        return idom;
+    }
+
+    /** Finds the closest common ancestor of two nodes in the partially built tree. */
+    protected static int intersect(int[] idom, int[] postorder, int a, int b) {
+        while (a != b) {
+            while (postorder[a] < postorder[b])
+                a = idom[a];
+            while (postorder[b] < postorder[a])
+                b = idom[b];
+        }
+        return a;
+    }
+
+    /** Assigns preorder and postorder numbers to the nodes of the tree, starting at the virtual exit. */
+    protected void numberTree() {
+        int[] childCount = new int[exit + 2];
+        for (int i = 0; i < exit; i++)
+            if (ipdom[i] != UNREACHABLE)
+                childCount[ipdom[i] + 1]++;
+        for (int i = 1; i < childCount.length; i++)
+            childCount[i] += childCount[i - 1];
+        int[] children = new int[childCount[exit + 1]];
+        int[] fill = Arrays.copyOf(childCount, exit + 1);
+        for (int i = 0; i < exit; i++)
+            if (ipdom[i] != UNREACHABLE)
+                children[fill[ipdom[i]]++] = i;
+
+        Arrays.fill(treePre, UNREACHABLE);
+        Arrays.fill(treePost, UNREACHABLE);
+        int[] stack = new int[exit + 1];
+        int[] nextChild = new int[exit + 1];
+        int top = 0, pre = 0, post = 0;
+        stack[top++] = exit;
+        treePre[exit] = pre++;
+        while (top > 0) {
+            int node = stack[top - 1];
+            int next = childCount[node] + nextChild[node];
+            if (next < childCount[node + 1]) {
+                nextChild[node]++;
+                int child = children[next];
+                treePre[child] = pre++;
+                stack[top++] = child;
+            } else {
+                top--;
+                treePost[node] = post++;
+            }
+        }
+    }
+
+    /** Obtain the position of the given node in the tree's internal arrays. */
+    protected int indexOf(GraphNode<?> node) {
+        Integer index = indexMap.get(node);
+        if (index == null)
+            throw new NodeNotFoundException(node, cfg);
+        return index;
+    }
+
+    /** Whether the given node can reach a sink. Nodes that can't are post-dominated by every node. */
+    public boolean reachesExit(GraphNode<?> node) {
+        return ipdom[indexOf(node)] != UNREACHABLE;
+    }
+
+    /** Obtain the immediate post-dominator of the given node, if it exists. The nodes that
+     *  are only post-dominated by the virtual exit and those that can't reach a sink have none. */
+    public Optional<GraphNode<?>> getImmediatePostDominator(GraphNode<?> node) {
+        int idom = ipdom[indexOf(node)];
+        if (idom == UNREACHABLE || idom == exit)
+            return Optional.empty();
+        return Optional.of(nodes.get(idom));
+    }
+
+    /** Obtain the nodes that post-dominate some, but not all, of the given nodes, in the order of
+     *  {@link CFG#vertexSet()}. Applied to the successors of a node, these are the nodes that
+     *  may or may not be executed depending on the path taken. */
+    public List<GraphNode<?>> findPostDominatorsOfSome(Collection<GraphNode<?>> targets) {
+        int lca = UNREACHABLE;
+        boolean unreachableTarget = false;
+        for (GraphNode<?> target : targets) {
+            int index = indexOf(target);
+            if (ipdom[index] == UNREACHABLE)
+                unreachableTarget = true;
+            else
+                lca = lca == UNREACHABLE ? index : intersect(ipdom, treePost, index, lca);
+        }
+        // Every node post-dominates all targets
+        if (lca == UNREACHABLE)
+            return Collections.emptyList();
+        BitSet result = new BitSet(exit);
+        if (unreachableTarget) {
+            // Every node post-dominates the unreachable targets, so only those that post-dominate all others are excluded
+            List<GraphNode<?>> cached = unreachableTargetResults.get(lca);
+            if (cached != null)
+                return cached;
+            result.set(0, exit);
+            for (int node = lca; node != exit; node = ipdom[node])
+                result.clear(node);
+            List<GraphNode<?>> list = toList(result);
+            unreachableTargetResults.put(lca, list);
+            return list;
+        }
+        // Nodes in the tree paths from each target up to (but excluding) their common ancestor
+        for (GraphNode<?> target : targets)
+            for (int node = indexOf(target); node != lca && !result.get(node); node = ipdom[node])
+                result.set(node);
+        return toList(result);
+    }
+
+    /** The nodes whose indices are set in the given bit set, in the order of {@link CFG#vertexSet()}. */
+    protected List<GraphNode<?>> toList(BitSet indices) {
+        List<GraphNode<?>> list = new ArrayList<>(indices.cardinality());
+        for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1))
+            list.add(nodes.get(i));
+        return Collections.unmodifiableList(list);
+    }
+
+    /** Whether the second argument post-dominates the first, i.e. whether {@code b} appears in all
+     *  paths from {@code a} to a sink. Every node post-dominates itself. */
+    public boolean postDominates(GraphNode<?> a, GraphNode<?> b) {
+        return postDominates(indexOf(a), indexOf(b));
+    }
+
+    /** @see #postDominates(GraphNode, GraphNode) */
+    protected boolean postDominates(int a, int b) {
+        if (a == b || ipdom[a] == UNREACHABLE)
+            return true;
+        if (ipdom[b] == UNREACHABLE)
+            return false;
+        return treePre[b] <= treePre[a] && treePost[a] <= treePost[b];
+    }
+}
@@ -0,0 +1,365 @@
+package es.upv.mist.slicing.graphs.cfg;
+
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.nodes.VariableAction;
+import es.upv.mist.slicing.utils.NodeNotFoundException;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Reaching definitions over the executable arcs of a {@link CFG}, solved with bit vectors.
+ * <br/>
+ * All variable actions in the graph are numbered once. Each kind of {@link Search} (definitions,
+ * declarations, definitions of a given object member...) is solved with a worklist, visiting the
+ * nodes in reverse postorder, the first time it is queried; later queries just read the solution.
+ * <br/>
+ * Queries behave like a depth-first search from the variable action: the actions of its node that
+ * precede it (or follow it, when searching forward) are inspected first, and the solution is only
+ * consulted if none of them stops the search. Actions from the variable's own node are never
+ * reached through a loop.
+ * <br/>
+ * The solutions are not updated when the CFG changes. Use {@link #isUpToDate()} to check whether
+ * the CFG has been {@link CFG#markModified() modified} since this object was created. Every solution
+ * is kept until then: there may be a kind of search per object member, and the PDG queries all of
+ * them for each action, so evicting any of them would solve it again for the next action. Their number
+ * is bounded by the members of the actions in the CFG, and the PDG {@link CFG#releaseReachingDefinitions()
+ * releases} them once its data dependencies have been built.
+ */
+public class ReachingDefinitions {
+    protected final CFG cfg;
+    /** The nodes of the CFG, indexed in the order of {@link CFG#vertexSet()}. */
+    protected final List<GraphNode<?>> nodes;
+    protected final Map<GraphNode<?>, Integer> indexMap = new HashMap<>();
+    /** The variable actions of every node. The actions of node {@code i} are in the range
+     *  {@code [nodeStart[i], nodeStart[i + 1])}, in the same order as in the node. */
+    protected final VariableAction[] actions;
+    protected final int[] nodeStart;
+    /** The name of each action, as an index. */
+    protected final int[] actionName;
+    protected final Map<String, Integer> nameIds = new HashMap<>();
+    /** The executable control-flow predecessors and successors of each node. */
+    protected final int[][] predecessors, successors;
+    /** Whether each node lacks incoming arcs (executable or not); variables reach these nodes undefined. */
+    protected final boolean[] entries;
+    /** The modification count of the CFG when this object was created. */
+    protected final long modificationCount;
+    /** The solutions computed, by search key. */
+    protected final Map<Object, Solution> solutions = new HashMap<>();
+
+    public ReachingDefinitions(CFG cfg) {
+        this.cfg = Objects.requireNonNull(cfg);
+        this.nodes = new ArrayList<>(cfg.vertexSet());
+        this.modificationCount = cfg.getModificationCount();
+        int n = nodes.size();
+        for (int i = 0; i < n; i++)
+            indexMap.put(nodes.get(i), i);
+        nodeStart = new int[n + 1];
+        for (int i = 0; i < n; i++)
+            nodeStart[i + 1] = nodeStart[i] + nodes.get(i).getVariableActions().size();
+        actions = new VariableAction[nodeStart[n]];
+        actionName = new int[actions.length];
+        for (int i = 0; i < n; i++) {
+            List<VariableAction> list = nodes.get(i).getVariableActions();
+            for (int j = 0; j < list.size(); j++) {
+                VariableAction action = list.get(j);
+                actions[nodeStart[i] + j] = action;
+                actionName[nodeStart[i] + j] = nameIds.computeIfAbsent(action.getName(), name -> nameIds.size());
+            }
+        }
+        predecessors = new int[n][];
+        successors = new int[n][];
+        entries = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Set<Arc> incoming = cfg.incomingEdgesOf(nodes.get(i));
+            entries[i] = incoming.isEmpty();
+            predecessors[i] = executableNeighbours(incoming, false);
+            successors[i] = executableNeighbours(cfg.outgoingEdgesOf(nodes.get(i)), true);
+        }
+    }
+
+    /** Translates the executable control-flow arcs into the indices of their target (or source) nodes. */
+    protected int[] executableNeighbours(Set<Arc> arcs, boolean targets) {
+        int[] result = new int[arcs.size()];
+        int size = 0;
+        for (Arc arc : arcs)
+            if (arc.isExecutableControlFlowArc())
+                result[size++] = indexMap.get(targets ? cfg.getEdgeTarget(arc) : cfg.getEdgeSource(arc));
+        return Arrays.copyOf(result, size);
+    }
+
+    /** Whether the CFG has not been modified since this object was created. */
+    public boolean isUpToDate() {
+        return cfg.getModificationCount() == modificationCount;
+    }
+
+    /** Obtain the position of the given node in the internal arrays. */
+    protected int indexOf(GraphNode<?> node) {
+        Integer index = indexMap.get(node);
+        if (index == null)
+            throw new NodeNotFoundException(node, cfg);
+        return index;
+    }
+
+    // ===========================================================
+    // ========================= QUERIES =========================
+    // ===========================================================
+
+    /** Obtain the actions with the same name as the given one that are collected by the given search. */
+    public List<VariableAction> find(VariableAction variable, Search search) {
+        List<VariableAction> result = new ArrayList<>();
+        int node = indexOf(variable.getGraphNode());
+        if (scanStartNode(variable, search, result))
+            return result;
+        Integer name = nameIds.get(variable.getName());
+        if (name == null)
+            return result;
+        Solution solution = getSolution(search);
+        BitSet in = solution.in[node];
+        BitSet mask = solution.nameMasks[name];
+        if (in == null || mask == null)
+            return result;
+        for (int i = mask.nextSetBit(0); i >= 0 && i < solution.undefinedStart; i = mask.nextSetBit(i + 1)) {
+            int action = solution.universe[i];
+            // Actions from the starting node were handled by scanStartNode
+            if (in.get(i) && (action < nodeStart[node] || action >= nodeStart[node + 1]))
+                result.add(actions[action]);
+        }
+        return result;
+    }
+
+    /** Whether there is a path from a node without incoming arcs to the given variable action
+     *  in which the search does not stop, i.e., whether the variable may be undefined. The search
+     *  must be created with {@link Search#backward(Object, Predicate, boolean) undefined tracking}. */
+    public boolean mayBeUndefined(VariableAction variable, Search search) {
+        if (!search.trackUndefined)
+            throw new IllegalArgumentException("The search does not track undefined variables");
+        int node = indexOf(variable.getGraphNode());
+        if (scanStartNode(variable, search, new ArrayList<>()))
+            return false;
+        Integer name = nameIds.get(variable.getName());
+        if (name == null)
+            return true;
+        Solution solution = getSolution(search);
+        BitSet in = solution.in[node];
+        return in != null && in.get(solution.undefinedStart + name);
+    }
+
+    /** Inspect the actions that precede (or follow, when searching forward) the given variable in its own node,
+     *  adding the ones collected to the list. Returns whether an action that stops the search was found. */
+    protected boolean scanStartNode(VariableAction variable, Search search, List<VariableAction> result) {
+        List<VariableAction> list = variable.getGraphNode().getVariableActions();
+        int position = 0;
+        while (position < list.size() && list.get(position) != variable)
+            position++;
+        if (search.forward) {
+            for (int i = position; i < list.size(); i++)
+                if (variable.matches(list.get(i)) && inspect(list.get(i), search, result))
+                    return true;
+        } else {
+            for (int i = position - 1; i >= 0; i--)
+                if (variable.matches(list.get(i)) && inspect(list.get(i), search, result))
+                    return true;
+        }
+        return false;
+    }
+
+    /** Collect the action if it is accepted by the search, and return whether it stops the search. */
+    protected boolean inspect(VariableAction action, Search search, List<VariableAction> result) {
+        if (search.accept.test(action))
+            result.add(action);
+        return search.stop.test(action);
+    }
+
+    // ===========================================================
+    // ========================== SOLVER =========================
+    // ===========================================================
+
+    /** Obtain the solution to the given search, computing it if necessary. */
+    protected Solution getSolution(Search search) {
+        return solutions.computeIfAbsent(search.key, k -> solve(search));
+    }
+
+    /** Solve the data flow equations of the given search. The elements of the bit vectors are the
+     *  actions accepted by the search, followed by one undefined element per name, if tracked. */
+    protected Solution solve(Search search) {
+        int n = nodes.size();
+        int[] localIndex = new int[actions.length];
+        int[] universe = new int[actions.length];
+        int size = 0;
+        for (int i = 0; i < actions.length; i++) {
+            if (search.accept.test(actions[i])) {
+                localIndex[i] = size;
+                universe[size++] = i;
+            } else {
+                localIndex[i] = -1;
+            }
+        }
+        int undefinedStart = size;
+        if (search.trackUndefined)
+            size += nameIds.size();
+        BitSet[] nameMasks = new BitSet[nameIds.size()];
+        for (int i = 0; i < undefinedStart; i++)
+            nameMask(nameMasks, actionName[universe[i]]).set(i);
+        if (search.trackUndefined)
+            for (int name = 0; name < nameIds.size(); name++)
+                nameMask(nameMasks, name).set(undefinedStart + name);
+
+        // Local effect of each node: GEN contains the actions collected before the search stops, for each name;
+        // KILL contains all the elements of the names for which the search stops in the node.
+        BitSet[] gen = new BitSet[n];
+        BitSet[] kill = new BitSet[n];
+        BitSet stopped = new BitSet(nameIds.size());
+        for (int node = 0; node < n; node++) {
+            gen[node] = new BitSet(size);
+            kill[node] = new BitSet(size);
+            stopped.clear();
+            for (int k = 0; k < nodeStart[node + 1] - nodeStart[node]; k++) {
+                int action = search.forward ? nodeStart[node] + k : nodeStart[node + 1] - 1 - k;
+                int name = actionName[action];
+                if (stopped.get(name))
+                    continue;
+                if (localIndex[action] >= 0)
+                    gen[node].set(localIndex[action]);
+                if (search.stop.test(actions[action]))
+                    stopped.set(name);
+            }
+            for (int name = stopped.nextSetBit(0); name >= 0; name = stopped.nextSetBit(name + 1))
+                if (nameMasks[name] != null)
+                    kill[node].or(nameMasks[name]);
+        }
+
+        // Iterate until a fixed point is reached, always picking the first pending node in reverse postorder
+        int[][] flowPredecessors = search.forward ? successors : predecessors;
+        int[][] flowSuccessors = search.forward ? predecessors : successors;
+        int[] order = reversePostorder(flowPredecessors, flowSuccessors);
+        int[] rank = new int[n];
+        for (int r = 0; r < n; r++)
+            rank[order[r]] = r;
+        BitSet[] in = new BitSet[n];
+        BitSet[] out = new BitSet[n];
+        BitSet pending = new BitSet(n);
+        pending.set(0, n);
+        for (int r = pending.nextSetBit(0); r >= 0; r = pending.nextSetBit(0)) {
+            pending.clear(r);
+            int node = order[r];
+            BitSet newIn = new BitSet(size);
+            if (search.trackUndefined && entries[node])
+                newIn.set(undefinedStart, size);
+            for (int pred : flowPredecessors[node])
+                if (out[pred] != null)
+                    newIn.or(out[pred]);
+            in[node] = newIn;
+            BitSet newOut = (BitSet) newIn.clone();
+            newOut.andNot(kill[node]);
+            newOut.or(gen[node]);
+            if (!newOut.equals(out[node])) {
+                out[node] = newOut;
+                for (int succ : flowSuccessors[node])
+                    pending.set(rank[succ]);
+            }
+        }
+        for (int node = 0; node < n; node++)
+            if (in[node].isEmpty())
+                in[node] = null;
+        return new Solution(Arrays.copyOf(universe, undefinedStart), undefinedStart, nameMasks, in);
+    }
+
+    /** Obtain the bit vector that contains all elements of the given name, creating it if necessary. */
+    protected static BitSet nameMask(BitSet[] nameMasks, int name) {
+        if (nameMasks[name] == null)
+            nameMasks[name] = new BitSet();
+        return nameMasks[name];
+    }
+
+    /** Computes a reverse postorder of all nodes following the direction of the data flow. The depth-first
+     *  searches start at the nodes without predecessors, then at any node that has not been visited yet. */
+    protected static int[] reversePostorder(int[][] flowPredecessors, int[][] flowSuccessors) {
+        int n = flowSuccessors.length;
+        int[] order = new int[n];
+        int count = n;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] nextChild = new int[n];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int start = 0; start < n; start++) {
+                if (visited[start] || (pass == 0 && flowPredecessors[start].length > 0))
+                    continue;
+                int top = 0;
+                stack[top++] = start;
+                visited[start] = true;
+                while (top > 0) {
+                    int node = stack[top - 1];
+                    if (nextChild[node] < flowSuccessors[node].length) {
+                        int child = flowSuccessors[node][nextChild[node]++];
+                        if (!visited[child]) {
+                            visited[child] = true;
+                            stack[top++] = child;
+                        }
+                    } else {
+                        top--;
+                        order[--count] = node;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /** The solution to a search: the actions reaching each node. */
+    protected static class Solution {
+        /** The action that corresponds to each element of the bit vectors, except for the undefined elements. */
+        protected final int[] universe;
+        /** The position of the first undefined element, one per name. */
+        protected final int undefinedStart;
+        /** The elements that belong to each name, or {@code null} if there are none. */
+        protected final BitSet[] nameMasks;
+        /** The elements that reach the start of each node, or {@code null} if there are none. */
+        protected final BitSet[] in;
+
+        protected Solution(int[] universe, int undefinedStart, BitSet[] nameMasks, BitSet[] in) {
+            this.universe = universe;
+            this.undefinedStart = undefinedStart;
+            this.nameMasks = nameMasks;
+            this.in = in;
+        }
+    }
+
+    /**
+     * A kind of search for variable actions with the same name as a given one. Searches are
+     * identified by their key, and their solutions are shared between all the queries that use them.
+     */
+    public static class Search {
+        protected final Object key;
+        protected final boolean forward;
+        /** The actions that are collected. */
+        protected final Predicate<VariableAction> accept;
+        /** The actions that stop the search in the current control-flow path. */
+        protected final Predicate<VariableAction> stop;
+        /** Whether to keep track of the paths that reach the variable from nodes without incoming arcs. */
+        protected final boolean trackUndefined;
+
+        protected Search(Object key, boolean forward, Predicate<VariableAction> accept,
+                         Predicate<VariableAction> stop, boolean trackUndefined) {
+            this.key = Objects.requireNonNull(key);
+            this.forward = forward;
+            this.accept = Objects.requireNonNull(accept);
+            this.stop = Objects.requireNonNull(stop);
+            this.trackUndefined = trackUndefined;
+        }
+
+        /** A search backwards for the actions that match the filter. Each control-flow path is searched
+         *  until an action that matches the filter and is not optional is found (it is collected too). */
+        public static Search backward(Object key, Predicate<VariableAction> filter, boolean trackUndefined) {
+            return new Search(key, false, filter, filter.and(Predicate.not(VariableAction::isOptional)), trackUndefined);
+        }
+
+        /** A search forwards for the actions that match the filter, starting at the variable itself.
+         *  Each control-flow path is searched until an action that matches {@code stop} is found (it is
+         *  not collected). */
+        public static Search forward(Object key, Predicate<VariableAction> filter, Predicate<VariableAction> stop) {
+            return new Search(key, true, filter.and(Predicate.not(stop)), stop, false);
+        }
+    }
+}
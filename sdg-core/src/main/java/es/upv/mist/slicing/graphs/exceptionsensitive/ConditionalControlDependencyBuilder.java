@@ -18,6 +18,8 @@ import es.upv.mist.slicing.utils.NodeHashSet;
 import es.upv.mist.slicing.utils.Utils;
 
 import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -58,7 +60,7 @@ public class ConditionalControlDependencyBuilder {
      * CatchClause}. This process removes some {@link ControlDependencyArc CD arcs} in the process. */
     protected void buildCC1(GraphNode<CatchClause> cc) {
         Set<Node> blockInstructs = getBlockInstructs(cc.getAstNode());
-        Set<Arc> cdArcs = new HashSet<>();
+        List<Arc> cdArcs = new LinkedList<>();
         for (Arc arc : pdg.outgoingEdgesOf(cc))
             if (arc.isControlDependencyArc() && !blockInstructs.contains(pdg.getEdgeTarget(arc).getAstNode()))
                 cdArcs.add(arc);
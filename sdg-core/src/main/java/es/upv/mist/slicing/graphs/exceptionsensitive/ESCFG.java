@@ -9,15 +9,17 @@ import com.github.javaparser.resolution.Resolvable;
 import com.github.javaparser.resolution.declarations.ResolvedMethodLikeDeclaration;
 import com.github.javaparser.resolution.types.ResolvedReferenceType;
 import com.github.javaparser.resolution.types.ResolvedType;
+import es.upv.mist.slicing.arcs.Arc;
 import es.upv.mist.slicing.arcs.cfg.ControlFlowArc;
 import es.upv.mist.slicing.graphs.augmented.ACFG;
 import es.upv.mist.slicing.graphs.augmented.ACFGBuilder;
-import es.upv.mist.slicing.graphs.augmented.PPControlDependencyBuilder;
 import es.upv.mist.slicing.graphs.cfg.CFGBuilder;
+import es.upv.mist.slicing.graphs.cfg.PostDominatorTree;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.exceptionsensitive.*;
 import es.upv.mist.slicing.nodes.io.MethodExitNode;
 import es.upv.mist.slicing.utils.Logger;
+import es.upv.mist.slicing.utils.AnalysisContext;
 
 import java.util.*;
 
@@ -32,6 +34,15 @@ public class ESCFG extends ACFG {
     /** The name for the currently active exception variable. */
     public static final String ACTIVE_EXCEPTION_VARIABLE = "-activeException-";
 
+    public ESCFG() {
+        super();
+    }
+
+    public ESCFG(AnalysisContext context) {
+        super(context);
+    }
+
+
     @Override
     protected CFGBuilder newCFGBuilder() {
         return new Builder(this);
@@ -55,7 +66,7 @@ public class ESCFG extends ACFG {
      */
     protected static class ExceptionSource {
         private final GraphNode<?> source;
-        private final Map<ResolvedType, Boolean> exceptions = new HashMap<>();
+        private final Map<ResolvedType, Boolean> exceptions = new LinkedHashMap<>();
 
         protected ExceptionSource(GraphNode<?> source) {
             this.source = Objects.requireNonNull(source);
@@ -89,8 +100,8 @@ public class ESCFG extends ACFG {
     }
 
     public class Builder extends ACFGBuilder {
-        /** Map of the currently relevant exception sources, mapped by type. */
-        protected Map<ResolvedType, List<ExceptionSource>> exceptionSourceMap = new HashMap<>();
+        /** Map of the currently relevant exception sources, mapped by type, in the order in which they were found. */
+        protected Map<ResolvedType, List<ExceptionSource>> exceptionSourceMap = new LinkedHashMap<>();
         /** Stack the 'try's that surround the element we're visiting now. */
         protected Deque<TryStmt> tryStack = new LinkedList<>();
         /** Stack of statements that surround the element we're visiting now. */
@@ -145,7 +156,7 @@ public class ESCFG extends ACFG {
         protected Collection<ExceptionExitNode> processExceptionSources(CallableDeclaration<?> declaration) {
             if (!tryStack.isEmpty())
                 throw new IllegalStateException("Can't process exception sources inside a Try statement.");
-            Map<ResolvedType, ExceptionExitNode> exceptionExitMap = new HashMap<>();
+            Map<ResolvedType, ExceptionExitNode> exceptionExitMap = new LinkedHashMap<>();
             for (var entry : exceptionSourceMap.entrySet()) {
                 // 1. Create "T exit" if it does not exist
                 if (!exceptionExitMap.containsKey(entry.getKey()))
@@ -165,19 +176,25 @@ public class ESCFG extends ACFG {
          * or that post-dominates all return nodes).
          */
         protected void processPendingNormalResultNodes() {
+            if (pendingNormalReturnNodes.isEmpty())
+                return;
+            // Only non-executable arcs are added, so the tree remains valid for all nodes
+            PostDominatorTree postDominatorTree = new PostDominatorTree(ESCFG.this, Arc::isExecutableControlFlowArc);
+            List<GraphNode<?>> candidates = new ArrayList<>(vertexSet());
+            Collections.sort(candidates);
             for (Map.Entry<NormalReturnNode, Set<ReturnNode>> entry : pendingNormalReturnNodes.entrySet())
-                createNonExecArcFor(entry.getKey(), entry.getValue());
+                createNonExecArcFor(entry.getKey(), entry.getValue(), postDominatorTree, candidates);
         }
 
         // TODO: improve accuracy, if there are multiple, select the one that is post-dominated by the others.
-        // TODO: improve accuracy and speed by implementing the Roman Chariots problem.
-        /** Creates the non-executable arc from "normal return" node to its target, given a set of its sibling return nodes. */
-        protected void createNonExecArcFor(NormalReturnNode node, Set<ReturnNode> returnNodes) {
-            PPControlDependencyBuilder cdBuilder = new PPControlDependencyBuilder(ESCFG.this, null);
-            vertexSet().stream().sorted()
+        /** Creates the non-executable arc from "normal return" node to its target, given a set of its sibling return nodes.
+         *  The target is the first candidate that post-dominates all of them. */
+        protected void createNonExecArcFor(NormalReturnNode node, Set<ReturnNode> returnNodes,
+                                           PostDominatorTree postDominatorTree, List<GraphNode<?>> candidates) {
+            candidates.stream()
                     .filter(candidate -> {
                         for (ReturnNode retNode : returnNodes)
-                            if (!cdBuilder.postDominates(retNode, candidate))
+                            if (!postDominatorTree.postDominates(retNode, candidate))
                                 return false;
                         return true;
                     })
@@ -308,7 +325,7 @@ public class ESCFG extends ACFG {
         @Override
         public void visit(CatchClause n, Void arg) {
             // 1. Connect all available exception sources here
-            Set<ExceptionSource> sources = new HashSet<>();
+            Set<ExceptionSource> sources = new LinkedHashSet<>();
             for (List<ExceptionSource> list : exceptionSourceMap.values())
                 sources.addAll(list);
             for (ExceptionSource src : sources)
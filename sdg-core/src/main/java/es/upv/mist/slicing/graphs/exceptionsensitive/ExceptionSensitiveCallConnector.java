@@ -1,5 +1,6 @@
 package es.upv.mist.slicing.graphs.exceptionsensitive;
 
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.CallableDeclaration;
 import com.github.javaparser.ast.type.ReferenceType;
 import com.github.javaparser.resolution.Resolvable;
@@ -29,27 +30,34 @@ public class ExceptionSensitiveCallConnector extends CallConnector {
     protected void connectCall(CallNode callNode, CallGraph callGraph) {
         var callExpr = callNode.getCallASTNode();
         // We can pick any call, because the signatures must match
-        if (callGraph.getCallTargets(callExpr).findFirst().orElseThrow().getThrownExceptions().size() > 0)
-            handleExceptionReturnArcs(callExpr, callGraph);
+        CallableDeclaration<?>[] targets = callGraph.findCallTargets(callExpr);
+        if (targets.length == 0)
+            throw new NoSuchElementException("The call " + callExpr + " has no targets");
         super.connectCall(callNode, callGraph);
     }
 
+    @Override
+    public void connectCall(CallNode callNode, CallableDeclaration<?> target, CallGraph callGraph) {
+        var callExpr = callNode.getCallASTNode();
+        // We can pick any call, because the signatures must match
+        if (callGraph.findCallTargets(callExpr)[0].getThrownExceptions().size() > 0)
+            handleExceptionReturnArcs(callExpr, target);
+        super.connectCall(callNode, target, callGraph);
+    }
+
     /** Creates the following connections:
      * <ul>
      *     <li>{@link ExceptionExitNode} to {@link ExceptionReturnNode} with a ratio of (* to 1), n per method</li>
      *     <li>{@link NormalExitNode} to {@link NormalReturnNode} with a ratio of (1 to 1), 1 per method</li>
      * </ul>
      * @param call The method call to be connected to its method declaration.
+     * @param decl One of the declarations that the call may execute.
      */
-    protected void handleExceptionReturnArcs(Resolvable<? extends ResolvedMethodLikeDeclaration> call, CallGraph callGraph) {
-        Set<SyntheticNode<?>> synthNodes = sdg.vertexSet().stream()
-                .filter(SyntheticNode.class::isInstance)
-                .map(n -> (SyntheticNode<?>) n)
-                .collect(Collectors.toSet());
-        callGraph.getCallTargets(call).forEach(decl -> {
-            connectNormalNodes(synthNodes, call, decl);
-            connectExceptionNodes(synthNodes, call, decl);
-        });
+    protected void handleExceptionReturnArcs(Resolvable<? extends ResolvedMethodLikeDeclaration> call, CallableDeclaration<?> decl) {
+        Set<SyntheticNode<?>> synthNodes = new LinkedHashSet<>(sdg.findSyntheticNodes((Node) call));
+        synthNodes.addAll(sdg.findSyntheticNodes(decl));
+        connectNormalNodes(synthNodes, call, decl);
+        connectExceptionNodes(synthNodes, call, decl);
     }
 
     /** Connects normal exit nodes to their corresponding return node. */
@@ -72,12 +80,12 @@ public class ExceptionSensitiveCallConnector extends CallConnector {
      * that appear in the method. This creates a mismatch that is solved in {@link #connectRemainingExceptionNodes(Map, Set)}
      */
     protected void connectExceptionNodes(Set<SyntheticNode<?>> synthNodes, Resolvable<? extends ResolvedMethodLikeDeclaration> call, CallableDeclaration<?> decl) {
-        Map<ResolvedType, ExceptionReturnNode> exceptionReturnMap = new HashMap<>();
+        Map<ResolvedType, ExceptionReturnNode> exceptionReturnMap = new LinkedHashMap<>();
         Set<ExceptionExitNode> eeNodes = synthNodes.stream()
                 .filter(ExceptionExitNode.class::isInstance)
                 .map(ExceptionExitNode.class::cast)
                 .filter(n -> n.getAstNode() == decl)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
         for (ReferenceType rType : decl.getThrownExceptions()) {
             ResolvedType type = rType.resolve();
             ExceptionReturnNode exceptionReturn = synthNodes.stream()
@@ -16,6 +16,7 @@ import es.upv.mist.slicing.arcs.Arc;
 import es.upv.mist.slicing.graphs.ClassGraph;
 import es.upv.mist.slicing.graphs.ExpressionObjectTreeFinder;
 import es.upv.mist.slicing.graphs.cfg.CFGBuilder;
+import es.upv.mist.slicing.graphs.cfg.ReachingDefinitions.Search;
 import es.upv.mist.slicing.graphs.exceptionsensitive.ESCFG;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.VariableAction;
@@ -23,6 +24,7 @@ import es.upv.mist.slicing.nodes.io.MethodExitNode;
 import es.upv.mist.slicing.utils.ASTUtils;
 import es.upv.mist.slicing.utils.NodeHashSet;
 import es.upv.mist.slicing.utils.NodeNotFoundException;
+import es.upv.mist.slicing.utils.AnalysisContext;
 
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -30,7 +32,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -38,6 +39,14 @@ import java.util.stream.Stream;
  * polymorphism and other features.
  */
 public class JSysCFG extends ESCFG {
+    public JSysCFG() {
+        super();
+    }
+
+    public JSysCFG(AnalysisContext context) {
+        super(context);
+    }
+
     @Override
     public void build(CallableDeclaration<?> declaration) {
         throw new UnsupportedOperationException("Use build(CallableDeclaration, ClassGraph, Set<ConstructorDeclaration>)");
@@ -66,17 +75,18 @@ public class JSysCFG extends ESCFG {
     /** Given a usage of an object member, find the last definitions of that member.
      *  This method returns a list of variable actions, where the caller can find the member. */
     public List<VariableAction> findLastDefinitionOfObjectMember(VariableAction usage, String[] member) {
-        return findLastVarActionsFrom(usage, def -> def.isDefinition() && def.hasTreeMember(member));
+        return getReachingDefinitions().find(usage, Search.backward(List.of("member definition", List.of(member)),
+                def -> def.isDefinition() && def.hasTreeMember(member), false));
     }
 
     /** Given a usage of a primitive variable, find the last def actions that affect it. */
     public List<VariableAction> findLastDefinitionOfPrimitive(VariableAction usage) {
-        return findLastVarActionsFrom(usage, VariableAction::isDefinition);
+        return findLastDefinitionsFrom(usage);
     }
 
     /** Given the usage of a root object variable, find the last root definitions that affect it. */
     public List<VariableAction> findLastDefinitionOfObjectRoot(VariableAction usage) {
-        return findLastVarActionsFrom(usage, VariableAction::isDefinition);
+        return findLastDefinitionsFrom(usage);
     }
 
     /** Given a field declaration, locate all definitions that affect the given member. */
@@ -112,9 +122,9 @@ public class JSysCFG extends ESCFG {
     /** Given an action that defines a member, locates the previous total definition that gave
      *  it value. */
     public List<VariableAction> findLastTotalDefinitionOf(VariableAction action, String[] member) {
-        return findLastVarActionsFrom(action, def ->
+        return getReachingDefinitions().find(action, Search.backward(List.of("total definition", List.of(member)), def ->
                 (def.isDeclaration() && def.hasTreeMember(member))
-                || (def.isDefinition() && def.asDefinition().isTotallyDefinedMember(member)));
+                || (def.isDefinition() && def.asDefinition().isTotallyDefinedMember(member)), false));
     }
 
     /** Given a definition of a given member, locate all definitions of the same object until a definition
@@ -125,45 +135,8 @@ public class JSysCFG extends ESCFG {
             throw new NodeNotFoundException(definition.getGraphNode(), this);
         if (definition.hasTreeMember(member))
             return List.of(definition);
-        List<VariableAction> list = new LinkedList<>();
-        findNextVarActionsFor(new HashSet<>(), list, definition.getGraphNode(), definition, VariableAction::isDefinition, member);
-        return list;
-    }
-
-    /** Locate variable actions that match the given filter and variable name, starting in {@code currentNode},
-     *  at variable action {@code var} and searching backwards. The resulting variable actions are placed in
-     *  the given argument. This search stops after finding a matching action in each branch. */
-    protected boolean findNextVarActionsFor(Set<GraphNode<?>> visited, List<VariableAction> result,
-                                            GraphNode<?> currentNode, VariableAction var,
-                                            Predicate<VariableAction> filter, String[] memberName) {
-        // Base case
-        if (visited.contains(currentNode))
-            return true;
-        visited.add(currentNode);
-
-        Stream<VariableAction> stream = currentNode.getVariableActions().stream();
-        if (var.getGraphNode().equals(currentNode))
-            stream = stream.dropWhile(va -> va != var);
-        List<VariableAction> list = stream.filter(var::matches).filter(filter).collect(Collectors.toList());
-        if (!list.isEmpty()) {
-            boolean found = false;
-            for (VariableAction variableAction : list) {
-                if (!variableAction.isOptional() && variableAction.hasTreeMember(memberName)) {
-                    found = true;
-                    break;
-                }
-                result.add(variableAction);
-            }
-            if (found)
-                return true;
-        }
-
-        // Not found: traverse forwards!
-        boolean allBranches = !outgoingEdgesOf(currentNode).isEmpty();
-        for (Arc arc : outgoingEdgesOf(currentNode))
-            if (arc.isExecutableControlFlowArc())
-                allBranches &= findNextVarActionsFor(visited, result, getEdgeTarget(arc), var, filter, memberName);
-        return allBranches;
+        return getReachingDefinitions().find(definition, Search.forward(List.of("next definition", List.of(member)),
+                VariableAction::isDefinition, def -> def.isDefinition() && !def.isOptional() && def.hasTreeMember(member)));
     }
 
     public class Builder extends ESCFG.Builder {
@@ -182,7 +155,7 @@ public class JSysCFG extends ESCFG {
         @Override
         protected <T extends Node> GraphNode<T> connectTo(T n, String text) {
             GraphNode<T> dest;
-            dest = new GraphNode<>(text, n);
+            dest = new GraphNode<>(text, n, context);
             if (methodInsertedInstructions.contains(n) ||
                     (implicitDeclaration && !(n instanceof FieldDeclaration)))
                 dest.markAsImplicit();
@@ -305,7 +278,7 @@ public class JSysCFG extends ESCFG {
                     .filter(gn -> gn.getAstNode() instanceof ReturnStmt)
                     .forEach(gn -> {
                         Expression expr = ((ReturnStmt) gn.getAstNode()).getExpression().orElseThrow();
-                        new ExpressionObjectTreeFinder(gn).locateAndMarkTransferenceToRoot(expr, -1);
+                        new ExpressionObjectTreeFinder(gn, context.getClassGraph()).locateAndMarkTransferenceToRoot(expr, -1);
                     });
         }
     }
@@ -4,15 +4,19 @@ import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.visitor.ModifierVisitor;
 import com.github.javaparser.ast.visitor.Visitable;
 import es.upv.mist.slicing.arcs.pdg.StructuralArc;
+import es.upv.mist.slicing.graphs.CallGraph;
 import es.upv.mist.slicing.graphs.ClassGraph;
 import es.upv.mist.slicing.graphs.augmented.PSDG;
 import es.upv.mist.slicing.graphs.cfg.CFG;
 import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
 import es.upv.mist.slicing.graphs.exceptionsensitive.ExceptionSensitiveCallConnector;
 import es.upv.mist.slicing.graphs.pdg.PDG;
+import es.upv.mist.slicing.graphs.sdg.AbstractSummaryArcAnalyzer;
+import es.upv.mist.slicing.graphs.sdg.CallConnector;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.VariableAction;
 import es.upv.mist.slicing.nodes.io.FormalIONode;
@@ -21,6 +25,8 @@ import es.upv.mist.slicing.slicing.JSysDGSlicingAlgorithm;
 import es.upv.mist.slicing.slicing.SlicingAlgorithm;
 import es.upv.mist.slicing.utils.NodeHashSet;
 
+import java.util.*;
+
 public class JSysDG extends ESSDG {
     @Override
     protected SlicingAlgorithm createSlicingAlgorithm() {
@@ -38,14 +44,9 @@ public class JSysDG extends ESSDG {
     class Builder extends ESSDG.Builder {
         protected NodeHashSet<ConstructorDeclaration> newlyInsertedConstructors = new NodeHashSet<>();
 
-        @Override
-        public void build(NodeList<CompilationUnit> nodeList) {
-            insertImplicitConstructors(nodeList);
-            super.build(nodeList);
-        }
-
         @Override
         protected void createClassGraph(NodeList<CompilationUnit> nodeList) {
+            insertImplicitConstructors(nodeList);
             super.createClassGraph(nodeList);
             insertTypeNodes();
         }
@@ -71,12 +72,18 @@ public class JSysDG extends ESSDG {
 
         @Override
         protected void buildCFG(CallableDeclaration<?> declaration, CFG cfg) {
-            ((JSysCFG) cfg).build(declaration, newlyInsertedConstructors, ClassGraph.getInstance());
+            ((JSysCFG) cfg).build(declaration, newlyInsertedConstructors, context.getClassGraph());
+        }
+
+        /** Constructors are edited while their CFG is built, and other CFGs may read their class. */
+        @Override
+        protected boolean buildsCFGsInParallel() {
+            return false;
         }
 
         @Override
         protected CFG createCFG() {
-            return new JSysCFG();
+            return new JSysCFG(context);
         }
 
         @Override
@@ -85,35 +92,74 @@ public class JSysDG extends ESSDG {
             return new JSysPDG((JSysCFG) cfg);
         }
 
+        @Override
+        protected void prepareRebuild(CallableDeclaration<?> declaration) {
+            if (!declaration.isConstructorDeclaration())
+                return;
+            // Remove the statements inserted by JSysCFG, which have no range
+            NodeList<Statement> statements = declaration.asConstructorDeclaration().getBody().getStatements();
+            if (statements.isNonEmpty() && statements.getFirst().orElseThrow().isExplicitConstructorInvocationStmt()
+                    && statements.getFirst().get().getRange().isEmpty())
+                statements.removeFirst();
+            if (statements.isNonEmpty() && statements.getLast().orElseThrow().isReturnStmt()
+                    && statements.getLast().get().getRange().isEmpty())
+                statements.removeLast();
+        }
+
+        @Override
+        protected void restoreUnits(NodeList<CompilationUnit> units) {
+            cfgMap.keySet().forEach(this::prepareRebuild);
+            newlyInsertedConstructors.forEach(ConstructorDeclaration::remove);
+        }
+
+        @Override
+        protected CallConnector createCallConnector() {
+            return new JSysCallConnector(JSysDG.this);
+        }
+
         @Override
         protected void connectCalls() {
-            new JSysCallConnector(JSysDG.this).connectAllCalls(callGraph);
+            super.connectCalls();
             connectEnumToFormalIn();
         }
 
+        @Override
+        protected void connectCalls(Set<CallGraph.Vertex> rebuilt) {
+            super.connectCalls(rebuilt);
+            List<GraphNode<?>> newNodes = new LinkedList<>();
+            for (CallGraph.Vertex vertex : rebuilt)
+                newNodes.addAll(declarationNodes.getOrDefault(vertex.getDeclaration(), Collections.emptyList()));
+            for (ClassGraph.Vertex<? extends TypeDeclaration<?>> vertex : context.getClassGraph().typeVertices())
+                if (vertex.getDeclaration() instanceof EnumDeclaration)
+                    findNodeByASTNode(vertex.getDeclaration()).ifPresent(typeNode -> connectEnumToFormalIn(typeNode, newNodes));
+        }
+
         protected void connectEnumToFormalIn() {
-            for (GraphNode<?> g1 : vertexSet()) {
-                if (!(g1.getAstNode() instanceof EnumDeclaration))
-                    continue;
-                VariableAction a1 = g1.getLastVariableAction();
-                for (GraphNode<?> g2 : vertexSet()) {
-                    if (g2 instanceof FormalIONode) {
-                        FormalIONode fIn = (FormalIONode) g2;
-                        if (fIn.isInput() && fIn.getVariableName().equals(a1.getName()))
-                            a1.applySDGTreeConnection(JSysDG.this, g2.getLastVariableAction());
-                    }
+            for (GraphNode<?> g1 : vertexSet())
+                if (g1.getAstNode() instanceof EnumDeclaration)
+                    connectEnumToFormalIn(g1, vertexSet());
+        }
+
+        /** Connect the type node of an enum to the formal-in nodes among the given nodes that represent it. */
+        protected void connectEnumToFormalIn(GraphNode<?> typeNode, Collection<GraphNode<?>> nodes) {
+            VariableAction a1 = typeNode.getLastVariableAction();
+            for (GraphNode<?> g2 : nodes) {
+                if (g2 instanceof FormalIONode) {
+                    FormalIONode fIn = (FormalIONode) g2;
+                    if (fIn.isInput() && fIn.getVariableName().equals(a1.getName()))
+                        a1.applySDGTreeConnection(JSysDG.this, g2.getLastVariableAction());
                 }
             }
         }
 
         @Override
-        protected void createSummaryArcs() {
-            new SummaryArcAnalyzer(JSysDG.this, callGraph).analyze();
+        protected AbstractSummaryArcAnalyzer<?, ?, ?> createSummaryArcAnalyzer() {
+            return new SummaryArcAnalyzer(JSysDG.this, callGraph);
         }
 
         /** Adds type nodes (classes, interfaces, enums) to the SDG, along with their static fields. */
         protected void insertTypeNodes() {
-            for (ClassGraph.Vertex<? extends TypeDeclaration<?>> cgVertex : ClassGraph.getInstance().typeVertices()) {
+            for (ClassGraph.Vertex<? extends TypeDeclaration<?>> cgVertex : context.getClassGraph().typeVertices()) {
                 String kind;
                 if (cgVertex.getDeclaration() instanceof EnumDeclaration) {
                     kind = "enum";
@@ -9,9 +9,11 @@ import es.upv.mist.slicing.nodes.SyntheticNode;
 import es.upv.mist.slicing.nodes.VariableAction;
 import es.upv.mist.slicing.nodes.io.FormalIONode;
 import es.upv.mist.slicing.nodes.oo.MemberNode;
+import es.upv.mist.slicing.slicing.Slice;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -27,7 +29,7 @@ public class SummaryArcAnalyzer extends AbstractSummaryArcAnalyzer<SyntheticNode
     @Override
     protected Set<SyntheticNode<?>> getFormalOutNodes(CallableDeclaration<?> declaration) {
         Set<SyntheticNode<?>> set = super.getFormalOutNodes(declaration);
-        for (var node : Set.copyOf(set)) {
+        for (var node : List.copyOf(set)) {
             if (node.getVariableActions().isEmpty())
                 continue;
             assert node.getVariableActions().size() == 1;
@@ -38,10 +40,11 @@ public class SummaryArcAnalyzer extends AbstractSummaryArcAnalyzer<SyntheticNode
         return set;
     }
 
+
     @Override
-    protected Set<SyntheticNode<?>> computeFormalIn(SyntheticNode<?> formalOut) {
-        Set<SyntheticNode<?>> result = new HashSet<>();
-        for (GraphNode<?> graphNode : ((JSysDG) sdg).createSlicingAlgorithm().traverseProcedure(formalOut).getGraphNodes())
+    protected Set<SyntheticNode<?>> findFormalIn(Slice slice) {
+        Set<SyntheticNode<?>> result = new LinkedHashSet<>();
+        for (GraphNode<?> graphNode : slice)
             if (isFormalIn(graphNode) && graphNode instanceof SyntheticNode)
                 result.add((SyntheticNode<?>) graphNode);
         return result;
@@ -54,7 +57,7 @@ public class SummaryArcAnalyzer extends AbstractSummaryArcAnalyzer<SyntheticNode
                 .map(sdg::getEdgeSource)
                 .filter(actualIn -> goToParent(actualIn).getAstNode() == edge.getCall())
                 .map(node -> (SyntheticNode<?>) node)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     @Override
@@ -64,7 +67,7 @@ public class SummaryArcAnalyzer extends AbstractSummaryArcAnalyzer<SyntheticNode
                 .map(sdg::getEdgeTarget)
                 .filter(actualOut -> goToParent(actualOut).getAstNode() == edge.getCall())
                 .map(node -> (SyntheticNode<?>) node)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     private boolean isFormalIn(GraphNode<?> graphNode) {
@@ -20,6 +20,7 @@ import es.upv.mist.slicing.utils.ASTUtils;
 
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -101,10 +102,10 @@ public class DynamicTypeResolver {
 
     /** Locate the declaration (method or constructor) where the given node is located. */
     protected CallableDeclaration<?> findCallableDeclarationFromGraphNode(GraphNode<?> node) {
-        return cfgMap.values().stream()
-                .filter(cfg -> cfg.containsVertex(node))
-                .map(CFG::getDeclaration)
-                .findFirst().orElseThrow();
+        CFG cfg = node.getCFG();
+        if (cfg == null || cfgMap.get(cfg.getDeclaration()) != cfg)
+            throw new NoSuchElementException("Node " + node.getId() + "'s associated CFG cannot be found!");
+        return cfg.getDeclaration();
     }
 
     /** Looks up the expression assigned to all corresponding actual-in nodes and resolves it. */
@@ -153,6 +154,6 @@ public class DynamicTypeResolver {
                 .getTypeDeclaration().orElseThrow().asClass();
         return classGraph.subclassesOf(type).stream()
                 .map(TypeDeclaration::resolve)
-                .map(ASTUtils::resolvedTypeDeclarationToResolvedType);
+                .map(decl -> ASTUtils.resolvedTypeDeclarationToResolvedType(decl, classGraph.getContext().getTypeSolver()));
     }
 }
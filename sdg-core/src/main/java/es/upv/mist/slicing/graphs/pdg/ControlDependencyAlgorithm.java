@@ -0,0 +1,11 @@
+package es.upv.mist.slicing.graphs.pdg;
+
+/** The algorithms available to compute the control dependencies of a {@link PDG}. */
+public enum ControlDependencyAlgorithm {
+    /** Checks every pair of nodes. Very slow, kept as a reference implementation.
+     *  @see ControlDependencyBuilder */
+    PAIRWISE,
+    /** Builds the post-dominator tree once and derives the dependencies from it.
+     *  @see PostDominatorControlDependencyBuilder */
+    POST_DOMINATOR_TREE
+}
@@ -21,7 +21,8 @@ import java.util.Set;
  * A node <i>b</i> post-dominates another node <i>a</i> if and only if <i>b</i> appears in every path
  * from <i>a</i> to the "Exit" node.
  * <br/>
- * There exist better, cheaper approaches that have linear complexity w.r.t. the number of edges in the CFG.
+ * There exist better, cheaper approaches that have linear complexity w.r.t. the number of edges in the CFG,
+ * such as {@link PostDominatorControlDependencyBuilder}.
  * <b>Usage:</b> pass an empty {@link PDG} and a filled {@link CFG} and then run {@link #build()}.
  * This builder should only be used once, and then discarded.
  */
@@ -47,6 +48,15 @@ public class ControlDependencyBuilder {
             cfg.addEdge(enterNode, exitNode, enterExitArc);
         }
 
+        addControlDependencyArcs();
+
+        if (enterExitArc != null)
+            cfg.removeEdge(enterExitArc);
+    }
+
+    /** Checks every pair of nodes in the PDG and connects those that have a control dependence.
+     *  The CFG contains an arc from "Enter" to "Exit" while this method runs. */
+    protected void addControlDependencyArcs() {
         Set<GraphNode<?>> nodes = pdg.vertexSet();
         for (GraphNode<?> a : nodes) {
             for (GraphNode<?> b : nodes) {
@@ -55,9 +65,6 @@ public class ControlDependencyBuilder {
                     pdg.addControlDependencyArc(a, b);
             }
         }
-
-        if (enterExitArc != null)
-            cfg.removeEdge(enterExitArc);
     }
 
     /** Whether the first argument has a control-flow effect on the execution of the second argument. */
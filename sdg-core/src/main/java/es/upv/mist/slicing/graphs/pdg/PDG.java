@@ -10,10 +10,12 @@ import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.VariableAction;
 import es.upv.mist.slicing.nodes.io.ActualIONode;
 import es.upv.mist.slicing.nodes.io.CallNode;
+import es.upv.mist.slicing.utils.AnalysisContext;
 
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -25,6 +27,7 @@ import java.util.Set;
  */
 public class PDG extends GraphWithRootNode<CallableDeclaration<?>> {
     protected final CFG cfg;
+    protected ControlDependencyAlgorithm controlDependencyAlgorithm = ControlDependencyAlgorithm.POST_DOMINATOR_TREE;
 
     public PDG() {
         this(new CFG());
@@ -46,6 +49,22 @@ public class PDG extends GraphWithRootNode<CallableDeclaration<?>> {
         return cfg;
     }
 
+    @Override
+    public AnalysisContext getContext() {
+        return cfg.getContext();
+    }
+
+    public ControlDependencyAlgorithm getControlDependencyAlgorithm() {
+        return controlDependencyAlgorithm;
+    }
+
+    /** Select the algorithm used to compute control dependencies. It must be set before building this graph. */
+    public void setControlDependencyAlgorithm(ControlDependencyAlgorithm controlDependencyAlgorithm) {
+        if (built)
+            throw new IllegalStateException("The PDG has already been built");
+        this.controlDependencyAlgorithm = Objects.requireNonNull(controlDependencyAlgorithm);
+    }
+
     @Override
     public void build(CallableDeclaration<?> declaration) {
         createBuilder().build(declaration);
@@ -78,6 +97,7 @@ public class PDG extends GraphWithRootNode<CallableDeclaration<?>> {
             buildAndCopyCFG(declaration); // 4.1
             buildControlDependency();     // 4.2
             buildDataDependency();        // 4.2
+            cfg.releaseReachingDefinitions();
             expandCalls();                // 4.3
             assert incomingEdgesOf(cfg.getExitNode()).stream().noneMatch(Arc::isDataDependencyArc);
             removeVertex(cfg.getExitNode());
@@ -93,7 +113,18 @@ public class PDG extends GraphWithRootNode<CallableDeclaration<?>> {
 
         /** Computes all the control dependencies between nodes of this graph. */
         protected void buildControlDependency() {
-            new ControlDependencyBuilder(cfg, PDG.this).build();
+            createControlDependencyBuilder().build();
+        }
+
+        /** Create the control dependency builder that corresponds to the selected {@link ControlDependencyAlgorithm}. */
+        protected ControlDependencyBuilder createControlDependencyBuilder() {
+            switch (controlDependencyAlgorithm) {
+                case PAIRWISE:
+                    return new ControlDependencyBuilder(cfg, PDG.this);
+                case POST_DOMINATOR_TREE:
+                    return new PostDominatorControlDependencyBuilder(cfg, PDG.this);
+            }
+            throw new IllegalArgumentException("Unknown algorithm " + controlDependencyAlgorithm);
         }
 
         /** Computes all the data dependencies between {@link VariableAction variable actions} of this graph. */
@@ -112,7 +143,7 @@ public class PDG extends GraphWithRootNode<CallableDeclaration<?>> {
          * them via control dependency to the node they were located at.
          */
         protected void expandCalls() {
-            for (GraphNode<?> graphNode : Set.copyOf(vertexSet())) {
+            for (GraphNode<?> graphNode : List.copyOf(vertexSet())) {
                 Deque<CallNode> callNodeStack = new LinkedList<>();
                 for (VariableAction action : List.copyOf(graphNode.getVariableActions())) {
                     if (action instanceof VariableAction.CallMarker) {
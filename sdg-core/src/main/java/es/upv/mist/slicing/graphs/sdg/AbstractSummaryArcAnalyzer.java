@@ -1,98 +1,284 @@
 package es.upv.mist.slicing.graphs.sdg;
 
 import com.github.javaparser.ast.body.CallableDeclaration;
-import es.upv.mist.slicing.graphs.BackwardDataFlowAnalysis;
+import es.upv.mist.slicing.arcs.Arc;
 import es.upv.mist.slicing.graphs.CallGraph;
+import es.upv.mist.slicing.graphs.ComponentScheduler;
+import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.SyntheticNode;
 import es.upv.mist.slicing.nodes.exceptionsensitive.ExitNode;
 import es.upv.mist.slicing.nodes.io.FormalIONode;
 import es.upv.mist.slicing.nodes.io.OutputNode;
+import es.upv.mist.slicing.nodes.oo.MemberNode;
+import es.upv.mist.slicing.slicing.Slice;
+import es.upv.mist.slicing.slicing.SlicingAlgorithm;
+import es.upv.mist.slicing.utils.Utils;
 
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Base class for generating and placing in an SDG the summary arcs.
+ * <br/>
+ * The arcs are computed with a work-list of output and formal-out nodes, in the style of Reps, Horwitz
+ * and Sagiv. Each of them is traversed intraprocedurally to find the formal-in nodes it depends on, and
+ * the corresponding summary arcs are placed in every call to its declaration. A node is only traversed
+ * again when a new summary arc is connected to one of the nodes it reached, as that is the only way in
+ * which the result of the traversal may change.
+ * <br/>
+ * Unlike the original algorithm, the nodes are not propagated as path edges, one arc at a time, but
+ * traversed with the slicing algorithm of the graph. The exception-sensitive and object-oriented
+ * algorithms decide whether to follow an arc depending on how its target was reached, which a path
+ * edge does not record. One algorithm is created per component and reused for all its traversals.
+ * <br/>
+ * The work-list is solved per strongly connected component of the call graph, in reverse topological
+ * order. Before a component is solved, the (final) arcs of the declarations it calls are placed in its
+ * calls. Each component only modifies its own calls, so independent components may be solved in parallel.
+ * As they share the same graph, its structure is only read while holding {@link #lock}'s read lock,
+ * and the summary arcs are added with its write lock. Afterwards, the arcs are moved to the order in
+ * which a sequential analysis adds them, so the resulting graph does not depend on the parallelism level.
  * @param <ActualIn> The type of node for actual-in nodes.
  * @param <FormalOut> The type of node for formal-out nodes.
  * @param <FormalIn> The type of node for formal-in nodes.
  */
-public abstract class AbstractSummaryArcAnalyzer<ActualIn extends SyntheticNode<?>, FormalOut extends SyntheticNode<?>, FormalIn extends SyntheticNode<?>>
-        extends BackwardDataFlowAnalysis<CallGraph.Vertex, CallGraph.Edge<?>, Map<FormalOut, Set<FormalIn>>> {
+public abstract class AbstractSummaryArcAnalyzer<ActualIn extends SyntheticNode<?>, FormalOut extends SyntheticNode<?>, FormalIn extends SyntheticNode<?>> {
     protected final SDG sdg;
-    
+    protected final CallGraph graph;
+    /** The formal-in nodes found for each formal-out node so far. */
+    protected final Map<FormalOut, Set<FormalIn>> formalInMap = new HashMap<>();
+    /** The formal-out nodes of each call graph vertex. */
+    protected final Map<CallGraph.Vertex, Set<FormalOut>> formalOutMap = new HashMap<>();
+    /** The call graph vertex that contains each formal-out node. */
+    protected final Map<FormalOut, CallGraph.Vertex> vertexMap = new HashMap<>();
+    /** The summary arcs added by the component of each call graph vertex, in order. */
+    protected final Map<CallGraph.Vertex, List<Arc>> addedArcs = new ConcurrentHashMap<>();
+    /** Guards the SDG between the components that are analyzed in parallel. */
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    protected boolean built = false;
+    protected int parallelism = 1;
+
     protected AbstractSummaryArcAnalyzer(SDG sdg, CallGraph graph) {
-        super(graph);
         this.sdg = sdg;
+        this.graph = graph;
+    }
+
+    /** Set the maximum number of components that may be analyzed at the same time. It must be set before the analysis. */
+    public void setParallelism(int parallelism) {
+        if (built)
+            throw new IllegalStateException("The analysis has already been performed");
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism level must be positive");
+        this.parallelism = parallelism;
+    }
+
+    /** Generate all summary arcs. This method only performs the analysis on its first call. */
+    public void analyze() {
+        assert !built;
+        for (CallGraph.Vertex vertex : graph.vertexSet()) {
+            Set<FormalOut> formalOuts = getFormalOutNodes(vertex.getDeclaration());
+            formalOutMap.put(vertex, formalOuts);
+            for (FormalOut formalOut : formalOuts) {
+                vertexMap.put(formalOut, vertex);
+                formalInMap.put(formalOut, new LinkedHashSet<>());
+            }
+        }
+        ComponentScheduler<CallGraph.Vertex, CallGraph.Edge<?>> scheduler = new ComponentScheduler<>(graph);
+        scheduler.run(parallelism, this::analyzeComponent);
+        if (parallelism > 1)
+            sortSummaryArcs(scheduler.getComponents());
+        built = true;
+    }
+
+    /**
+     * Update the summary arcs after the PDGs of some declarations have been built again. Their components
+     * are analyzed again, as are those that call a declaration whose formal-out nodes now depend on a different
+     * set of formal-in nodes. The arcs of the other components are kept. Their calls to the declarations
+     * that have been built again must have been connected, and the summary arcs of those must be final.
+     * @param rebuilt The call graph vertices whose nodes have been replaced since the last analysis.
+     */
+    public void update(Set<CallGraph.Vertex> rebuilt) {
+        assert built;
+        Map<CallGraph.Vertex, List<String>> oldRelations = new HashMap<>();
+        for (CallGraph.Vertex vertex : rebuilt) {
+            oldRelations.put(vertex, describeRelation(vertex));
+            for (FormalOut formalOut : formalOutMap.getOrDefault(vertex, Collections.emptySet())) {
+                formalInMap.remove(formalOut);
+                vertexMap.remove(formalOut);
+            }
+            Set<FormalOut> formalOuts = getFormalOutNodes(vertex.getDeclaration());
+            formalOutMap.put(vertex, formalOuts);
+            for (FormalOut formalOut : formalOuts) {
+                vertexMap.put(formalOut, vertex);
+                formalInMap.put(formalOut, new LinkedHashSet<>());
+            }
+        }
+        Set<CallGraph.Vertex> changed = new HashSet<>();
+        for (List<CallGraph.Vertex> component : new ComponentScheduler<>(graph).getComponents()) {
+            if (component.stream().noneMatch(rebuilt::contains) && !callsAny(component, changed))
+                continue;
+            for (CallGraph.Vertex vertex : component) {
+                if (rebuilt.contains(vertex))
+                    continue;
+                oldRelations.put(vertex, describeRelation(vertex));
+                for (GraphNode<?> node : sdg.declarationNodes.getOrDefault(vertex.getDeclaration(), Collections.emptyList()))
+                    for (Arc arc : List.copyOf(sdg.outgoingEdgesOf(node)))
+                        if (arc.isSummaryArc())
+                            sdg.removeEdge(arc);
+                for (FormalOut formalOut : formalOutMap.get(vertex))
+                    formalInMap.get(formalOut).clear();
+            }
+            analyzeComponent(component);
+            for (CallGraph.Vertex vertex : component)
+                if (!oldRelations.get(vertex).equals(describeRelation(vertex)))
+                    changed.add(vertex);
+        }
     }
 
-    @Override
-    protected Map<FormalOut, Set<FormalIn>> compute(CallGraph.Vertex vertex, Set<CallGraph.Vertex> predecessors) {
-        saveDeclaration(vertex);
-        return initialValue(vertex);
+    /** Whether any vertex of the component calls one of the given vertices, from outside the component. */
+    protected boolean callsAny(List<CallGraph.Vertex> component, Set<CallGraph.Vertex> vertices) {
+        for (CallGraph.Vertex vertex : component)
+            for (CallGraph.Edge<?> edge : graph.outgoingEdgesOf(vertex))
+                if (vertices.contains(graph.getEdgeTarget(edge)) && !component.contains(graph.getEdgeTarget(edge)))
+                    return true;
+        return false;
     }
 
-    @Override
-    protected Map<FormalOut, Set<FormalIn>> initialValue(CallGraph.Vertex vertex) {
-        Map<FormalOut, Set<FormalIn>> value;
-        if (vertexDataMap.containsKey(vertex)) {
-            value = vertexDataMap.get(vertex);
-        } else {
-            value = new HashMap<>();
-            for (var formalOut : getFormalOutNodes(vertex.getDeclaration()))
-                value.put(formalOut, new HashSet<>());
+    /** Describe the formal-in nodes that each formal-out node of a vertex depends on, in a way that
+     *  does not depend on the identity of the nodes, so that it can be compared after they are rebuilt. */
+    protected List<String> describeRelation(CallGraph.Vertex vertex) {
+        List<String> relation = new ArrayList<>();
+        for (FormalOut formalOut : formalOutMap.getOrDefault(vertex, Collections.emptySet())) {
+            List<String> formalIns = new ArrayList<>();
+            for (FormalIn formalIn : formalInMap.get(formalOut))
+                formalIns.add(describe(formalIn));
+            Collections.sort(formalIns);
+            relation.add(describe(formalOut) + " <- " + formalIns);
+        }
+        Collections.sort(relation);
+        return relation;
+    }
+
+    /** Describe a node by its kind and label, including those of its parents if it is a member node. */
+    protected String describe(GraphNode<?> node) {
+        String description = node.getClass().getSimpleName() + " " + node.getLabel();
+        if (node instanceof MemberNode && ((MemberNode) node).getParent() != null)
+            return describe(((MemberNode) node).getParent()) + " / " + description;
+        return description;
+    }
+
+    /** Add the summary arcs again, in the order in which the given components are analyzed sequentially. */
+    protected void sortSummaryArcs(List<List<CallGraph.Vertex>> components) {
+        for (List<CallGraph.Vertex> component : components) {
+            for (Arc arc : addedArcs.get(component.get(0))) {
+                GraphNode<?> source = sdg.getEdgeSource(arc);
+                GraphNode<?> target = sdg.getEdgeTarget(arc);
+                sdg.removeEdge(arc);
+                sdg.addEdge(source, target, arc);
+            }
+        }
+    }
+
+    /** Generate the summary arcs of the declarations in a strongly connected component of the call
+     *  graph and place them in the calls to them from the same component. The arcs of the declarations
+     *  called from the component must be final. */
+    protected void analyzeComponent(List<CallGraph.Vertex> component) {
+        Set<CallGraph.Vertex> componentSet = new HashSet<>(component);
+        List<Arc> componentArcs = new ArrayList<>();
+        for (CallGraph.Vertex vertex : component)
+            addedArcs.put(vertex, componentArcs);
+        // The formal-out nodes whose latest traversal reached each node
+        Map<GraphNode<?>, Set<FormalOut>> reachedByMap = new HashMap<>();
+        Set<FormalOut> workList = new LinkedHashSet<>();
+        SlicingAlgorithm algorithm = sdg.createSlicingAlgorithm();
+        for (CallGraph.Vertex vertex : component) {
+            for (CallGraph.Edge<?> edge : graph.outgoingEdgesOf(vertex)) {
+                CallGraph.Vertex target = graph.getEdgeTarget(edge);
+                if (componentSet.contains(target))
+                    continue;
+                for (FormalOut formalOut : formalOutMap.get(target))
+                    saveSummaryArcs(edge, formalOut, formalInMap.get(formalOut));
+            }
+            workList.addAll(formalOutMap.get(vertex));
+        }
+        while (!workList.isEmpty()) {
+            FormalOut formalOut = Utils.setPop(workList);
+            Slice slice;
+            Set<FormalIn> newFormalIns;
+            lock.readLock().lock();
+            try {
+                slice = algorithm.traverseProcedure(formalOut);
+                newFormalIns = findFormalIn(slice);
+            } finally {
+                lock.readLock().unlock();
+            }
+            for (GraphNode<?> node : slice)
+                reachedByMap.computeIfAbsent(node, n -> new LinkedHashSet<>()).add(formalOut);
+            newFormalIns.removeAll(formalInMap.get(formalOut));
+            if (newFormalIns.isEmpty())
+                continue;
+            formalInMap.get(formalOut).addAll(newFormalIns);
+            for (CallGraph.Edge<?> edge : graph.incomingEdgesOf(vertexMap.get(formalOut))) {
+                if (!componentSet.contains(graph.getEdgeSource(edge)))
+                    continue;
+                for (SyntheticNode<?> node : saveSummaryArcs(edge, formalOut, newFormalIns))
+                    workList.addAll(reachedByMap.getOrDefault(node, Collections.emptySet()));
+            }
         }
-        value.replaceAll((key, oldValue) -> computeFormalIn(key));
-        return value;
     }
 
     /** Obtain all nodes that represent the output of a method declaration. These include formal-out,
      *  return nodes and normal/exception exit nodes (for exception handling). */
     protected Set<FormalOut> getFormalOutNodes(CallableDeclaration<?> declaration) {
-        Set<FormalOut> set = new HashSet<>();
-        Stream.concat(
-                Stream.concat(
-                        sdg.vertexSet().stream() // formal-out nodes
-                                .filter(FormalIONode.class::isInstance)
-                                .map(FormalIONode.class::cast)
-                                .filter(FormalIONode::isOutput),
-                        sdg.vertexSet().stream() // output nodes (the value returned)
-                                .filter(OutputNode.class::isInstance)
-                                .map(OutputNode.class::cast)),
-                sdg.vertexSet().stream() // normal/exception exit nodes (for exception handling)
-                        .filter(ExitNode.class::isInstance)
-                        .map(ExitNode.class::cast))
-                // Only nodes that match the current declaration
-                .filter(node -> node.getAstNode() == declaration)
-                .forEach(e -> set.add((FormalOut) e));
+        Set<FormalOut> set = new LinkedHashSet<>();
+        for (SyntheticNode<?> node : sdg.findSyntheticNodes(declaration)) {
+            if ((node instanceof FormalIONode && ((FormalIONode) node).isOutput()) // formal-out nodes
+                    || node instanceof OutputNode // output nodes (the value returned)
+                    || node instanceof ExitNode) // normal/exception exit nodes (for exception handling)
+                set.add((FormalOut) node);
+        }
         return set;
     }
 
-    /** Given an output or formal-out node, locate the formal-in nodes it depends on.
-     *  This search should be performed intra-procedurally, the parent class will take
-     *  care of the rest of cases by adding summary arcs computed for other declarations. */
-    protected abstract Set<FormalIn> computeFormalIn(FormalOut formalOut);
-
-    /** Generate all summary arcs for a given call. Arc generation should be idempotent:
-     *  if this method is called repeatedly it should not create duplicate summary arcs. */
-    protected void saveDeclaration(CallGraph.Vertex vertex) {
-        var result = vertexDataMap.get(vertex);
-        for (CallGraph.Edge<?> edge : graph.incomingEdgesOf(vertex)) {
-            for (var entry : result.entrySet()) {
-                Collection<? extends SyntheticNode<?>> actualOuts = findOutputNode(edge, entry.getKey());
-                if (actualOuts.isEmpty())
-                    continue;
-                for (FormalIn formalIn : entry.getValue()) {
-                    Collection<? extends ActualIn> actualIns = findActualIn(edge, formalIn);
-                    if (actualIns.isEmpty())
-                        continue;
-                    for (SyntheticNode<?> actualOut : actualOuts)
-                        for (ActualIn actualIn : actualIns)
-                            if (!sdg.containsEdge(actualIn, actualOut))
-                                sdg.addSummaryArc(actualIn, actualOut);
+    /** Locate the formal-in nodes that have been reached in the given slice. */
+    protected abstract Set<FormalIn> findFormalIn(Slice slice);
+
+    /** Generate the summary arcs that connect the given formal-in nodes to a formal-out node in the given
+     *  call. Returns the nodes that have been connected by a new arc. */
+    protected Set<SyntheticNode<?>> saveSummaryArcs(CallGraph.Edge<?> edge, FormalOut formalOut, Set<FormalIn> formalIns) {
+        Set<SyntheticNode<?>> connected = new LinkedHashSet<>();
+        Collection<? extends SyntheticNode<?>> actualOuts;
+        // The actual-in nodes of each formal-in node
+        List<Collection<? extends ActualIn>> actualInLists = new ArrayList<>(formalIns.size());
+        lock.readLock().lock();
+        try {
+            actualOuts = findOutputNode(edge, formalOut);
+            if (actualOuts.isEmpty())
+                return connected;
+            for (FormalIn formalIn : formalIns)
+                actualInLists.add(findActualIn(edge, formalIn));
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            for (Collection<? extends ActualIn> actualIns : actualInLists) {
+                for (SyntheticNode<?> actualOut : actualOuts) {
+                    for (ActualIn actualIn : actualIns) {
+                        if (sdg.containsEdge(actualIn, actualOut))
+                            continue;
+                        addedArcs.get(graph.getEdgeSource(edge)).add(sdg.addSummaryArc(actualIn, actualOut));
+                        connected.add(actualIn);
+                        connected.add(actualOut);
+                    }
                 }
             }
+        } finally {
+            lock.writeLock().unlock();
         }
+        return connected;
     }
 
     /** Find the actual-in that represents the given formal-in in the given call.
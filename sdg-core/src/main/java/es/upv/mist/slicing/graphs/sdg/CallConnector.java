@@ -35,11 +35,14 @@ public class CallConnector {
     @SuppressWarnings("unchecked")
     protected void connectCall(CallNode callNode, CallGraph callGraph) {
         var callExpr = (Resolvable<? extends ResolvedMethodLikeDeclaration>) callNode.getAstNode();
-        callGraph.getCallTargets(callExpr)
-                .filter(ASTUtils::hasBody) // Added so that all nodes received correspond to a valid CFG root *without body there is no CFG*
-                .map(sdg::findNodeByASTNode)
-                .map(opt -> opt.orElseThrow(IllegalArgumentException::new))
-                .forEach(node -> connectCall(callNode, node));
+        for (CallableDeclaration<?> target : callGraph.findCallTargets(callExpr))
+            connectCall(callNode, target, callGraph);
+    }
+
+    /** Connects a given call to one of its possible declarations. */
+    public void connectCall(CallNode callNode, CallableDeclaration<?> target, CallGraph callGraph) {
+        if (ASTUtils.hasBody(target)) // Added so that all nodes received correspond to a valid CFG root *without body there is no CFG*
+            connectCall(callNode, sdg.findNodeByASTNode(target).orElseThrow(IllegalArgumentException::new));
     }
 
     /** Connects a given call to its declaration, via call and in/out arcs. */
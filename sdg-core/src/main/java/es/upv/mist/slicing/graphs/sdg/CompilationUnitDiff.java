@@ -0,0 +1,212 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.TokenRange;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+
+import java.util.*;
+
+/**
+ * The differences between a compilation unit used to build a graph and a new version of the same file,
+ * when they are limited to the bodies of some methods and constructors. The tokens of both units are compared,
+ * ignoring whitespace, so each unchanged node of the old unit can be given the position of its counterpart.
+ * @see #compute(CompilationUnit, CompilationUnit)
+ */
+public class CompilationUnitDiff {
+    /** The declarations of the old unit that have changed, in order. */
+    protected final List<CallableDeclaration<?>> oldDeclarations = new ArrayList<>();
+    /** The new version of each changed declaration, in the same order. */
+    protected final List<CallableDeclaration<?>> newDeclarations = new ArrayList<>();
+    /** The tokens of the new unit that correspond to each node of the old unit, outside the changed declarations. */
+    protected final Map<Node, TokenRange> tokenRanges = new IdentityHashMap<>();
+
+    protected CompilationUnitDiff() {}
+
+    /** The declarations of the old unit whose body has changed. */
+    public List<CallableDeclaration<?>> getOldDeclarations() {
+        return Collections.unmodifiableList(oldDeclarations);
+    }
+
+    /** The new version of each of the {@link #getOldDeclarations() changed declarations}, in the same order. */
+    public List<CallableDeclaration<?>> getNewDeclarations() {
+        return Collections.unmodifiableList(newDeclarations);
+    }
+
+    /** Whether both units have the same tokens, in the same positions. */
+    public boolean isEmpty() {
+        return oldDeclarations.isEmpty() && findMovedNodes().isEmpty();
+    }
+
+    /** The nodes of the old unit, outside the changed declarations, whose position changes in the new unit. */
+    public Set<Node> findMovedNodes() {
+        Set<Node> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+        tokenRanges.forEach((node, tokenRange) -> {
+            if (!node.getRange().equals(tokenRange.toRange()))
+                moved.add(node);
+        });
+        return moved;
+    }
+
+    /** Place the unchanged nodes of the old unit on the tokens of the new unit, and replace the changed
+     *  declarations with a copy of their new version. The new unit is not modified.
+     *  @return The copies that have replaced the changed declarations, in order. */
+    public List<CallableDeclaration<?>> apply() {
+        tokenRanges.forEach(Node::setTokenRange);
+        List<CallableDeclaration<?>> copies = new ArrayList<>(newDeclarations.size());
+        for (int i = 0; i < oldDeclarations.size(); i++) {
+            CallableDeclaration<?> copy = newDeclarations.get(i).clone();
+            oldDeclarations.get(i).replace(copy);
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /**
+     * Compare two versions of a compilation unit.
+     * @return The differences between them, or nothing if they differ outside the bodies of the methods and
+     *         constructors of (non-interface) types, if a changed body contains nested declarations or anonymous
+     *         classes, or if the units don't keep the tokens from which they were parsed.
+     */
+    public static Optional<CompilationUnitDiff> compute(CompilationUnit oldUnit, CompilationUnit newUnit) {
+        if (oldUnit.getTokenRange().isEmpty() || newUnit.getTokenRange().isEmpty()
+                || newUnit.stream().anyMatch(n -> n.getTokenRange().isEmpty()))
+            return Optional.empty();
+        List<CallableDeclaration<?>> oldCallables = findOutermostCallables(oldUnit);
+        List<CallableDeclaration<?>> newCallables = findOutermostCallables(newUnit);
+        if (oldCallables.size() != newCallables.size())
+            return Optional.empty();
+        CompilationUnitDiff diff = new CompilationUnitDiff();
+        Map<JavaToken, JavaToken> tokenMap = new IdentityHashMap<>();
+        List<JavaToken> oldTokens = significantTokens(oldUnit.getTokenRange().get());
+        List<JavaToken> newTokens = significantTokens(newUnit.getTokenRange().get());
+        Map<JavaToken, Integer> oldIndex = indexOf(oldTokens), newIndex = indexOf(newTokens);
+        int oldStart = 0, newStart = 0;
+        for (int i = 0; i <= oldCallables.size(); i++) {
+            boolean last = i == oldCallables.size();
+            TokenRange oldRange = last ? null : oldCallables.get(i).getTokenRange().orElseThrow();
+            TokenRange newRange = last ? null : newCallables.get(i).getTokenRange().orElseThrow();
+            // The tokens between two declarations must be the same
+            int oldEnd = last ? oldTokens.size() : oldIndex.getOrDefault(oldRange.getBegin(), -1);
+            int newEnd = last ? newTokens.size() : newIndex.getOrDefault(newRange.getBegin(), -1);
+            if (oldEnd < oldStart || newEnd < newStart
+                    || !pairTokens(oldTokens.subList(oldStart, oldEnd), newTokens.subList(newStart, newEnd), tokenMap))
+                return Optional.empty();
+            if (last)
+                break;
+            List<JavaToken> oldDeclTokens = significantTokens(oldRange);
+            List<JavaToken> newDeclTokens = significantTokens(newRange);
+            if (!pairTokens(oldDeclTokens, newDeclTokens, tokenMap)) {
+                if (!isReplaceable(oldCallables.get(i), newCallables.get(i)))
+                    return Optional.empty();
+                diff.oldDeclarations.add(oldCallables.get(i));
+                diff.newDeclarations.add(newCallables.get(i));
+            }
+            oldStart = oldEnd + oldDeclTokens.size();
+            newStart = newEnd + newDeclTokens.size();
+        }
+        Set<Node> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        changed.addAll(diff.oldDeclarations);
+        if (!diff.mapNodes(oldUnit, changed, tokenMap))
+            return Optional.empty();
+        diff.tokenRanges.put(oldUnit, newUnit.getTokenRange().get());
+        return Optional.of(diff);
+    }
+
+    /** Find the token range in the new unit of every node of the old one, except the changed declarations. */
+    protected boolean mapNodes(Node node, Set<Node> changed, Map<JavaToken, JavaToken> tokenMap) {
+        for (Node child : node.getChildNodes()) {
+            if (changed.contains(child))
+                continue;
+            if (child.getTokenRange().isPresent()) { // Nodes inserted while building the graph have no tokens
+                JavaToken begin = tokenMap.get(child.getTokenRange().get().getBegin());
+                JavaToken end = tokenMap.get(child.getTokenRange().get().getEnd());
+                if (begin == null || end == null)
+                    return false;
+                tokenRanges.put(child, new TokenRange(begin, end));
+            }
+            if (!mapNodes(child, changed, tokenMap))
+                return false;
+        }
+        return true;
+    }
+
+    /** Whether the old declaration can be replaced by the new one without modifying the rest of the graph:
+     *  they must have the same header, a body, and no nested declarations. */
+    protected static boolean isReplaceable(CallableDeclaration<?> oldDecl, CallableDeclaration<?> newDecl) {
+        if (!(oldDecl.getParentNode().orElse(null) instanceof TypeDeclaration)
+                || (oldDecl.getParentNode().get() instanceof ClassOrInterfaceDeclaration
+                        && ((ClassOrInterfaceDeclaration) oldDecl.getParentNode().get()).isInterface()))
+            return false;
+        Optional<BlockStmt> oldBody = getBody(oldDecl), newBody = getBody(newDecl);
+        if (oldBody.isEmpty() || newBody.isEmpty() || hasNestedDeclarations(oldDecl) || hasNestedDeclarations(newDecl))
+            return false;
+        return tokensMatch(significantTokens(oldDecl.getTokenRange().get()), oldBody.get(),
+                significantTokens(newDecl.getTokenRange().get()), newBody.get());
+    }
+
+    /** Whether the tokens of both declarations are the same before their bodies begin. */
+    protected static boolean tokensMatch(List<JavaToken> oldTokens, BlockStmt oldBody, List<JavaToken> newTokens, BlockStmt newBody) {
+        int oldHeader = indexOf(oldTokens).getOrDefault(oldBody.getTokenRange().orElseThrow().getBegin(), -1);
+        int newHeader = indexOf(newTokens).getOrDefault(newBody.getTokenRange().orElseThrow().getBegin(), -1);
+        return oldHeader >= 0 && oldHeader == newHeader
+                && pairTokens(oldTokens.subList(0, oldHeader), newTokens.subList(0, newHeader), new IdentityHashMap<>());
+    }
+
+    protected static Optional<BlockStmt> getBody(CallableDeclaration<?> declaration) {
+        if (declaration instanceof MethodDeclaration)
+            return ((MethodDeclaration) declaration).getBody();
+        return Optional.of(((ConstructorDeclaration) declaration).getBody());
+    }
+
+    /** Whether the declaration contains other methods, constructors, types or anonymous classes. */
+    protected static boolean hasNestedDeclarations(CallableDeclaration<?> declaration) {
+        return declaration.stream().anyMatch(n -> n != declaration && (n instanceof CallableDeclaration
+                || n instanceof TypeDeclaration
+                || (n instanceof ObjectCreationExpr && ((ObjectCreationExpr) n).getAnonymousClassBody().isPresent())));
+    }
+
+    /** The methods and constructors of a unit that are not nested in another one and come from its tokens, in order.
+     *  They are sorted by position: the child nodes of a type are kept in the order in which they were set, so a
+     *  declaration replaced by {@link #apply()} comes after the rest. */
+    protected static List<CallableDeclaration<?>> findOutermostCallables(CompilationUnit unit) {
+        List<CallableDeclaration<?>> list = new ArrayList<>();
+        for (CallableDeclaration<?> declaration : unit.findAll(CallableDeclaration.class))
+            if (declaration.getTokenRange().isPresent() && declaration.findAncestor(CallableDeclaration.class).isEmpty())
+                list.add(declaration);
+        list.sort(Comparator.comparing(declaration -> declaration.getBegin().orElseThrow()));
+        return list;
+    }
+
+    /** If both lists have the same tokens, pair them in the given map. */
+    protected static boolean pairTokens(List<JavaToken> oldTokens, List<JavaToken> newTokens, Map<JavaToken, JavaToken> tokenMap) {
+        if (oldTokens.size() != newTokens.size())
+            return false;
+        for (int i = 0; i < oldTokens.size(); i++)
+            if (oldTokens.get(i).getKind() != newTokens.get(i).getKind()
+                    || !oldTokens.get(i).getText().equals(newTokens.get(i).getText()))
+                return false;
+        for (int i = 0; i < oldTokens.size(); i++)
+            tokenMap.put(oldTokens.get(i), newTokens.get(i));
+        return true;
+    }
+
+    /** The tokens of the given range, except whitespace. Comments are included. */
+    protected static List<JavaToken> significantTokens(TokenRange tokenRange) {
+        List<JavaToken> tokens = new ArrayList<>();
+        for (JavaToken token : tokenRange)
+            if (!token.getCategory().isWhitespace())
+                tokens.add(token);
+        return tokens;
+    }
+
+    protected static Map<JavaToken, Integer> indexOf(List<JavaToken> tokens) {
+        Map<JavaToken, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < tokens.size(); i++)
+            index.put(tokens.get(i), i);
+        return index;
+    }
+}
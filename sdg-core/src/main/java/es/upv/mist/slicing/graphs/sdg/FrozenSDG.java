@@ -0,0 +1,325 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.arcs.ArcKind;
+import es.upv.mist.slicing.graphs.NodeIndex;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.slicing.Slice;
+import es.upv.mist.slicing.slicing.Sliceable;
+import es.upv.mist.slicing.slicing.SlicingCriterion;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An immutable and compact copy of the structure of a built {@link SDG}, obtained with {@link SDG#freeze()}.
+ * <br/>
+ * Nodes are numbered by their {@linkplain GraphNode#getId() ids}, so slices of the SDG and of this copy share their
+ * numbering. After a full build they are dense and follow the order of {@link SDG#vertexSet()}; the ids of the nodes
+ * removed by {@link SDG#update(Collection)} are left empty, without a node or arcs. The arcs are numbered densely,
+ * following the order of {@link SDG#edgeSet()}. They are stored in compressed sparse row format, grouped by target
+ * (incoming adjacency) and by source (outgoing adjacency), and the kind of each arc is stored
+ * in a byte column. Each {@link Adjacency} lists the arcs of a node both in the order of the SDG
+ * and partitioned by kind.
+ */
+public class FrozenSDG implements Sliceable, NodeIndex {
+    protected final SDG sdg;
+
+    /** The nodes of the SDG, by id, or {@code null} for unused ids. */
+    protected final GraphNode<?>[] nodes;
+
+    protected final Arc[] arcs;
+    protected final int[] arcSources;
+    protected final int[] arcTargets;
+    protected final byte[] arcKinds;
+
+    /** The arcs grouped by target. */
+    protected final Adjacency incoming;
+    /** The arcs grouped by source. */
+    protected final Adjacency outgoing;
+
+    protected FrozenSDG(SDG sdg) {
+        this.sdg = sdg;
+        int nodeCount = 0;
+        for (GraphNode<?> node : sdg.vertexSet())
+            nodeCount = Math.max(nodeCount, (int) node.getId() + 1);
+        nodes = new GraphNode<?>[nodeCount];
+        for (GraphNode<?> node : sdg.vertexSet())
+            nodes[(int) node.getId()] = node;
+        int arcCount = sdg.edgeSet().size();
+        arcs = new Arc[arcCount];
+        arcSources = new int[arcCount];
+        arcTargets = new int[arcCount];
+        arcKinds = new byte[arcCount];
+        int i = 0;
+        for (Arc arc : sdg.edgeSet()) {
+            arcs[i] = arc;
+            arcSources[i] = (int) sdg.getEdgeSource(arc).getId();
+            arcTargets[i] = (int) sdg.getEdgeTarget(arc).getId();
+            arcKinds[i] = arc.getKind().toByte();
+            i++;
+        }
+        incoming = new Adjacency(nodeCount, arcTargets, arcSources, arcKinds);
+        outgoing = new Adjacency(nodeCount, arcSources, arcTargets, arcKinds);
+    }
+
+    /** The SDG from which this copy was created. */
+    public SDG getSDG() {
+        return sdg;
+    }
+
+    @Override
+    public Slice slice(SlicingCriterion slicingCriterion) {
+        return sdg.slice(slicingCriterion);
+    }
+
+    @Override
+    public List<Slice> sliceAll(Collection<SlicingCriterion> slicingCriteria) {
+        return sdg.sliceAll(slicingCriteria);
+    }
+
+    // ========================== NODES ==========================
+
+    @Override
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    /** {@inheritDoc} It is {@code null} if no node of the SDG has the given id. */
+    @Override
+    public GraphNode<?> getNode(int node) {
+        return nodes[node];
+    }
+
+    @Override
+    public int indexOf(GraphNode<?> node) {
+        long id = node.getId();
+        return id >= 0 && id < nodes.length && nodes[(int) id] == node ? (int) id : -1;
+    }
+
+    /** Obtain the id of a node of the SDG.
+     *  @throws IllegalArgumentException If the node is not part of the SDG. */
+    public int getId(GraphNode<?> node) {
+        int id = indexOf(node);
+        if (id == -1)
+            throw new IllegalArgumentException("Node " + node.getId() + " is not part of the graph");
+        return id;
+    }
+
+    // ========================== ARCS ===========================
+
+    public int arcCount() {
+        return arcs.length;
+    }
+
+    public Arc getArc(int arc) {
+        return arcs[arc];
+    }
+
+    public int getSource(int arc) {
+        return arcSources[arc];
+    }
+
+    public int getTarget(int arc) {
+        return arcTargets[arc];
+    }
+
+    public ArcKind getKind(int arc) {
+        return ArcKind.fromByte(arcKinds[arc]);
+    }
+
+    // ======================== ADJACENCY ========================
+
+    /** The arcs of each node, grouped by their target. */
+    public Adjacency incoming() {
+        return incoming;
+    }
+
+    /** The arcs of each node, grouped by their source. */
+    public Adjacency outgoing() {
+        return outgoing;
+    }
+
+    /** A view of the arcs that reach the given node, in the same order as {@link SDG#incomingEdgesOf(Object)}. */
+    public List<Arc> incomingEdgesOf(GraphNode<?> node) {
+        int id = getId(node);
+        return new ArcList(incoming.arcs, incoming.start(id), incoming.end(id));
+    }
+
+    /** A view of the arcs that leave the given node, in the same order as {@link SDG#outgoingEdgesOf(Object)}. */
+    public List<Arc> outgoingEdgesOf(GraphNode<?> node) {
+        int id = getId(node);
+        return new ArcList(outgoing.arcs, outgoing.start(id), outgoing.end(id));
+    }
+
+    /** An unmodifiable list of arcs, backed by a range of one of the adjacency arrays. */
+    protected class ArcList extends AbstractList<Arc> {
+        protected final int[] adjacency;
+        protected final int start;
+        protected final int end;
+
+        protected ArcList(int[] adjacency, int start, int end) {
+            this.adjacency = adjacency;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public Arc get(int index) {
+            if (index < 0 || index >= end - start)
+                throw new IndexOutOfBoundsException(index);
+            return arcs[adjacency[start + index]];
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+
+    /**
+     * The arcs of each node of a frozen SDG, grouped by one of their ends, in two layouts:
+     * <ul>
+     *     <li>In the order in which they are listed by the SDG ({@link #start(int)}, {@link #end(int)}
+     *     and {@link #arc(int)}).</li>
+     *     <li>Partitioned by kind: the arcs of each node are split into runs of arcs of the same kind,
+     *     which keep the order of the SDG ({@link #firstRun(int)}, {@link #endRun(int)},
+     *     {@link #runKind(int)}, {@link #runStart(int)}, {@link #runEnd(int)} and {@link #partitionedArc(int)}).
+     *     Traversals that ignore some kinds of arcs can skip whole runs without looking at their arcs.</li>
+     * </ul>
+     */
+    public static class Adjacency {
+        /** The arcs of node {@code n} are {@code arcs[offsets[n]..offsets[n + 1]]}. */
+        protected final int[] offsets;
+        protected final int[] arcs;
+        /** The set of kinds of the arcs of each node. */
+        protected final int[] kinds;
+        /** The node at the opposite end of each arc. */
+        protected final int[] opposite;
+        /** The arcs of each node, partitioned by kind. They share {@link #offsets} with {@link #arcs}. */
+        protected final int[] partitioned;
+        /** The runs of node {@code n} are {@code runOffsets[n]..runOffsets[n + 1]}. */
+        protected final int[] runOffsets;
+        /** The first position of each run in {@link #partitioned}, followed by the end of the last run. */
+        protected final int[] runStarts;
+        protected final byte[] runKinds;
+
+        protected Adjacency(int nodeCount, int[] grouping, int[] opposite, byte[] arcKinds) {
+            this.opposite = opposite;
+            offsets = new int[nodeCount + 1];
+            arcs = groupArcs(grouping, offsets, identity(grouping.length));
+            // Stable sort by kind, then by node: arcs end up grouped by node, and then by kind
+            int[] byKind = groupArcs(toInts(arcKinds), new int[ArcKind.values().length + 1], identity(grouping.length));
+            partitioned = groupArcs(grouping, new int[nodeCount + 1], byKind);
+            kinds = new int[nodeCount];
+            runOffsets = new int[nodeCount + 1];
+            int[] starts = new int[partitioned.length + 1];
+            byte[] runKinds = new byte[partitioned.length];
+            int runs = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                runOffsets[node] = runs;
+                for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                    byte kind = arcKinds[partitioned[i]];
+                    if (i == offsets[node] || kind != arcKinds[partitioned[i - 1]]) {
+                        starts[runs] = i;
+                        runKinds[runs++] = kind;
+                        kinds[node] |= 1 << kind;
+                    }
+                }
+            }
+            runOffsets[nodeCount] = runs;
+            starts[runs] = partitioned.length;
+            this.runStarts = Arrays.copyOf(starts, runs + 1);
+            this.runKinds = Arrays.copyOf(runKinds, runs);
+        }
+
+        /** Reorder the given arcs by the value of the given column (a stable counting sort), filling the
+         *  offsets of each value. */
+        protected static int[] groupArcs(int[] column, int[] offsets, int[] arcs) {
+            for (int arc : arcs)
+                offsets[column[arc] + 1]++;
+            for (int n = 1; n < offsets.length; n++)
+                offsets[n] += offsets[n - 1];
+            int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+            int[] grouped = new int[arcs.length];
+            for (int arc : arcs)
+                grouped[next[column[arc]]++] = arc;
+            return grouped;
+        }
+
+        protected static int[] identity(int length) {
+            int[] array = new int[length];
+            for (int i = 0; i < length; i++)
+                array[i] = i;
+            return array;
+        }
+
+        protected static int[] toInts(byte[] bytes) {
+            int[] ints = new int[bytes.length];
+            for (int i = 0; i < bytes.length; i++)
+                ints[i] = bytes[i];
+            return ints;
+        }
+
+        /** The position in {@link #arc(int)} of the first arc of the given node. */
+        public int start(int node) {
+            return offsets[node];
+        }
+
+        /** The position in {@link #arc(int)} after the last arc of the given node. */
+        public int end(int node) {
+            return offsets[node + 1];
+        }
+
+        /** The arc at the given position, in the order of the SDG. */
+        public int arc(int position) {
+            return arcs[position];
+        }
+
+        public int degree(int node) {
+            return offsets[node + 1] - offsets[node];
+        }
+
+        /** The set of kinds of the arcs of the given node, as a bitmask. */
+        public int kinds(int node) {
+            return kinds[node];
+        }
+
+        /** The node at the opposite end of the given arc (the source for incoming arcs). */
+        public int opposite(int arc) {
+            return opposite[arc];
+        }
+
+        /** The first run of arcs of the given node. */
+        public int firstRun(int node) {
+            return runOffsets[node];
+        }
+
+        /** The run after the last run of arcs of the given node. */
+        public int endRun(int node) {
+            return runOffsets[node + 1];
+        }
+
+        /** The kind shared by the arcs of the given run. */
+        public byte runKind(int run) {
+            return runKinds[run];
+        }
+
+        /** The position in {@link #partitionedArc(int)} of the first arc of the given run. */
+        public int runStart(int run) {
+            return runStarts[run];
+        }
+
+        /** The position in {@link #partitionedArc(int)} after the last arc of the given run. */
+        public int runEnd(int run) {
+            return runStarts[run + 1];
+        }
+
+        /** The arc at the given position, in the partitioned layout. */
+        public int partitionedArc(int position) {
+            return partitioned[position];
+        }
+    }
+}
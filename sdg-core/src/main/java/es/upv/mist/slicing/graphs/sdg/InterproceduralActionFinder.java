@@ -12,6 +12,7 @@ import es.upv.mist.slicing.utils.Logger;
 import es.upv.mist.slicing.utils.Utils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -25,7 +26,7 @@ import java.util.stream.Stream;
 public abstract class InterproceduralActionFinder<A extends VariableAction> extends BackwardDataFlowAnalysis<CallGraph.Vertex, CallGraph.Edge<?>, Set<A>> {
     protected final Map<CallableDeclaration<?>, CFG> cfgMap;
     /** A map from vertex and action to its corresponding stored action, to avoid generating duplicate nodes. */
-    protected final Map<CallGraph.Vertex, Map<A, StoredAction>> actionStoredMap = new HashMap<>();
+    protected final Map<CallGraph.Vertex, Map<A, StoredAction>> actionStoredMap = new ConcurrentHashMap<>();
 
     protected InterproceduralActionFinder(CallGraph callGraph, Map<CallableDeclaration<?>, CFG> cfgMap) {
         super(callGraph);
@@ -42,23 +43,60 @@ public abstract class InterproceduralActionFinder<A extends VariableAction> exte
         graph.vertexSet().forEach(this::saveDeclarationFormalNodes);
     }
 
+    /** Forget the actual nodes saved for the given edges, which have been removed from the call graph along
+     *  with the CFG nodes that contained them. Each edge is mapped to the vertex that it targeted. */
+    public void forgetEdges(Map<CallGraph.Edge<?>, CallGraph.Vertex> removedEdges) {
+        removedEdges.forEach((edge, target) -> {
+            var storedMap = actionStoredMap.get(target);
+            if (storedMap != null)
+                for (StoredAction stored : storedMap.values())
+                    stored.actualStoredMap.remove(edge);
+        });
+    }
+
+    /**
+     * Analyze again a strongly connected component of the call graph, whose CFGs have been built again, and
+     * save the results to them. The values of the vertices it calls must be final, and the edges that were
+     * removed with its previous CFGs must have been forgotten (see {@link #forgetEdges(Map)}).
+     * @return The vertices of the component whose value has changed.
+     */
+    public Set<CallGraph.Vertex> reanalyze(List<CallGraph.Vertex> component) {
+        Map<CallGraph.Vertex, Set<A>> oldValues = new HashMap<>();
+        for (CallGraph.Vertex vertex : component) {
+            oldValues.put(vertex, vertexDataMap.remove(vertex));
+            // The formal nodes were saved in the previous CFG
+            actionStoredMap.getOrDefault(vertex, Collections.emptyMap()).values()
+                    .forEach(stored -> stored.formalStored = null);
+        }
+        analyzeComponent(component);
+        Set<CallGraph.Vertex> changed = new HashSet<>();
+        for (CallGraph.Vertex vertex : component) {
+            saveDeclarationFormalNodes(vertex);
+            Set<A> oldValue = oldValues.get(vertex);
+            if (oldValue == null || !dataMatch(oldValue, vertexDataMap.get(vertex)))
+                changed.add(vertex);
+        }
+        return changed;
+    }
+
     /** Obtains the StoredAction object with information on which actions have been stored. */
     protected StoredAction getStored(CallGraph.Vertex vertex, A action) {
         return actionStoredMap.get(vertex).get(action);
     }
 
-    /** Save the current set of actions associated with the given declaration. This method will
-     *  only generate actual-in and actual-out nodes. It is idempotent, and won't generate duplicates. */
-    protected void saveDeclarationActualNodes(CallGraph.Vertex vertex) {
-        var actions = vertexDataMap.get(vertex);
-        // Update stored action map
-        actionStoredMap.computeIfAbsent(vertex, v -> new HashMap<>());
-        for (A a : actions)
-            actionStoredMap.get(vertex).computeIfAbsent(a, __ -> new StoredAction());
+    /** Save the current set of actions associated with each declaration called from the given one. This method
+     *  will only generate actual-in and actual-out nodes, in the calls of the given declaration, so that
+     *  independent declarations may be analyzed in parallel. It is idempotent, and won't generate duplicates. */
+    protected void saveCallActualNodes(CallGraph.Vertex vertex) {
         // ACTUAL: per call (n)
-        for (CallGraph.Edge<?> edge : graph.incomingEdgesOf(vertex))
+        for (CallGraph.Edge<?> edge : graph.outgoingEdgesOf(vertex)) {
+            CallGraph.Vertex target = graph.getEdgeTarget(edge);
+            var actions = vertexDataMap.get(target);
+            var storedMap = actionStoredMap.computeIfAbsent(target, __ -> new ConcurrentHashMap<>());
             actions.stream().sorted(new ParameterFieldSorter(edge)).forEach(a ->
-                    getStored(vertex, a).storeActual(edge, a, e -> sandBoxedHandler(e, a, this::handleActualAction)));
+                    storedMap.computeIfAbsent(a, __ -> new StoredAction())
+                            .storeActual(edge, a, e -> sandBoxedHandler(e, a, this::handleActualAction)));
+        }
     }
 
     /** Save the current set of actions associated with the given declaration. This method will
@@ -66,7 +104,7 @@ public abstract class InterproceduralActionFinder<A extends VariableAction> exte
     protected void saveDeclarationFormalNodes(CallGraph.Vertex vertex) {
         var actions = vertexDataMap.get(vertex);
         // Update stored action map
-        actionStoredMap.computeIfAbsent(vertex, __ -> new HashMap<>());
+        actionStoredMap.computeIfAbsent(vertex, __ -> new ConcurrentHashMap<>());
         for (A a : actions)
             actionStoredMap.get(vertex).computeIfAbsent(a, __ -> new StoredAction());
         // 1 formal per declaration and action
@@ -110,7 +148,7 @@ public abstract class InterproceduralActionFinder<A extends VariableAction> exte
 
     @Override
     protected Set<A> compute(CallGraph.Vertex vertex, Set<CallGraph.Vertex> predecessors) {
-        saveDeclarationActualNodes(vertex);
+        saveCallActualNodes(vertex);
         return initialValue(vertex);
     }
 
@@ -199,7 +237,7 @@ public abstract class InterproceduralActionFinder<A extends VariableAction> exte
      *  have been saved to the graph or not. */
     protected static class StoredAction {
         /** Whether the action has been saved as actual node for each call. */
-        private final Map<CallGraph.Edge<?>, VariableAction> actualStoredMap = new HashMap<>();
+        private final Map<CallGraph.Edge<?>, VariableAction> actualStoredMap = new ConcurrentHashMap<>();
 
         /** Whether the action has been saved as formal node. */
         protected VariableAction formalStored = null;
@@ -29,9 +29,9 @@ public class InterproceduralUsageFinder extends InterproceduralActionFinder<Usag
     }
 
     @Override
-    protected void saveDeclarationActualNodes(CallGraph.Vertex vertex) {
-        super.saveDeclarationActualNodes(vertex);
-        graph.incomingEdgesOf(vertex).forEach(this::markTransferenceToRoot);
+    protected void saveCallActualNodes(CallGraph.Vertex vertex) {
+        super.saveCallActualNodes(vertex);
+        graph.outgoingEdgesOf(vertex).forEach(this::markTransferenceToRoot);
     }
 
     /** For every variable action -scope-in- or -arg-in- in the graph,
@@ -40,7 +40,8 @@ public class InterproceduralUsageFinder extends InterproceduralActionFinder<Usag
         for (ActualIONode actualIn : locateActualInNode(edge)) {
             for (VariableAction va : edge.getGraphNode().getVariableActions()) {
                 if (va instanceof Movable && ((Movable) va).getRealNode().equals(actualIn)) {
-                    ExpressionObjectTreeFinder finder = new ExpressionObjectTreeFinder(edge.getGraphNode());
+                    ExpressionObjectTreeFinder finder = new ExpressionObjectTreeFinder(edge.getGraphNode(),
+                            edge.getGraphNode().getCFG().getContext().getClassGraph());
                     if (va.getName().equals("-scope-in-")) {
                         if (actualIn.getArgument() == null)
                             finder.locateAndMarkTransferenceToRoot(edge.getCall(), va);
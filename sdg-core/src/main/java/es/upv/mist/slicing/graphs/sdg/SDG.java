@@ -1,12 +1,14 @@
 package es.upv.mist.slicing.graphs.sdg;
 
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
-import com.github.javaparser.ast.body.CallableDeclaration;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.PackageDeclaration;
+import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import es.upv.mist.slicing.arcs.Arc;
 import es.upv.mist.slicing.arcs.pdg.ControlDependencyArc;
 import es.upv.mist.slicing.arcs.pdg.DataDependencyArc;
 import es.upv.mist.slicing.arcs.sdg.CallArc;
@@ -16,18 +18,24 @@ import es.upv.mist.slicing.arcs.sdg.SummaryArc;
 import es.upv.mist.slicing.graphs.Buildable;
 import es.upv.mist.slicing.graphs.CallGraph;
 import es.upv.mist.slicing.graphs.ClassGraph;
+import es.upv.mist.slicing.graphs.ComponentScheduler;
 import es.upv.mist.slicing.graphs.Graph;
 import es.upv.mist.slicing.graphs.cfg.CFG;
+import es.upv.mist.slicing.graphs.pdg.ControlDependencyAlgorithm;
 import es.upv.mist.slicing.graphs.pdg.PDG;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.SyntheticNode;
+import es.upv.mist.slicing.nodes.io.CallNode;
 import es.upv.mist.slicing.slicing.*;
 import es.upv.mist.slicing.utils.ASTUtils;
+import es.upv.mist.slicing.utils.AnalysisContext;
 
-import java.util.Collection;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The <b>System Dependence Graph</b> represents the statements of a program in
@@ -43,17 +51,124 @@ import java.util.Set;
  */
 public class SDG extends Graph implements Sliceable, Buildable<NodeList<CompilationUnit>> {
     protected final Map<CallableDeclaration<?>, CFG> cfgMap = ASTUtils.newIdentityHashMap();
+    /** The synthetic nodes of this graph, indexed by their AST node: formal, output and exit nodes by
+     *  their declaration, actual and return nodes by their call. */
+    protected final Map<Node, List<SyntheticNode<?>>> syntheticNodeMap = ASTUtils.newIdentityHashMap();
+    /** The nodes of the PDG of each declaration, which are replaced when it is built again. */
+    protected final Map<CallableDeclaration<?>, List<GraphNode<?>>> declarationNodes = ASTUtils.newIdentityHashMap();
 
     protected boolean built = false;
+    protected FrozenSDG frozen;
+    protected SliceCache sliceCache;
     protected NodeList<CompilationUnit> compilationUnits;
+    protected boolean updatable = false;
+    /** The builder of this graph, which keeps the state of its analyses, only kept if this graph is updatable or lazy. */
+    protected Builder builder;
+    protected boolean lazy = false;
+    /** The declarations whose callers (transitively) have been built, if this graph is lazy.
+     *  It is {@code null} if the whole program has been built. */
+    protected Set<CallableDeclaration<?>> region;
+    protected ControlDependencyAlgorithm controlDependencyAlgorithm = ControlDependencyAlgorithm.POST_DOMINATOR_TREE;
+    protected int parallelism = 1;
+    protected AnalysisContext context = new AnalysisContext();
 
     /** Obtain the list of compilation units used to create this graph. */
     public NodeList<CompilationUnit> getCompilationUnits() {
         return compilationUnits;
     }
 
+    /** Select the algorithm used to compute control dependencies in each PDG. It must be set before building this graph. */
+    public void setControlDependencyAlgorithm(ControlDependencyAlgorithm controlDependencyAlgorithm) {
+        if (built)
+            throw new IllegalStateException("The SDG has already been built");
+        this.controlDependencyAlgorithm = Objects.requireNonNull(controlDependencyAlgorithm);
+    }
+
+    /** The context in which this graph is built, which contains its class graph and type solver. */
+    @Override
+    public AnalysisContext getContext() {
+        return context;
+    }
+
+    /** Set the context in which this graph is built. It must be set before building this graph, and the compilation
+     *  units must be parsed with its {@link AnalysisContext#getSymbolResolver() symbol resolver}. Graphs that share a
+     *  context must not be built at the same time. By default, each graph has its own context, which shares the
+     *  static type solver. */
+    public void setContext(AnalysisContext context) {
+        if (built)
+            throw new IllegalStateException("The SDG has already been built");
+        this.context = Objects.requireNonNull(context);
+    }
+
+    /** Set the maximum number of threads used to build this graph. The CFGs and PDGs of the declarations
+     *  are built in parallel, as are the independent parts of the call graph in the interprocedural analyses.
+     *  The resulting graph, including the ids of its nodes, does not depend on it. It must be set before building this graph. */
+    public void setParallelism(int parallelism) {
+        if (built)
+            throw new IllegalStateException("The SDG has already been built");
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism level must be positive");
+        this.parallelism = parallelism;
+    }
+
+    /** Keep up to the given number of slices, so that slicing again with the same criterion does not
+     *  traverse the graph. The slices are discarded whenever this graph is modified or rebuilt.
+     *  Cached slices are shared, so they must not be modified.
+     *  @throws IllegalArgumentException If the capacity is not positive. */
+    public void enableSliceCache(int capacity) {
+        sliceCache = new SliceCache(capacity);
+    }
+
+    /** Stop caching slices and discard the slices stored. */
+    public void disableSliceCache() {
+        sliceCache = null;
+    }
+
+    /** The cache of slices of this graph, or {@code null} if it has not been enabled. */
+    public SliceCache getSliceCache() {
+        return sliceCache;
+    }
+
     @Override
     public Slice slice(SlicingCriterion slicingCriterion) {
+        SlicingAlgorithm algorithm = createSlicingAlgorithm();
+        Set<GraphNode<?>> criterionNodes = findCriterionNodes(slicingCriterion);
+        if (sliceCache == null)
+            return algorithm.traverse(criterionNodes);
+        return sliceCache.get(criterionNodes, algorithm.getClass(), () -> algorithm.traverse(criterionNodes));
+    }
+
+    /** Extract the subset of nodes that are affected by the given slicing criterion.
+     *  @see SlicingAlgorithm#traverseForward(Set) */
+    public Slice forwardSlice(SlicingCriterion slicingCriterion) {
+        return createSlicingAlgorithm().traverseForward(findCriterionNodes(slicingCriterion));
+    }
+
+    /** Extract the subset of nodes that are affected by the source and affect the target.
+     *  @see SlicingAlgorithm#chop(Set, Set) */
+    public Slice chop(SlicingCriterion source, SlicingCriterion target) {
+        return createSlicingAlgorithm().chop(findCriterionNodes(source), findCriterionNodes(target));
+    }
+
+    /** Slice multiple criteria. If the slicing algorithm is {@link ClassicSlicingAlgorithm classic},
+     *  the slices are computed together (see {@link ClassicSlicingAlgorithm#traverseAll(List)}). */
+    @Override
+    public List<Slice> sliceAll(Collection<SlicingCriterion> slicingCriteria) {
+        SlicingAlgorithm algorithm = createSlicingAlgorithm();
+        if (!(algorithm instanceof ClassicSlicingAlgorithm))
+            return Sliceable.super.sliceAll(slicingCriteria);
+        List<Set<GraphNode<?>>> criteriaNodes = new ArrayList<>(slicingCriteria.size());
+        for (SlicingCriterion sc : slicingCriteria)
+            criteriaNodes.add(findCriterionNodes(sc));
+        return ((ClassicSlicingAlgorithm) algorithm).traverseAll(criteriaNodes);
+    }
+
+    /** Locate the nodes that represent the given slicing criterion in this graph. If this graph
+     *  is lazy, the part of the program related to the criterion is built first.
+     *  @throws IllegalArgumentException If the slicing criterion can't be located. */
+    protected Set<GraphNode<?>> findCriterionNodes(SlicingCriterion slicingCriterion) {
+        if (region != null)
+            extendRegion(slicingCriterion);
         Set<GraphNode<?>> slicingCriterionNodes;
         try {
             slicingCriterionNodes = slicingCriterion.findNode(this);
@@ -61,20 +176,260 @@ public class SDG extends Graph implements Sliceable, Buildable<NodeList<Compilat
         } catch (NoSuchElementException e) {
             throw new IllegalArgumentException("Could not locate the slicing criterion " + slicingCriterion);
         }
-        return createSlicingAlgorithm().traverse(slicingCriterionNodes);
+        return slicingCriterionNodes;
+    }
+
+    /** Create a compact and immutable copy of this graph, which is used by all slices from now on.
+     *  This graph can't be modified afterwards, so a lazy graph builds the rest of the program first.
+     *  Subsequent calls return the same copy.
+     *  @throws IllegalStateException If this graph hasn't been built yet. */
+    public FrozenSDG freeze() {
+        if (!built)
+            throw new IllegalStateException("The SDG must be built before freezing it");
+        if (frozen == null) {
+            if (region != null) {
+                builder.extend(compilationUnits, findAllDeclarations());
+                region = null;
+            }
+            frozen = new FrozenSDG(this);
+        }
+        return frozen;
+    }
+
+    /** Whether {@link #freeze()} has been called on this graph. */
+    public boolean isFrozen() {
+        return frozen != null;
+    }
+
+    @Override
+    public boolean addVertex(GraphNode<?> graphNode) {
+        checkNotFrozen();
+        invalidateSliceCache();
+        if (!super.addVertex(graphNode))
+            return false;
+        if (graphNode instanceof SyntheticNode && graphNode.getAstNode() != null)
+            syntheticNodeMap.computeIfAbsent(graphNode.getAstNode(), n -> new ArrayList<>())
+                    .add((SyntheticNode<?>) graphNode);
+        return true;
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<?> source, GraphNode<?> target, Arc arc) {
+        checkNotFrozen();
+        invalidateSliceCache();
+        return super.addEdge(source, target, arc);
+    }
+
+    @Override
+    public boolean removeVertex(GraphNode<?> graphNode) {
+        checkNotFrozen();
+        invalidateSliceCache();
+        if (!super.removeVertex(graphNode))
+            return false;
+        context.getIdAllocator().remove(graphNode);
+        if (graphNode instanceof SyntheticNode && graphNode.getAstNode() != null) {
+            List<SyntheticNode<?>> list = syntheticNodeMap.get(graphNode.getAstNode());
+            list.remove(graphNode);
+            if (list.isEmpty())
+                syntheticNodeMap.remove(graphNode.getAstNode());
+        }
+        return true;
+    }
+
+    /** The synthetic nodes of this graph that represent the given AST node (compared by identity), in the
+     *  order in which they were added. For a declaration, these are its formal-in, formal-out, output and
+     *  exit nodes; for a call, its actual-in, actual-out and return nodes. */
+    public List<SyntheticNode<?>> findSyntheticNodes(Node astNode) {
+        return Collections.unmodifiableList(syntheticNodeMap.getOrDefault(astNode, Collections.emptyList()));
+    }
+
+    @Override
+    public boolean removeEdge(Arc arc) {
+        checkNotFrozen();
+        invalidateSliceCache();
+        return super.removeEdge(arc);
+    }
+
+    /** Discard the cached slices, as they may not match the graph anymore. */
+    protected void invalidateSliceCache() {
+        if (sliceCache != null)
+            sliceCache.clear();
+    }
+
+    protected void checkNotFrozen() {
+        if (frozen != null)
+            throw new IllegalStateException("The SDG has been frozen and can't be modified");
     }
 
     protected SlicingAlgorithm createSlicingAlgorithm() {
         return new ClassicSlicingAlgorithm(this);
     }
 
+    /** Keep the call graph and the results of the interprocedural analyses after building this graph,
+     *  which are required to {@link #update(Collection) update} it. It must be set before building this graph. */
+    public void setUpdatable(boolean updatable) {
+        if (built)
+            throw new IllegalStateException("The SDG has already been built");
+        this.updatable = updatable;
+    }
+
+    /**
+     * Build this graph on demand: instead of building every declaration, each slicing criterion builds
+     * the declarations that contain it, their callers (transitively) and every declaration that those
+     * may call. These are the only declarations that a slice of the criterion may traverse.
+     * When a criterion requires declarations that have not been built, they are added to the graph,
+     * and the rest of it is kept. Only the calls whose name matches that of a declaration are resolved
+     * to find its callers. It must be set before building this graph.
+     * @see SlicingCriterion#findDeclarations(NodeList)
+     */
+    public void setLazy(boolean lazy) {
+        if (built)
+            throw new IllegalStateException("The SDG has already been built");
+        this.lazy = lazy;
+    }
+
+    /** Build this graph. If it is lazy, nothing is built until a slicing criterion requires it. */
     @Override
     public void build(NodeList<CompilationUnit> nodeList) {
-        createBuilder().build(nodeList);
+        invalidateSliceCache();
+        builder = createBuilder();
+        if (lazy)
+            region = ASTUtils.newIdentityHashSet();
+        else
+            builder.build(nodeList);
+        if (!updatable && !lazy)
+            builder = null;
         compilationUnits = nodeList;
         built = true;
     }
 
+    /** Add to this lazy graph the declarations of the given criterion, their callers (transitively) and
+     *  the declarations that those may call, if any of them is missing. If the criterion can't be located
+     *  in a declaration, the whole program is built. */
+    protected void extendRegion(SlicingCriterion slicingCriterion) {
+        Optional<Set<CallableDeclaration<?>>> declarations = slicingCriterion.findDeclarations(compilationUnits);
+        if (declarations.isPresent() && region.containsAll(declarations.get()))
+            return;
+        builder.extend(compilationUnits, declarations.orElseGet(this::findAllDeclarations));
+        if (declarations.isEmpty())
+            region = null;
+    }
+
+    /** Find every method and constructor of the compilation units of this graph. */
+    protected Set<CallableDeclaration<?>> findAllDeclarations() {
+        Set<CallableDeclaration<?>> declarations = ASTUtils.newIdentityHashSet();
+        for (CompilationUnit unit : compilationUnits)
+            for (CallableDeclaration<?> declaration : unit.findAll(CallableDeclaration.class))
+                declarations.add(declaration);
+        return declarations;
+    }
+
+    /**
+     * Update this graph after some of its compilation units have been edited. Each changed unit replaces
+     * the unit of the same file (its storage path or, if it has none, its package and primary type).
+     * <br/>
+     * When the changes are limited to the bodies of some methods and constructors, only those are built
+     * again: the rest of the compilation unit takes the positions of the changed one, the changed declarations
+     * are replaced by a copy of their new version, and their CFGs and PDGs are built again. The interprocedural
+     * analyses are repeated for the parts of the call graph whose results may change, and the summary arcs are
+     * computed again for the declarations that call one whose formal nodes depend on each other differently.
+     * The nodes of the other declarations are kept. The ids of the new nodes follow the existing ones,
+     * and the ids of the removed ones are not reused, so the ids are only dense again once the graph
+     * is built from scratch (see {@link #nodeCount()}).
+     * <br/>
+     * Otherwise, or if a changed unit matches none of the existing ones (in which case it is added), the
+     * graph is built again from scratch, without parsing the unchanged units again. A lazy graph is
+     * always discarded, and built again by the following slicing criteria.
+     * The compilation units of this graph are modified, but the changed units are not.
+     * @return Whether any part of the graph has been built again.
+     * @throws IllegalStateException If this graph hasn't been built as {@link #setUpdatable(boolean) updatable},
+     *                               or it has been frozen.
+     */
+    public boolean update(Collection<CompilationUnit> changedUnits) {
+        if (!built || !updatable)
+            throw new IllegalStateException("The SDG must be built as updatable before updating it");
+        checkNotFrozen();
+        NodeList<CompilationUnit> units = compilationUnits;
+        List<CompilationUnitDiff> diffs = new ArrayList<>();
+        boolean incremental = !lazy, changed = false;
+        for (CompilationUnit changedUnit : changedUnits) {
+            Optional<CompilationUnitDiff> diff = units.stream().filter(u -> sameFile(u, changedUnit)).findFirst()
+                    .flatMap(u -> CompilationUnitDiff.compute(u, changedUnit));
+            incremental &= diff.isPresent();
+            changed |= diff.isEmpty() || !diff.get().isEmpty();
+            diff.ifPresent(diffs::add);
+        }
+        if (!changed)
+            return false;
+        if (!incremental) {
+            builder.restoreUnits(units);
+            rebuild(units, changedUnits);
+            return true;
+        }
+        List<CallableDeclaration<?>> oldDeclarations = new ArrayList<>();
+        List<CallableDeclaration<?>> newDeclarations = new ArrayList<>();
+        for (CompilationUnitDiff diff : diffs) {
+            Set<Node> movedNodes = diff.findMovedNodes();
+            Map<Graph, List<GraphNode<?>>> movedGraphNodes = new HashMap<>();
+            movedGraphNodes.put(this, removeFromIndex(movedNodes));
+            for (CFG cfg : cfgMap.values())
+                movedGraphNodes.put(cfg, cfg.removeFromIndex(movedNodes));
+            List<CallGraph.Edge<?>> movedCalls = builder.callGraph.removeCallsFromIndex(movedNodes);
+            oldDeclarations.addAll(diff.getOldDeclarations());
+            newDeclarations.addAll(diff.apply());
+            movedGraphNodes.forEach(Graph::addToIndex);
+            builder.callGraph.addCallsToIndex(movedCalls);
+        }
+        if (oldDeclarations.isEmpty())
+            return false;
+        builder.update(oldDeclarations, newDeclarations);
+        return true;
+    }
+
+    /** Replace the units of the given list with a copy of the changed ones that represent the same file,
+     *  add the rest, and build this graph again from scratch. */
+    protected void rebuild(NodeList<CompilationUnit> units, Collection<CompilationUnit> changedUnits) {
+        units = new NodeList<>(units);
+        for (CompilationUnit changedUnit : changedUnits) {
+            int i = 0;
+            while (i < units.size() && !sameFile(units.get(i), changedUnit))
+                i++;
+            if (i == units.size())
+                units.add(copyOf(changedUnit));
+            else
+                units.set(i, copyOf(changedUnit));
+        }
+        clear();
+        build(units);
+    }
+
+    /** Whether both compilation units represent the same source file. */
+    protected static boolean sameFile(CompilationUnit a, CompilationUnit b) {
+        if (a.getStorage().isPresent() && b.getStorage().isPresent())
+            return a.getStorage().get().getPath().equals(b.getStorage().get().getPath());
+        return a.getPackageDeclaration().map(PackageDeclaration::getNameAsString)
+                .equals(b.getPackageDeclaration().map(PackageDeclaration::getNameAsString))
+                && a.getPrimaryTypeName().isPresent()
+                && a.getPrimaryTypeName().equals(b.getPrimaryTypeName());
+    }
+
+    /** Copy the given compilation unit, so that building a graph with the copy does not modify it. */
+    protected static CompilationUnit copyOf(CompilationUnit unit) {
+        CompilationUnit copy = unit.clone();
+        unit.getStorage().ifPresent(storage -> copy.setStorage(storage.getPath(), storage.getEncoding()));
+        return copy;
+    }
+
+    /** Remove every node, arc and CFG from this graph, so that it can be built again. */
+    protected void clear() {
+        removeAllVertices(new ArrayList<>(vertexSet()));
+        cfgMap.clear();
+        syntheticNodeMap.clear();
+        declarationNodes.clear();
+        builder = null;
+        built = false;
+    }
+
     /** Create a new SDG builder. Child classes that wish to alter the creation of the graph
      * should create a new SDG builder and override this method. */
     protected Builder createBuilder() {
@@ -95,10 +450,16 @@ public class SDG extends Graph implements Sliceable, Buildable<NodeList<Compilat
     public boolean isPredicate(GraphNode<?> node) {
         if (node instanceof SyntheticNode)
             return false;
-        for (CFG cfg : cfgMap.values())
-            if (cfg.containsVertex(node))
-                return cfg.isPredicate(node);
-        throw new IllegalArgumentException("Node " + node.getId() + "'s associated CFG cannot be found!");
+        return findCFG(node).isPredicate(node);
+    }
+
+    /** Obtain the CFG of this SDG that contains the given node.
+     *  @throws IllegalArgumentException If the node is not part of any of the CFGs. */
+    public CFG findCFG(GraphNode<?> node) {
+        CFG cfg = node.getCFG();
+        if (cfg == null || !cfg.isBuilt() || cfgMap.get(cfg.getDeclaration()) != cfg)
+            throw new IllegalArgumentException("Node " + node.getId() + "'s associated CFG cannot be found!");
+        return cfg;
     }
 
     public void addCallArc(GraphNode<?> from, GraphNode<? extends CallableDeclaration<?>> to) {
@@ -109,8 +470,10 @@ public class SDG extends Graph implements Sliceable, Buildable<NodeList<Compilat
         this.addEdge(from, to, new ParameterInOutArc());
     }
 
-    public void addSummaryArc(SyntheticNode<?> from, SyntheticNode<?> to) {
-        this.addEdge(from, to, new SummaryArc());
+    public SummaryArc addSummaryArc(SyntheticNode<?> from, SyntheticNode<?> to) {
+        SummaryArc arc = new SummaryArc();
+        this.addEdge(from, to, arc);
+        return arc;
     }
 
     /** Populates this SDG by building the corresponding CFGs, call graph, performing data flow analyses,
@@ -118,46 +481,91 @@ public class SDG extends Graph implements Sliceable, Buildable<NodeList<Compilat
      *  By default, it uses {@link PDG}s and {@link CFG}s. */
     public class Builder {
         protected CallGraph callGraph;
+        protected InterproceduralDefinitionFinder definitionFinder;
+        protected InterproceduralUsageFinder usageFinder;
+        protected AbstractSummaryArcAnalyzer<?, ?, ?> summaryArcAnalyzer;
+        /** The compilation units of a lazy graph, compared by identity. */
+        protected Set<CompilationUnit> units;
+        /** The declarations that contain a call with each name (of a method or of the type of a constructor),
+         *  so that a lazy graph only resolves the calls that may target a declaration to find its callers. */
+        protected Map<String, Set<CallableDeclaration<?>>> callNameIndex;
+        /** The declarations that each declaration may call, as resolved so far in a lazy graph. */
+        protected final Map<CallableDeclaration<?>, Set<CallableDeclaration<?>>> calleeMap = ASTUtils.newIdentityHashMap();
 
         public void build(NodeList<CompilationUnit> nodeList) {
             // See creation strategy at http://kaz2.dsic.upv.es:3000/Fzg46cQvT1GzHQG9hFnP1g#Using-data-flow-in-the-SDG
             // This ordering cannot be altered, as each step requires elements from the previous one.
+            context.newIdAllocator();
             createClassGraph(nodeList); // 0
             buildCFGs(nodeList);        // 1
             createCallGraph(nodeList);  // 2
             dataFlowAnalysis();         // 3
             buildAndCopyPDGs();         // 4
             connectCalls();             // 5
+            numberNodes();
             createSummaryArcs();        // 6
+            numberNodes();
         }
 
-        /** Build a CFG per declaration found in the list of compilation units. */
+        /** Give the nodes created since the last call their final ids, in the order of this graph's vertex set,
+         *  followed by those that are only part of a CFG. As the order does not depend on the threads used to
+         *  build the graph, neither do the ids. */
+        protected void numberNodes() {
+            context.getIdAllocator().renumber(() -> Stream.concat(vertexSet().stream(),
+                    cfgMap.values().stream().flatMap(cfg -> cfg.vertexSet().stream())).iterator());
+        }
+
+        /** Build a CFG per declaration found in the list of compilation units. The CFGs are independent, so
+         *  they are usually built in parallel (see {@link #parallelMap(List, Function)}), and stored in the order in
+         *  which the declarations are found. */
         protected void buildCFGs(NodeList<CompilationUnit> nodeList) {
+            List<CallableDeclaration<?>> declarations = new ArrayList<>();
             nodeList.accept(new VoidVisitorAdapter<Void>() {
                 @Override
                 public void visit(MethodDeclaration n, Void arg) {
-                    boolean isInInterface = n.findAncestor(ClassOrInterfaceDeclaration.class)
-                            .map(ClassOrInterfaceDeclaration::isInterface).orElse(false);
-                    if (n.isAbstract() || isInInterface)
+                    if (!hasCFG(n))
                         return; // Allow abstract methods
-                    CFG cfg = createCFG();
-                    buildCFG(n, cfg);
-                    cfgMap.put(n, cfg);
+                    declarations.add(n);
                     super.visit(n, arg);
                 }
 
                 @Override
                 public void visit(ConstructorDeclaration n, Void arg) {
-                    boolean isInInterface = n.findAncestor(ClassOrInterfaceDeclaration.class)
-                            .map(ClassOrInterfaceDeclaration::isInterface).orElse(false);
-                    if (n.isAbstract() || isInInterface)
+                    if (!hasCFG(n))
                         return; // Allow abstract methods
-                    CFG cfg = createCFG();
-                    buildCFG(n, cfg);
-                    cfgMap.put(n, cfg);
+                    declarations.add(n);
                     super.visit(n, arg);
                 }
             }, null);
+            buildCFGs(declarations);
+        }
+
+        /** Build the CFGs of the given declarations and store them in order. */
+        protected void buildCFGs(List<CallableDeclaration<?>> declarations) {
+            Function<CallableDeclaration<?>, CFG> builder = this::createAndBuildCFG;
+            List<CFG> cfgs = buildsCFGsInParallel() ? parallelMap(declarations, builder)
+                    : declarations.stream().map(builder).collect(Collectors.toList());
+            for (int i = 0; i < declarations.size(); i++)
+                cfgMap.put(declarations.get(i), cfgs.get(i));
+        }
+
+        /** Whether a CFG is built for the given declaration: abstract methods and those of interfaces have none. */
+        protected boolean hasCFG(CallableDeclaration<?> declaration) {
+            boolean isInInterface = declaration.findAncestor(ClassOrInterfaceDeclaration.class)
+                    .map(ClassOrInterfaceDeclaration::isInterface).orElse(false);
+            return !declaration.isAbstract() && !isInInterface;
+        }
+
+        /** Whether the CFGs may be built in parallel. It must be false when building a CFG modifies
+         *  parts of the AST that are read while building the others. */
+        protected boolean buildsCFGsInParallel() {
+            return true;
+        }
+
+        protected CFG createAndBuildCFG(CallableDeclaration<?> declaration) {
+            CFG cfg = createCFG();
+            buildCFG(declaration, cfg);
+            return cfg;
         }
 
         /** Given a single empty CFG and a declaration, build the CFG. */
@@ -167,47 +575,326 @@ public class SDG extends Graph implements Sliceable, Buildable<NodeList<Compilat
 
         /** Create call graph from the list of compilation units. */
         protected void createCallGraph(NodeList<CompilationUnit> nodeList) {
-            callGraph = new CallGraph(cfgMap, ClassGraph.getInstance());
+            callGraph = new CallGraph(cfgMap, context.getClassGraph());
             callGraph.build(nodeList);
         }
 
         /** Create class graph from the list of compilation units. */
         protected void createClassGraph(NodeList<CompilationUnit> nodeList){
-            ClassGraph.getNewInstance().build(nodeList);
+            context.newClassGraph().build(nodeList);
         }
 
 
         /** Perform interprocedural analyses to determine the actual and formal nodes. */
         protected void dataFlowAnalysis() {
-            new InterproceduralDefinitionFinder(callGraph, cfgMap).save(); // 3.1
-            new InterproceduralUsageFinder(callGraph, cfgMap).save();      // 3.2
+            definitionFinder = new InterproceduralDefinitionFinder(callGraph, cfgMap);
+            definitionFinder.setParallelism(parallelism);
+            definitionFinder.save(); // 3.1
+            usageFinder = new InterproceduralUsageFinder(callGraph, cfgMap);
+            usageFinder.setParallelism(parallelism);
+            usageFinder.save();      // 3.2
         }
 
-        /** Build a PDG per declaration, based on the CFGs built previously and enhanced by data analyses. */
+        /** Build a PDG per declaration, based on the CFGs built previously and enhanced by data analyses.
+         *  The PDGs are built in parallel, and then copied in the order of the CFGs. */
         protected void buildAndCopyPDGs() {
-            for (CFG cfg : cfgMap.values()) {
+            buildAndCopyPDGs(new ArrayList<>(cfgMap.values()));
+        }
+
+        /** Build the PDGs of the given CFGs, in parallel, and then copy them in order. */
+        protected void buildAndCopyPDGs(List<CFG> cfgs) {
+            List<PDG> pdgs = parallelMap(cfgs, cfg -> {
                 // 4.1, 4.2, 4.3
                 PDG pdg = createPDG(cfg);
+                pdg.setControlDependencyAlgorithm(controlDependencyAlgorithm);
                 pdg.build(cfg.getDeclaration());
+                return pdg;
+            });
+            for (int i = 0; i < pdgs.size(); i++) {
                 // 4.4
+                PDG pdg = pdgs.get(i);
                 pdg.vertexSet().forEach(SDG.this::addVertex);
                 pdg.edgeSet().forEach(arc -> addEdge(pdg.getEdgeSource(arc), pdg.getEdgeTarget(arc), arc));
+                declarationNodes.put(cfgs.get(i).getDeclaration(), new ArrayList<>(pdg.vertexSet()));
             }
         }
 
         /** Add interprocedural arcs, connecting calls, their arguments and results to their corresponding declarations. */
         protected void connectCalls() {
-            new CallConnector(SDG.this).connectAllCalls(callGraph);
+            createCallConnector().connectAllCalls(callGraph);
+        }
+
+        /** Connect the calls from and to the given vertices, after their PDGs have been built again.
+         *  The calls between two declarations that haven't been built again are already connected. */
+        protected void connectCalls(Set<CallGraph.Vertex> rebuilt) {
+            List<CallGraph.Edge<?>> edges = new ArrayList<>();
+            for (CallGraph.Vertex vertex : rebuilt) {
+                edges.addAll(callGraph.outgoingEdgesOf(vertex));
+                for (CallGraph.Edge<?> edge : callGraph.incomingEdgesOf(vertex))
+                    if (!rebuilt.contains(callGraph.getEdgeSource(edge)))
+                        edges.add(edge);
+            }
+            CallConnector connector = createCallConnector();
+            for (CallGraph.Edge<?> edge : edges)
+                findSyntheticNodes((Node) edge.getCall()).stream()
+                        .filter(CallNode.class::isInstance)
+                        .findFirst()
+                        .ifPresent(node -> connector.connectCall((CallNode) node, callGraph.getEdgeTarget(edge).getDeclaration(), callGraph));
+        }
+
+        protected CallConnector createCallConnector() {
+            return new CallConnector(SDG.this);
         }
 
         /** Connect actual-in to actual-out nodes, summarizing the interprocedural arcs. */
         protected void createSummaryArcs() {
-            new SummaryArcAnalyzer(SDG.this, callGraph).analyze();
+            summaryArcAnalyzer = createSummaryArcAnalyzer();
+            summaryArcAnalyzer.setParallelism(parallelism);
+            summaryArcAnalyzer.analyze();
+        }
+
+        protected AbstractSummaryArcAnalyzer<?, ?, ?> createSummaryArcAnalyzer() {
+            return new SummaryArcAnalyzer(SDG.this, callGraph);
+        }
+
+        /**
+         * Build again the given declarations, which have replaced the old ones in the compilation units, and the
+         * declarations whose interprocedural analyses may produce a different result. These are the strongly
+         * connected components of the call graph that contain a changed declaration, or that call a declaration
+         * whose variables have changed, which are analyzed again in reverse topological order.
+         * @see SDG#update(Collection)
+         */
+        protected void update(List<CallableDeclaration<?>> oldDeclarations, List<CallableDeclaration<?>> newDeclarations) {
+            Set<CallGraph.Vertex> rebuilt = new LinkedHashSet<>();
+            Map<CallGraph.Edge<?>, CallGraph.Vertex> removedEdges = new LinkedHashMap<>();
+            List<GraphNode<?>> oldNodes = new ArrayList<>();
+            for (int i = 0; i < oldDeclarations.size(); i++) {
+                CallableDeclaration<?> oldDeclaration = oldDeclarations.get(i);
+                CallableDeclaration<?> newDeclaration = newDeclarations.get(i);
+                context.getClassGraph().replaceCallableDeclaration(oldDeclaration, newDeclaration);
+                oldNodes.addAll(declarationNodes.remove(oldDeclaration));
+                cfgMap.remove(oldDeclaration);
+                cfgMap.put(newDeclaration, createAndBuildCFG(newDeclaration));
+                removedEdges.putAll(callGraph.replaceDeclaration(oldDeclaration, newDeclaration));
+                rebuilt.add(callGraph.findVertexByDeclaration(newDeclaration));
+            }
+            // 3. Data flow analyses, per component
+            Set<CallGraph.Vertex> changed = new HashSet<>();
+            for (List<CallGraph.Vertex> component : new ComponentScheduler<>(callGraph).getComponents()) {
+                if (component.stream().noneMatch(rebuilt::contains) && !callsAny(component, changed))
+                    continue;
+                for (CallGraph.Vertex vertex : component) {
+                    CallableDeclaration<?> declaration = vertex.getDeclaration();
+                    if (!cfgMap.containsKey(declaration) || !rebuilt.add(vertex))
+                        continue;
+                    prepareRebuild(declaration);
+                    oldNodes.addAll(declarationNodes.remove(declaration));
+                    cfgMap.put(declaration, createAndBuildCFG(declaration));
+                    removedEdges.putAll(callGraph.rebuildEdges(declaration));
+                }
+                definitionFinder.forgetEdges(removedEdges);
+                usageFinder.forgetEdges(removedEdges);
+                removedEdges.clear();
+                changed.addAll(definitionFinder.reanalyze(component));
+                changed.addAll(usageFinder.reanalyze(component));
+            }
+            removeAllVertices(oldNodes);
+            buildPDGs(rebuilt);
+        }
+
+        /** Build the PDGs of the given vertices, whose CFGs have been built and analyzed again, connect their
+         *  calls and the calls to them, and update the summary arcs. */
+        protected void buildPDGs(Set<CallGraph.Vertex> rebuilt) {
+            // 4. PDGs
+            List<CFG> cfgs = new ArrayList<>();
+            for (CallGraph.Vertex vertex : rebuilt)
+                if (cfgMap.containsKey(vertex.getDeclaration()))
+                    cfgs.add(cfgMap.get(vertex.getDeclaration()));
+            buildAndCopyPDGs(cfgs);
+            // 5. Calls from and to the declarations built again
+            connectCalls(rebuilt);
+            numberNodes();
+            // 6. Summary arcs
+            summaryArcAnalyzer.update(rebuilt);
+            numberNodes();
+        }
+
+        /**
+         * Add to a lazy graph the given declarations and their callers (transitively), which are added to its
+         * region, and every declaration that those may call (transitively). The part of the graph that has
+         * already been built contains every declaration that it may call, so it can't call the new ones,
+         * and it is kept as it is. The first time, the class graph and an empty call graph are created.
+         */
+        protected void extend(NodeList<CompilationUnit> nodeList, Set<CallableDeclaration<?>> declarations) {
+            if (callGraph == null)
+                startLazyBuild(nodeList);
+            List<CallableDeclaration<?>> added = findMissingDeclarations(declarations);
+            if (added.isEmpty())
+                return;
+            // 1. CFGs
+            buildCFGs(added.stream().filter(this::hasCFG).collect(Collectors.toList()));
+            // 2. Call graph
+            Set<CallGraph.Vertex> vertices = new LinkedHashSet<>();
+            for (CallableDeclaration<?> declaration : added) {
+                CallGraph.Vertex vertex = new CallGraph.Vertex(declaration);
+                callGraph.addVertex(vertex);
+                vertices.add(vertex);
+            }
+            for (CallableDeclaration<?> declaration : added)
+                if (cfgMap.containsKey(declaration))
+                    callGraph.rebuildEdges(declaration);
+            // 3. Data flow analyses of the new components
+            for (List<CallGraph.Vertex> component : new ComponentScheduler<>(callGraph).getComponents()) {
+                if (!vertices.contains(component.get(0)))
+                    continue;
+                definitionFinder.reanalyze(component);
+                usageFinder.reanalyze(component);
+            }
+            buildPDGs(vertices);
+        }
+
+        /** Build the parts of a lazy graph that don't depend on its region: the class graph, an empty call graph
+         *  and its analyses, and the index of the names of the calls of the program. */
+        protected void startLazyBuild(NodeList<CompilationUnit> nodeList) {
+            context.newIdAllocator();
+            createClassGraph(nodeList);
+            callGraph = new CallGraph(cfgMap, context.getClassGraph());
+            dataFlowAnalysis();
+            createSummaryArcs();
+            units = ASTUtils.newIdentityHashSet();
+            units.addAll(nodeList);
+            callNameIndex = new HashMap<>();
+            for (CompilationUnit unit : nodeList) {
+                unit.walk(MethodCallExpr.class, call -> indexCall(call.getNameAsString(), call));
+                unit.walk(ObjectCreationExpr.class, call -> indexCall(call.getType().getNameAsString(), call));
+            }
+        }
+
+        /** Add the declarations to which the calls of the given node are assigned to {@link #callNameIndex}:
+         *  the declaration that contains it or, in the initializer of a field, the constructors of its type. */
+        protected void indexCall(String name, Node call) {
+            Optional<CallableDeclaration<?>> declaration = call.findAncestor(CallableDeclaration.class).map(d -> (CallableDeclaration<?>) d);
+            Set<CallableDeclaration<?>> set = callNameIndex.computeIfAbsent(name, n -> ASTUtils.newIdentityHashSet());
+            if (declaration.isPresent())
+                set.add(declaration.get());
+            else
+                call.findAncestor(FieldDeclaration.class)
+                        .flatMap(Node::getParentNode)
+                        .filter(TypeDeclaration.class::isInstance)
+                        .ifPresent(type -> set.addAll(((TypeDeclaration<?>) type).getConstructors()));
+        }
+
+        /** Add the given declarations and their callers (transitively) to the region of a lazy graph.
+         *  @return The declarations of the region that haven't been built, and every declaration that
+         *          they may call (transitively) that hasn't been built, in the order in which they are found. */
+        protected List<CallableDeclaration<?>> findMissingDeclarations(Set<CallableDeclaration<?>> declarations) {
+            Deque<CallableDeclaration<?>> toVisit = new LinkedList<>();
+            for (CallableDeclaration<?> declaration : declarations)
+                if (region.add(declaration))
+                    toVisit.add(declaration);
+            List<CallableDeclaration<?>> newRegion = new ArrayList<>(toVisit);
+            while (!toVisit.isEmpty())
+                for (CallableDeclaration<?> caller : findCallers(toVisit.pop()))
+                    if (region.add(caller)) {
+                        toVisit.push(caller);
+                        newRegion.add(caller);
+                    }
+            Set<CallableDeclaration<?>> missing = ASTUtils.newIdentityHashSet();
+            for (CallableDeclaration<?> declaration : newRegion)
+                if (!callGraph.containsDeclaration(declaration) && missing.add(declaration))
+                    toVisit.push(declaration);
+            while (!toVisit.isEmpty())
+                for (CallableDeclaration<?> callee : findCallees(toVisit.pop()))
+                    if (!callGraph.containsDeclaration(callee) && missing.add(callee))
+                        toVisit.push(callee);
+            return new ArrayList<>(missing);
+        }
+
+        /** Find the declarations that may call the given one, among those that contain a call with its name
+         *  and, for constructors, the constructors of its type and its subclasses. */
+        protected List<CallableDeclaration<?>> findCallers(CallableDeclaration<?> declaration) {
+            Set<CallableDeclaration<?>> candidates = ASTUtils.newIdentityHashSet();
+            candidates.addAll(callNameIndex.getOrDefault(declaration.getNameAsString(), Collections.emptySet()));
+            if (declaration.isConstructorDeclaration()) {
+                TypeDeclaration<?> type = (TypeDeclaration<?>) declaration.findAncestor(TypeDeclaration.class).orElseThrow();
+                candidates.addAll(type.getConstructors());
+                for (ClassGraph.Vertex<? extends TypeDeclaration<?>> vertex : context.getClassGraph().typeVertices())
+                    if (context.getClassGraph().parentOf(vertex.getDeclaration()).orElse(null) == type)
+                        candidates.addAll(vertex.getDeclaration().getConstructors());
+            }
+            List<CallableDeclaration<?>> callers = new ArrayList<>();
+            for (CallableDeclaration<?> candidate : candidates)
+                if (findCallees(candidate).contains(declaration))
+                    callers.add(candidate);
+            return callers;
+        }
+
+        /** Find the declarations of the program that the given one may call, by resolving its calls. A constructor
+         *  that doesn't begin with an explicit call to another one may call any constructor of the parent type. */
+        protected Set<CallableDeclaration<?>> findCallees(CallableDeclaration<?> declaration) {
+            if (calleeMap.containsKey(declaration))
+                return calleeMap.get(declaration);
+            Set<CallableDeclaration<?>> callees = ASTUtils.newIdentityHashSet();
+            for (CallableDeclaration<?> callee : callGraph.findCallees(declaration)) {
+                boolean inProgram = callee.findCompilationUnit().filter(units::contains).isPresent();
+                callees.add(inProgram ? callee : context.getClassGraph().findCallableDeclaration(callee).orElse(callee));
+            }
+            if (declaration.isConstructorDeclaration()
+                    && ASTUtils.shouldInsertExplicitConstructorInvocation(declaration.asConstructorDeclaration()))
+                context.getClassGraph().parentOf((TypeDeclaration<?>) declaration.findAncestor(TypeDeclaration.class).orElseThrow())
+                        .ifPresent(parent -> callees.addAll(parent.getConstructors()));
+            calleeMap.put(declaration, callees);
+            return callees;
+        }
+
+        /** Whether any vertex of the component calls one of the given vertices, from outside the component. */
+        protected boolean callsAny(List<CallGraph.Vertex> component, Set<CallGraph.Vertex> vertices) {
+            for (CallGraph.Vertex vertex : component)
+                for (CallGraph.Edge<?> edge : callGraph.outgoingEdgesOf(vertex))
+                    if (vertices.contains(callGraph.getEdgeTarget(edge)) && !component.contains(callGraph.getEdgeTarget(edge)))
+                        return true;
+            return false;
+        }
+
+        /** Undo the changes made to a declaration when its CFG was built, so that it can be built again. */
+        protected void prepareRebuild(CallableDeclaration<?> declaration) {}
+
+        /** Undo the changes made to the given compilation units when this graph was built, so that they can be built again. */
+        protected void restoreUnits(NodeList<CompilationUnit> units) {}
+
+        /** Apply the given function to each element of the list, on a fork/join pool with the parallelism
+         *  level of the graph. The results keep the order of the list. The function must only modify the
+         *  state that belongs to the element it receives. With a parallelism of 1, the elements are
+         *  processed in order, in the calling thread. */
+        protected <T, R> List<R> parallelMap(List<T> list, Function<T, R> function) {
+            if (parallelism == 1 || list.size() < 2) {
+                List<R> results = new ArrayList<>(list.size());
+                for (T element : list)
+                    results.add(function.apply(element));
+                return results;
+            }
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                return pool.submit(() -> list.parallelStream()
+                        .map(function)
+                        .collect(Collectors.toList())).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while building the graph", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                if (e.getCause() instanceof Error)
+                    throw (Error) e.getCause();
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                pool.shutdown();
+            }
         }
 
         /** Create a new CFG, of the appropriate type for the kind of SDG we're building. */
         protected CFG createCFG() {
-            return new CFG();
+            return new CFG(context);
         }
 
         /** Create a new PDG, of the appropriate type for the kind of SDG we're building. */
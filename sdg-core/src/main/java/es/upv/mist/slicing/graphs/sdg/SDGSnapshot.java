@@ -0,0 +1,589 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import es.upv.mist.slicing.arcs.ArcKind;
+import es.upv.mist.slicing.graphs.Graph;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.nodes.ObjectTree;
+import es.upv.mist.slicing.nodes.SyntheticNode;
+import es.upv.mist.slicing.nodes.VariableAction;
+import es.upv.mist.slicing.slicing.ClassicSlicingAlgorithm;
+import es.upv.mist.slicing.slicing.LineNumberCriterion;
+import es.upv.mist.slicing.slicing.Slice;
+import es.upv.mist.slicing.utils.ASTUtils;
+import es.upv.mist.slicing.utils.NodeHashSet;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A copy of a built {@link SDG}, stored in a compact binary file that can be sliced without parsing
+ * the program or building the graph again. It contains the arcs of the graph and, for each node, its
+ * label, the location of its AST node and the variables that can be selected in a slicing criterion.
+ * <br/>
+ * Snapshots are loaded by mapping the file into memory: the columns of nodes and arcs are read
+ * directly from the mapping, and labels are only decoded when requested. Nodes are numbered as in
+ * the {@link FrozenSDG} of the graph, and slices are represented as sets of node numbers. Only the
+ * files that contribute to a slice are parsed to {@link #toAst(BitSet) convert it to code}.
+ * <br/>
+ * Only graphs sliced with the {@link ClassicSlicingAlgorithm classic algorithm} can be stored,
+ * as the rest of the algorithms require information about the nodes that is not stored.
+ */
+public class SDGSnapshot {
+    protected static final int MAGIC = 0x53444753; // "SDGS"
+    protected static final int VERSION = 1;
+
+    /** The node has an AST node with a range, located in {@link #file(int)}. */
+    protected static final byte HAS_RANGE = 1;
+    /** @see GraphNode#isImplicitInstruction() */
+    protected static final byte IMPLICIT = 1 << 1;
+    /** The node is the one that represents its AST node in a slicing criterion (see {@link Graph#findNodeByASTNode(Node)}). */
+    protected static final byte CRITERION_ROOT = 1 << 2;
+
+    protected final ByteBuffer buffer;
+    protected final int nodeCount;
+    protected final int arcCount;
+    protected final int ignoredKindsPass1;
+    protected final int ignoredKindsPass2;
+
+    protected final Path[] files;
+    protected final long[] fileSizes;
+    protected final long[] fileModifiedTimes;
+    protected final String[] strings;
+
+    // Offsets of each column in the buffer
+    protected final int stringOffsets;
+    protected final int stringBytes;
+    protected final int labels;
+    protected final int astTypes;
+    protected final int nodeFiles;
+    protected final int ranges;
+    protected final int flags;
+    protected final int variableOffsets;
+    protected final int variableNames;
+    protected final int variableTargets;
+    protected final Direction incoming;
+    protected final Direction outgoing;
+
+    /** Store a snapshot of the given graph in a file, freezing the graph.
+     *  @throws IllegalArgumentException If the graph is not sliced with the classic slicing algorithm. */
+    public static void save(SDG sdg, Path path) throws IOException {
+        if (sdg.createSlicingAlgorithm().getClass() != ClassicSlicingAlgorithm.class)
+            throw new IllegalArgumentException("Only graphs sliced with the classic algorithm can be stored");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            new Writer(sdg.freeze()).write(out);
+        }
+    }
+
+    /** Load a snapshot from the given file, by mapping it into memory.
+     *  @throws IOException If the file can't be read or is not a snapshot. */
+    public static SDGSnapshot load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new SDGSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    protected SDGSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new IOException("The file is not an SDG snapshot, or it was created by another version");
+        nodeCount = buffer.getInt(8);
+        arcCount = buffer.getInt(12);
+        int fileCount = buffer.getInt(16);
+        int stringCount = buffer.getInt(20);
+        int variableCount = buffer.getInt(24);
+        ignoredKindsPass1 = buffer.getInt(28);
+        ignoredKindsPass2 = buffer.getInt(32);
+        int position = 36;
+        // Strings
+        strings = new String[stringCount];
+        stringOffsets = position;
+        position += Integer.BYTES * (stringCount + 1);
+        stringBytes = position;
+        position += buffer.getInt(stringOffsets + Integer.BYTES * stringCount);
+        // Files
+        files = new Path[fileCount];
+        fileSizes = new long[fileCount];
+        fileModifiedTimes = new long[fileCount];
+        for (int i = 0; i < fileCount; i++) {
+            files[i] = Path.of(string(buffer.getInt(position)));
+            fileSizes[i] = buffer.getLong(position + 4);
+            fileModifiedTimes[i] = buffer.getLong(position + 12);
+            position += 20;
+        }
+        // Nodes
+        labels = position;
+        astTypes = labels + Integer.BYTES * nodeCount;
+        nodeFiles = astTypes + Integer.BYTES * nodeCount;
+        ranges = nodeFiles + Integer.BYTES * nodeCount;
+        variableOffsets = ranges + 4 * Integer.BYTES * nodeCount;
+        variableNames = variableOffsets + Integer.BYTES * (nodeCount + 1);
+        variableTargets = variableNames + Integer.BYTES * variableCount;
+        flags = variableTargets + Integer.BYTES * variableCount;
+        // Arcs
+        incoming = new Direction(flags + nodeCount);
+        outgoing = new Direction(incoming.end());
+        if (outgoing.end() != buffer.limit())
+            throw new IOException("The snapshot is truncated or corrupt");
+    }
+
+    // ========================== NODES ==========================
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int arcCount() {
+        return arcCount;
+    }
+
+    public String getLabel(int node) {
+        return string(buffer.getInt(labels + Integer.BYTES * node));
+    }
+
+    /** The file that contains the AST node of the given node, if any. */
+    public Optional<Path> getFile(int node) {
+        int file = buffer.getInt(nodeFiles + Integer.BYTES * node);
+        return file == -1 ? Optional.empty() : Optional.of(files[file]);
+    }
+
+    /** The range of the AST node of the given node, if any. */
+    public Optional<Range> getRange(int node) {
+        if (!hasFlag(node, HAS_RANGE))
+            return Optional.empty();
+        int offset = ranges + 4 * Integer.BYTES * node;
+        return Optional.of(new Range(new Position(buffer.getInt(offset), buffer.getInt(offset + 4)),
+                new Position(buffer.getInt(offset + 8), buffer.getInt(offset + 12))));
+    }
+
+    /** The names of the variables that select nodes in a slicing criterion through the given node. */
+    public Set<String> getVariables(int node) {
+        Set<String> names = new HashSet<>();
+        for (int i = variableStart(node); i < variableStart(node + 1); i++)
+            names.add(string(buffer.getInt(variableNames + Integer.BYTES * i)));
+        return names;
+    }
+
+    /** The files that contain the AST nodes of this graph. */
+    public List<Path> getFiles() {
+        return List.of(files);
+    }
+
+    protected int variableStart(int node) {
+        return buffer.getInt(variableOffsets + Integer.BYTES * node);
+    }
+
+    protected boolean hasFlag(int node, byte flag) {
+        return (buffer.get(flags + node) & flag) != 0;
+    }
+
+    protected int beginLine(int node) {
+        return buffer.getInt(ranges + 4 * Integer.BYTES * node);
+    }
+
+    protected String string(int id) {
+        if (id == -1)
+            return null;
+        if (strings[id] == null) {
+            int start = buffer.getInt(stringOffsets + Integer.BYTES * id);
+            int end = buffer.getInt(stringOffsets + Integer.BYTES * (id + 1));
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++)
+                bytes[i] = buffer.get(stringBytes + start + i);
+            strings[id] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings[id];
+    }
+
+    // ========================= SLICING =========================
+
+    /**
+     * Locate the nodes of a slicing criterion, with the same rules as {@link LineNumberCriterion}.
+     * Fields of polymorphic objects must be written with the type of the object.
+     * @param variable The variable of the criterion, or {@code null} to select the whole line.
+     * @throws IllegalArgumentException If the slicing criterion can't be located.
+     */
+    public BitSet findNodes(File file, int line, String variable) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        int fileId = Arrays.asList(files).indexOf(path);
+        if (fileId == -1)
+            throw new IllegalArgumentException("The file " + file + " is not part of the graph");
+        BitSet lineNodes = new BitSet(nodeCount);
+        for (int node = 0; node < nodeCount; node++)
+            if (hasFlag(node, CRITERION_ROOT) && buffer.getInt(nodeFiles + Integer.BYTES * node) == fileId
+                    && beginLine(node) == line)
+                lineNodes.set(node);
+        // Add the nodes connected by structural arcs
+        int[] toVisit = lineNodes.stream().toArray();
+        for (int size = toVisit.length; size > 0; ) {
+            int node = toVisit[--size];
+            for (int i = outgoing.start(node); i < outgoing.end(node); i++) {
+                int next = outgoing.node(i);
+                if (outgoing.kind(i) == ArcKind.STRUCTURAL.toByte() && !lineNodes.get(next)) {
+                    lineNodes.set(next);
+                    if (size == toVisit.length)
+                        toVisit = Arrays.copyOf(toVisit, Math.max(size * 2, 16));
+                    toVisit[size++] = next;
+                }
+            }
+        }
+        BitSet criterion = variable == null ? lineNodes : selectVariable(lineNodes, variable);
+        if (criterion.isEmpty() && variable != null && !variable.startsWith("this"))
+            criterion = selectVariable(lineNodes, "this." + variable);
+        if (criterion.isEmpty())
+            throw new IllegalArgumentException("Could not locate the slicing criterion " + file + "#" + line
+                    + (variable != null ? ":" + variable : ""));
+        return criterion;
+    }
+
+    /** The nodes selected by the given variable in the given nodes. */
+    protected BitSet selectVariable(BitSet nodes, String variable) {
+        BitSet selected = new BitSet(nodeCount);
+        for (int node = nodes.nextSetBit(0); node != -1; node = nodes.nextSetBit(node + 1))
+            for (int i = variableStart(node); i < variableStart(node + 1); i++)
+                if (variable.equals(string(buffer.getInt(variableNames + Integer.BYTES * i))))
+                    selected.set(buffer.getInt(variableTargets + Integer.BYTES * i));
+        return selected;
+    }
+
+    /** Slice the graph with the given criterion, with the same result as the {@link ClassicSlicingAlgorithm}. */
+    public BitSet slice(BitSet criterion) {
+        BitSet slice = (BitSet) criterion.clone();
+        pass(criterion, slice, incoming, ignoredKindsPass1);
+        pass(criterion, slice, incoming, ignoredKindsPass2);
+        pass(criterion, slice, outgoing, ignoredKindsPass1);
+        pass(criterion, slice, outgoing, ignoredKindsPass2);
+        return slice;
+    }
+
+    /** A single pass from the criterion, in the given direction. Reached nodes are added to the slice. */
+    protected void pass(BitSet criterion, BitSet slice, Direction direction, int ignoredKinds) {
+        BitSet visited = new BitSet(nodeCount);
+        int[] toVisit = criterion.stream().toArray();
+        int size = toVisit.length;
+        while (size > 0) {
+            int node = toVisit[--size];
+            if (visited.get(node))
+                continue;
+            visited.set(node);
+            for (int i = direction.start(node); i < direction.end(node); i++) {
+                if (ArcKind.contains(ignoredKinds, direction.kind(i)))
+                    continue;
+                int next = direction.node(i);
+                slice.set(next);
+                if (!visited.get(next)) {
+                    if (size == toVisit.length)
+                        toVisit = Arrays.copyOf(toVisit, Math.max(size * 2, 16));
+                    toVisit[size++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert a slice to code, as {@link Slice#toAst()} does. Only the files that contain nodes of the
+     * slice are parsed, without resolving their symbols and without attributing comments to nodes.
+     * @throws IllegalStateException If one of those files has changed since the snapshot was created.
+     */
+    public NodeList<CompilationUnit> toAst(BitSet slice) throws IOException {
+        Map<Integer, Set<ASTKey>> keysByFile = new HashMap<>();
+        for (int node = slice.nextSetBit(0); node != -1; node = slice.nextSetBit(node + 1)) {
+            int file = buffer.getInt(nodeFiles + Integer.BYTES * node);
+            if (file == -1 || hasFlag(node, IMPLICIT) || !hasFlag(node, HAS_RANGE))
+                continue;
+            keysByFile.computeIfAbsent(file, f -> new HashSet<>())
+                    .add(new ASTKey(string(buffer.getInt(astTypes + Integer.BYTES * node)), getRange(node).get()));
+        }
+        Map<CompilationUnit, NodeHashSet<Node>> cuMap = ASTUtils.newIdentityHashMap();
+        JavaParser parser = new JavaParser(new ParserConfiguration().setAttributeComments(false));
+        for (Map.Entry<Integer, Set<ASTKey>> entry : keysByFile.entrySet()) {
+            Path file = files[entry.getKey()];
+            if (Files.size(file) != fileSizes[entry.getKey()]
+                    || Files.getLastModifiedTime(file).toMillis() != fileModifiedTimes[entry.getKey()])
+                throw new IllegalStateException("The file " + file + " has changed since the snapshot was created");
+            CompilationUnit cu = parser.parse(file).getResult()
+                    .orElseThrow(() -> new IllegalStateException("The file " + file + " could not be parsed"));
+            NodeHashSet<Node> nodes = new NodeHashSet<>();
+            cu.walk(n -> {
+                if (n.getRange().isPresent() && entry.getValue().contains(new ASTKey(n.getClass().getName(), n.getRange().get())))
+                    nodes.add(n);
+            });
+            cuMap.put(cu, nodes);
+        }
+        return Slice.toAst(cuMap);
+    }
+
+    /** The arcs of each node, grouped by one of their ends, in the same order as in the {@link FrozenSDG}. */
+    protected class Direction {
+        protected final int offsets;
+        protected final int nodes;
+        protected final int kinds;
+
+        protected Direction(int offsets) {
+            this.offsets = offsets;
+            this.nodes = offsets + Integer.BYTES * (nodeCount + 1);
+            this.kinds = nodes + Integer.BYTES * arcCount;
+        }
+
+        protected int start(int node) {
+            return buffer.getInt(offsets + Integer.BYTES * node);
+        }
+
+        protected int end(int node) {
+            return buffer.getInt(offsets + Integer.BYTES * (node + 1));
+        }
+
+        /** The node at the opposite end of the arc at the given position. */
+        protected int node(int position) {
+            return buffer.getInt(nodes + Integer.BYTES * position);
+        }
+
+        protected byte kind(int position) {
+            return buffer.get(kinds + position);
+        }
+
+        /** The position in the buffer after this direction. */
+        protected int end() {
+            return kinds + arcCount;
+        }
+    }
+
+    /** Identifies an AST node in a file, by its type and range. */
+    protected static class ASTKey {
+        protected final String type;
+        protected final Range range;
+
+        protected ASTKey(String type, Range range) {
+            this.type = type;
+            this.range = range;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof ASTKey))
+                return false;
+            ASTKey key = (ASTKey) o;
+            return type.equals(key.type) && range.equals(key.range);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, range);
+        }
+    }
+
+    /** Collects the columns of a snapshot from a frozen graph and writes them. */
+    protected static class Writer {
+        protected final FrozenSDG frozen;
+        protected final Map<String, Integer> stringIds = new HashMap<>();
+        protected final List<String> strings = new ArrayList<>();
+        protected final Map<CompilationUnit, Integer> fileIds = ASTUtils.newIdentityHashMap();
+        protected final List<Path> files = new ArrayList<>();
+        protected final List<Integer> variableNames = new ArrayList<>();
+        protected final List<Integer> variableTargets = new ArrayList<>();
+        protected final int[] variableOffsets;
+        protected final byte[] flags;
+
+        protected Writer(FrozenSDG frozen) {
+            this.frozen = frozen;
+            int nodeCount = frozen.nodeCount();
+            variableOffsets = new int[nodeCount + 1];
+            flags = new byte[nodeCount];
+            findCriterionRoots();
+            for (int node = 0; node < nodeCount; node++) {
+                variableOffsets[node] = variableNames.size();
+                GraphNode<?> graphNode = frozen.getNode(node);
+                if (graphNode == null)
+                    continue;
+                if (graphNode.isImplicitInstruction())
+                    flags[node] |= IMPLICIT;
+                if (graphNode.getAstNode() != null && graphNode.getAstNode().getRange().isPresent())
+                    flags[node] |= HAS_RANGE;
+                for (VariableAction action : graphNode.getVariableActions())
+                    addVariables(action);
+            }
+            variableOffsets[nodeCount] = variableNames.size();
+        }
+
+        /** Mark the nodes that represent each AST node, as {@link Graph#findNodeByASTNode(Node)} would select them. */
+        protected void findCriterionRoots() {
+            Map<Node, Map<ASTKey, List<Integer>>> nodesByUnit = ASTUtils.newIdentityHashMap();
+            for (int node = 0; node < frozen.nodeCount(); node++) {
+                if (frozen.getNode(node) == null)
+                    continue;
+                Node astNode = frozen.getNode(node).getAstNode();
+                if (astNode == null || astNode.getRange().isEmpty())
+                    continue;
+                Optional<CompilationUnit> cu = astNode.findCompilationUnit();
+                if (cu.isEmpty())
+                    continue;
+                nodesByUnit.computeIfAbsent(cu.get(), k -> new HashMap<>())
+                        .computeIfAbsent(new ASTKey(astNode.getClass().getName(), astNode.getRange().get()),
+                                k -> new ArrayList<>()).add(node);
+            }
+            for (Map<ASTKey, List<Integer>> byKey : nodesByUnit.values()) {
+                for (List<Integer> candidates : byKey.values()) {
+                    List<Integer> roots = candidates;
+                    if (candidates.size() > 1) {
+                        roots = new ArrayList<>();
+                        for (int node : candidates)
+                            if (!(frozen.getNode(node) instanceof SyntheticNode))
+                                roots.add(node);
+                    }
+                    if (roots.size() == 1)
+                        flags[roots.get(0)] |= CRITERION_ROOT;
+                }
+            }
+        }
+
+        /** Register the nodes selected by each name of the given action, as {@link LineNumberCriterion} does. */
+        protected void addVariables(VariableAction action) {
+            if (action.hasObjectTree()) {
+                addVariable(action.getName(), action.getObjectTree().getMemberNode());
+                for (String member : action.getObjectTree().nameIterable()) {
+                    if (member.equals(ObjectTree.ROOT_NAME))
+                        continue;
+                    String name = member.startsWith(action.getName() + ".") ? member : action.getName() + "." + member;
+                    try {
+                        if (ObjectTree.removeFields(name).equals(action.getName()) && action.hasPolyTreeMember(name))
+                            for (GraphNode<?> node : action.getObjectTree().getNodesForPoly(name))
+                                addVariable(name, node);
+                    } catch (IllegalArgumentException ignored) {
+                        // Not a valid field name
+                    }
+                }
+            } else {
+                addVariable(action.getName(), action.getGraphNode());
+            }
+        }
+
+        protected void addVariable(String name, GraphNode<?> node) {
+            int id = node == null ? -1 : frozen.indexOf(node);
+            if (id == -1)
+                return;
+            variableNames.add(string(name));
+            variableTargets.add(id);
+        }
+
+        protected int string(String string) {
+            if (string == null)
+                return -1;
+            return stringIds.computeIfAbsent(string, s -> {
+                strings.add(s);
+                return strings.size() - 1;
+            });
+        }
+
+        protected int file(Node astNode) {
+            Optional<CompilationUnit> cu = astNode.findCompilationUnit();
+            if (cu.isEmpty() || cu.get().getStorage().isEmpty())
+                return -1;
+            return fileIds.computeIfAbsent(cu.get(), unit -> {
+                files.add(unit.getStorage().get().getPath().toAbsolutePath().normalize());
+                return files.size() - 1;
+            });
+        }
+
+        protected void write(DataOutputStream out) throws IOException {
+            int nodeCount = frozen.nodeCount();
+            // Node columns, which also register the strings and files
+            int[] labels = new int[nodeCount];
+            int[] astTypes = new int[nodeCount];
+            int[] nodeFiles = new int[nodeCount];
+            int[] ranges = new int[4 * nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                GraphNode<?> graphNode = frozen.getNode(node);
+                if (graphNode == null) {
+                    // The id of a removed node
+                    labels[node] = astTypes[node] = nodeFiles[node] = -1;
+                    continue;
+                }
+                Node astNode = graphNode.getAstNode();
+                labels[node] = string(graphNode.getLabel());
+                astTypes[node] = astNode == null ? -1 : string(astNode.getClass().getName());
+                nodeFiles[node] = astNode == null ? -1 : file(astNode);
+                if ((flags[node] & HAS_RANGE) != 0) {
+                    Range range = astNode.getRange().get();
+                    ranges[4 * node] = range.begin.line;
+                    ranges[4 * node + 1] = range.begin.column;
+                    ranges[4 * node + 2] = range.end.line;
+                    ranges[4 * node + 3] = range.end.column;
+                }
+            }
+            int[] filePaths = new int[files.size()];
+            for (int i = 0; i < files.size(); i++)
+                filePaths[i] = string(files.get(i).toString());
+            // Header
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nodeCount);
+            out.writeInt(frozen.arcCount());
+            out.writeInt(files.size());
+            out.writeInt(strings.size());
+            out.writeInt(variableNames.size());
+            out.writeInt(ArcKind.INTERPROCEDURAL_OUTPUTS);
+            out.writeInt(ArcKind.INTERPROCEDURAL_INPUTS);
+            // Strings
+            List<byte[]> encoded = new ArrayList<>(strings.size());
+            int offset = 0;
+            for (String string : strings) {
+                out.writeInt(offset);
+                encoded.add(string.getBytes(StandardCharsets.UTF_8));
+                offset += encoded.get(encoded.size() - 1).length;
+            }
+            out.writeInt(offset);
+            for (byte[] bytes : encoded)
+                out.write(bytes);
+            // Files
+            for (int i = 0; i < files.size(); i++) {
+                out.writeInt(filePaths[i]);
+                out.writeLong(Files.size(files.get(i)));
+                out.writeLong(Files.getLastModifiedTime(files.get(i)).toMillis());
+            }
+            // Nodes
+            writeInts(out, labels);
+            writeInts(out, astTypes);
+            writeInts(out, nodeFiles);
+            writeInts(out, ranges);
+            writeInts(out, variableOffsets);
+            for (int name : variableNames)
+                out.writeInt(name);
+            for (int target : variableTargets)
+                out.writeInt(target);
+            out.write(flags);
+            // Arcs
+            writeDirection(out, frozen.incoming());
+            writeDirection(out, frozen.outgoing());
+        }
+
+        protected void writeDirection(DataOutputStream out, FrozenSDG.Adjacency adjacency) throws IOException {
+            int nodeCount = frozen.nodeCount();
+            for (int node = 0; node < nodeCount; node++)
+                out.writeInt(adjacency.start(node));
+            out.writeInt(frozen.arcCount());
+            for (int i = 0; i < frozen.arcCount(); i++)
+                out.writeInt(adjacency.opposite(adjacency.arc(i)));
+            for (int i = 0; i < frozen.arcCount(); i++)
+                out.writeByte(frozen.getKind(adjacency.arc(i)).toByte());
+        }
+
+        protected static void writeInts(DataOutputStream out, int[] ints) throws IOException {
+            for (int i : ints)
+                out.writeInt(i);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package es.upv.mist.slicing.graphs.sdg;
 
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.CallableDeclaration;
 import es.upv.mist.slicing.graphs.CallGraph;
+import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.SyntheticNode;
 import es.upv.mist.slicing.nodes.exceptionsensitive.ExitNode;
 import es.upv.mist.slicing.nodes.exceptionsensitive.ReturnNode;
@@ -9,8 +11,10 @@ import es.upv.mist.slicing.nodes.io.ActualIONode;
 import es.upv.mist.slicing.nodes.io.CallNode;
 import es.upv.mist.slicing.nodes.io.FormalIONode;
 import es.upv.mist.slicing.nodes.io.OutputNode;
+import es.upv.mist.slicing.slicing.Slice;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -22,23 +26,23 @@ public class SummaryArcAnalyzer extends AbstractSummaryArcAnalyzer<ActualIONode,
         super(sdg, graph);
     }
 
+
     @Override
-    protected Set<FormalIONode> computeFormalIn(SyntheticNode<CallableDeclaration<?>> formalOut) {
-        return sdg.createSlicingAlgorithm().traverseProcedure(formalOut).getGraphNodes().stream()
-                .filter(FormalIONode.class::isInstance)
-                .map(FormalIONode.class::cast)
-                .filter(FormalIONode::isInput)
-                .collect(Collectors.toSet());
+    protected Set<FormalIONode> findFormalIn(Slice slice) {
+        Set<FormalIONode> result = new LinkedHashSet<>();
+        for (GraphNode<?> node : slice)
+            if (node instanceof FormalIONode && ((FormalIONode) node).isInput())
+                result.add((FormalIONode) node);
+        return result;
     }
 
     @Override
     protected Collection<ActualIONode> findActualIn(CallGraph.Edge<?> edge, FormalIONode formalIn) {
-        return sdg.vertexSet().stream()
+        return sdg.findSyntheticNodes((Node) edge.getCall()).stream()
                 .filter(ActualIONode.class::isInstance)
                 .map(ActualIONode.class::cast)
-                .filter(n -> n.getAstNode() == edge.getCall())
                 .filter(n -> n.matchesFormalIO(formalIn))
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     @Override
@@ -55,32 +59,29 @@ public class SummaryArcAnalyzer extends AbstractSummaryArcAnalyzer<ActualIONode,
     /** Find the actual-out node that corresponds to the given formal-out in the given call.
      *  To locate any actual-out, you should use {@link #findOutputNode(CallGraph.Edge, SyntheticNode)}. */
     protected Collection<ActualIONode> findActualOut(CallGraph.Edge<?> edge, FormalIONode formalOut) {
-        return sdg.vertexSet().stream()
+        return sdg.findSyntheticNodes((Node) edge.getCall()).stream()
                 .filter(ActualIONode.class::isInstance)
                 .map(ActualIONode.class::cast)
-                .filter(n -> n.getAstNode() == edge.getCall())
                 .filter(n -> n.matchesFormalIO(formalOut))
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     /** Find the return node of the given call. There is only one per method.
      *  To locate any actual-out, you should use {@link #findOutputNode(CallGraph.Edge, SyntheticNode)}. */
     protected CallNode.Return findReturnNode(CallGraph.Edge<?> edge) {
-        return sdg.vertexSet().stream()
+        return sdg.findSyntheticNodes((Node) edge.getCall()).stream()
                 .filter(CallNode.Return.class::isInstance)
                 .map(CallNode.Return.class::cast)
-                .filter(n -> n.getAstNode() == edge.getCall())
                 .findAny().orElseThrow();
     }
 
     /** Find the exception/normal return node that corresponds to the given exception/normal exit in the given call.
      *  To locate any actual-out, you should use {@link #findOutputNode(CallGraph.Edge, SyntheticNode)}. */
     protected Collection<ReturnNode> getReturnNode(CallGraph.Edge<?> edge, ExitNode exitNode) {
-        return sdg.vertexSet().stream()
+        return sdg.findSyntheticNodes((Node) edge.getCall()).stream()
                 .filter(ReturnNode.class::isInstance)
                 .map(ReturnNode.class::cast)
-                .filter(n -> n.getAstNode() == edge.getCall())
                 .filter(exitNode::matchesReturnNode)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 }
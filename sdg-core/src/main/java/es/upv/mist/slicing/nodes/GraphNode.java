@@ -8,6 +8,7 @@ import es.upv.mist.slicing.graphs.cfg.CFG;
 import es.upv.mist.slicing.graphs.pdg.PDG;
 import es.upv.mist.slicing.graphs.sdg.SDG;
 import es.upv.mist.slicing.utils.ASTUtils;
+import es.upv.mist.slicing.utils.AnalysisContext;
 
 import java.util.*;
 
@@ -17,12 +18,14 @@ import static es.upv.mist.slicing.graphs.exceptionsensitive.ESCFG.ACTIVE_EXCEPTI
  * Represents a node in the various graphs ({@link CFG CFG}, {@link PDG PDG} and {@link SDG SDG}),
  * including its AST representation and the connections it has to other nodes in the same graph.
  * It can hold a string of characters that will be used to represent it. <br/>
- * It is immutable.
+ * Nodes are compared by identity, so nodes of different graphs, or of different builds of a graph, are never equal.
+ * Their ids are handed out by the {@link IdAllocator} of their {@link AnalysisContext}, which is shared by all the
+ * graphs of a build, so they are unique among the nodes of the CFGs, PDGs and SDG of a program.
  * @param <N> The type of the AST represented by this node.
  */
 public class GraphNode<N extends Node> implements Comparable<GraphNode<?>> {
-    /** A unique id within the graph. */
-    protected final long id;
+    /** A unique id among the nodes of the graphs built in the same context, or -1 if it hasn't been added to any graph. */
+    protected long id = -1;
     /** The textual representation of the node. */
     protected final String label;
     /** The JavaParser AST node represented by this node. */
@@ -37,45 +40,60 @@ public class GraphNode<N extends Node> implements Comparable<GraphNode<?>> {
 
     /** @see #isImplicitInstruction() */
     protected boolean isImplicit = false;
+    /** The CFG that contains this node, if it has been added to one. */
+    protected CFG cfg;
 
-    /** Create a graph node, with id and variable actions generated automatically. */
-    public GraphNode(String label, N astNode) {
-        this(IdHelper.getInstance().getNextId(), label, astNode);
+    /** Create a graph node, with variable actions generated automatically in the given context. */
+    public GraphNode(String label, N astNode, AnalysisContext context) {
+        this(label, astNode, new LinkedList<>());
+        extractVariables(context);
     }
 
-    /** Create a graph node, with variable actions generated automatically. */
-    protected GraphNode(long id, String label, N astNode) {
-        this(id, label, astNode, new LinkedList<>());
-        extractVariables();
-    }
-
-    /** Create a graph node, with id generated automatically. */
     public GraphNode(String label, N astNode, List<VariableAction> variableActions) {
-        this(IdHelper.getInstance().getNextId(), label, astNode, variableActions);
-    }
-
-    protected GraphNode(long id, String label, N astNode, List<VariableAction> variableActions) {
-        this.id = id;
         this.label = label;
         this.astNode = astNode;
         this.variableActions = variableActions;
     }
 
     /** Search for all the declarations, definitions and usages in this node. */
-    protected void extractVariables() {
-        new VariableVisitor().startVisit(this);
+    protected void extractVariables(AnalysisContext context) {
+        new VariableVisitor(context).startVisit(this);
     }
 
-    /** A unique id in this graph. */
+    /** A unique id among the nodes of the graphs built in the same context, or -1 if it hasn't been added to any
+     *  graph. The id is assigned when the node is first added to a graph, and it is final once the build step that
+     *  created the node is complete (see {@link IdAllocator#renumber(Iterable)}). After a full build, the ids of the
+     *  nodes of an SDG are dense and follow the order of its vertex set, so they may index arrays and bit sets. */
     public long getId() {
         return id;
     }
 
+    /** Set the id of this node. Only to be used by {@link IdAllocator}. */
+    void setId(long id) {
+        this.id = id;
+    }
+
     /** The AST node represented by this graph. */
     public N getAstNode() {
         return astNode;
     }
 
+    /** The CFG that contains this node, or {@code null} if it hasn't been added to any. */
+    public CFG getCFG() {
+        return cfg;
+    }
+
+    /** Set the CFG that contains this node. Only to be used by {@link CFG} when adding or removing nodes. */
+    public void setCFG(CFG cfg) {
+        this.cfg = cfg;
+    }
+
+    /** Notify the CFG that contains this node, if any, that its variable actions have changed. */
+    protected void markModified() {
+        if (cfg != null)
+            cfg.markModified();
+    }
+
     /** An unmodifiable list of variable actions in this node. */
     public List<VariableAction> getVariableActions() {
         return Collections.unmodifiableList(variableActions);
@@ -139,6 +157,7 @@ public class GraphNode<N extends Node> implements Comparable<GraphNode<?>> {
                 VariableAction.CallMarker marker = (VariableAction.CallMarker) var;
                 if (marker.getCall().equals(call) && marker.isEnter() == prepend) {
                     variableActions.addAll(prepend ? i + 1 : i, actions);
+                    markModified();
                     return;
                 }
             }
@@ -163,6 +182,7 @@ public class GraphNode<N extends Node> implements Comparable<GraphNode<?>> {
         if (action instanceof VariableAction.Movable)
             syntheticNodesInMovables.add(((VariableAction.Movable) action).getRealNode());
         variableActions.add(action);
+        markModified();
     }
 
     /**
@@ -180,13 +200,15 @@ public class GraphNode<N extends Node> implements Comparable<GraphNode<?>> {
             } else if (found) {
                 // The previous one matched, this one does not. Add before this one.
                 variableActions.add(i, action);
+                markModified();
                 return;
             }
         }
         // If the last one matched, add to the end
-        if (found)
+        if (found) {
             variableActions.add(action);
-        else {
+            markModified();
+        } else {
             assert syntheticNodesInMovables.contains(realNode);
             addActionsForCall(List.of(action), (Resolvable<? extends ResolvedMethodLikeDeclaration>) realNode.getAstNode(), true);
         }
@@ -195,17 +217,20 @@ public class GraphNode<N extends Node> implements Comparable<GraphNode<?>> {
     /** Adds the variable action DEF(-active-exception-) to the end of this method. */
     public void addVADefineActiveException(Expression expression) {
         variableActions.add(new VariableAction.Definition(VariableAction.DeclarationType.SYNTHETIC, ACTIVE_EXCEPTION_VARIABLE, this, expression));
+        markModified();
     }
 
     /** Adds the variable action USE(-active-exception-) to the end of this method. */
     public void addVAUseActiveException() {
         variableActions.add(new VariableAction.Usage(VariableAction.DeclarationType.SYNTHETIC, ACTIVE_EXCEPTION_VARIABLE, this));
+        markModified();
     }
 
     /** Create and append a call marker to the list of actions of this node. */
     public void addCallMarker(Resolvable<? extends ResolvedMethodLikeDeclaration> call, boolean enter) {
         if (enter) methodCalls.add(call);
         variableActions.add(new VariableAction.CallMarker(call, this, enter));
+        markModified();
     }
 
     // ============================================================
@@ -222,18 +247,7 @@ public class GraphNode<N extends Node> implements Comparable<GraphNode<?>> {
         );
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o)
-            return true;
-        return o instanceof GraphNode && Objects.equals(getId(), ((GraphNode<?>) o).getId());
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(getId());
-    }
-
+    /** Compare nodes by id. The order is only meaningful between nodes of the same build. */
     @Override
     public int compareTo(GraphNode<?> o) {
         return Long.compare(id, o.id);
@@ -0,0 +1,118 @@
+package es.upv.mist.slicing.nodes;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides the ids of the {@link GraphNode}s of the graphs built in an {@link es.upv.mist.slicing.utils.AnalysisContext
+ * AnalysisContext}. The CFGs, PDGs and SDG of a build share the same instance, so that the id of each node is unique
+ * among all of them, and it can index arrays and bit sets directly (see {@link #getNode(int)}).
+ * <br/>
+ * Each thread takes blocks of consecutive ids without locking, and then hands them out on its own, so the ids
+ * handed out while the graphs are built in parallel depend on the scheduling. Once a build step is complete,
+ * {@link #renumber(Iterable)} replaces them with consecutive ids, in the order in which the graph lists its
+ * nodes. The final ids are therefore dense and the same every time a program is built, with any number of threads.
+ * The ids of the nodes removed afterwards are not reused until a new allocator is created.
+ */
+public class IdAllocator {
+    protected static final int BLOCK_SIZE = 64;
+
+    /** The nodes with a final id, by id, or {@code null} for the ids of removed nodes. */
+    protected GraphNode<?>[] nodes = new GraphNode<?>[BLOCK_SIZE];
+    /** The number of final ids: every node with a lower id has been renumbered. */
+    protected int bound = 0;
+    /** The first id of the next block. */
+    protected final AtomicInteger nextBlock = new AtomicInteger();
+    /** The blocks handed out since the last renumbering, by their first id. */
+    protected final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+    /** The block from which each thread is currently handing out ids. */
+    protected final ThreadLocal<Block> currentBlock = new ThreadLocal<>();
+    /** Incremented when the nodes are renumbered, which discards the blocks of every thread. */
+    protected volatile int generation = 0;
+
+    /** Give the given node a provisional id, if it has none. */
+    public void assign(GraphNode<?> node) {
+        if (node.getId() != -1)
+            return;
+        Block block = currentBlock.get();
+        if (block == null || block.generation != generation || block.size == BLOCK_SIZE) {
+            block = new Block(nextBlock.getAndAdd(BLOCK_SIZE), generation);
+            blocks.put(block.start, block);
+            currentBlock.set(block);
+        }
+        node.setId(block.start + block.size);
+        block.nodes[block.size++] = node;
+    }
+
+    /**
+     * Replace the provisional ids handed out since the last call with consecutive final ids, following the
+     * given order. The nodes that are not contained in it are numbered afterwards, in the order of their
+     * provisional ids. It must not be called while other threads are assigning ids.
+     */
+    public void renumber(Iterable<? extends GraphNode<?>> order) {
+        if (blocks.isEmpty())
+            return;
+        List<Block> pending = new ArrayList<>(blocks.values());
+        pending.sort(Comparator.comparingInt(block -> block.start));
+        int count = 0;
+        for (Block block : pending) {
+            for (int i = 0; i < block.size; i++)
+                block.nodes[i].setId(-1);
+            count += block.size;
+        }
+        if (bound + count > nodes.length)
+            nodes = Arrays.copyOf(nodes, Math.max(bound + count, nodes.length * 2));
+        for (GraphNode<?> node : order)
+            if (node.getId() == -1)
+                setFinalId(node);
+        for (Block block : pending)
+            for (int i = 0; i < block.size; i++)
+                if (block.nodes[i].getId() == -1)
+                    setFinalId(block.nodes[i]);
+        nextBlock.set(bound);
+        blocks.clear();
+        generation++;
+    }
+
+    protected void setFinalId(GraphNode<?> node) {
+        node.setId(bound);
+        nodes[bound++] = node;
+    }
+
+    /** Forget the given node, which has been removed from its graphs. Its id is not handed out again. */
+    public void remove(GraphNode<?> node) {
+        long id = node.getId();
+        if (id >= 0 && id < bound && nodes[(int) id] == node)
+            nodes[(int) id] = null;
+    }
+
+    /** The node with the given id, or {@code null} if it has been removed or the id hasn't been handed out. */
+    public GraphNode<?> getNode(int id) {
+        if (id < bound)
+            return nodes[id];
+        Block block = blocks.get(id - (id - bound) % BLOCK_SIZE);
+        if (block == null || id - block.start >= block.size)
+            return null;
+        return block.nodes[id - block.start];
+    }
+
+    /** An exclusive upper bound of the ids handed out so far, which may size arrays and bit sets.
+     *  Once the nodes have been renumbered, it is the number of ids. */
+    public int getBound() {
+        return nextBlock.get();
+    }
+
+    /** A range of provisional ids that is only used by one thread. */
+    protected static class Block {
+        protected final int start;
+        protected final int generation;
+        protected final GraphNode<?>[] nodes = new GraphNode<?>[BLOCK_SIZE];
+        protected int size = 0;
+
+        protected Block(int start, int generation) {
+            this.start = start;
+            this.generation = generation;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import es.upv.mist.slicing.nodes.oo.PolyMemberNode;
 import es.upv.mist.slicing.utils.Utils;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -37,6 +38,10 @@ public class ObjectTree implements Cloneable {
     private final Map<String, ObjectTree> childrenMap = new HashMap<>();
     /** The MemberNode that represents this tree node in the PDG and SDG. */
     private final MemberNode memberNode;
+    /** The root of the tree that contains this tree node, which may be itself. */
+    private final ObjectTree root;
+    /** The variable action that contains this tree, notified when fields are added. Only set in the root. */
+    private VariableAction owner;
 
     /** Create a root of a new object tree with the default name. */
     public ObjectTree() {
@@ -45,22 +50,45 @@ public class ObjectTree implements Cloneable {
 
     /** Create a root of a new object tree with the given name. */
     public ObjectTree(String memberName) {
-        this(new MemberNode(memberName, null));
+        this(new MemberNode(memberName, null), null);
     }
 
     /** Create a child tree node for the given field, whose node is linked to the given parent. */
     private ObjectTree(String memberName, ObjectTree parent) {
-        this(new MemberNode(memberName, parent.memberNode));
+        this(new MemberNode(memberName, parent.memberNode), parent);
     }
 
     /** Create a child tree node for the given type, whose node is linked to the given parent. */
     private ObjectTree(ResolvedType resolvedType, ObjectTree parent) {
-        this(new PolyMemberNode(resolvedType, parent.memberNode));
+        this(new PolyMemberNode(resolvedType, parent.memberNode), parent);
     }
 
-    /** Create a child tree with the given member node. */
-    private ObjectTree(MemberNode memberNode) {
+    /** Create a tree node with the given member node, which is a root if there is no parent. */
+    private ObjectTree(MemberNode memberNode, ObjectTree parent) {
         this.memberNode = memberNode;
+        this.root = parent == null ? this : parent.root;
+    }
+
+    /** Set the variable action that contains this tree. */
+    void setOwner(VariableAction owner) {
+        root.owner = owner;
+    }
+
+    /** Obtain the child tree with the given name, creating it if it doesn't exist. */
+    private ObjectTree getOrAddChild(String name, Function<String, ObjectTree> factory) {
+        ObjectTree child = childrenMap.get(name);
+        if (child == null) {
+            child = factory.apply(name);
+            childrenMap.put(name, child);
+            root.markModified();
+        }
+        return child;
+    }
+
+    /** Notify the owner of this tree that its structure has changed. */
+    private void markModified() {
+        if (owner != null)
+            owner.markModified();
     }
 
     /** The name of the variable or field represented by this tree. It doesn't include ancestors. */
@@ -127,7 +155,7 @@ public class ObjectTree implements Cloneable {
     public ObjectTree addType(ResolvedType rt) {
         assert !rt.describe().isBlank();
         assert !(memberNode instanceof PolyMemberNode);
-        return childrenMap.computeIfAbsent(rt.describe(), n -> new ObjectTree(rt, this));
+        return getOrAddChild(rt.describe(), n -> new ObjectTree(rt, this));
     }
 
     public ObjectTree addType(ResolvedType rt, String[] prefix) {
@@ -163,13 +191,13 @@ public class ObjectTree implements Cloneable {
     public ObjectTree addImmediateField(String fieldName) {
         if (fieldName.contains(".") || fieldName.isBlank())
             throw new IllegalArgumentException("field name must not include dots or be blank!");
-        return childrenMap.computeIfAbsent(fieldName, f -> new ObjectTree(f, this));
+        return getOrAddChild(fieldName, f -> new ObjectTree(f, this));
     }
 
     public ObjectTree addStaticField(String fieldName, Node node) {
         if (fieldName.contains(".") || fieldName.isBlank())
             throw new IllegalArgumentException("field name must not include dots or be blank!");
-        return childrenMap.computeIfAbsent(fieldName, f -> new ObjectTree(new MemberNode(fieldName, node, memberNode)));
+        return getOrAddChild(fieldName, f -> new ObjectTree(new MemberNode(fieldName, node, memberNode), this));
     }
 
     /** Similar to {@link #addField(String)}, but may be called at any level
@@ -179,16 +207,15 @@ public class ObjectTree implements Cloneable {
             int firstDot = members.indexOf('.');
             String first = members.substring(0, firstDot);
             String rest = members.substring(firstDot + 1);
-            childrenMap.computeIfAbsent(first, f -> new ObjectTree(f, this));
-            return childrenMap.get(first).addNonRootField(rest);
+            return getOrAddChild(first, f -> new ObjectTree(f, this)).addNonRootField(rest);
         } else {
-            return childrenMap.computeIfAbsent(members, f -> new ObjectTree(f, this));
+            return getOrAddChild(members, f -> new ObjectTree(f, this));
         }
     }
 
     private ObjectTree addNonRootField(String[] members, int index) {
         assert index < members.length;
-        ObjectTree tree = childrenMap.computeIfAbsent(members[index], f -> new ObjectTree(f, this));
+        ObjectTree tree = getOrAddChild(members[index], f -> new ObjectTree(f, this));
         if (members.length - 1 == index)
             return tree;
         else
@@ -202,7 +229,7 @@ public class ObjectTree implements Cloneable {
             if (childrenMap.containsKey(entry.getKey()))
                 childrenMap.get(entry.getKey()).addAll(entry.getValue());
             else
-                childrenMap.put(entry.getKey(), entry.getValue().clone(this));
+                getOrAddChild(entry.getKey(), k -> entry.getValue().clone(this));
     }
 
     /**
@@ -224,7 +251,7 @@ public class ObjectTree implements Cloneable {
 
     /** Obtains the set of nodes in this object tree that have no children. */
     public Collection<MemberNode> leaves() {
-        return streamLeaves().collect(Collectors.toSet());
+        return streamLeaves().collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     /** @see #leaves() */
@@ -536,7 +563,7 @@ public class ObjectTree implements Cloneable {
     }
 
     private ObjectTree clone(ObjectTree parent) {
-        ObjectTree clone = new ObjectTree(getMemberNode().copyToParent(parent.getMemberNode()));
+        ObjectTree clone = new ObjectTree(getMemberNode().copyToParent(parent.getMemberNode()), parent);
         for (Map.Entry<String, ObjectTree> entry : childrenMap.entrySet())
             clone.childrenMap.put(entry.getKey(), entry.getValue().clone(clone));
         return clone;
@@ -10,10 +10,6 @@ import java.util.List;
  * normal-exit, normal-return, exception-exit and exception-return.
  */
 public abstract class SyntheticNode<T extends Node> extends GraphNode<T> {
-    protected SyntheticNode(String instruction, T astNode) {
-        super(instruction, astNode);
-    }
-
     protected SyntheticNode(String instruction, T astNode, List<VariableAction> variableActions) {
         super(instruction, astNode, variableActions);
     }
@@ -93,6 +93,8 @@ public abstract class VariableAction {
         this.name = name;
         this.graphNode = graphNode;
         this.objectTree = objectTree;
+        if (objectTree != null)
+            objectTree.setOwner(this);
     }
 
     // ======================================================
@@ -128,6 +130,14 @@ public abstract class VariableAction {
 
     protected void setObjectTree(ObjectTree objectTree) {
         this.objectTree = objectTree;
+        objectTree.setOwner(this);
+        markModified();
+    }
+
+    /** Notify the node that contains this action that it has changed. */
+    protected void markModified() {
+        if (graphNode != null)
+            graphNode.markModified();
     }
 
     public String getName() {
@@ -141,6 +151,7 @@ public abstract class VariableAction {
 
     public void setOptional(boolean optional) {
         this.optional = optional;
+        markModified();
     }
 
     /** The node that performs this action, in which this object is contained. */
@@ -163,14 +174,15 @@ public abstract class VariableAction {
         return isRootAction() && !hasObjectTree();
     }
 
-    public void setStaticType(ResolvedType staticType) {
+    /** Set the static type of this action, and compute its dynamic types with the given class graph. */
+    public void setStaticType(ResolvedType staticType, ClassGraph classGraph) {
         this.staticType = staticType;
         dynamicTypes.clear();
         dynamicTypes.add(staticType);
-        if (staticType.isReferenceType() && ClassGraph.getInstance().containsType(staticType.asReferenceType())) {
-            ClassGraph.getInstance().subclassesOf(staticType.asReferenceType()).stream()
+        if (staticType.isReferenceType() && classGraph.containsType(staticType.asReferenceType())) {
+            classGraph.subclassesOf(staticType.asReferenceType()).stream()
                     .map(TypeDeclaration::resolve)
-                    .map(ASTUtils::resolvedTypeDeclarationToResolvedType)
+                    .map(decl -> ASTUtils.resolvedTypeDeclarationToResolvedType(decl, classGraph.getContext().getTypeSolver()))
                     .forEach(dynamicTypes::add);
         }
     }
@@ -292,7 +304,8 @@ public abstract class VariableAction {
             throw new UnsupportedOperationException("Can't create a root node for a declaration!");
         else
             throw new IllegalStateException("Invalid action type");
-        action.setStaticType(staticType);
+        action.staticType = staticType;
+        action.dynamicTypes.addAll(dynamicTypes);
         return action;
     }
 
@@ -476,6 +489,7 @@ public abstract class VariableAction {
 
         public void setTotallyDefinedMember(String[] totallyDefinedMember) {
             this.totallyDefinedMember = Objects.requireNonNull(totallyDefinedMember);
+            markModified();
         }
 
         public boolean isTotallyDefinedMember(String[] member) {
@@ -545,7 +559,7 @@ public abstract class VariableAction {
 
         @Override
         protected void setObjectTree(ObjectTree objectTree) {
-            inner.objectTree = objectTree;
+            inner.setObjectTree(objectTree);
         }
 
         @Override
@@ -584,8 +598,8 @@ public abstract class VariableAction {
         }
 
         @Override
-        public void setStaticType(ResolvedType staticType) {
-            inner.setStaticType(staticType);
+        public void setStaticType(ResolvedType staticType, ClassGraph classGraph) {
+            inner.setStaticType(staticType, classGraph);
         }
 
         @Override
@@ -613,11 +627,11 @@ public abstract class VariableAction {
             // Move to node
             moveOnly();
             // Move data dependencies
-            Set.copyOf(graph.edgesOf(graphNode).stream()
+            graph.edgesOf(graphNode).stream()
                     .filter(Arc::isDataDependencyArc)
                     .map(Arc::asDataDependencyArc)
                     .filter(arc -> arc.getSourceVar() == this || arc.getTargetVar() == this)
-                    .collect(Collectors.toSet())) // copying to avoid modifying while iterating
+                    .collect(Collectors.toList()) // copying to avoid modifying while iterating
                     .forEach(arc -> moveDataDependencyArc(arc, graph, inner));
             return inner;
         }
@@ -625,8 +639,10 @@ public abstract class VariableAction {
         /** Relocate the inner VA from its current node to its real node. */
         public void moveOnly() {
             graphNode.variableActions.remove(this);
+            graphNode.markModified();
             realNode.variableActions.add(inner);
             inner.graphNode = realNode;
+            realNode.markModified();
         }
 
         /** Relocates a data dependency arc, by creating a new one with matching information and deleting the old one. */
@@ -21,6 +21,7 @@ import es.upv.mist.slicing.nodes.VariableAction.DeclarationType;
 import es.upv.mist.slicing.nodes.io.ActualIONode;
 import es.upv.mist.slicing.nodes.io.CallNode;
 import es.upv.mist.slicing.utils.ASTUtils;
+import es.upv.mist.slicing.utils.AnalysisContext;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -96,12 +97,18 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
         }
     }
 
+    /** The context of the analysis, which provides the class graph. */
+    protected final AnalysisContext context;
     /** A stack with the last definition expression, to provide it when a variable definition is found. */
     protected final Deque<Expression> definitionStack = new LinkedList<>();
     /** If this stack is non-empty, every action created must be of type Movable, and its real node must be
      *  the top of this stack. Used for actual-in nodes. */
     protected final Deque<SyntheticNode<?>> realNodeStack = new LinkedList<>();
 
+    public VariableVisitor(AnalysisContext context) {
+        this.context = Objects.requireNonNull(context);
+    }
+
     public void visitAsDefinition(Node node, Expression value, Action action) {
         definitionStack.push(value);
         node.accept(this, action.or(DEFINITION));
@@ -122,7 +129,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
         } else {
             VariableAction va = acceptAction(DeclarationType.valueOf(n), realName, action);
             va.addExpression(n);
-            va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(n));
+            va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(n, context.getTypeSolver()), context.getClassGraph());
         }
     }
 
@@ -158,10 +165,10 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
             VariableAction va;
             if (realName.length == 1 && realName[0].equals(n.toString())) {
                 va = acceptAction(n, action);
-                va.setStaticType(scope.calculateResolvedType());
+                va.setStaticType(scope.calculateResolvedType(), context.getClassGraph());
             } else {
                 va = acceptAction(DeclarationType.valueOf(n), realName, action);
-                va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(n));
+                va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(n, context.getTypeSolver()), context.getClassGraph());
             }
             // Register both expressions, as ExpressionObjectTreeFinder will search based on scope.
             va.addExpression(scope);
@@ -173,7 +180,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
 
     protected VariableAction acceptAction(Expression n, Action action) {
         VariableAction va = acceptAction(DeclarationType.valueOf(n), getRealName(n), action, false);
-        va.setStaticType(n.calculateResolvedType());
+        va.setStaticType(n.calculateResolvedType(), context.getClassGraph());
         va.addExpression(n);
         return va;
     }
@@ -184,7 +191,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
 
     protected VariableAction acceptAction(Expression n, String[] realName, Action action) {
         VariableAction va = acceptAction(DeclarationType.valueOf(n), realName, action, false);
-        va.setStaticType(n.calculateResolvedType());
+        va.setStaticType(n.calculateResolvedType(), context.getClassGraph());
         va.addExpression(n);
         return va;
     }
@@ -259,7 +266,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
         if (n.getExpression().isPresent()) {
             definitionStack.push(n.getExpression().get());
             VariableAction va = acceptAction(SYNTHETIC, new String[]{ VARIABLE_NAME_OUTPUT }, DEFINITION);
-            va.setStaticType(n.getExpression().get().calculateResolvedType());
+            va.setStaticType(n.getExpression().get().calculateResolvedType(), context.getClassGraph());
             definitionStack.pop();
             va.asDefinition().setTotallyDefinedMember(ROOT_NODE);
         }
@@ -271,10 +278,10 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
         definitionStack.push(n.getExpression());
         VariableAction va = acceptAction(SYNTHETIC, new String[]{ ACTIVE_EXCEPTION_VARIABLE }, DEFINITION);
         ResolvedReferenceType type = n.getExpression().calculateResolvedType().asReferenceType();
-        va.setStaticType(type);
+        va.setStaticType(type, context.getClassGraph());
         definitionStack.pop();
-        va.getObjectTree().addAll(ClassGraph.getInstance().generateObjectTreeFor(type));
-        new ExpressionObjectTreeFinder(graphNode).locateAndMarkTransferenceToRoot(n.getExpression(), -1);
+        va.getObjectTree().addAll(context.getClassGraph().generateObjectTreeFor(type));
+        new ExpressionObjectTreeFinder(graphNode, context.getClassGraph()).locateAndMarkTransferenceToRoot(n.getExpression(), -1);
     }
 
     @Override
@@ -282,10 +289,10 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
         n.getIterable().accept(this, USE);
         for (VariableDeclarator variable : n.getVariable().getVariables()) {
             VariableAction vaDec = acceptAction(LOCAL_VARIABLE, new String[]{ variable.getNameAsString() }, DECLARATION);
-            vaDec.setStaticType(variable.getType().resolve());
+            vaDec.setStaticType(variable.getType().resolve(), context.getClassGraph());
             // ForEach initializes to each value of the iterable, but that expression is not available.
             VariableAction vaDef = acceptActionNullDefinition(LOCAL_VARIABLE, new String[]{ variable.getNameAsString() });
-            vaDef.setStaticType(variable.getType().resolve());
+            vaDef.setStaticType(variable.getType().resolve(), context.getClassGraph());
         }
     }
 
@@ -331,7 +338,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
                 } else {
                     String[] root = ObjectTree.removeFields(realName);
                     VariableAction va = acceptAction(DeclarationType.valueOf(nameExpr), root, action.or(DEFINITION));
-                    va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(nameExpr));
+                    va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(nameExpr, context.getTypeSolver()), context.getClassGraph());
                     va.getObjectTree().addField(realName);
                     va.asDefinition().setTotallyDefinedMember(realName);
                     va.addExpression(nameExpr);
@@ -375,7 +382,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
                     va = acceptAction(scope, root, action.or(DEFINITION));
                 else {
                     va = acceptAction(FIELD, root, action.or(DEFINITION));
-                    va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(fieldAccessExpr));
+                    va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(fieldAccessExpr, context.getTypeSolver()), context.getClassGraph());
                 }
                 // Register both expressions, as ExpressionObjectTreeFinder will search based on scope.
                 va.addExpression(fieldAccessExpr);
@@ -394,7 +401,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
             }
         }, null);
         assert realNameWithoutRootList.size() == 1 || !foundArray.isEmpty();
-        ExpressionObjectTreeFinder finder = new ExpressionObjectTreeFinder(graphNode);
+        ExpressionObjectTreeFinder finder = new ExpressionObjectTreeFinder(graphNode, context.getClassGraph());
         if (foundArray.isEmpty()) // Handle a field access or normal variable
             finder.handleAssignExpr(n, graphNode.getLastVariableAction(), realNameWithoutRootList.get(0));
         else // Handle an array access
@@ -427,14 +434,14 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
         for (VariableDeclarator v : n.getVariables()) {
             String[] vName = new String[]{ v.getNameAsString() };
             VariableAction vaDec = acceptAction(LOCAL_VARIABLE, vName, DECLARATION);
-            vaDec.setStaticType(v.getType().resolve());
+            vaDec.setStaticType(v.getType().resolve(), context.getClassGraph());
             vaDec.addExpression(n);
             v.getInitializer().ifPresent(init -> {
                 init.accept(this, action);
                 definitionStack.push(init);
                 VariableAction vaDef = acceptAction(LOCAL_VARIABLE, vName, DEFINITION);
                 vaDef.addExpression(n);
-                vaDef.setStaticType(v.getType().resolve());
+                vaDef.setStaticType(v.getType().resolve(), context.getClassGraph());
                 definitionStack.pop();
                 if (v.getType().isClassOrInterfaceType())
                     vaDef.asDefinition().setTotallyDefinedMember(vName);
@@ -445,16 +452,16 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
 
     @Override
     public void visit(FieldDeclaration n, Action action) {
-        ResolvedType staticType = ASTUtils.resolvedTypeOfCurrentClass(n);
+        ResolvedType staticType = ASTUtils.resolvedTypeOfCurrentClass(n, context.getTypeSolver());
         for (VariableDeclarator v : n.getVariables()) {
             String[] realName = getRealNameForFieldDeclaration(v);
             VariableAction vaDec = acceptAction(FIELD, realName, DECLARATION);
-            vaDec.setStaticType(staticType);
+            vaDec.setStaticType(staticType, context.getClassGraph());
             Expression init = v.getInitializer().orElseGet(() -> ASTUtils.initializerForField(n));
             init.accept(this, action);
             definitionStack.push(init);
             VariableAction vaDef = acceptAction(FIELD, realName, DEFINITION);
-            vaDef.setStaticType(staticType);
+            vaDef.setStaticType(staticType, context.getClassGraph());
             definitionStack.pop();
             if (v.getType().isClassOrInterfaceType())
                 vaDef.asDefinition().setTotallyDefinedMember(realName);
@@ -468,7 +475,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
             String realName = n.getNameAsString();
             if (n.resolve().isField() && !n.resolve().asField().isStatic())
                 realName = "this." + realName;
-            new ExpressionObjectTreeFinder(graphNode).handleVariableDeclarator(n, realName);
+            new ExpressionObjectTreeFinder(graphNode, context.getClassGraph()).handleVariableDeclarator(n, realName);
         }
     }
 
@@ -482,9 +489,9 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
     public void visit(Parameter n, Action arg) {
         String[] nName = new String[]{ n.getNameAsString() };
         VariableAction vaDec = acceptAction(PARAMETER, nName, DECLARATION);
-        vaDec.setStaticType(n.getType().resolve());
+        vaDec.setStaticType(n.getType().resolve(), context.getClassGraph());
         VariableAction vaDef = acceptActionNullDefinition(PARAMETER, nName);
-        vaDef.setStaticType(n.getType().resolve());
+        vaDef.setStaticType(n.getType().resolve(), context.getClassGraph());
     }
 
     // =======================================================================
@@ -504,12 +511,12 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
         boolean visitCall = visitCall(n, arg);
         if (visitCall) {
             VariableAction va = acceptAction(FIELD, new String[]{ "this" }, DECLARATION);
-            va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(n));
+            va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(n, context.getTypeSolver()), context.getClassGraph());
             super.visit(n, arg);
         }
         // Regardless of whether it resolves or not, 'this' is defined
         VariableAction defThis = acceptActionNullDefinition(FIELD, new String[]{ "this" });
-        defThis.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(n));
+        defThis.setStaticType(ASTUtils.resolvedTypeOfCurrentClass(n, context.getTypeSolver()), context.getClassGraph());
         // setup a connection between USE(-output-) and DEF(this)
         List<VariableAction> vaList = graphNode.getVariableActions();
         if (!visitCall) { // call-super, DEC(this), USE(-output-), ret-super, DEF(this)
@@ -539,7 +546,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
         // Scope
         if (call instanceof ExplicitConstructorInvocationStmt) {
             VariableAction va = acceptAction(FIELD, new String[]{ "this" }, DECLARATION);
-            va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass((ExplicitConstructorInvocationStmt) call));
+            va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass((ExplicitConstructorInvocationStmt) call, context.getTypeSolver()), context.getClassGraph());
         }
         if (call instanceof MethodCallExpr && !((JavaParserMethodDeclaration) call.resolve()).isStatic()) {
             ActualIONode scopeIn = ActualIONode.createActualIn(call, "this", ((MethodCallExpr) call).getScope().orElse(null));
@@ -549,7 +556,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
                     scope -> scope.accept(this, action),
                     () -> {
                         VariableAction va = acceptAction(FIELD, new String[]{ "this" }, action);
-                        va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass((MethodCallExpr) call));
+                        va.setStaticType(ASTUtils.resolvedTypeOfCurrentClass((MethodCallExpr) call, context.getTypeSolver()), context.getClassGraph());
                     });
             // Generate -scope-in- action, so that InterproceduralUsageFinder does not need to do so.
             VariableAction.Definition def = new VariableAction.Definition(VariableAction.DeclarationType.SYNTHETIC, "-scope-in-", graphNode);
@@ -587,7 +594,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
                 fields.map(tree -> (ObjectTree) tree.clone()).orElse(null));
         def.setTotallyDefinedMember(ROOT_NODE);
         var defMov = new VariableAction.Movable(def, CallNode.Return.create(call));
-        defMov.setStaticType(ASTUtils.getCallResolvedType(call));
+        defMov.setStaticType(ASTUtils.getCallResolvedType(call, context.getTypeSolver()), context.getClassGraph());
         graphNode.addVariableAction(defMov);
         // The container of the call uses -output-, unless the call is wrapped in an ExpressionStmt
         Optional<Node> parentNode = ((Node) call).getParentNode();
@@ -595,7 +602,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
             VariableAction use = new VariableAction.Usage(SYNTHETIC, VARIABLE_NAME_OUTPUT, graphNode,
                     fields.map(tree -> (ObjectTree) tree.clone()).orElse(null));
             graphNode.addVariableAction(use);
-            use.setStaticType(ASTUtils.getCallResolvedType(call));
+            use.setStaticType(ASTUtils.getCallResolvedType(call, context.getTypeSolver()), context.getClassGraph());
         }
     }
 
@@ -604,7 +611,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
         if (resolved instanceof AssociableToAST) {
             Optional<? extends Node> n = ((AssociableToAST<? extends Node>) resolved).toAst();
             if (n.isPresent() && n.get() instanceof CallableDeclaration)
-                return ClassGraph.getInstance().generateObjectTreeForReturnOf((CallableDeclaration<?>) n.get());
+                return context.getClassGraph().generateObjectTreeForReturnOf((CallableDeclaration<?>) n.get());
         }
         return Optional.empty();
     }
@@ -656,7 +663,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
      *  contained in the class graph, (b) the polymorphic variable has fields and (c) there
      *  aren't any polymorphic nodes in the object tree already. */
     protected void generatePolyTrees(GraphNode<?> graphNode) {
-        ClassGraph classGraph = ClassGraph.getInstance();
+        ClassGraph classGraph = context.getClassGraph();
         for (VariableAction va : graphNode.getVariableActions()) {
             if (va.isStatic() || !va.hasObjectTree())
                 continue;
@@ -705,7 +712,7 @@ public class VariableVisitor extends GraphNodeContentVisitor<VariableVisitor.Act
             return Set.of(fieldType);
         return classGraph.subclassesOf(fieldType.asReferenceType()).stream()
                 .map(TypeDeclaration::resolve)
-                .map(ASTUtils::resolvedTypeDeclarationToResolvedType)
+                .map(decl -> ASTUtils.resolvedTypeDeclarationToResolvedType(decl, classGraph.getContext().getTypeSolver()))
                 .collect(Collectors.toSet());
     }
 }
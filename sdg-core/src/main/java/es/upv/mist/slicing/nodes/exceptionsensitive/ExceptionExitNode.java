@@ -18,17 +18,6 @@ public class ExceptionExitNode extends ExitNode {
         return exceptionType;
     }
 
-    @Override
-    public boolean equals(Object o) {
-        return super.equals(o) && o instanceof ExceptionExitNode &&
-                exceptionType.equals(((ExceptionExitNode) o).exceptionType);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), exceptionType);
-    }
-
     @Override
     public boolean matchesReturnNode(ReturnNode node) {
         // TODO: this is a temporary solution. When 1 exception return node per type is implemented, they must be compared
@@ -32,17 +32,6 @@ public class ExceptionReturnNode extends ReturnNode {
         return exceptionType;
     }
 
-    @Override
-    public boolean equals(Object o) {
-        return super.equals(o) && o instanceof ExceptionReturnNode &&
-                exceptionType.equals(((ExceptionReturnNode) o).exceptionType);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), exceptionType);
-    }
-
     public static ExceptionReturnNode create(Resolvable<? extends ResolvedMethodLikeDeclaration> astNode, ResolvedType rType) {
         return create((Object) astNode, rType);
     }
@@ -29,17 +29,6 @@ public class ActualIONode extends IONode<Node> {
                 && isInput() == o.isInput();
     }
 
-    @Override
-    public boolean equals(Object o) {
-        return super.equals(o) && o instanceof ActualIONode
-                && Objects.equals(((ActualIONode) o).argument, argument);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), argument);
-    }
-
     protected static String createLabel(boolean isInput, String paramName, Expression arg) {
         if (isInput)
             return String.format("%s_in = %s", paramName, arg);
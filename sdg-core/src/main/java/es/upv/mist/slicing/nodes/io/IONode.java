@@ -4,7 +4,6 @@ import com.github.javaparser.ast.Node;
 import es.upv.mist.slicing.nodes.SyntheticNode;
 
 import java.util.LinkedList;
-import java.util.Objects;
 
 /** A node representing an input or output from a declaration or call (formal or actual). */
 public abstract class IONode<T extends Node> extends SyntheticNode<T> {
@@ -28,16 +27,4 @@ public abstract class IONode<T extends Node> extends SyntheticNode<T> {
     public boolean isOutput() {
         return !isInput;
     }
-
-    @Override
-    public boolean equals(Object o) {
-        return super.equals(o) && o instanceof IONode
-                && ((IONode<?>) o).isInput == isInput
-                && Objects.equals(((IONode<?>) o).variableName, variableName);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), isInput, variableName);
-    }
 }
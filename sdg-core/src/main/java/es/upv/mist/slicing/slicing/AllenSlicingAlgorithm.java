@@ -1,8 +1,9 @@
 package es.upv.mist.slicing.slicing;
 
 import es.upv.mist.slicing.arcs.Arc;
-import es.upv.mist.slicing.arcs.pdg.ConditionalControlDependencyArc;
+import es.upv.mist.slicing.arcs.ArcKind;
 import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.nodes.GraphNode;
 
 public class AllenSlicingAlgorithm extends JSysDGSlicingAlgorithm {
 
@@ -11,10 +12,12 @@ public class AllenSlicingAlgorithm extends JSysDGSlicingAlgorithm {
     }
 
     @Override
-    protected boolean commonIgnoreConditions(Arc arc) {
-        return arc instanceof ConditionalControlDependencyArc.CC1 ||
-                arc instanceof ConditionalControlDependencyArc.CC2 ||
-                objectFlowIgnore(arc) ||
-                ppdgIgnore(arc);
+    protected int ignoredKinds() {
+        return super.ignoredKinds() | ArcKind.CONDITIONAL_CONTROL_DEPENDENCIES;
+    }
+
+    @Override
+    protected boolean commonIgnoreConditions(Arc arc, GraphNode<?> target) {
+        return objectFlowIgnore(arc, target) || ppdgIgnore(arc, target);
     }
 }
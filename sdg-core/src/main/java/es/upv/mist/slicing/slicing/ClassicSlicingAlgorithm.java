@@ -1,73 +1,338 @@
 package es.upv.mist.slicing.slicing;
 
 import es.upv.mist.slicing.arcs.Arc;
-import es.upv.mist.slicing.arcs.sdg.InterproceduralArc;
+import es.upv.mist.slicing.arcs.ArcKind;
 import es.upv.mist.slicing.graphs.Graph;
+import es.upv.mist.slicing.graphs.sdg.FrozenSDG;
+import es.upv.mist.slicing.graphs.sdg.SDG;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.utils.Utils;
 
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Predicate;
 
 /** The classic slicing algorithm: traverse all arcs backwards except interprocedural output arcs until
  *  no new node is added, then repeat the process but ignoring interprocedural input arcs instead. */
 public class ClassicSlicingAlgorithm implements SlicingAlgorithm {
     protected final Graph graph;
+    /** The compact copy of the graph, if it has been frozen. */
+    protected final FrozenSDG frozen;
 
     public ClassicSlicingAlgorithm(Graph graph) {
         this.graph = graph;
+        this.frozen = graph instanceof SDG && ((SDG) graph).isFrozen() ? ((SDG) graph).freeze() : null;
     }
 
     @Override
     public Slice traverseProcedure(GraphNode<?> slicingCriterion) {
-        Slice sliceAggregate = new Slice(Set.of(slicingCriterion));
+        Slice sliceAggregate = newSlice(Set.of(slicingCriterion));
+        if (frozen != null) {
+            BitSet visitedAgg = new BitSet(frozen.nodeCount());
+            passBackwards(sliceAggregate, visitedAgg, ignoredKindsProcedure());
+            passForwards(sliceAggregate, visitedAgg, ignoredKindsProcedure());
+            visitedAgg.clear(frozen.getId(slicingCriterion)); // Already in the slice
+            visitedAgg.stream().mapToObj(frozen::getNode).forEach(sliceAggregate::add);
+            return sliceAggregate;
+        }
         Set<GraphNode<?>> visitedAgg = new HashSet<>();
 
-        passBackwards(sliceAggregate, visitedAgg, this::ignoreProcedure);
-        passForwards(sliceAggregate, visitedAgg, this::ignoreProcedure);
+        passBackwards(sliceAggregate, visitedAgg, ignoredKindsProcedure());
+        passForwards(sliceAggregate, visitedAgg, ignoredKindsProcedure());
 
+        visitedAgg.remove(slicingCriterion); // Already in the slice
         visitedAgg.forEach(sliceAggregate::add);        
         return sliceAggregate;
     }
 
     @Override
     public Slice traverse(Set<GraphNode<?>> slicingCriterion) {
-        Slice sliceAggregate = new Slice(slicingCriterion);
+        Slice sliceAggregate = newSlice(slicingCriterion);
+        if (frozen != null) {
+            BitSet visitedAgg = new BitSet(frozen.nodeCount());
+            passBackwards(sliceAggregate, visitedAgg, ignoredKindsPass1());
+            passBackwards(sliceAggregate, visitedAgg, ignoredKindsPass2());
+
+            passForwards(sliceAggregate, visitedAgg, ignoredKindsPass1());
+            passForwards(sliceAggregate, visitedAgg, ignoredKindsPass2());
+
+            // The nodes of the criterion are already in the slice
+            for (GraphNode<?> node : slicingCriterion)
+                visitedAgg.clear(frozen.getId(node));
+            visitedAgg.stream().mapToObj(frozen::getNode).forEach(sliceAggregate::add);
+            return sliceAggregate;
+        }
         Set<GraphNode<?>> visitedAgg = new HashSet<>();
 
-        passBackwards(sliceAggregate, visitedAgg, this::ignorePass1);
-        passBackwards(sliceAggregate, visitedAgg, this::ignorePass2);
+        passBackwards(sliceAggregate, visitedAgg, ignoredKindsPass1());
+        passBackwards(sliceAggregate, visitedAgg, ignoredKindsPass2());
 
-        passForwards(sliceAggregate, visitedAgg, this::ignorePass1);
-        passForwards(sliceAggregate, visitedAgg, this::ignorePass2);
+        passForwards(sliceAggregate, visitedAgg, ignoredKindsPass1());
+        passForwards(sliceAggregate, visitedAgg, ignoredKindsPass2());
 
+        // The nodes of the criterion are already in the slice
+        visitedAgg.removeAll(slicingCriterion);
         visitedAgg.forEach(sliceAggregate::add);
         return sliceAggregate;
     }
 
-    /** The condition to ignore arcs in the first pass of the algorithm. */
-    protected boolean ignorePass1(Arc arc) {
-        return arc.isInterproceduralOutputArc();
+    @Override
+    public Slice traverseForward(Set<GraphNode<?>> slicingCriterion) {
+        if (frozen != null)
+            return newSlice(slicingCriterion, reachForwards(ids(slicingCriterion), null));
+        return newSlice(slicingCriterion, reachForwards(slicingCriterion, null));
+    }
+
+    /** {@inheritDoc} The backward slice of the target is computed first, in two passes that start from
+     *  the target, as in {@link #traverse(Set)}, and then the forward traversal of the source is pruned
+     *  with it, so that the forward slice is never computed. */
+    @Override
+    public Slice chop(Set<GraphNode<?>> source, Set<GraphNode<?>> target) {
+        if (frozen != null) {
+            BitSet backward = ids(target), pass2 = ids(target);
+            reach(backward, frozen.incoming(), ignoredKindsPass1(), null);
+            reach(pass2, frozen.incoming(), ignoredKindsPass2(), null);
+            backward.or(pass2);
+            return pruneForwards(source, backward);
+        }
+        Set<GraphNode<?>> backward = new HashSet<>(target), pass2 = new HashSet<>(target);
+        reach(backward, false, ignoredKindsPass1(), null);
+        reach(pass2, false, ignoredKindsPass2(), null);
+        backward.addAll(pass2);
+        return pruneForwards(source, backward::contains);
+    }
+
+    /** Chop the source with a backward slice that has already been computed. Its nodes are
+     *  read from the slice itself, which is numbered by the ids of the nodes, as the frozen graph. */
+    protected Slice chop(Set<GraphNode<?>> source, Slice backward) {
+        if (frozen != null && backward.ids() != null)
+            return pruneForwards(source, backward.ids());
+        return pruneForwards(source, backward::contains);
+    }
+
+    /** The forward slice of the source, restricted to the given nodes of the frozen graph. */
+    protected Slice pruneForwards(Set<GraphNode<?>> source, BitSet backward) {
+        BitSet start = ids(source);
+        start.and(backward);
+        Set<GraphNode<?>> criterion = new HashSet<>();
+        start.stream().mapToObj(frozen::getNode).forEach(criterion::add);
+        return newSlice(criterion, reachForwards(start, backward));
+    }
+
+    /** The forward slice of the source, restricted to the nodes that match the given predicate. */
+    protected Slice pruneForwards(Set<GraphNode<?>> source, Predicate<GraphNode<?>> backward) {
+        Set<GraphNode<?>> criterion = new HashSet<>(source);
+        criterion.removeIf(backward.negate());
+        return newSlice(criterion, reachForwards(criterion, backward));
+    }
+
+    /** The nodes reached forwards from the given ones, in two passes: the second one starts from all the
+     *  nodes reached by the first. Only nodes that match {@code within} are reached, unless it is null. */
+    protected Set<GraphNode<?>> reachForwards(Set<GraphNode<?>> start, Predicate<GraphNode<?>> within) {
+        Set<GraphNode<?>> reached = new HashSet<>(start);
+        reach(reached, true, ignoredKindsPass2(), within);
+        reach(reached, true, ignoredKindsPass1(), within);
+        return reached;
+    }
+
+    /** The frozen equivalent of {@link #reachForwards(Set, Predicate)}, over the dense ids of the nodes. */
+    protected BitSet reachForwards(BitSet start, BitSet within) {
+        BitSet reached = (BitSet) start.clone();
+        reach(reached, frozen.outgoing(), ignoredKindsPass2(), within);
+        reach(reached, frozen.outgoing(), ignoredKindsPass1(), within);
+        return reached;
+    }
+
+    /** A single pass that adds to {@code reached} every node that can be reached from it without traversing
+     *  the ignored kinds of arcs. Only nodes that match {@code within} are reached, unless it is null. */
+    protected void reach(Set<GraphNode<?>> reached, boolean forwards, int ignoredKinds, Predicate<GraphNode<?>> within) {
+        Deque<GraphNode<?>> toVisit = new ArrayDeque<>(reached);
+        while (!toVisit.isEmpty()) {
+            GraphNode<?> node = toVisit.pop();
+            for (Arc arc : forwards ? graph.outgoingEdgesOf(node) : graph.incomingEdgesOf(node)) {
+                if (ignore(arc, ignoredKinds))
+                    continue;
+                GraphNode<?> next = forwards ? graph.getEdgeTarget(arc) : graph.getEdgeSource(arc);
+                if ((within == null || within.test(next)) && reached.add(next))
+                    toVisit.push(next);
+            }
+        }
+    }
+
+    /** The frozen equivalent of {@link #reach(Set, boolean, int, Predicate)}, in the direction of the given adjacency. */
+    protected void reach(BitSet reached, FrozenSDG.Adjacency adjacency, int ignoredKinds, BitSet within) {
+        int checkedKinds = checkedKinds() & ~ignoredKinds;
+        int[] toVisit = reached.stream().toArray();
+        int size = toVisit.length;
+        while (size > 0) {
+            int node = toVisit[--size];
+            if ((adjacency.kinds(node) & ~ignoredKinds) == 0)
+                continue;
+            for (int run = adjacency.firstRun(node); run < adjacency.endRun(node); run++) {
+                byte kind = adjacency.runKind(run);
+                if (ArcKind.contains(ignoredKinds, kind))
+                    continue;
+                boolean checked = ArcKind.contains(checkedKinds, kind);
+                for (int i = adjacency.runStart(run); i < adjacency.runEnd(run); i++) {
+                    int arc = adjacency.partitionedArc(i);
+                    int next = adjacency.opposite(arc);
+                    if (reached.get(next) || (within != null && !within.get(next))
+                            || (checked && ignoreArc(frozen.getArc(arc))))
+                        continue;
+                    reached.set(next);
+                    if (size == toVisit.length)
+                        toVisit = Arrays.copyOf(toVisit, Math.max(size * 2, 16));
+                    toVisit[size++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Slice multiple criteria, with the same result as calling {@link #traverse(Set)} for each of them.
+     * In a frozen graph, when no arc is checked with {@link #ignoreArc(Arc)}, the criteria are sliced
+     * in blocks of 64: each pass propagates, through each node, a word with a bit per criterion.
+     */
+    public List<Slice> traverseAll(List<Set<GraphNode<?>>> slicingCriteria) {
+        List<Slice> slices = new ArrayList<>(slicingCriteria.size());
+        if (frozen == null || checkedKinds() != 0) {
+            for (Set<GraphNode<?>> slicingCriterion : slicingCriteria)
+                slices.add(traverse(slicingCriterion));
+            return slices;
+        }
+        for (int from = 0; from < slicingCriteria.size(); from += Long.SIZE) {
+            List<Set<GraphNode<?>>> block = slicingCriteria.subList(from, Math.min(from + Long.SIZE, slicingCriteria.size()));
+            long[] criteria = new long[frozen.nodeCount()];
+            for (int i = 0; i < block.size(); i++) {
+                slices.add(newSlice(block.get(i)));
+                for (GraphNode<?> node : block.get(i))
+                    criteria[frozen.getId(node)] |= 1L << i;
+            }
+            long[] reached = new long[frozen.nodeCount()];
+            propagate(criteria, reached, frozen.incoming(), ignoredKindsPass1());
+            propagate(criteria, reached, frozen.incoming(), ignoredKindsPass2());
+            propagate(criteria, reached, frozen.outgoing(), ignoredKindsPass1());
+            propagate(criteria, reached, frozen.outgoing(), ignoredKindsPass2());
+            for (int node = 0; node < reached.length; node++) {
+                // The nodes of each criterion are already in its slice
+                for (long bits = reached[node] & ~criteria[node]; bits != 0; bits &= bits - 1)
+                    slices.get(from + Long.numberOfTrailingZeros(bits)).add(frozen.getNode(node));
+            }
+        }
+        return slices;
+    }
+
+    /** A single pass over the frozen graph for up to 64 criteria at once, in the direction of the
+     *  given adjacency. The bits of the criteria that reach each node are added to {@code reached}. */
+    protected void propagate(long[] criteria, long[] reached, FrozenSDG.Adjacency adjacency, int ignoredKinds) {
+        long[] bits = criteria.clone();
+        int[] toVisit = new int[16];
+        int size = 0;
+        BitSet pending = new BitSet(bits.length);
+        for (int node = 0; node < bits.length; node++) {
+            if (bits[node] != 0) {
+                if (size == toVisit.length)
+                    toVisit = Arrays.copyOf(toVisit, size * 2);
+                toVisit[size++] = node;
+                pending.set(node);
+            }
+        }
+        while (size > 0) {
+            int node = toVisit[--size];
+            pending.clear(node);
+            if ((adjacency.kinds(node) & ~ignoredKinds) == 0)
+                continue;
+            for (int run = adjacency.firstRun(node); run < adjacency.endRun(node); run++) {
+                if (ArcKind.contains(ignoredKinds, adjacency.runKind(run)))
+                    continue;
+                for (int i = adjacency.runStart(run); i < adjacency.runEnd(run); i++) {
+                    int next = adjacency.opposite(adjacency.partitionedArc(i));
+                    if ((bits[next] | bits[node]) == bits[next])
+                        continue;
+                    bits[next] |= bits[node];
+                    if (!pending.get(next)) {
+                        if (size == toVisit.length)
+                            toVisit = Arrays.copyOf(toVisit, size * 2);
+                        toVisit[size++] = next;
+                        pending.set(next);
+                    }
+                }
+            }
+        }
+        for (int node = 0; node < bits.length; node++)
+            reached[node] |= bits[node];
+    }
+
+    /** Create an empty slice for the given criterion, numbered by the frozen graph if available, or by the graph. */
+    protected Slice newSlice(Set<GraphNode<?>> slicingCriterion) {
+        return new Slice(slicingCriterion, frozen != null ? frozen : graph);
     }
 
-    /** The condition to ignore arcs in the second pass of the algorithm. */
-    protected boolean ignorePass2(Arc arc) {
-        return arc.isInterproceduralInputArc();
+    /** Create a slice for the given criterion with the given nodes, which must include the criterion. */
+    protected Slice newSlice(Set<GraphNode<?>> slicingCriterion, Set<GraphNode<?>> nodes) {
+        Slice slice = newSlice(slicingCriterion);
+        for (GraphNode<?> node : nodes)
+            if (!slicingCriterion.contains(node))
+                slice.add(node);
+        return slice;
     }
 
-    /** The condition to ignore arcs in intraprocedural slicing. */
-    public boolean ignoreProcedure(Arc arc) {
-        return arc instanceof InterproceduralArc;
+    /** Create a slice for the given criterion with the nodes of the frozen graph whose ids are set. */
+    protected Slice newSlice(Set<GraphNode<?>> slicingCriterion, BitSet nodes) {
+        Slice slice = newSlice(slicingCriterion);
+        BitSet rest = (BitSet) nodes.clone();
+        for (GraphNode<?> node : slicingCriterion)
+            rest.clear(frozen.getId(node));
+        rest.stream().mapToObj(frozen::getNode).forEach(slice::add);
+        return slice;
+    }
+
+    /** The dense ids of the given nodes in the frozen graph. */
+    protected BitSet ids(Set<GraphNode<?>> nodes) {
+        BitSet ids = new BitSet(frozen.nodeCount());
+        for (GraphNode<?> node : nodes)
+            ids.set(frozen.getId(node));
+        return ids;
+    }
+
+    /** The kinds of arcs ignored in the first pass of the algorithm, as a bitmask. */
+    protected int ignoredKindsPass1() {
+        return ArcKind.INTERPROCEDURAL_OUTPUTS;
+    }
+
+    /** The kinds of arcs ignored in the second pass of the algorithm, as a bitmask. */
+    protected int ignoredKindsPass2() {
+        return ArcKind.INTERPROCEDURAL_INPUTS;
+    }
+
+    /** The kinds of arcs ignored in intraprocedural slicing, as a bitmask. */
+    protected int ignoredKindsProcedure() {
+        return ArcKind.INTERPROCEDURAL;
+    }
+
+    /** The kinds of arcs that are also tested with {@link #ignoreArc(Arc)}, as a bitmask.
+     *  Arcs of other kinds are only ignored because of their kind. */
+    protected int checkedKinds() {
+        return 0;
+    }
+
+    /** An additional condition to ignore arcs of the {@link #checkedKinds() checked kinds}, in every pass. */
+    protected boolean ignoreArc(Arc arc) {
+        return false;
+    }
+
+    /** Whether an arc should be ignored in a pass that ignores the given kinds. */
+    protected boolean ignore(Arc arc, int ignoredKinds) {
+        ArcKind kind = arc.getKind();
+        return kind.in(ignoredKinds) || (kind.in(checkedKinds()) && ignoreArc(arc));
     }
 
     /** A single pass: the edges are traversed until no new node can be added. Reached nodes
-     *  are stored in the first parameter, and arcs that match the second are ignored. */
-    protected void passBackwards(Slice slice, Set<GraphNode<?>> visitedAgg, Predicate<Arc> ignoreCondition) {
+     *  are stored in the second parameter, and arcs of the ignored kinds are not traversed. */
+    protected void passBackwards(Slice slice, Set<GraphNode<?>> visitedAgg, int ignoredKinds) {
         // `toVisit` behaves like a set and using iterable we can use it as a queue
         // More info: https://stackoverflow.com/a/2319126
-        LinkedHashSet<GraphNode<?>> toVisit = new LinkedHashSet<>(slice.getGraphNodes());
+        LinkedHashSet<GraphNode<?>> toVisit = new LinkedHashSet<>();
+        slice.forEach(toVisit::add);
         Set<GraphNode<?>> visited = new HashSet<>();
 
         while (!toVisit.isEmpty()) {
@@ -78,7 +343,7 @@ public class ClassicSlicingAlgorithm implements SlicingAlgorithm {
             visited.add(node);
             // Traverse all edges backwards
             for (Arc arc : graph.incomingEdgesOf(node)) {
-                if (ignoreCondition.test(arc))
+                if (ignore(arc, ignoredKinds))
                     continue;
                 GraphNode<?> source = graph.getEdgeSource(arc);
                 if (!visited.contains(source))
@@ -91,11 +356,12 @@ public class ClassicSlicingAlgorithm implements SlicingAlgorithm {
     }
 
     /** A single pass: the edges are traversed until no new node can be added. Reached nodes
-     *  are stored in the first parameter, and arcs that match the second are ignored. */
-    protected void passForwards(Slice slice, Set<GraphNode<?>> visitedAgg, Predicate<Arc> ignoreCondition) {
+     *  are stored in the second parameter, and arcs of the ignored kinds are not traversed. */
+    protected void passForwards(Slice slice, Set<GraphNode<?>> visitedAgg, int ignoredKinds) {
         // `toVisit` behaves like a set and using iterable we can use it as a queue
         // More info: https://stackoverflow.com/a/2319126
-        LinkedHashSet<GraphNode<?>> toVisit = new LinkedHashSet<>(slice.getGraphNodes());
+        LinkedHashSet<GraphNode<?>> toVisit = new LinkedHashSet<>();
+        slice.forEach(toVisit::add);
         Set<GraphNode<?>> visited = new HashSet<>();
 
         while (!toVisit.isEmpty()) {
@@ -106,7 +372,7 @@ public class ClassicSlicingAlgorithm implements SlicingAlgorithm {
             visited.add(node);
             // Traverse all edges forwards
             for (Arc arc : graph.outgoingEdgesOf(node)) {
-                if (ignoreCondition.test(arc))
+                if (ignore(arc, ignoredKinds))
                     continue;
                 GraphNode<?> target = graph.getEdgeTarget(arc);
                 if (!visited.contains(target))
@@ -117,4 +383,61 @@ public class ClassicSlicingAlgorithm implements SlicingAlgorithm {
         }
 
     }
-}
\ No newline at end of file
+
+    /** A single pass over the frozen graph, equivalent to {@link #passBackwards(Slice, Set, int)}. */
+    protected void passBackwards(Slice slice, BitSet visitedAgg, int ignoredKinds) {
+        pass(slice, visitedAgg, frozen.incoming(), ignoredKinds);
+    }
+
+    /** A single pass over the frozen graph, equivalent to {@link #passForwards(Slice, Set, int)}. */
+    protected void passForwards(Slice slice, BitSet visitedAgg, int ignoredKinds) {
+        pass(slice, visitedAgg, frozen.outgoing(), ignoredKinds);
+    }
+
+    /** A single pass over the frozen graph, in the direction of the given adjacency. The arcs are
+     *  visited by kind, so that the runs of ignored kinds are skipped as a whole. */
+    protected void pass(Slice slice, BitSet visitedAgg, FrozenSDG.Adjacency adjacency, int ignoredKinds) {
+        int checkedKinds = checkedKinds() & ~ignoredKinds;
+        int[] toVisit = initialWorkList(slice);
+        int size = toVisit.length;
+        BitSet visited = new BitSet(frozen.nodeCount());
+        while (size > 0) {
+            int node = toVisit[--size];
+            if (visited.get(node))
+                continue;
+            visited.set(node);
+            if ((adjacency.kinds(node) & ~ignoredKinds) == 0)
+                continue;
+            for (int run = adjacency.firstRun(node); run < adjacency.endRun(node); run++) {
+                byte kind = adjacency.runKind(run);
+                if (ArcKind.contains(ignoredKinds, kind))
+                    continue;
+                boolean checked = ArcKind.contains(checkedKinds, kind);
+                for (int i = adjacency.runStart(run); i < adjacency.runEnd(run); i++) {
+                    int arc = adjacency.partitionedArc(i);
+                    if (checked && ignoreArc(frozen.getArc(arc)))
+                        continue;
+                    int next = adjacency.opposite(arc);
+                    visitedAgg.set(next);
+                    if (!visited.get(next)) {
+                        if (size == toVisit.length)
+                            toVisit = Arrays.copyOf(toVisit, Math.max(size * 2, 16));
+                        toVisit[size++] = next;
+                    }
+                }
+            }
+        }
+    }
+
+    /** The dense ids of the nodes of the given slice. */
+    protected int[] initialWorkList(Slice slice) {
+        BitSet ids = slice.ids();
+        if (ids != null)
+            return ids.stream().toArray();
+        int[] workList = new int[slice.size()];
+        int size = 0;
+        for (GraphNode<?> node : slice)
+            workList[size++] = frozen.getId(node);
+        return workList;
+    }
+}
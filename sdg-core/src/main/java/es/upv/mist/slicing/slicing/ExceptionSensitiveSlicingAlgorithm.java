@@ -1,17 +1,14 @@
 package es.upv.mist.slicing.slicing;
 
 import es.upv.mist.slicing.arcs.Arc;
-import es.upv.mist.slicing.arcs.pdg.ConditionalControlDependencyArc;
-import es.upv.mist.slicing.arcs.pdg.ConditionalControlDependencyArc.CC1;
-import es.upv.mist.slicing.arcs.pdg.ConditionalControlDependencyArc.CC2;
-import es.upv.mist.slicing.arcs.sdg.InterproceduralArc;
+import es.upv.mist.slicing.arcs.ArcKind;
 import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
+import es.upv.mist.slicing.graphs.sdg.FrozenSDG;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.utils.Utils;
 
 import java.util.*;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.function.BiPredicate;
 
 /**
  * An exception-sensitive slicing algorithm, which follows these rules:
@@ -28,72 +25,153 @@ import java.util.stream.Stream;
  * </ol>
  */
 public class ExceptionSensitiveSlicingAlgorithm implements SlicingAlgorithm {
-    protected static final Predicate<Arc> INTRAPROCEDURAL = InterproceduralArc.class::isInstance;
+    /** The kinds of arcs ignored in intraprocedural slicing. */
+    protected static final int INTRAPROCEDURAL = ArcKind.INTERPROCEDURAL;
     /** Applies rule 1a of the algorithm. */
-    protected static final Predicate<Arc> SDG_PASS_1 = Arc::isInterproceduralOutputArc;
+    protected static final int SDG_PASS_1 = ArcKind.INTERPROCEDURAL_OUTPUTS;
     /** Applies rule 1b of the algorithm. */
-    protected static final Predicate<Arc> SDG_PASS_2 = Arc::isInterproceduralInputArc;
+    protected static final int SDG_PASS_2 = ArcKind.INTERPROCEDURAL_INPUTS;
 
     protected final ESSDG graph;
+    /** The compact copy of the graph, if it has been frozen. */
+    protected final FrozenSDG frozen;
     protected Set<GraphNode<?>> slicingCriterion;
 
     /** Set of the arcs that have been traversed in the slicing process. */
     protected final Set<Arc> traversedArcSet = new HashSet<>();
     /** Similar to {@link #traversedArcSet} */
     protected final Map<GraphNode<?>, Set<Arc>> traversedArcMap = new HashMap<>();
+    /** The kinds of the traversed arcs whose source is each node, i.e., the kinds of arcs that have reached it. */
+    protected final Map<GraphNode<?>, Integer> reachedKindsMap = new HashMap<>();
+
+    /** The frozen equivalent of {@link #traversedArcSet}, by arc id. */
+    protected final BitSet traversedArcs;
+    /** The number of traversed arcs whose target is each node of the frozen graph, by id. */
+    protected final int[] traversedArcCounts;
+    /** The frozen equivalent of {@link #reachedKindsMap}, by node id. */
+    protected final int[] reachedKindsById;
 
     public ExceptionSensitiveSlicingAlgorithm(ESSDG graph) {
         this.graph = Objects.requireNonNull(graph);
+        this.frozen = graph.isFrozen() ? graph.freeze() : null;
+        this.traversedArcs = frozen != null ? new BitSet(frozen.arcCount()) : null;
+        this.traversedArcCounts = frozen != null ? new int[frozen.nodeCount()] : null;
+        this.reachedKindsById = frozen != null ? new int[frozen.nodeCount()] : null;
     }
 
     @Override
     public Slice traverse(Set<GraphNode<?>> slicingCriterion) {
+        reset();
         this.slicingCriterion = slicingCriterion;
-        Slice slice = new Slice(slicingCriterion);
-        pass(slice, SDG_PASS_1.or(this::commonIgnoreConditions));
-        pass(slice, SDG_PASS_2.or(this::commonIgnoreConditions));
+        Slice slice = newSlice(slicingCriterion);
+        pass(slice, SDG_PASS_1 | ignoredKinds(), this::commonIgnoreConditions);
+        pass(slice, SDG_PASS_2 | ignoredKinds(), this::commonIgnoreConditions);
         return slice;
     }
 
     @Override
     public Slice traverseProcedure(GraphNode<?> slicingCriterion) {
+        reset();
         this.slicingCriterion = Set.of(slicingCriterion);
-        Slice slice = new Slice(this.slicingCriterion);
-        pass(slice, INTRAPROCEDURAL.or(this::commonIgnoreConditions));
+        Slice slice = newSlice(this.slicingCriterion);
+        pass(slice, INTRAPROCEDURAL | ignoredKinds(), this::commonIgnoreConditions);
         return slice;
     }
 
-    protected boolean commonIgnoreConditions(Arc arc) {
-        return ppdgIgnore(arc) || essdgIgnore(arc);
+    /** {@inheritDoc} The rules of this algorithm only apply to backward traversals, so the forward slice is
+     *  computed as in the {@link ClassicSlicingAlgorithm classic algorithm}, ignoring the same kinds of arcs. */
+    @Override
+    public Slice traverseForward(Set<GraphNode<?>> slicingCriterion) {
+        return createForwardAlgorithm().traverseForward(slicingCriterion);
+    }
+
+    /** {@inheritDoc} The backward slice of the target follows the rules of this algorithm, and
+     *  prunes the forward traversal of the source (see {@link #traverseForward(Set)}). */
+    @Override
+    public Slice chop(Set<GraphNode<?>> source, Set<GraphNode<?>> target) {
+        return createForwardAlgorithm().chop(source, traverse(target));
+    }
+
+    /** The classic algorithm used for forward traversals, which ignores the same kinds of arcs as this one. */
+    protected ClassicSlicingAlgorithm createForwardAlgorithm() {
+        return new ClassicSlicingAlgorithm(graph) {
+            @Override
+            protected int ignoredKindsPass1() {
+                return super.ignoredKindsPass1() | ignoredKinds();
+            }
+
+            @Override
+            protected int ignoredKindsPass2() {
+                return super.ignoredKindsPass2() | ignoredKinds();
+            }
+        };
+    }
+
+    /** Forget the arcs traversed by the previous slice, so that this algorithm can be reused. Only the
+     *  entries of the traversed arcs are cleared, so the cost depends on the size of the previous slice. */
+    protected void reset() {
+        if (frozen != null) {
+            for (int arc = traversedArcs.nextSetBit(0); arc != -1; arc = traversedArcs.nextSetBit(arc + 1)) {
+                traversedArcCounts[frozen.getTarget(arc)] = 0;
+                reachedKindsById[frozen.getSource(arc)] = 0;
+            }
+            traversedArcs.clear();
+        }
+        traversedArcSet.clear();
+        traversedArcMap.clear();
+        reachedKindsMap.clear();
+    }
+
+    /** Create an empty slice for the given criterion, numbered by the frozen graph if available, or by the graph. */
+    protected Slice newSlice(Set<GraphNode<?>> slicingCriterion) {
+        return new Slice(slicingCriterion, frozen != null ? frozen : graph);
+    }
+
+    /** The kinds of arcs that are never traversed by this algorithm, as a bitmask. */
+    protected int ignoredKinds() {
+        return 0;
+    }
+
+    /** The conditions to ignore arcs in every pass, which are only tested on arcs whose kind is not ignored.
+     *  The target of the arc is given, as the traversal already knows it. */
+    protected boolean commonIgnoreConditions(Arc arc, GraphNode<?> target) {
+        return ppdgIgnore(arc, target) || essdgIgnore(arc, target);
     }
 
     /**
      * Perform a round of traversal, until no new nodes can be added to the slice. Then, apply rule 5.
      * @param slice A slice object that will serve as initial work-list and where nodes will be added.
-     * @param ignoreCondition A predicate used to ignore arcs, when they test true.
+     * @param ignoredKinds The kinds of arcs that are ignored, as a bitmask.
+     * @param ignoreCondition A predicate used to ignore the remaining arcs (given with their target), when they test true.
      */
-    protected void pass(Slice slice, Predicate<Arc> ignoreCondition) {
-        pass(slice, slice.getGraphNodes(), ignoreCondition);
+    protected void pass(Slice slice, int ignoredKinds, BiPredicate<Arc, GraphNode<?>> ignoreCondition) {
+        if (frozen != null && slice.ids() != null)
+            frozenPass(slice, ignoredKinds, ignoreCondition);
+        else
+            pass(slice, slice, ignoredKinds, ignoreCondition);
     }
 
     /**
      * Perform a round of traversal, until no new nodes can be added to the slice. Then, apply rule 5.
      * @param slice A slice object where nodes will be added.
      * @param workList The initial work-list.
-     * @param ignoreCondition A predicate used to ignore arcs, when they test true.
+     * @param ignoredKinds The kinds of arcs that are ignored, as a bitmask.
+     * @param ignoreCondition A predicate used to ignore the remaining arcs (given with their target), when they test true.
      */
-    protected void pass(Slice slice, Set<GraphNode<?>> workList, Predicate<Arc> ignoreCondition) {
-        Set<GraphNode<?>> pending = new HashSet<>(workList);
+    protected void pass(Slice slice, Iterable<GraphNode<?>> workList, int ignoredKinds, BiPredicate<Arc, GraphNode<?>> ignoreCondition) {
+        Set<GraphNode<?>> pending = new HashSet<>();
+        workList.forEach(pending::add);
         Set<Arc> cc1s = new HashSet<>();
         while (!pending.isEmpty()) {
             GraphNode<?> node = Utils.setPop(pending);
             // Populate the map for this node (if empty)
             traversedArcMap.computeIfAbsent(node, n -> new HashSet<>());
             for (Arc arc : graph.incomingEdgesOf(node)) {
-                if (arc instanceof CC1)
+                ArcKind kind = arc.getKind();
+                if (kind == ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC1)
                     cc1s.add(arc);
-                // Only traverse the arc if (1) it hasn't been traversed, (2) it hasn't been ignored
-                if (!traversedArcMap.get(node).contains(arc) && !ignoreCondition.test(arc))
+                // Only traverse the arc if (1) its kind isn't ignored, (2) it hasn't been traversed, (3) it hasn't been ignored
+                if (!kind.in(ignoredKinds) && !traversedArcMap.get(node).contains(arc) && !ignoreCondition.test(arc, node))
                     if (traverseArc(arc, slice))
                         pending.add(graph.getEdgeSource(arc));
             }
@@ -103,31 +181,88 @@ public class ExceptionSensitiveSlicingAlgorithm implements SlicingAlgorithm {
         while (!cc1s.isEmpty()) {
             Arc arc = Utils.setPop(cc1s);
             // If the target of the arc has been reached, but only by CC1, traverse the arc
-            if (hasOnlyBeenReachedBy(graph.getEdgeTarget(arc), CC1.class)) {
+            if (hasOnlyBeenReachedBy(graph.getEdgeTarget(arc), ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC1.mask())) {
                 traverseArc(arc, slice);
                 // Find the transitive CC1 edges and add them to the work-list
                 for (Arc a : graph.incomingEdgesOf(graph.getEdgeSource(arc)))
-                    if (a instanceof CC1)
+                    if (a.getKind() == ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC1)
                         cc1s.add(a);
             }
         }
     }
 
+    /**
+     * The frozen equivalent of {@link #pass(Slice, Iterable, int, BiPredicate)}, over the ids of the nodes and arcs of
+     * the frozen graph. The incoming arcs of each node are visited by kind, so that the runs of ignored kinds are
+     * skipped as a whole, and only the CC1 runs are scanned for the transitive traversal.
+     */
+    protected void frozenPass(Slice slice, int ignoredKinds, BiPredicate<Arc, GraphNode<?>> ignoreCondition) {
+        FrozenSDG.Adjacency incoming = frozen.incoming();
+        byte cc1 = ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC1.toByte();
+        int visitedKinds = ~ignoredKinds | ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC1.mask();
+        BitSet cc1s = new BitSet(frozen.arcCount());
+        BitSet pending = (BitSet) slice.ids().clone();
+        int[] toVisit = pending.stream().toArray();
+        int size = toVisit.length;
+        while (size > 0) {
+            int node = toVisit[--size];
+            pending.clear(node);
+            if ((incoming.kinds(node) & visitedKinds) == 0)
+                continue;
+            GraphNode<?> target = frozen.getNode(node);
+            for (int run = incoming.firstRun(node); run < incoming.endRun(node); run++) {
+                byte kind = incoming.runKind(run);
+                if (kind == cc1)
+                    for (int i = incoming.runStart(run); i < incoming.runEnd(run); i++)
+                        cc1s.set(incoming.partitionedArc(i));
+                // Only traverse the arc if (1) its kind isn't ignored, (2) it hasn't been traversed, (3) it hasn't been ignored
+                if (ArcKind.contains(ignoredKinds, kind))
+                    continue;
+                for (int i = incoming.runStart(run); i < incoming.runEnd(run); i++) {
+                    int arc = incoming.partitionedArc(i);
+                    if (traversedArcs.get(arc) || ignoreCondition.test(frozen.getArc(arc), target)
+                            || !traverseArc(arc, slice))
+                        continue;
+                    int source = incoming.opposite(arc);
+                    if (!pending.get(source)) {
+                        if (size == toVisit.length)
+                            toVisit = Arrays.copyOf(toVisit, Math.max(size * 2, 16));
+                        toVisit[size++] = source;
+                        pending.set(source);
+                    }
+                }
+            }
+        }
+        // Consider transitivity when there are no more arcs to traverse.
+        cc1s.andNot(traversedArcs);
+        for (int arc = cc1s.nextSetBit(0); arc != -1; arc = cc1s.nextSetBit(0)) {
+            cc1s.clear(arc);
+            // If the target of the arc has been reached, but only by CC1, traverse the arc
+            if (hasOnlyBeenReachedBy(frozen.getTarget(arc), ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC1.mask())) {
+                traverseArc(arc, slice);
+                // Find the transitive CC1 edges and add them to the work-list
+                int source = frozen.getSource(arc);
+                for (int run = incoming.firstRun(source); run < incoming.endRun(source); run++)
+                    if (incoming.runKind(run) == cc1)
+                        for (int i = incoming.runStart(run); i < incoming.runEnd(run); i++)
+                            cc1s.set(incoming.partitionedArc(i));
+            }
+        }
+    }
+
     /** Applies rule 2 of the algorithm. */
-    protected boolean ppdgIgnore(Arc arc) {
-        GraphNode<?> target = graph.getEdgeTarget(arc);
-        return arc.isUnconditionalControlDependencyArc() &&
-                graph.isPseudoPredicate(target) &&
-                reachedStream(target).allMatch(Arc::isUnconditionalControlDependencyArc) &&
-                !slicingCriterion.contains(target);
+    protected boolean ppdgIgnore(Arc arc, GraphNode<?> target) {
+        return arc.getKind().in(ArcKind.UNCONDITIONAL_CONTROL_DEPENDENCIES) &&
+                (reachedKinds(target) & ~ArcKind.UNCONDITIONAL_CONTROL_DEPENDENCIES) == 0 &&
+                !slicingCriterion.contains(target) &&
+                graph.isPseudoPredicate(target);
     }
 
     /** Applies rule 4 of the algorithm. */
-    protected boolean essdgIgnore(Arc arc) {
-        GraphNode<?> target = graph.getEdgeTarget(arc);
-        if (arc.isUnconditionalControlDependencyArc() && arc.asControlDependencyArc().isPPDGExclusive())
+    protected boolean essdgIgnore(Arc arc, GraphNode<?> target) {
+        if (arc.getKind() == ArcKind.PPDG_EXCLUSIVE_CONTROL_DEPENDENCY)
             return false;
-        return hasOnlyBeenReachedBy(target, ConditionalControlDependencyArc.class);
+        return hasOnlyBeenReachedBy(target, ArcKind.CONDITIONAL_CONTROL_DEPENDENCIES);
     }
 
     /**
@@ -139,7 +274,9 @@ public class ExceptionSensitiveSlicingAlgorithm implements SlicingAlgorithm {
         traversedArcMap.get(graph.getEdgeTarget(arc)).add(arc);
         traversedArcSet.add(arc);
         GraphNode<?> source = graph.getEdgeSource(arc);
-        if (!hasOnlyBeenReachedBy(source, CC1.class) && !hasOnlyBeenReachedBy(source, CC2.class)) {
+        reachedKindsMap.merge(source, arc.getKind().mask(), (a, b) -> a | b);
+        if (!hasOnlyBeenReachedBy(source, ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC1.mask())
+                && !hasOnlyBeenReachedBy(source, ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC2.mask())) {
             if (!slice.contains(source))
                 slice.add(source);
             int sourceArcsTraversed = traversedArcMap.getOrDefault(source, Collections.emptySet()).size();
@@ -148,13 +285,40 @@ public class ExceptionSensitiveSlicingAlgorithm implements SlicingAlgorithm {
         return false;
     }
 
-    /** Check if a node only has been reached by arcs of a given class. */
-    protected boolean hasOnlyBeenReachedBy(GraphNode<?> node, Class<? extends Arc> type) {
-        return reachedStream(node).count() > 0 && reachedStream(node).allMatch(type::isInstance);
+    /** The frozen equivalent of {@link #traverseArc(Arc, Slice)}, for the arc of the frozen graph with the given id. */
+    protected boolean traverseArc(int arc, Slice slice) {
+        if (!traversedArcs.get(arc)) {
+            traversedArcs.set(arc);
+            traversedArcCounts[frozen.getTarget(arc)]++;
+        }
+        int source = frozen.getSource(arc);
+        reachedKindsById[source] |= frozen.getKind(arc).mask();
+        if (!hasOnlyBeenReachedBy(source, ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC1.mask())
+                && !hasOnlyBeenReachedBy(source, ArcKind.CONDITIONAL_CONTROL_DEPENDENCY_CC2.mask())) {
+            GraphNode<?> node = frozen.getNode(source);
+            if (!slice.contains(node))
+                slice.add(node);
+            return traversedArcCounts[source] != frozen.incoming().degree(source);
+        }
+        return false;
+    }
+
+    /** Check if a node has been reached, and only by arcs of the given kinds (a bitmask). */
+    protected boolean hasOnlyBeenReachedBy(GraphNode<?> node, int kinds) {
+        int reached = reachedKinds(node);
+        return reached != 0 && (reached & ~kinds) == 0;
+    }
+
+    /** The frozen equivalent of {@link #hasOnlyBeenReachedBy(GraphNode, int)}, for the node with the given id. */
+    protected boolean hasOnlyBeenReachedBy(int node, int kinds) {
+        int reached = reachedKindsById[node];
+        return reached != 0 && (reached & ~kinds) == 0;
     }
 
-    /** Obtain a stream of arcs that have reached the given node. */
-    protected Stream<Arc> reachedStream(GraphNode<?> node) {
-        return traversedArcSet.stream().filter(arc -> graph.getEdgeSource(arc).equals(node));
+    /** The kinds of the arcs that have reached the given node, as a bitmask. */
+    protected int reachedKinds(GraphNode<?> node) {
+        if (frozen != null)
+            return reachedKindsById[frozen.getId(node)];
+        return reachedKindsMap.getOrDefault(node, 0);
     }
 }
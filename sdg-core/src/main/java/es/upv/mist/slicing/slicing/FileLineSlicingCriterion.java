@@ -19,6 +19,10 @@ public class FileLineSlicingCriterion extends LineNumberCriterion {
         this.file = file;
     }
 
+    public File getFile() {
+        return file;
+    }
+
     /** Locates the compilation unit that corresponds to this criterion's file. */
     @Override
     protected Optional<CompilationUnit> findCompilationUnit(NodeList<CompilationUnit> cus) {
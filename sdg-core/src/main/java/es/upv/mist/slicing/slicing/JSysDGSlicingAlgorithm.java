@@ -2,6 +2,7 @@ package es.upv.mist.slicing.slicing;
 
 import com.github.javaparser.ast.stmt.CatchClause;
 import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.arcs.ArcKind;
 import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.exceptionsensitive.ExceptionExitNode;
@@ -12,15 +13,14 @@ public class JSysDGSlicingAlgorithm extends ExceptionSensitiveSlicingAlgorithm {
     }
 
     @Override
-    protected boolean commonIgnoreConditions(Arc arc) {
-        return objectFlowIgnore(arc) || super.commonIgnoreConditions(arc);
+    protected boolean commonIgnoreConditions(Arc arc, GraphNode<?> target) {
+        return objectFlowIgnore(arc, target) || super.commonIgnoreConditions(arc, target);
     }
 
-    protected boolean objectFlowIgnore(Arc arc) {
-        GraphNode<?> target = graph.getEdgeTarget(arc);
-        return arc.isObjectFlow() &&                                  // 1. The arc is object flow
+    protected boolean objectFlowIgnore(Arc arc, GraphNode<?> target) {
+        return arc.getKind().in(ArcKind.OBJECT_FLOW) &&               // 1. The arc is object flow
                 !slicingCriterion.contains(target) &&                 // 2. The target is not the slicing criterion
-                reachedStream(target).noneMatch(Arc::isObjectFlow) && // 3. The target hasn't been reached by object flow arcs
+                (reachedKinds(target) & ArcKind.OBJECT_FLOW) == 0 &&  // 3. The target hasn't been reached by object flow arcs
                 !graph.isPredicate(target) &&                         // 4. The target is not a predicate
                 !(target.getAstNode() instanceof CatchClause) && !(target instanceof ExceptionExitNode); // Some extra conditions for exceptions
     }
@@ -4,10 +4,12 @@ import com.github.javaparser.Position;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.CallableDeclaration;
 import es.upv.mist.slicing.arcs.pdg.StructuralArc;
 import es.upv.mist.slicing.graphs.sdg.SDG;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.nodes.ObjectTree;
+import es.upv.mist.slicing.utils.ASTUtils;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -21,31 +23,59 @@ public class LineNumberCriterion implements SlicingCriterion {
     protected static final Position DEFAULT_POSITION = new Position(0, 0);
 
     protected final int lineNumber;
-    protected String variable;
+    protected final String variable;
 
     public LineNumberCriterion(int lineNumber, String variable) {
         this.variable = variable;
         this.lineNumber = lineNumber;
     }
 
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getVariable() {
+        return variable;
+    }
+
     @Override
     public Set<GraphNode<?>> findNode(SDG graph) {
+        Set<GraphNode<?>> set = findNode(graph, variable);
+        if (set.isEmpty() && !variable.startsWith("this"))
+            return findNode(graph, "this." + variable);
+        return set;
+    }
+
+    /** Locate the nodes in the criterion's line that act upon the given variable, or all of them if it is {@code null}. */
+    protected Set<GraphNode<?>> findNode(SDG graph, String variable) {
         Optional<CompilationUnit> optCu = findCompilationUnit(graph.getCompilationUnits());
         if (optCu.isEmpty())
             throw new NoSuchElementException();
 
-        Set<GraphNode<?>> set = optCu.get().findAll(Node.class, this::matchesLine).stream()
+        return optCu.get().findAll(Node.class, this::matchesLine).stream()
                 .map(graph::findNodeByASTNode)
                 .filter(Optional::isPresent)
                 .map(Optional::get)
-                .flatMap(node -> locateVariableNodes(node, graph))
+                .flatMap(node -> locateVariableNodes(node, graph, variable))
                 .collect(Collectors.toSet());
-        if (set.isEmpty() && !variable.startsWith("this")) {
-            variable = "this." + variable;
-            return findNode(graph);
-        } else {
-            return set;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Set<CallableDeclaration<?>>> findDeclarations(NodeList<CompilationUnit> units) {
+        Optional<CompilationUnit> optCu = findCompilationUnit(units);
+        if (optCu.isEmpty())
+            return Optional.empty();
+        Set<CallableDeclaration<?>> declarations = ASTUtils.newIdentityHashSet();
+        for (Node node : optCu.get().findAll(Node.class, this::matchesLine)) {
+            Optional<CallableDeclaration<?>> declaration = node instanceof CallableDeclaration ?
+                    Optional.of((CallableDeclaration<?>) node) :
+                    node.findAncestor(CallableDeclaration.class).map(CallableDeclaration.class::cast);
+            if (declaration.isEmpty())
+                return Optional.empty(); // e.g. a field or a type
+            declarations.add(declaration.get());
         }
+        return declarations.isEmpty() ? Optional.empty() : Optional.of(declarations);
     }
 
     /** Locates the compilation unit that corresponds to this criterion's file. */
@@ -58,7 +88,7 @@ public class LineNumberCriterion implements SlicingCriterion {
         return node.getBegin().orElse(DEFAULT_POSITION).line == lineNumber;
     }
 
-    protected Stream<GraphNode<?>> locateVariableNodes(GraphNode<?> graphNode, SDG graph) {
+    protected Stream<GraphNode<?>> locateVariableNodes(GraphNode<?> graphNode, SDG graph, String variable) {
         if (variable == null)
             return locateAllNodes(graphNode, graph);
         return locateAllNodes(graphNode, graph)
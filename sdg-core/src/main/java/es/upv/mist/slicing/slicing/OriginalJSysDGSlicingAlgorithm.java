@@ -1,10 +1,9 @@
 package es.upv.mist.slicing.slicing;
 
 import es.upv.mist.slicing.arcs.Arc;
-import es.upv.mist.slicing.arcs.pdg.ObjectFlowDependencyArc;
-import es.upv.mist.slicing.arcs.pdg.TotalDefinitionDependenceArc;
-import es.upv.mist.slicing.arcs.sdg.ParameterInOutArc;
+import es.upv.mist.slicing.arcs.ArcKind;
 import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.nodes.GraphNode;
 
 public class OriginalJSysDGSlicingAlgorithm extends JSysDGSlicingAlgorithm {
     public OriginalJSysDGSlicingAlgorithm(JSysDG graph) {
@@ -12,10 +11,12 @@ public class OriginalJSysDGSlicingAlgorithm extends JSysDGSlicingAlgorithm {
     }
 
     @Override
-    protected boolean commonIgnoreConditions(Arc arc) {
-        return arc instanceof ParameterInOutArc.ObjectFlow ||
-                arc instanceof ObjectFlowDependencyArc ||
-                arc instanceof TotalDefinitionDependenceArc ||
-                ppdgIgnore(arc) || essdgIgnore(arc);
+    protected int ignoredKinds() {
+        return super.ignoredKinds() | ArcKind.OBJECT_FLOW | ArcKind.TOTAL_DEFINITION_DEPENDENCE.mask();
+    }
+
+    @Override
+    protected boolean commonIgnoreConditions(Arc arc, GraphNode<?> target) {
+        return ppdgIgnore(arc, target) || essdgIgnore(arc, target);
     }
 }
@@ -1,6 +1,7 @@
 package es.upv.mist.slicing.slicing;
 
 import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.arcs.ArcKind;
 import es.upv.mist.slicing.graphs.augmented.PSDG;
 import es.upv.mist.slicing.nodes.GraphNode;
 
@@ -26,18 +27,25 @@ public class PseudoPredicateSlicingAlgorithm extends ClassicSlicingAlgorithm {
     }
 
     @Override
-    protected boolean ignorePass1(Arc arc) {
-        return super.ignorePass1(arc) || ignorePseudoPredicate(arc);
+    public Slice traverseForward(Set<GraphNode<?>> slicingCriterion) {
+        this.slicingCriterion = slicingCriterion;
+        return super.traverseForward(slicingCriterion);
+    }
+
+    @Override
+    public Slice chop(Set<GraphNode<?>> source, Set<GraphNode<?>> target) {
+        this.slicingCriterion = target;
+        return super.chop(source, target);
     }
 
     @Override
-    protected boolean ignorePass2(Arc arc) {
-        return super.ignorePass2(arc) || ignorePseudoPredicate(arc);
+    protected int checkedKinds() {
+        return super.checkedKinds() | ArcKind.CONTROL_DEPENDENCIES;
     }
 
     @Override
-    public boolean ignoreProcedure(Arc arc) {
-        return super.ignoreProcedure(arc) || ignorePseudoPredicate(arc);
+    protected boolean ignoreArc(Arc arc) {
+        return super.ignoreArc(arc) || ignorePseudoPredicate(arc);
     }
 
     protected boolean ignorePseudoPredicate(Arc arc) {
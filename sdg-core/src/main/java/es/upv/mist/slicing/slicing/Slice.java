@@ -4,22 +4,41 @@ import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.visitor.CloneVisitor;
+import es.upv.mist.slicing.graphs.NodeIndex;
+import es.upv.mist.slicing.graphs.sdg.FrozenSDG;
 import es.upv.mist.slicing.nodes.GraphNode;
 import es.upv.mist.slicing.utils.ASTUtils;
 import es.upv.mist.slicing.utils.NodeHashSet;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /** The representation of a slice, or a subset of a graph's nodes.
  *  A slice can be obtained from any {@link Sliceable} object, and converted
- *  to code with {@link #toAst()}. */
-public class Slice {
-    /** Nodes contained in this slice, mapped by id. */
-    private final Map<Long, GraphNode<?>> map = new HashMap<>();
+ *  to code with {@link #toAst()}.
+ *  <br/>
+ *  Slices usually store their nodes in a bit set, over the ids of the nodes of a {@link NodeIndex} (the
+ *  graph or its {@link FrozenSDG frozen copy}), so set operations between them are performed word by
+ *  word. Otherwise, the nodes are stored in a set. */
+public class Slice implements Iterable<GraphNode<?>> {
+    /** The numbering of the nodes that may be contained in this slice, or {@code null} if they are stored in a set. */
+    private final NodeIndex index;
+    /** Nodes contained in this slice, by their number in {@link #index}. */
+    private final BitSet nodes;
+    /** Nodes contained in this slice, if there is no {@link #index}. */
+    private final Set<GraphNode<?>> set;
     /** The nodes that conform the slicing criterion. */
     private final Set<GraphNode<?>> immutableSC;
 
     public Slice(Set<GraphNode<?>> slicingCriterion) {
+        this(slicingCriterion, null);
+    }
+
+    /** Create a slice whose nodes are numbered by the given index. If it is {@code null}, they are stored in a set. */
+    public Slice(Set<GraphNode<?>> slicingCriterion, NodeIndex index) {
+        this.index = index;
+        this.nodes = index != null ? new BitSet(index.nodeCount()) : null;
+        this.set = index != null ? null : new LinkedHashSet<>();
         immutableSC = Set.copyOf(slicingCriterion);
         addAll(slicingCriterion);
     }
@@ -30,8 +49,16 @@ public class Slice {
 
     /** Add a node to this slice. */
     public void add(GraphNode<?> node) {
-        assert !map.containsKey(node.getId());
-        map.put(node.getId(), node);
+        if (index == null) {
+            boolean added = set.add(node);
+            assert added;
+            return;
+        }
+        int id = index.indexOf(node);
+        if (id == -1)
+            throw new IllegalArgumentException("Node " + node.getId() + " cannot be numbered by this slice");
+        assert !nodes.get(id);
+        nodes.set(id);
     }
 
     /** Add multiple nodes to this slice. */
@@ -41,22 +68,136 @@ public class Slice {
 
     /** Whether the slice contains the given node. */
     public boolean contains(GraphNode<?> node) {
-        return map.containsKey(node.getId());
+        if (index == null)
+            return set.contains(node);
+        int id = index.indexOf(node);
+        return id != -1 && nodes.get(id);
+    }
+
+    /** The number of nodes in this slice. */
+    public int size() {
+        return index == null ? set.size() : nodes.cardinality();
+    }
+
+    /** Iterate over the nodes of this slice, without copying them. */
+    @Override
+    public Iterator<GraphNode<?>> iterator() {
+        if (index == null)
+            return Collections.unmodifiableSet(set).iterator();
+        return new Iterator<>() {
+            int next = nodes.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public GraphNode<?> next() {
+                if (next == -1)
+                    throw new NoSuchElementException();
+                GraphNode<?> node = index.getNode(next);
+                next = nodes.nextSetBit(next + 1);
+                return node;
+            }
+        };
+    }
+
+    /** A new slice with the nodes contained in this or the given slice. It keeps the criterion of this slice. */
+    public Slice union(Slice other) {
+        Slice result = copy();
+        if (sharesIndexWith(other)) {
+            result.nodes.or(other.nodes);
+        } else {
+            for (GraphNode<?> node : other)
+                if (!result.contains(node))
+                    result.add(node);
+        }
+        return result;
+    }
+
+    /** A new slice with the nodes contained in both this and the given slice. It keeps the criterion of this slice. */
+    public Slice intersect(Slice other) {
+        Slice result = copy();
+        if (sharesIndexWith(other))
+            result.nodes.and(other.nodes);
+        else
+            result.retain(other::contains);
+        return result;
+    }
+
+    /** A new slice with the nodes contained in this slice but not in the given one. It keeps the criterion of this slice. */
+    public Slice difference(Slice other) {
+        Slice result = copy();
+        if (sharesIndexWith(other))
+            result.nodes.andNot(other.nodes);
+        else
+            result.retain(node -> !other.contains(node));
+        return result;
+    }
+
+    /** Whether both slices store their nodes in bit sets over the same numbering. */
+    private boolean sharesIndexWith(Slice other) {
+        return index != null && index == other.index;
+    }
+
+    /** A copy of this slice, which shares its criterion and numbering. */
+    protected Slice copy() {
+        Slice copy = new Slice(immutableSC, index);
+        if (index == null)
+            copy.set.addAll(set);
+        else
+            copy.nodes.or(nodes);
+        return copy;
+    }
+
+    /** Remove the nodes of this slice that don't match the given predicate. */
+    protected void retain(Predicate<GraphNode<?>> predicate) {
+        if (index == null) {
+            set.removeIf(predicate.negate());
+            return;
+        }
+        for (int id = nodes.nextSetBit(0); id != -1; id = nodes.nextSetBit(id + 1))
+            if (!predicate.test(index.getNode(id)))
+                nodes.clear(id);
     }
 
     @Override
     public int hashCode() {
-        return map.hashCode();
+        int hash = 0;
+        for (GraphNode<?> node : this)
+            hash += node.hashCode();
+        return hash;
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof Slice && map.equals(((Slice) obj).map);
+        if (!(obj instanceof Slice))
+            return false;
+        Slice other = (Slice) obj;
+        if (sharesIndexWith(other))
+            return nodes.equals(other.nodes);
+        if (size() != other.size())
+            return false;
+        for (GraphNode<?> node : this)
+            if (!other.contains(node))
+                return false;
+        return true;
     }
 
-    /** Obtain the nodes from this slice. */
+    /** Obtain a copy of the nodes from this slice. To iterate over them without
+     *  copying them, iterate over the slice itself, or use {@link #size()} to count them. */
     public Set<GraphNode<?>> getGraphNodes() {
-        return Set.copyOf(map.values());
+        Set<GraphNode<?>> copy = new HashSet<>((int) (size() / 0.75f) + 1);
+        forEach(copy::add);
+        return Collections.unmodifiableSet(copy);
+    }
+
+    /** The ids of the nodes of this slice, or {@code null} if they are stored in a set. It is the bit set that
+     *  backs this slice, so that slicing algorithms can start from it without copying the nodes: it must not be
+     *  modified, nor used after the slice has been modified. */
+    BitSet ids() {
+        return nodes;
     }
 
     /** Organize all nodes pertaining to this slice in one or more CompilationUnits. CompilationUnits
@@ -65,7 +206,7 @@ public class Slice {
         Map<CompilationUnit, NodeHashSet<Node>> cuMap = ASTUtils.newIdentityHashMap();
         // Add each node to the corresponding bucket of the map
         // Nodes may not belong to a compilation unit (fictional nodes), and they are skipped for the slice.
-        for (GraphNode<?> graphNode : map.values()) {
+        for (GraphNode<?> graphNode : this) {
             if (graphNode.isImplicitInstruction() || graphNode.getAstNode() == null)
                 continue;
             Optional<CompilationUnit> cu = graphNode.getAstNode().findCompilationUnit();
@@ -73,6 +214,11 @@ public class Slice {
             cuMap.computeIfAbsent(cu.get(), compilationUnit -> new NodeHashSet<>());
             cuMap.get(cu.get()).add(graphNode.getAstNode());
         }
+        return toAst(cuMap);
+    }
+
+    /** Copy each of the given compilation units, removing any element not present in its set of AST nodes. */
+    public static NodeList<CompilationUnit> toAst(Map<CompilationUnit, NodeHashSet<Node>> cuMap) {
         // Traverse the AST of each compilation unit, creating a copy and
         // removing any element not present in the slice.
         NodeList<CompilationUnit> cus = new NodeList<>();
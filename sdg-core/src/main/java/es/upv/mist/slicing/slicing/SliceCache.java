@@ -0,0 +1,135 @@
+package es.upv.mist.slicing.slicing;
+
+import es.upv.mist.slicing.nodes.GraphNode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of slices, which evicts the least recently used slice when it is full.
+ * Slices are indexed by the nodes of their criterion and the algorithm that computed them.
+ * All operations are thread-safe: the lock of the cache is only held to look up and store
+ * entries, and each slice is computed by the first client that requests it, while the
+ * clients that request the same slice meanwhile wait for it. Each client obtains its own
+ * copy of the stored slice, which it may modify.
+ */
+public class SliceCache {
+    protected final int capacity;
+    /** The slice of each key, which is pending while it is being computed. */
+    protected final Map<Key, CompletableFuture<Slice>> slices;
+
+    protected long hits = 0;
+    protected long misses = 0;
+
+    /** Create a cache that stores at most the given number of slices.
+     *  @throws IllegalArgumentException If the capacity is not positive. */
+    public SliceCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity of the cache must be positive");
+        this.capacity = capacity;
+        this.slices = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CompletableFuture<Slice>> eldest) {
+                return size() > SliceCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Obtain a copy of the slice stored for the given criterion and algorithm, or compute and store it if there
+     * is none. The slice is computed by the calling thread, without holding the lock of this cache, so other
+     * slices can be requested meanwhile. If the slicer fails, nothing is stored, and the exception is thrown
+     * to every client waiting for that slice.
+     */
+    public Slice get(Set<GraphNode<?>> criterion, Class<? extends SlicingAlgorithm> algorithm, Supplier<Slice> slicer) {
+        Key key = new Key(Set.copyOf(criterion), algorithm);
+        CompletableFuture<Slice> future;
+        boolean compute = false;
+        synchronized (this) {
+            future = slices.get(key);
+            if (future != null) {
+                hits++;
+            } else {
+                misses++;
+                future = new CompletableFuture<>();
+                slices.put(key, future);
+                compute = true;
+            }
+        }
+        if (compute) {
+            try {
+                future.complete(slicer.get());
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    slices.remove(key, future);
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join().copy();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /** Remove all the slices from this cache. The counters are not reset, and the slices being computed
+     *  are still handed to the clients that requested them, but they are not stored. */
+    public synchronized void clear() {
+        slices.clear();
+    }
+
+    /** The number of slices in this cache. */
+    public synchronized int size() {
+        return slices.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** The number of requests that were answered with a stored slice. */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /** The number of requests that required computing a slice. */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    protected static class Key {
+        protected final Set<GraphNode<?>> criterion;
+        protected final Class<? extends SlicingAlgorithm> algorithm;
+
+        protected Key(Set<GraphNode<?>> criterion, Class<? extends SlicingAlgorithm> algorithm) {
+            this.criterion = criterion;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return algorithm == key.algorithm && criterion.equals(key.criterion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(criterion, algorithm);
+        }
+    }
+}
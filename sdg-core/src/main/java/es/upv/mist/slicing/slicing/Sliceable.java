@@ -1,6 +1,19 @@
 package es.upv.mist.slicing.slicing;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public interface Sliceable {
     /** Extract a subset of nodes that affect the given slicing criterion. */
     Slice slice(SlicingCriterion sc);
+
+    /** Extract the slices of multiple slicing criteria, in the same order. Each slice has the same nodes
+     *  as the result of {@link #slice(SlicingCriterion)}, but implementations may compute them together. */
+    default List<Slice> sliceAll(Collection<SlicingCriterion> slicingCriteria) {
+        List<Slice> slices = new ArrayList<>(slicingCriteria.size());
+        for (SlicingCriterion sc : slicingCriteria)
+            slices.add(slice(sc));
+        return slices;
+    }
 }
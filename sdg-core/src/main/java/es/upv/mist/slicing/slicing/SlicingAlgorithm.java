@@ -9,4 +9,10 @@ public interface SlicingAlgorithm {
     Slice traverse(Set<GraphNode<?>> slicingCriterion);
     /** Obtain the nodes reached by this algorithm intraprocedurally (i.e. without traversing interprocedural arcs. */
     Slice traverseProcedure(GraphNode<?> slicingCriterion);
+    /** Obtain the nodes affected by the slicing criterion, in a 2-pass interprocedural forward traversal:
+     *  first ignoring interprocedural inputs, then ignoring interprocedural outputs. */
+    Slice traverseForward(Set<GraphNode<?>> slicingCriterion);
+    /** Obtain the nodes of the forward slice of the source that belong to the backward slice of the target.
+     *  The criterion of the chop is the part of the source that belongs to it. */
+    Slice chop(Set<GraphNode<?>> source, Set<GraphNode<?>> target);
 }
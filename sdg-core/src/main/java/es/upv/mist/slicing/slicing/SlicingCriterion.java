@@ -1,9 +1,13 @@
 package es.upv.mist.slicing.slicing;
 
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.CallableDeclaration;
 import es.upv.mist.slicing.graphs.sdg.SDG;
 import es.upv.mist.slicing.nodes.GraphNode;
 
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
 
 /** A slicing criterion, or the point of interest in slicing. The selected variable(s)
@@ -16,4 +20,14 @@ public interface SlicingCriterion {
      * @throws NoSuchElementException When the slicing criterion cannot be located.
      */
     Set<GraphNode<?>> findNode(SDG sdg);
+
+    /**
+     * Locates the methods and constructors that contain the slicing criterion, so that a
+     * {@link SDG#setLazy(boolean) lazy} SDG only needs to build the part of the program related to them.
+     * @return The declarations, or an empty optional if the criterion may be outside of any declaration,
+     *         in which case the whole program is built.
+     */
+    default Optional<Set<CallableDeclaration<?>>> findDeclarations(NodeList<CompilationUnit> units) {
+        return Optional.empty();
+    }
 }
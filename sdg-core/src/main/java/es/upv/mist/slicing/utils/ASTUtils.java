@@ -7,12 +7,17 @@ import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.type.PrimitiveType;
 import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.printer.DefaultPrettyPrinter;
+import com.github.javaparser.printer.Printer;
+import com.github.javaparser.printer.configuration.DefaultConfigurationOption;
+import com.github.javaparser.printer.configuration.DefaultPrinterConfiguration;
 import com.github.javaparser.resolution.Resolvable;
 import com.github.javaparser.resolution.declarations.ResolvedConstructorDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedMethodLikeDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
 import com.github.javaparser.symbolsolver.model.typesystem.ReferenceTypeImpl;
 import es.upv.mist.slicing.nodes.GraphNode;
 
@@ -114,14 +119,29 @@ public class ASTUtils {
         throw new IllegalStateException("Invalid type of callable declaration!");
     }
 
+    /** The return type (if any), name and parameter types of a declaration, like
+     *  {@link CallableDeclaration#getDeclarationAsString(boolean, boolean, boolean) getDeclarationAsString(false, false, false)}.
+     *  JavaParser's version leaves a printer configuration shared by every compilation unit in the one being printed,
+     *  which {@link Node#toString()} then modifies, so it can't be used while other threads print nodes. */
+    public static String getDeclarationAsString(CallableDeclaration<?> declaration) {
+        Printer printer = new DefaultPrettyPrinter(new DefaultPrinterConfiguration()
+                .removeOption(new DefaultConfigurationOption(DefaultPrinterConfiguration.ConfigOption.PRINT_COMMENTS)));
+        StringJoiner joiner = new StringJoiner(", ", declaration.getNameAsString() + "(", ")");
+        for (Parameter parameter : declaration.getParameters())
+            joiner.add(printer.print(parameter.getType()) + (parameter.isVarArgs() ? "..." : ""));
+        if (declaration.isMethodDeclaration())
+            return printer.print(declaration.asMethodDeclaration().getType()) + " " + joiner;
+        return joiner.toString();
+    }
+
     /** Compute the resolved type that is returned from a given method call. */
-    public static ResolvedType getCallResolvedType(Resolvable<? extends ResolvedMethodLikeDeclaration> call) {
+    public static ResolvedType getCallResolvedType(Resolvable<? extends ResolvedMethodLikeDeclaration> call, TypeSolver typeSolver) {
         if (call instanceof MethodCallExpr)
             return ((MethodCallExpr) call).calculateResolvedType();
         if (call instanceof ObjectCreationExpr)
             return ((ObjectCreationExpr) call).calculateResolvedType();
         if (call instanceof ExplicitConstructorInvocationStmt)
-            return resolvedTypeDeclarationToResolvedType(((ExplicitConstructorInvocationStmt) call).resolve().declaringType());
+            return resolvedTypeDeclarationToResolvedType(((ExplicitConstructorInvocationStmt) call).resolve().declaringType(), typeSolver);
         throw new IllegalArgumentException("Call wasn't of a compatible type!");
     }
 
@@ -170,25 +190,25 @@ public class ASTUtils {
      * set behaves by comparing by identity (==) instead of equality (equals()).
      * Thus, multiple objects representing the same node will not be identified as
      * equal, and duplicates will be inserted. For this use-case, you may use
-     * {@link NodeHashSet}.
+     * {@link NodeHashSet}. It is iterated in insertion order.
      */
     public static <T> Set<T> newIdentityHashSet() {
-        return Collections.newSetFromMap(new IdentityHashMap<>());
+        return Collections.newSetFromMap(new LinkedIdentityHashMap<>());
     }
 
     /**
      * Creates a new map that is suitable for JavaParser nodes as keys. This
      * map behaves by comparing by identity (==) instead of equality (equals()).
      * Thus, multiple objects representing the same node will not be identified as
-     * equal, and duplicates will be inserted.
+     * equal, and duplicates will be inserted. It is iterated in insertion order.
      */
     public static <K, V> Map<K, V> newIdentityHashMap() {
-        return new IdentityHashMap<>();
+        return new LinkedIdentityHashMap<>();
     }
 
-    /** Converts a type declaration into just a type. */
-    public static ResolvedType resolvedTypeDeclarationToResolvedType(ResolvedReferenceTypeDeclaration decl) {
-        return new ReferenceTypeImpl(decl, StaticTypeSolver.getTypeSolver());
+    /** Converts a type declaration into just a type, with the given type solver. */
+    public static ResolvedType resolvedTypeDeclarationToResolvedType(ResolvedReferenceTypeDeclaration decl, TypeSolver typeSolver) {
+        return new ReferenceTypeImpl(decl, typeSolver);
     }
 
     /**
@@ -243,7 +263,7 @@ public class ASTUtils {
         return typeInit;
     }
 
-    public static ResolvedType resolvedTypeOfCurrentClass(Node n) {
-        return resolvedTypeDeclarationToResolvedType(n.findAncestor(TypeDeclaration.class).orElseThrow().resolve());
+    public static ResolvedType resolvedTypeOfCurrentClass(Node n, TypeSolver typeSolver) {
+        return resolvedTypeDeclarationToResolvedType(n.findAncestor(TypeDeclaration.class).orElseThrow().resolve(), typeSolver);
     }
 }
@@ -0,0 +1,90 @@
+package es.upv.mist.slicing.utils;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.resolution.SymbolResolver;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import es.upv.mist.slicing.graphs.ClassGraph;
+import es.upv.mist.slicing.nodes.IdAllocator;
+
+import java.util.Objects;
+
+/**
+ * The state shared by the analyses of a program: the type solver that resolves its symbols, the
+ * class graph and the node id allocator of the graph being built, and the configuration of the analyses.
+ * Each SDG has its own context, so that several programs may be analyzed at the same time in the same JVM.
+ * It is passed explicitly to the graphs and visitors that need it, such as the {@link es.upv.mist.slicing.graphs.cfg.CFG CFGs}
+ * of the graph, which extract the variable actions of their nodes with it.
+ */
+public class AnalysisContext {
+    protected final TypeSolver typeSolver;
+    protected final SymbolResolver symbolResolver;
+    /** The maximum depth of the object trees generated from the class graph. */
+    protected final int kLimit;
+
+    protected volatile ClassGraph classGraph;
+    protected volatile IdAllocator idAllocator;
+
+    /** Create a context that uses the type solver of {@link StaticTypeSolver} (and thus of
+     *  {@link StaticJavaParser}) and the configuration of {@link StaticConfig}. */
+    public AnalysisContext() {
+        this(StaticTypeSolver.getTypeSolver());
+    }
+
+    /** Create a context that uses the given type solver and the configuration of {@link StaticConfig}. */
+    public AnalysisContext(TypeSolver typeSolver) {
+        this(typeSolver, StaticConfig.K_LIMIT);
+    }
+
+    /** Create a context that uses the given type solver and depth limit for object trees. */
+    public AnalysisContext(TypeSolver typeSolver, int kLimit) {
+        if (kLimit < 0)
+            throw new IllegalArgumentException("The depth limit of object trees must not be negative");
+        this.typeSolver = Objects.requireNonNull(typeSolver);
+        this.symbolResolver = new JavaSymbolSolver(typeSolver);
+        this.kLimit = kLimit;
+        newClassGraph();
+        newIdAllocator();
+    }
+
+    public TypeSolver getTypeSolver() {
+        return typeSolver;
+    }
+
+    /** The symbol resolver of this context, which must be used to parse the programs analyzed in it. */
+    public SymbolResolver getSymbolResolver() {
+        return symbolResolver;
+    }
+
+    /** Create a parser configuration that uses the symbol resolver of this context. */
+    public ParserConfiguration newParserConfiguration() {
+        return new ParserConfiguration().setSymbolResolver(symbolResolver);
+    }
+
+    public int getKLimit() {
+        return kLimit;
+    }
+
+    /** The class graph of the last graph built in this context. */
+    public ClassGraph getClassGraph() {
+        return classGraph;
+    }
+
+    /** Replace the class graph with a new, empty one. */
+    public ClassGraph newClassGraph() {
+        classGraph = new ClassGraph(this);
+        return classGraph;
+    }
+
+    /** The allocator of the ids of the nodes of the graphs built in this context since the last full build. */
+    public IdAllocator getIdAllocator() {
+        return idAllocator;
+    }
+
+    /** Replace the id allocator with a new one, whose ids start at 0 again. */
+    public IdAllocator newIdAllocator() {
+        idAllocator = new IdAllocator();
+        return idAllocator;
+    }
+}
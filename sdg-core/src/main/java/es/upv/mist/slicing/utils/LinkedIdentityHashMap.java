@@ -0,0 +1,124 @@
+package es.upv.mist.slicing.utils;
+
+import java.util.*;
+
+/**
+ * A map that compares its keys by identity (==), like {@link IdentityHashMap}, but whose
+ * iteration order is the order in which the keys were inserted, like {@link LinkedHashMap}.
+ * Unlike the former, iterating over it always yields the same order for the same operations.
+ * <br/>
+ * The entries are kept in an {@link IdentityHashMap} and linked in insertion order, so lookups
+ * don't allocate any object, and only the insertion of a new key allocates its entry.
+ */
+public class LinkedIdentityHashMap<K, V> extends AbstractMap<K, V> {
+    /** The entry of each key. */
+    protected final Map<K, Node<K, V>> index = new IdentityHashMap<>();
+    /** The first entry, in insertion order. */
+    protected Node<K, V> head;
+    /** The last entry, in insertion order. */
+    protected Node<K, V> tail;
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = index.get(key);
+        return node == null ? null : node.getValue();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Node<K, V> node = index.get(key);
+        if (node != null)
+            return node.setValue(value);
+        node = new Node<>(key, value);
+        node.prev = tail;
+        if (tail == null)
+            head = node;
+        else
+            tail.next = node;
+        tail = node;
+        index.put(key, node);
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node<K, V> node = index.remove(key);
+        if (node == null)
+            return null;
+        if (node.prev == null)
+            head = node.next;
+        else
+            node.prev.next = node.next;
+        if (node.next == null)
+            tail = node.prev;
+        else
+            node.next.prev = node.prev;
+        return node.getValue();
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+        head = tail = null;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new Iterator<>() {
+                    Node<K, V> next = head;
+                    Node<K, V> last = null;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        if (next == null)
+                            throw new NoSuchElementException();
+                        last = next;
+                        next = next.next;
+                        return last;
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last == null)
+                            throw new IllegalStateException();
+                        LinkedIdentityHashMap.this.remove(last.getKey());
+                        last = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+    }
+
+    /** An entry of the map, linked to the previous and next ones in insertion order. */
+    protected static class Node<K, V> extends SimpleEntry<K, V> {
+        protected Node<K, V> prev;
+        protected Node<K, V> next;
+
+        protected Node(K key, V value) {
+            super(key, value);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package es.upv.mist.slicing.utils;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.Problem;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.NodeList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Parses a set of Java source files in parallel. Each worker thread uses its own {@link JavaParser},
+ * but all of them share the same configuration, and thus the same symbol resolver.
+ * The files are always parsed and returned in the same order (that of their paths), so the
+ * result does not depend on the order in which the files are found or parsed.
+ */
+public class SourceParser {
+    protected final ParserConfiguration configuration;
+    protected final int parallelism;
+
+    /** Create a parser that uses the given configuration and as many threads as available processors. */
+    public SourceParser(ParserConfiguration configuration) {
+        this(configuration, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Create a parser that uses the given configuration and up to the given number of threads. */
+    public SourceParser(ParserConfiguration configuration, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism level must be positive");
+        this.configuration = Objects.requireNonNull(configuration);
+        this.parallelism = parallelism;
+    }
+
+    /** Find every Java file in the given files and directories (recursively), sorted and without duplicates.
+     *  Files that are not directories are included even if they don't end in ".java". */
+    public static List<Path> findJavaFiles(Collection<Path> paths) throws IOException {
+        SortedSet<Path> files = new TreeSet<>();
+        for (Path path : paths) {
+            if (!Files.isDirectory(path)) {
+                files.add(path.toAbsolutePath().normalize());
+                continue;
+            }
+            try (Stream<Path> stream = Files.walk(path)) {
+                stream.filter(Files::isRegularFile)
+                        .filter(p -> p.getFileName().toString().endsWith(".java"))
+                        .map(p -> p.toAbsolutePath().normalize())
+                        .forEach(files::add);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Parse the given files, returning their compilation units in the order of the list.
+     * The problems found in every file, including those that cannot be read, are appended
+     * to {@code problems}, also in the order of the list, instead of stopping at the first one.
+     * Their messages start with the path of their file.
+     * Files that contain problems are not included in the result.
+     */
+    public NodeList<CompilationUnit> parse(List<Path> files, List<Problem> problems) {
+        List<ParseResult<CompilationUnit>> results;
+        if (parallelism == 1 || files.size() < 2) {
+            JavaParser parser = new JavaParser(configuration);
+            results = files.stream().map(file -> parse(parser, file)).collect(Collectors.toList());
+        } else {
+            ThreadLocal<JavaParser> parsers = ThreadLocal.withInitial(() -> new JavaParser(configuration));
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                results = pool.submit(() -> files.parallelStream()
+                        .map(file -> parse(parsers.get(), file))
+                        .collect(Collectors.toList())).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while parsing", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                if (e.getCause() instanceof Error)
+                    throw (Error) e.getCause();
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        NodeList<CompilationUnit> units = new NodeList<>();
+        for (int i = 0; i < files.size(); i++) {
+            ParseResult<CompilationUnit> result = results.get(i);
+            if (result.isSuccessful())
+                units.add(result.getResult().orElseThrow());
+            else
+                for (Problem problem : result.getProblems())
+                    problems.add(new Problem(files.get(i) + ": " + problem.getMessage(),
+                            problem.getLocation().orElse(null), problem.getCause().orElse(null)));
+        }
+        return units;
+    }
+
+    /** Parse a single file, converting any I/O error into a problem. */
+    protected static ParseResult<CompilationUnit> parse(JavaParser parser, Path file) {
+        try {
+            return parser.parse(file);
+        } catch (IOException e) {
+            return new ParseResult<>(null, List.of(new Problem(e.getLocalizedMessage(), null, e)), null);
+        }
+    }
+}
@@ -71,6 +71,29 @@ public class SlicerTest {
         assert equal: "The slice for " + source.toString() + " has changed, please fix the error or update the reference slice.";
     }
 
+    /**
+     * Check that each variant of the graph slices every program of the corpus as the graph built by default:
+     * built in parallel, lazily, or kept updatable and updated with the same program, and then frozen.
+     * The tests of each variant on smaller programs are placed with the graph.
+     */
+    @ParameterizedTest(name = "{2}")
+    @MethodSource("findAllFiles")
+    public void graphVariantsMatchTest(File source, File target, SlicingCriterion sc) throws FileNotFoundException {
+        String expected = slice(source, sc).toAst().toString();
+        Map<String, Consumer<SDG>> variants = Map.of("parallel", sdg -> sdg.setParallelism(4),
+                "lazy", sdg -> sdg.setLazy(true), "updatable", sdg -> sdg.setUpdatable(true));
+        for (Map.Entry<String, Consumer<SDG>> variant : variants.entrySet()) {
+            SDG sdg = new JSysDG();
+            variant.getValue().accept(sdg);
+            sdg.build(new NodeList<>(StaticJavaParser.parse(source)));
+            if (variant.getKey().equals("updatable"))
+                assert !sdg.update(List.of(StaticJavaParser.parse(source))) : "Parsing " + source + " again changed its graph";
+            assert sdg.slice(sc).toAst().toString().equals(expected) : "The slice of the " + variant.getKey() + " graph differs for " + source;
+            sdg.freeze();
+            assert sdg.slice(sc).toAst().toString().equals(expected) : "The slice of the frozen " + variant.getKey() + " graph differs for " + source;
+        }
+    }
+
     @Test
     public void generateDefaultSlices() {
         File testFolder = new File("./sdg-core/src/test/res/", TEST_PKG);
@@ -0,0 +1,88 @@
+package es.upv.mist.slicing.graphs;
+
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class BackwardDataFlowAnalysisTest {
+    @Test
+    public void componentsAreAnalyzedAfterTheirSuccessorsTest() {
+        // Cycles {b, c}, {e, h} and {f}, and vertices without successors
+        DefaultDirectedGraph<String, DefaultEdge> graph = newGraph("a>b", "b>c", "c>b", "c>d", "a>e", "e>d", "e>h", "h>e", "h>f", "f>f", "g>d");
+        for (int parallelism : new int[] { 1, 4 }) {
+            ReachabilityAnalysis analysis = new ReachabilityAnalysis(graph);
+            analysis.setParallelism(parallelism);
+            analysis.analyze();
+            for (String vertex : graph.vertexSet())
+                assert analysis.vertexDataMap.get(vertex).equals(reachable(graph, vertex)) : "Wrong value for " + vertex;
+        }
+    }
+
+    @Test
+    public void acyclicVerticesAreComputedTwiceTest() {
+        DefaultDirectedGraph<String, DefaultEdge> graph = newGraph("a>b", "a>c", "b>d", "c>d", "d>e", "a>e", "f>e");
+        ReachabilityAnalysis analysis = new ReachabilityAnalysis(graph);
+        analysis.analyze();
+        // Once to reach its final value and once to confirm it
+        for (String vertex : graph.vertexSet())
+            assert analysis.computations.get(vertex) == 2 : vertex + " was computed " + analysis.computations.get(vertex) + " times";
+    }
+
+    /** Computes the vertices reachable from each vertex, checking that the
+     *  values of the successors outside its component are already final. */
+    static class ReachabilityAnalysis extends BackwardDataFlowAnalysis<String, DefaultEdge, Set<String>> {
+        protected final Map<String, Integer> computations = new HashMap<>();
+
+        ReachabilityAnalysis(DefaultDirectedGraph<String, DefaultEdge> graph) {
+            super(graph);
+        }
+
+        @Override
+        protected Set<String> compute(String vertex, Set<String> predecessors) {
+            synchronized (computations) {
+                computations.merge(vertex, 1, Integer::sum);
+            }
+            Set<String> value = new TreeSet<>(Set.of(vertex));
+            for (String successor : predecessors) {
+                Set<String> expected = reachable(graph, successor);
+                assert expected.contains(vertex) || vertexDataMap.get(successor).equals(expected)
+                        : vertex + " was computed before " + successor;
+                value.addAll(vertexDataMap.get(successor));
+            }
+            return value;
+        }
+
+        @Override
+        protected Set<String> initialValue(String vertex) {
+            return new TreeSet<>();
+        }
+    }
+
+    /** Create a graph with the given arcs, written as "source>target". */
+    private static DefaultDirectedGraph<String, DefaultEdge> newGraph(String... arcs) {
+        DefaultDirectedGraph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        for (String arc : arcs) {
+            String[] vertices = arc.split(">");
+            graph.addVertex(vertices[0]);
+            graph.addVertex(vertices[1]);
+            graph.addEdge(vertices[0], vertices[1]);
+        }
+        return graph;
+    }
+
+    /** The vertices reachable from the given one, including itself. */
+    private static Set<String> reachable(AbstractGraph<String, DefaultEdge> graph, String vertex) {
+        Set<String> reached = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>(List.of(vertex));
+        while (!pending.isEmpty()) {
+            String current = pending.pop();
+            if (reached.add(current))
+                for (DefaultEdge edge : graph.outgoingEdgesOf(current))
+                    pending.push(graph.getEdgeTarget(edge));
+        }
+        return reached;
+    }
+}
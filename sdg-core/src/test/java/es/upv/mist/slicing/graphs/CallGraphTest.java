@@ -0,0 +1,168 @@
+package es.upv.mist.slicing.graphs;
+
+import com.github.javaparser.Range;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.stmt.ExplicitConstructorInvocationStmt;
+import com.github.javaparser.resolution.Resolvable;
+import com.github.javaparser.resolution.declarations.ResolvedMethodLikeDeclaration;
+import es.upv.mist.slicing.graphs.cfg.CFG;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.graphs.sdg.SDG;
+import es.upv.mist.slicing.utils.ASTUtils;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class CallGraphTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** Overloaded, overridden and homonymous declarations, polymorphic calls and
+     *  calls in constructors and in the initializers of fields. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static class Shape {\n" +
+            "        int size = init(1);\n" +
+            "        Shape(int s) {\n" +
+            "            size = s;\n" +
+            "        }\n" +
+            "        int init(int s) {\n" +
+            "            return s;\n" +
+            "        }\n" +
+            "        int area() {\n" +
+            "            return size;\n" +
+            "        }\n" +
+            "        int area(int scale) {\n" +
+            "            return area() * scale;\n" +
+            "        }\n" +
+            "    }\n" +
+            "    static class Square extends Shape {\n" +
+            "        Square() {\n" +
+            "            super(2);\n" +
+            "        }\n" +
+            "        int area() {\n" +
+            "            return size * size;\n" +
+            "        }\n" +
+            "    }\n" +
+            "    static class Other {\n" +
+            "        int area() {\n" +
+            "            return 0;\n" +
+            "        }\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        Shape s = args.length > 0 ? new Square() : new Shape(1);\n" +
+            "        System.out.println(s.area() + s.area(2) + new Other().area());\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void indexesMatchScanTest() {
+        CompilationUnit unit = StaticJavaParser.parse(PROGRAM);
+        CallGraph callGraph = buildCallGraph(unit);
+        assert callGraph.edgeSet().size() > 5;
+        assertFindsAsScan(callGraph, unit);
+    }
+
+    @Test
+    public void indexesFollowTheGraphTest() {
+        CompilationUnit unit = StaticJavaParser.parse(PROGRAM);
+        CallGraph callGraph = buildCallGraph(unit);
+        // Removed vertices, with their edges
+        CallGraph.Vertex square = callGraph.vertexSet().stream()
+                .filter(v -> v.getDeclaration().findAncestor(ClassOrInterfaceDeclaration.class)
+                        .orElseThrow().getNameAsString().equals("Square"))
+                .findFirst().orElseThrow();
+        assert callGraph.removeVertex(square);
+        assertFindsAsScan(callGraph, unit);
+        callGraph.addVertex(square);
+        assertFindsAsScan(callGraph, unit);
+        // Removed edges
+        CallGraph.Edge<?> edge = callGraph.edgeSet().iterator().next();
+        CallGraph.Vertex source = callGraph.getEdgeSource(edge), target = callGraph.getEdgeTarget(edge);
+        assert callGraph.removeEdge(edge);
+        assertFindsAsScan(callGraph, unit);
+        callGraph.addEdge(source, target, edge);
+        assertFindsAsScan(callGraph, unit);
+        // Moved calls
+        List<Node> calls = unit.findAll(MethodCallExpr.class).stream()
+                .filter(call -> call.getNameAsString().equals("area"))
+                .collect(Collectors.toList());
+        Map<Node, Range> oldRanges = new IdentityHashMap<>();
+        calls.forEach(call -> oldRanges.put(call, call.getRange().orElseThrow()));
+        List<CallGraph.Edge<?>> moved = callGraph.removeCallsFromIndex(calls);
+        assert !moved.isEmpty();
+        for (Node call : calls) {
+            Range range = oldRanges.get(call);
+            call.setRange(new Range(range.begin.withLine(range.begin.line + 50), range.end.withLine(range.end.line + 50)));
+        }
+        callGraph.addCallsToIndex(moved);
+        assertFindsAsScan(callGraph, unit);
+        calls.forEach(call -> call.setRange(oldRanges.get(call)));
+    }
+
+    /** Build a call graph over the CFGs of a JSysDG. */
+    private static CallGraph buildCallGraph(CompilationUnit unit) {
+        SDG sdg = new JSysDG();
+        sdg.build(new NodeList<>(unit));
+        Map<CallableDeclaration<?>, CFG> cfgMap = ASTUtils.newIdentityHashMap();
+        for (CFG cfg : sdg.getCFGs())
+            cfgMap.put(cfg.getDeclaration(), cfg);
+        CallGraph callGraph = new CallGraph(cfgMap, sdg.getContext().getClassGraph());
+        callGraph.build(new NodeList<>(unit));
+        return callGraph;
+    }
+
+    /** Check that the vertices and call targets found in the graph are those found by a scan of its
+     *  vertices and edges, as it did before the graph indexed them. The declarations of another copy of
+     *  the program have another identity, and are found by their signature and type. */
+    private static void assertFindsAsScan(CallGraph callGraph, CompilationUnit unit) {
+        for (CompilationUnit copy : List.of(unit, StaticJavaParser.parse(PROGRAM))) {
+            for (CallableDeclaration<?> decl : copy.findAll(CallableDeclaration.class)) {
+                Object scan = find(() -> callGraph.vertexSet().stream().filter(v -> v.matches(decl)).findFirst().orElseThrow());
+                assert scan == find(() -> callGraph.findVertexByDeclaration(decl))
+                        : "The vertex of " + ASTUtils.getDeclarationAsString(decl) + " differs from a scan of the graph";
+            }
+        }
+        List<Resolvable<? extends ResolvedMethodLikeDeclaration>> calls = new ArrayList<>();
+        calls.addAll(unit.findAll(MethodCallExpr.class));
+        calls.addAll(unit.findAll(ObjectCreationExpr.class));
+        calls.addAll(unit.findAll(ExplicitConstructorInvocationStmt.class));
+        for (Resolvable<? extends ResolvedMethodLikeDeclaration> call : calls) {
+            List<CallableDeclaration<?>> scan = callGraph.edgeSet().stream()
+                    .filter(e -> ASTUtils.equalsWithRange(e.getCall(), call))
+                    .map(e -> (CallableDeclaration<?>) callGraph.getEdgeTarget(e).getDeclaration())
+                    .collect(Collectors.toList());
+            List<CallableDeclaration<?>> targets = callGraph.getCallTargets(call).collect(Collectors.toList());
+            assert identical(scan, targets) : "The targets of " + call + " differ from a scan of the graph";
+        }
+    }
+
+    private static boolean identical(List<?> a, List<?> b) {
+        if (a.size() != b.size())
+            return false;
+        for (int i = 0; i < a.size(); i++)
+            if (a.get(i) != b.get(i))
+                return false;
+        return true;
+    }
+
+    /** The object found, or the class of the exception thrown if there is none. */
+    private static Object find(Supplier<Object> search) {
+        try {
+            return search.get();
+        } catch (NoSuchElementException e) {
+            return e.getClass();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package es.upv.mist.slicing.graphs;
+
+import com.github.javaparser.Range;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import es.upv.mist.slicing.graphs.cfg.CFG;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.graphs.sdg.SDG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.utils.ASTUtils;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+public class GraphTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** A program whose nodes have the same ranges as those of {@link #B}, so that
+     *  only their compilation unit tells them apart. */
+    private static final String A = "public class A {\n" +
+            "    int f;\n" +
+            "    int get(int x) {\n" +
+            "        int y = x + f;\n" +
+            "        if (y > 0)\n" +
+            "            f = y;\n" +
+            "        return f;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        A a = new A();\n" +
+            "        System.out.println(a.get(1));\n" +
+            "    }\n" +
+            "}\n";
+    private static final String B = A.replace('A', 'B');
+
+    @Test
+    public void indexMatchesScanTest() {
+        List<CompilationUnit> units = List.of(StaticJavaParser.parse(A), StaticJavaParser.parse(B));
+        SDG sdg = new JSysDG();
+        sdg.build(new NodeList<>(units));
+        for (CompilationUnit unit : units) {
+            for (Node astNode : unit.findAll(Node.class)) {
+                assertFindsAsScan(sdg, astNode);
+                // A copy has no compilation unit, and is not found
+                assertFindsAsScan(sdg, astNode.clone());
+                for (CFG cfg : sdg.getCFGs())
+                    assertFindsAsScan(cfg, astNode);
+            }
+        }
+    }
+
+    @Test
+    public void indexFollowsTheGraphTest() {
+        CompilationUnit unit = StaticJavaParser.parse(A);
+        SDG sdg = new JSysDG();
+        sdg.build(new NodeList<>(unit));
+        ExpressionStmt stmt = unit.findFirst(ExpressionStmt.class).orElseThrow();
+        GraphNode<ExpressionStmt> node = sdg.findNodeByASTNode(stmt).orElseThrow();
+        // Removed and added nodes
+        assert sdg.removeVertex(node);
+        assert sdg.findNodeByASTNode(stmt).isEmpty();
+        assertFindsAsScan(sdg, stmt);
+        assert sdg.addVertex(node);
+        assert sdg.findNodeByASTNode(stmt).orElseThrow() == node;
+        // Moved nodes
+        Range oldRange = stmt.getRange().orElseThrow();
+        List<GraphNode<?>> moved = sdg.removeFromIndex(List.of(stmt));
+        assert moved.equals(List.of(node));
+        stmt.setRange(new Range(oldRange.begin.withLine(oldRange.begin.line + 20), oldRange.end.withLine(oldRange.end.line + 20)));
+        sdg.addToIndex(moved);
+        assert sdg.findNodeByASTNode(stmt).orElseThrow() == node;
+        assertFindsAsScan(sdg, stmt);
+        stmt.setRange(oldRange);
+    }
+
+    /** Check that the search of a node in the graph finds the same node as a
+     *  scan of its vertex set, as it did before the graph indexed them. */
+    private static void assertFindsAsScan(Graph graph, Node astNode) {
+        Set<GraphNode<?>> scan = graph.findAllNodes(n -> ASTUtils.equalsWithRangeInCU(n.getAstNode(), astNode));
+        assert find(() -> graph.findUniqueNode(scan)).equals(find(() -> graph.findNodeByASTNode(astNode)))
+                : "The node of " + astNode + " in " + graph.getClass().getSimpleName() + " differs from a scan of the graph";
+    }
+
+    /** The node found, or the exception thrown if there are several. */
+    private static Object find(Supplier<Optional<?>> search) {
+        try {
+            return search.get();
+        } catch (IllegalStateException e) {
+            return e.getClass();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package es.upv.mist.slicing.graphs.cfg;
+
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.arcs.cfg.ControlFlowArc;
+import es.upv.mist.slicing.graphs.jsysdg.JSysCFG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.nodes.ObjectTree;
+import es.upv.mist.slicing.nodes.VariableAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static es.upv.mist.slicing.nodes.VariableAction.DeclarationType.LOCAL_VARIABLE;
+
+/** Compares the queries of {@link ReachingDefinitions} with the depth-first searches that they replaced. */
+public class ReachingDefinitionsTest {
+    @Test
+    public void variableQueriesMatchSearchTest() {
+        CFG cfg = new CFG();
+        GraphNode<?> n0 = node(cfg, "n0", "int x", "x=", "int y");
+        GraphNode<?> n1 = node(cfg, "n1", "x", "y=", "z");
+        GraphNode<?> n2 = node(cfg, "n2", "x?=", "y");
+        GraphNode<?> n3 = node(cfg, "n3", "x=", "y?=");
+        GraphNode<?> n4 = node(cfg, "n4", "x", "y", "x=", "x");
+        GraphNode<?> n5 = node(cfg, "n5", "x", "y", "w");
+        GraphNode<?> n6 = node(cfg, "n6", "x");
+        GraphNode<?> n7 = node(cfg, "n7", "x", "z=");
+        GraphNode<?> n8 = node(cfg, "n8", "w", "w=");
+        cfg.addControlFlowArc(n0, n1);
+        cfg.addControlFlowArc(n1, n2);
+        cfg.addControlFlowArc(n1, n3);
+        cfg.addControlFlowArc(n2, n4);
+        cfg.addControlFlowArc(n3, n4);
+        cfg.addControlFlowArc(n4, n1);
+        cfg.addControlFlowArc(n4, n5);
+        cfg.addControlFlowArc(n7, n1);
+        cfg.addControlFlowArc(n5, n8);
+        cfg.addControlFlowArc(n8, n8);
+        // A node only reached through a non-executable arc
+        cfg.addControlFlowArc(n1, n6, new ControlFlowArc.NonExecutable());
+        for (GraphNode<?> node : cfg.vertexSet()) {
+            for (VariableAction action : node.getVariableActions()) {
+                assert describe(cfg.findLastDefinitionsFrom(action)).equals(describe(searchBackward(cfg, action, VariableAction::isDefinition)))
+                        : "Definitions of " + describe(action);
+                assert describe(cfg.findDeclarationFor(action).stream().collect(Collectors.toList()))
+                        .equals(describe(searchBackward(cfg, action, VariableAction::isDeclaration)))
+                        : "Declaration of " + describe(action);
+                if (action.isUsage())
+                    assert cfg.isCompletelyDefined((VariableAction.Usage) action) == isCompletelyDefined(cfg, action)
+                            : "Undefined paths of " + describe(action);
+            }
+        }
+    }
+
+    @Test
+    public void memberQueriesMatchSearchTest() {
+        JSysCFG cfg = new JSysCFG();
+        GraphNode<?> m0 = node(cfg, "m0", "int a", "a=");
+        GraphNode<?> m1 = node(cfg, "m1");
+        GraphNode<?> m2 = node(cfg, "m2");
+        GraphNode<?> m3 = node(cfg, "m3");
+        GraphNode<?> m4 = node(cfg, "m4");
+        addMemberAction(m0, false, "a.f", "a.g.h").asDefinition().setTotallyDefinedMember(ObjectTree.ROOT_NODE);
+        addMemberAction(m1, true, "a.f");
+        addMemberAction(m1, false, "a.g").setOptional(true);
+        addMemberAction(m2, false, "a.f");
+        addMemberAction(m3, true, "a.f", "a.g.h");
+        addMemberAction(m3, false, "a.h").asDefinition().setTotallyDefinedMember(new String[] { ObjectTree.ROOT_NAME, "h" });
+        addMemberAction(m4, true, "a.h", "a.g");
+        cfg.addControlFlowArc(m0, m1);
+        cfg.addControlFlowArc(m1, m2);
+        cfg.addControlFlowArc(m1, m3);
+        cfg.addControlFlowArc(m2, m3);
+        cfg.addControlFlowArc(m3, m1);
+        cfg.addControlFlowArc(m3, m4);
+        List<String[]> members = new ArrayList<>();
+        for (GraphNode<?> node : cfg.vertexSet())
+            for (VariableAction action : node.getVariableActions())
+                if (action.hasObjectTree())
+                    action.getObjectTree().nameAsArrayIterable().forEach(members::add);
+        for (GraphNode<?> node : cfg.vertexSet()) {
+            for (VariableAction action : node.getVariableActions()) {
+                for (String[] member : members) {
+                    String query = describe(action) + " " + Arrays.toString(member);
+                    assert describe(cfg.findLastDefinitionOfObjectMember(action, member))
+                            .equals(describe(searchBackward(cfg, action, def -> def.isDefinition() && def.hasTreeMember(member))))
+                            : "Definitions of " + query;
+                    assert describe(cfg.findLastTotalDefinitionOf(action, member))
+                            .equals(describe(searchBackward(cfg, action, def -> (def.isDeclaration() && def.hasTreeMember(member))
+                                    || (def.isDefinition() && def.asDefinition().isTotallyDefinedMember(member)))))
+                            : "Total definitions of " + query;
+                    if (action.isDefinition())
+                        assert describe(cfg.findNextObjectDefinitionsFor(action, member))
+                                .equals(describe(action.hasTreeMember(member) ? List.of(action) : searchNextDefinitions(cfg, action, member)))
+                                : "Next definitions of " + query;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void memberSearchesAreSolvedOnceTest() {
+        AtomicInteger solved = new AtomicInteger();
+        JSysCFG cfg = new JSysCFG() {
+            @Override
+            public ReachingDefinitions getReachingDefinitions() {
+                if (reachingDefinitions == null || !reachingDefinitions.isUpToDate())
+                    reachingDefinitions = new ReachingDefinitions(this) {
+                        @Override
+                        protected Solution solve(Search search) {
+                            solved.incrementAndGet();
+                            return super.solve(search);
+                        }
+                    };
+                return reachingDefinitions;
+            }
+        };
+        // An object with more members than kinds of search were kept before
+        String[] fields = new String[40];
+        for (int i = 0; i < fields.length; i++)
+            fields[i] = "a.f" + i;
+        GraphNode<?> m0 = node(cfg, "m0", "a=");
+        GraphNode<?> m1 = node(cfg, "m1");
+        GraphNode<?> m2 = node(cfg, "m2");
+        addMemberAction(m1, false, fields);
+        VariableAction usage = addMemberAction(m2, true, fields);
+        cfg.addControlFlowArc(m0, m1);
+        cfg.addControlFlowArc(m1, m2);
+        VariableAction definition = m0.getVariableActions().get(0);
+        // The PDG queries every kind of search for each member of an action, then moves to the next action
+        for (int round = 0; round < 2; round++) {
+            for (String field : fields) {
+                String[] member = new String[] { ObjectTree.ROOT_NAME, field.substring(2) };
+                assert cfg.findLastDefinitionOfObjectMember(usage, member).size() == 1;
+                assert cfg.findLastTotalDefinitionOf(usage, member).isEmpty();
+                assert cfg.findNextObjectDefinitionsFor(definition, member).size() == 1;
+            }
+        }
+        assert solved.get() == 3 * fields.length : "Searches were solved " + solved.get() + " times";
+    }
+
+    /** Add a node with the given actions: "int x" declares x, "x=" defines it, "x?=" defines it optionally and "x" uses it. */
+    private static GraphNode<?> node(CFG cfg, String label, String... actions) {
+        GraphNode<?> node = new GraphNode<>(label, null, new LinkedList<>());
+        cfg.addVertex(node);
+        for (String action : actions) {
+            if (action.startsWith("int "))
+                node.addVariableAction(new VariableAction.Declaration(LOCAL_VARIABLE, action.substring(4), node));
+            else if (action.endsWith("?=")) {
+                VariableAction definition = new VariableAction.Definition(LOCAL_VARIABLE, action.substring(0, action.length() - 2), node);
+                definition.setOptional(true);
+                node.addVariableAction(definition);
+            } else if (action.endsWith("="))
+                node.addVariableAction(new VariableAction.Definition(LOCAL_VARIABLE, action.substring(0, action.length() - 1), node));
+            else
+                node.addVariableAction(new VariableAction.Usage(LOCAL_VARIABLE, action, node));
+        }
+        return node;
+    }
+
+    /** Add a usage or definition of the root of the given fields, whose object tree contains them. */
+    private static VariableAction addMemberAction(GraphNode<?> node, boolean usage, String... fields) {
+        ObjectTree tree = new ObjectTree();
+        for (String field : fields)
+            tree.addField(field);
+        String name = fields[0].substring(0, fields[0].indexOf('.'));
+        VariableAction action = usage ? new VariableAction.Usage(LOCAL_VARIABLE, name, node, tree)
+                : new VariableAction.Definition(LOCAL_VARIABLE, name, node, tree);
+        node.addVariableAction(action);
+        return action;
+    }
+
+    /** Describe the given actions by their node and position, sorted. */
+    private static List<String> describe(List<VariableAction> actions) {
+        return actions.stream().map(ReachingDefinitionsTest::describe).sorted().collect(Collectors.toList());
+    }
+
+    private static String describe(VariableAction action) {
+        List<VariableAction> actions = action.getGraphNode().getVariableActions();
+        int position = 0;
+        while (actions.get(position) != action)
+            position++;
+        return action.getGraphNode().getLabel() + "#" + position;
+    }
+
+    // The depth-first searches of the CFG, before ReachingDefinitions
+
+    /** Find the actions that match the variable and the filter, searching backwards from it. Each control-flow
+     *  path is searched until an action that is not optional is found. */
+    private static List<VariableAction> searchBackward(CFG cfg, VariableAction variable, Predicate<VariableAction> filter) {
+        List<VariableAction> result = new LinkedList<>();
+        searchBackward(cfg, new HashSet<>(), result, variable.getGraphNode(), variable, filter);
+        return result;
+    }
+
+    private static boolean searchBackward(CFG cfg, Set<GraphNode<?>> visited, List<VariableAction> result,
+                                          GraphNode<?> currentNode, VariableAction var, Predicate<VariableAction> filter) {
+        if (visited.contains(currentNode))
+            return true;
+        visited.add(currentNode);
+        List<VariableAction> list = currentNode.getVariableActions().stream()
+                .takeWhile(va -> !var.getGraphNode().equals(currentNode) || va != var)
+                .filter(var::matches).filter(filter).collect(Collectors.toList());
+        for (int i = list.size() - 1; i >= 0; i--) {
+            result.add(list.get(i));
+            if (!list.get(i).isOptional())
+                return true;
+        }
+        boolean allBranches = !cfg.incomingEdgesOf(currentNode).isEmpty();
+        for (Arc arc : cfg.incomingEdgesOf(currentNode))
+            if (arc.isExecutableControlFlowArc())
+                allBranches &= searchBackward(cfg, visited, result, cfg.getEdgeSource(arc), var, filter);
+        return allBranches;
+    }
+
+    /** Whether there is a definition in all paths from the action to the start of the graph. */
+    private static boolean isCompletelyDefined(CFG cfg, VariableAction usage) {
+        return searchBackward(cfg, new HashSet<>(), new LinkedList<>(), usage.getGraphNode(), usage, VariableAction::isDefinition);
+    }
+
+    /** Find the definitions that follow the given one, until one that contains the given member is found. */
+    private static List<VariableAction> searchNextDefinitions(CFG cfg, VariableAction definition, String[] member) {
+        List<VariableAction> result = new LinkedList<>();
+        searchNextDefinitions(cfg, new HashSet<>(), result, definition.getGraphNode(), definition, member);
+        return result;
+    }
+
+    private static void searchNextDefinitions(CFG cfg, Set<GraphNode<?>> visited, List<VariableAction> result,
+                                              GraphNode<?> currentNode, VariableAction var, String[] member) {
+        if (visited.contains(currentNode))
+            return;
+        visited.add(currentNode);
+        List<VariableAction> list = currentNode.getVariableActions().stream()
+                .dropWhile(va -> var.getGraphNode().equals(currentNode) && va != var)
+                .filter(var::matches).filter(VariableAction::isDefinition).collect(Collectors.toList());
+        for (VariableAction action : list) {
+            if (!action.isOptional() && action.hasTreeMember(member))
+                return;
+            result.add(action);
+        }
+        for (Arc arc : cfg.outgoingEdgesOf(currentNode))
+            if (arc.isExecutableControlFlowArc())
+                searchNextDefinitions(cfg, visited, result, cfg.getEdgeTarget(arc), var, member);
+    }
+}
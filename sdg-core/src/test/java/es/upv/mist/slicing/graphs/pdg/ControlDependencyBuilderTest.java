@@ -0,0 +1,136 @@
+package es.upv.mist.slicing.graphs.pdg;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.graphs.augmented.*;
+import es.upv.mist.slicing.graphs.exceptionsensitive.ESCFG;
+import es.upv.mist.slicing.graphs.cfg.CFG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.utils.AnalysisContext;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class ControlDependencyBuilderTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** Methods with loops, jumps, switches, returns and exceptions, whose control dependencies differ in each kind of PDG. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static int loops(int n) {\n" +
+            "        int s = 0;\n" +
+            "        outer:\n" +
+            "        for (int i = 0; i < n; i++) {\n" +
+            "            int j = 0;\n" +
+            "            while (j < i) {\n" +
+            "                if (j == 3)\n" +
+            "                    break outer;\n" +
+            "                if (j % 2 == 0) {\n" +
+            "                    j++;\n" +
+            "                    continue;\n" +
+            "                }\n" +
+            "                s += j++;\n" +
+            "            }\n" +
+            "            if (s > 100)\n" +
+            "                break;\n" +
+            "        }\n" +
+            "        do {\n" +
+            "            s--;\n" +
+            "        } while (s > 50);\n" +
+            "        return s;\n" +
+            "    }\n" +
+            "    static int select(int n) {\n" +
+            "        int r = 0;\n" +
+            "        switch (n) {\n" +
+            "            case 0:\n" +
+            "                return -1;\n" +
+            "            case 1:\n" +
+            "                r = 1;\n" +
+            "            case 2:\n" +
+            "                r++;\n" +
+            "                break;\n" +
+            "            default:\n" +
+            "                r = n;\n" +
+            "        }\n" +
+            "        return r;\n" +
+            "    }\n" +
+            "    static int check(int n) throws Exception {\n" +
+            "        if (n < 0)\n" +
+            "            throw new Exception();\n" +
+            "        if (n == 0)\n" +
+            "            return 0;\n" +
+            "        n++;\n" +
+            "        return n;\n" +
+            "    }\n" +
+            "    static int handle(int n) {\n" +
+            "        int r = 0;\n" +
+            "        try {\n" +
+            "            r = check(n);\n" +
+            "            if (r > 10)\n" +
+            "                return r;\n" +
+            "        } catch (IllegalStateException e) {\n" +
+            "            r = -1;\n" +
+            "        } catch (Exception e) {\n" +
+            "            r = -2;\n" +
+            "        }\n" +
+            "        r++;\n" +
+            "        return r;\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void postDominatorTreeMatchesPairwiseTest() {
+        assertSameArcs(PROGRAM, CFG::new, PDG::new, ControlDependencyBuilder::new, PostDominatorControlDependencyBuilder::new);
+    }
+
+    @Test
+    public void augmentedPostDominatorTreeMatchesPairwiseTest() {
+        assertSameArcs(PROGRAM, ACFG::new, APDG::new, ControlDependencyBuilder::new, PostDominatorControlDependencyBuilder::new);
+    }
+
+    @Test
+    public void pseudoPredicatePostDominatorTreeMatchesPairwiseTest() {
+        assertSameArcs(PROGRAM, ACFG::new, PPDG::new, PPControlDependencyBuilder::new, PPPostDominatorControlDependencyBuilder::new);
+        assertSameArcs(PROGRAM, ESCFG::new, PPDG::new, PPControlDependencyBuilder::new, PPPostDominatorControlDependencyBuilder::new);
+    }
+
+    /** Builds the control dependencies of every declaration in the program with both builders,
+     *  and checks that the same arcs are generated in the same order. */
+    protected static <G extends CFG, P extends PDG> void assertSameArcs(String program, Function<AnalysisContext, G> cfgSupplier, Function<G, P> pdgSupplier,
+                                                                       BiFunction<G, P, ControlDependencyBuilder> expected,
+                                                                       BiFunction<G, P, ControlDependencyBuilder> actual) {
+        CompilationUnit cu = StaticJavaParser.parse(program);
+        AnalysisContext context = new AnalysisContext();
+        context.getClassGraph().build(new NodeList<>(cu));
+        for (CallableDeclaration<?> declaration : cu.findAll(CallableDeclaration.class)) {
+            if (declaration.isMethodDeclaration() && declaration.asMethodDeclaration().getBody().isEmpty())
+                continue;
+            G cfg = cfgSupplier.apply(context);
+            cfg.build(declaration);
+            List<List<GraphNode<?>>> arcs = arcsOf(cfg, pdgSupplier, expected);
+            assert !arcs.isEmpty();
+            assert arcs.equals(arcsOf(cfg, pdgSupplier, actual)) :
+                    "Control dependencies differ for " + declaration.getDeclarationAsString();
+        }
+    }
+
+    protected static <G extends CFG, P extends PDG> List<List<GraphNode<?>>> arcsOf(G cfg, Function<G, P> pdgSupplier,
+                                                                                   BiFunction<G, P, ControlDependencyBuilder> builder) {
+        P pdg = pdgSupplier.apply(cfg);
+        cfg.vertexSet().forEach(pdg::addVertex);
+        builder.apply(cfg, pdg).build();
+        List<List<GraphNode<?>>> arcs = new LinkedList<>();
+        for (Arc arc : pdg.edgeSet())
+            arcs.add(List.of(pdg.getEdgeSource(arc), pdg.getEdgeTarget(arc)));
+        return arcs;
+    }
+}
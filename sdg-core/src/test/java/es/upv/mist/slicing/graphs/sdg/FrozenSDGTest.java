@@ -0,0 +1,238 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.NodeList;
+import es.upv.mist.slicing.arcs.ArcKind;
+import es.upv.mist.slicing.graphs.augmented.ASDG;
+import es.upv.mist.slicing.graphs.augmented.PSDG;
+import es.upv.mist.slicing.graphs.exceptionsensitive.AllenSDG;
+import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.graphs.jsysdg.OriginalJSysDG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.slicing.Slice;
+import es.upv.mist.slicing.slicing.SlicingCriterion;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+public class FrozenSDGTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    private static final List<Supplier<SDG>> FLAVOURS = List.of(SDG::new, ASDG::new, PSDG::new, ESSDG::new,
+            AllenSDG::new, JSysDG::new, OriginalJSysDG::new);
+
+    /** Calls, loops, objects and exceptions, to obtain every kind of arc in some flavour. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static class Box {\n" +
+            "        int value;\n" +
+            "        Box next;\n" +
+            "        void set(int v) {\n" +
+            "            if (v < 0)\n" +
+            "                throw new IllegalArgumentException();\n" +
+            "            value = v;\n" +
+            "        }\n" +
+            "        int get() {\n" +
+            "            return value;\n" +
+            "        }\n" +
+            "    }\n" +
+            "    static int total;\n" +
+            "    static int sum(int n) {\n" +
+            "        int s = 0;\n" +
+            "        for (int i = 0; i < n; i++) {\n" +
+            "            if (i % 3 == 0)\n" +
+            "                continue;\n" +
+            "            s += i;\n" +
+            "            total++;\n" +
+            "        }\n" +
+            "        return s;\n" +
+            "    }\n" +
+            "    static void fill(Box box, int n) {\n" +
+            "        while (box != null) {\n" +
+            "            box.set(n);\n" +
+            "            box = box.next;\n" +
+            "        }\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        Box box = new Box();\n" +
+            "        box.next = new Box();\n" +
+            "        int n = sum(args.length);\n" +
+            "        try {\n" +
+            "            fill(box, n);\n" +
+            "        } catch (IllegalArgumentException e) {\n" +
+            "            n = 0;\n" +
+            "        }\n" +
+            "        System.out.println(box.get() + n + total);\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void frozenSliceMatchesTest() {
+        for (Supplier<SDG> flavour : FLAVOURS) {
+            SDG sdg = build(flavour);
+            String name = sdg.getClass().getSimpleName();
+            Map<GraphNode<?>, Slice> expected = new LinkedHashMap<>();
+            for (GraphNode<?> node : sdg.vertexSet())
+                expected.put(node, sdg.slice(g -> Set.of(node)));
+            FrozenSDG frozen = sdg.freeze();
+            assert frozen.nodeCount() == sdg.vertexSet().size() && frozen.arcCount() == sdg.edgeSet().size();
+            for (Map.Entry<GraphNode<?>, Slice> entry : expected.entrySet()) {
+                Slice slice = frozen.slice(g -> Set.of(entry.getKey()));
+                Slice other = entry.getValue();
+                assert slice.equals(other) && slice.getGraphNodes().equals(other.getGraphNodes()) :
+                        "The slice of the frozen " + name + " differs for " + entry.getKey();
+                assert slice.difference(other).size() == 0 && other.difference(slice).size() == 0;
+                assert slice.union(slice).equals(slice) && slice.intersect(other).equals(slice);
+                assert slice.difference(slice).size() == 0 && slice.size() == other.size();
+            }
+            assertPartitioned(frozen, frozen.incoming());
+            assertPartitioned(frozen, frozen.outgoing());
+        }
+    }
+
+    @Test
+    public void sliceAllMatchesTest() {
+        for (Supplier<SDG> flavour : FLAVOURS) {
+            SDG sdg = build(flavour);
+            sdg.freeze();
+            List<SlicingCriterion> criteria = new ArrayList<>();
+            List<Slice> expected = new ArrayList<>();
+            // Each node, and each node with the previous one
+            GraphNode<?> previous = null;
+            for (GraphNode<?> node : sdg.vertexSet()) {
+                List<Set<GraphNode<?>>> sets = new ArrayList<>();
+                sets.add(Set.of(node));
+                if (previous != null)
+                    sets.add(Set.of(previous, node));
+                for (Set<GraphNode<?>> set : sets) {
+                    SlicingCriterion criterion = g -> set;
+                    expected.add(sdg.slice(criterion));
+                    criteria.add(criterion);
+                }
+                previous = node;
+            }
+            // Enough criteria to fill more than one block of the batch traversal
+            assert criteria.size() > 64;
+            assert sdg.sliceAll(criteria).equals(expected) : "The slices of the " + sdg.getClass().getSimpleName() + " differ";
+        }
+    }
+
+    @Test
+    public void frozenForwardSliceAndChopMatchTest() {
+        for (Supplier<SDG> flavour : FLAVOURS) {
+            SDG sdg = build(flavour);
+            String name = sdg.getClass().getSimpleName();
+            // Chop to each node from itself and from the first node of its slice
+            List<SlicingCriterion[]> pairs = new ArrayList<>();
+            List<Slice[]> expected = new ArrayList<>();
+            for (GraphNode<?> end : sdg.vertexSet()) {
+                SlicingCriterion to = g -> Set.of(end);
+                Slice backward = sdg.slice(to);
+                for (GraphNode<?> start : List.of(end, Collections.min(backward.getGraphNodes()))) {
+                    SlicingCriterion from = g -> Set.of(start);
+                    Slice forward = sdg.forwardSlice(from);
+                    Slice chop = sdg.chop(from, to);
+                    // The target of the chop is reached by the arcs of its own slice, like the control
+                    // dependencies of a pseudo-predicate, which the forward slice of the source ignores
+                    Set<GraphNode<?>> outside = chop.difference(forward.intersect(backward)).getGraphNodes();
+                    assert outside.isEmpty() || outside.equals(Set.of(end)) :
+                            "The chop of the " + name + " is not contained in both slices for " + end;
+                    assert chop.contains(start) == chop.contains(end) && (start != end || chop.contains(end)) :
+                            "The chop of the " + name + " misses one of its endpoints for " + end;
+                    pairs.add(new SlicingCriterion[] { from, to });
+                    expected.add(new Slice[] { forward, backward, chop });
+                }
+            }
+            sdg.freeze();
+            for (int i = 0; i < pairs.size(); i++) {
+                SlicingCriterion from = pairs.get(i)[0], to = pairs.get(i)[1];
+                Slice[] slices = expected.get(i);
+                assert sdg.forwardSlice(from).equals(slices[0]) && sdg.slice(to).equals(slices[1])
+                        && sdg.chop(from, to).equals(slices[2]) : "The forward slice or chop of the frozen " + name + " differs";
+            }
+        }
+    }
+
+    @Test
+    public void interproceduralForwardSliceAndChopTest() {
+        String program = "public class Test {\n" +
+                "    static int f(int a) {\n" +
+                "        int r = a + 1;\n" +
+                "        return r;\n" +
+                "    }\n" +
+                "    public static void main(String[] args) {\n" +
+                "        int x = 1;\n" +
+                "        int y = f(x);\n" +
+                "        int z = 2;\n" +
+                "        int w = f(z);\n" +
+                "        int v = x + 1;\n" +
+                "        System.out.println(y);\n" +
+                "    }\n" +
+                "}\n";
+        SDG sdg = new SDG();
+        sdg.build(new NodeList<>(StaticJavaParser.parse(program)));
+        GraphNode<?> x = findNode(sdg, "int x = 1;"), println = findNode(sdg, "System.out.println(y);");
+        SlicingCriterion from = g -> Set.of(x), to = g -> Set.of(println);
+        // The slice enters f from the call with x, but doesn't return from f to the call with z (nor to w)
+        Set<String> forward = Set.of("GraphNode int x = 1; @7", "GraphNode int y = f(x); @8",
+                "CallNode CALL f(x) @8", "ActualIONode a_in = x @8", "Return call return @8",
+                "GraphNode int v = x + 1; @11", "GraphNode System.out.println(y); @12",
+                "GraphNode ENTER int f(int) @2", "FormalIONode a = a_in @2", "GraphNode int r = a + 1; @3",
+                "GraphNode return r; @4", "OutputNode method output @2");
+        // v does not affect the call to println
+        Set<String> chop = new HashSet<>(forward);
+        chop.remove("GraphNode int v = x + 1; @11");
+        for (int i = 0; i < 2; i++) {
+            String graph = i == 0 ? "SDG" : "frozen SDG";
+            assert describe(sdg.forwardSlice(from)).equals(forward) : "Wrong forward slice of the " + graph;
+            assert describe(sdg.chop(from, to)).equals(chop) : "Wrong chop of the " + graph;
+            sdg.freeze();
+        }
+    }
+
+    private static SDG build(Supplier<SDG> flavour) {
+        SDG sdg = flavour.get();
+        sdg.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+        return sdg;
+    }
+
+    private static GraphNode<?> findNode(SDG sdg, String label) {
+        return sdg.vertexSet().stream().filter(n -> n.getLabel().equals(label)).findFirst().orElseThrow();
+    }
+
+    /** Describe the nodes of a slice by their kind, label and line. */
+    private static Set<String> describe(Slice slice) {
+        Set<String> description = new HashSet<>();
+        for (GraphNode<?> node : slice)
+            description.add(node.getClass().getSimpleName() + " " + node.getLabel() + " @"
+                    + node.getAstNode().getBegin().orElseThrow().line);
+        assert description.size() == slice.size();
+        return description;
+    }
+
+    /** Check that the runs of each node contain the same arcs as the node, each run with a single kind. */
+    private static void assertPartitioned(FrozenSDG frozen, FrozenSDG.Adjacency adjacency) {
+        for (int node = 0; node < frozen.nodeCount(); node++) {
+            Set<Integer> arcs = new HashSet<>();
+            for (int i = adjacency.start(node); i < adjacency.end(node); i++)
+                arcs.add(adjacency.arc(i));
+            Set<Integer> partitioned = new HashSet<>();
+            int kinds = 0;
+            for (int run = adjacency.firstRun(node); run < adjacency.endRun(node); run++) {
+                ArcKind kind = ArcKind.fromByte(adjacency.runKind(run));
+                assert !kind.in(kinds) : "Two runs of the same kind";
+                kinds |= kind.mask();
+                for (int i = adjacency.runStart(run); i < adjacency.runEnd(run); i++) {
+                    assert frozen.getKind(adjacency.partitionedArc(i)) == kind;
+                    partitioned.add(adjacency.partitionedArc(i));
+                }
+            }
+            assert arcs.equals(partitioned) && kinds == adjacency.kinds(node);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.NodeList;
+import es.upv.mist.slicing.graphs.augmented.ACFG;
+import es.upv.mist.slicing.graphs.augmented.PSDG;
+import es.upv.mist.slicing.graphs.cfg.CFG;
+import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.nodes.SyntheticNode;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class SDGFindCFGTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** Predicates, pseudo-predicates and exceptions in several methods. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static int check(int n) {\n" +
+            "        if (n < 0)\n" +
+            "            throw new IllegalArgumentException();\n" +
+            "        return n;\n" +
+            "    }\n" +
+            "    static int sum(int n) {\n" +
+            "        int s = 0;\n" +
+            "        for (int i = 0; i < n; i++) {\n" +
+            "            if (i == 3)\n" +
+            "                break;\n" +
+            "            s += check(i);\n" +
+            "        }\n" +
+            "        return s;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        try {\n" +
+            "            System.out.println(sum(args.length));\n" +
+            "        } catch (IllegalArgumentException e) {\n" +
+            "            return;\n" +
+            "        }\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void findCFGMatchesScanTest() {
+        for (Supplier<SDG> flavour : List.<Supplier<SDG>>of(SDG::new, PSDG::new, ESSDG::new, JSysDG::new)) {
+            SDG sdg = flavour.get();
+            sdg.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+            for (GraphNode<?> node : sdg.vertexSet()) {
+                CFG scan = scanCFGs(sdg, node);
+                assert scan == find(sdg, node) : "The CFG of " + node + " differs from a scan of the CFGs";
+                if (scan == null || node instanceof SyntheticNode)
+                    continue;
+                assert sdg.isPredicate(node) == scan.isPredicate(node);
+                if (sdg instanceof PSDG)
+                    assert ((PSDG) sdg).isPseudoPredicate(node) == ((ACFG) scan).isPseudoPredicate(node);
+            }
+        }
+    }
+
+    @Test
+    public void ownerFollowsTheCFGTest() {
+        SDG sdg = new SDG();
+        sdg.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+        CFG cfg = sdg.getCFGs().iterator().next();
+        // The exit node cannot be removed
+        assert !cfg.removeVertex(cfg.getExitNode());
+        assert find(sdg, cfg.getExitNode()) == cfg;
+        GraphNode<?> node = cfg.vertexSet().stream()
+                .filter(n -> n != cfg.getRootNode() && n != cfg.getExitNode())
+                .findFirst().orElseThrow();
+        assert cfg.removeVertex(node);
+        assert node.getCFG() == null && find(sdg, node) == null;
+        assert cfg.addVertex(node);
+        assert find(sdg, node) == cfg;
+        // Nodes of a CFG that is not part of the SDG
+        GraphNode<?> other = new GraphNode<>("other", null, new LinkedList<>());
+        CFG otherCFG = new CFG(sdg.getContext());
+        otherCFG.addVertex(other);
+        assert other.getCFG() == otherCFG && find(sdg, other) == null;
+        assert otherCFG.removeVertex(other) && other.getCFG() == null;
+    }
+
+    /** The CFG of the SDG that contains a node, found by scanning the CFGs as before they were recorded in the nodes. */
+    private static CFG scanCFGs(SDG sdg, GraphNode<?> node) {
+        for (CFG cfg : sdg.getCFGs())
+            if (cfg.containsVertex(node))
+                return cfg;
+        return null;
+    }
+
+    /** The CFG of a node, or {@code null} if the SDG does not find one. */
+    private static CFG find(SDG sdg, GraphNode<?> node) {
+        try {
+            return sdg.findCFG(node);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.NodeList;
+import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.slicing.LineNumberCriterion;
+import es.upv.mist.slicing.slicing.SlicingCriterion;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public class SDGLazyTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    private static final List<Supplier<SDG>> FLAVOURS = List.of(SDG::new, ESSDG::new, JSysDG::new);
+    /** A program whose slices require different parts of it: {@code main} and its callees, including the
+     *  recursive {@code count} and the static field it modifies, or {@code inc} and its callers. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static int total;\n" +
+            "    static int inc(int a) {\n" +
+            "        return a + 1;\n" +
+            "    }\n" +
+            "    static int twice(int a) {\n" +
+            "        return inc(inc(a));\n" +
+            "    }\n" +
+            "    static void count(int n) {\n" +
+            "        if (n > 0) {\n" +
+            "            total++;\n" +
+            "            count(n - 1);\n" +
+            "        }\n" +
+            "    }\n" +
+            "    static int unused(int a) {\n" +
+            "        return twice(a) * 2;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        int x = twice(args.length);\n" +
+            "        count(x);\n" +
+            "        System.out.println(x);\n" +
+            "        System.out.println(total);\n" +
+            "    }\n" +
+            "}\n";
+    private static final List<SlicingCriterion> CRITERIA = List.of(new LineNumberCriterion(21, "x"),
+            new LineNumberCriterion(22, "total"), new LineNumberCriterion(4, "a"), new LineNumberCriterion(16, null));
+
+    @Test
+    public void lazySliceMatchesTest() {
+        for (Supplier<SDG> flavour : FLAVOURS) {
+            for (SlicingCriterion sc : CRITERIA) {
+                SDG sdg = flavour.get();
+                sdg.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+                String expected = sdg.slice(sc).toAst().toString();
+                String name = sdg.getClass().getSimpleName();
+                SDG lazy = flavour.get();
+                lazy.setLazy(true);
+                lazy.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+                assert lazy.vertexSet().isEmpty();
+                assert lazy.slice(sc).toAst().toString().equals(expected) : "The slice of the lazy " + name + " differs for " + sc;
+                assert lazy.getCFGs().size() <= sdg.getCFGs().size();
+                // Freezing builds the rest of the program, keeping the part that was built
+                Set<GraphNode<?>> nodes = new HashSet<>(lazy.vertexSet());
+                lazy.freeze();
+                assert lazy.vertexSet().containsAll(nodes);
+                assert lazy.vertexSet().size() == sdg.vertexSet().size() && lazy.getCFGs().size() == sdg.getCFGs().size() :
+                        "The complete lazy " + name + " differs";
+                assert lazy.slice(sc).toAst().toString().equals(expected);
+            }
+        }
+    }
+
+    @Test
+    public void lazyGraphBuildsRequiredDeclarationsTest() {
+        for (Supplier<SDG> flavour : FLAVOURS) {
+            SDG lazy = flavour.get();
+            lazy.setLazy(true);
+            lazy.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+            // The slices of main require the declarations it calls, but not unused
+            lazy.slice(CRITERIA.get(0));
+            Set<String> built = new HashSet<>();
+            lazy.getCFGs().forEach(cfg -> built.add(cfg.getDeclaration().getNameAsString()));
+            assert built.equals(Set.of("main", "twice", "inc", "count")) :
+                    "The lazy " + lazy.getClass().getSimpleName() + " built " + built;
+        }
+    }
+
+    @Test
+    public void lazyGraphExtendsAcrossSlicesTest() {
+        for (Supplier<SDG> flavour : FLAVOURS) {
+            SDG sdg = flavour.get();
+            sdg.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+            SDG lazy = flavour.get();
+            lazy.setLazy(true);
+            lazy.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+            // Each slice extends the part that was built by the previous ones
+            int cfgs = 0;
+            for (SlicingCriterion sc : CRITERIA) {
+                Set<GraphNode<?>> nodes = new HashSet<>(lazy.vertexSet());
+                assert lazy.slice(sc).toAst().toString().equals(sdg.slice(sc).toAst().toString()) :
+                        "The slice of the lazy " + sdg.getClass().getSimpleName() + " differs for " + sc;
+                assert lazy.vertexSet().containsAll(nodes) && lazy.getCFGs().size() >= cfgs;
+                cfgs = lazy.getCFGs().size();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.NodeList;
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.graphs.augmented.ASDG;
+import es.upv.mist.slicing.graphs.augmented.PSDG;
+import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public class SDGParallelBuildTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** The flavours whose CFGs are built in parallel (the JSysDG builds them sequentially). */
+    private static final List<Supplier<SDG>> FLAVOURS = List.of(SDG::new, ASDG::new, PSDG::new, ESSDG::new);
+    /** Several declarations to build in parallel, which call each other and share a static field. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static int total;\n" +
+            "    static int add(int a, int b) {\n" +
+            "        total += a;\n" +
+            "        return a + b;\n" +
+            "    }\n" +
+            "    static int max(int a, int b) {\n" +
+            "        return a > b ? a : b;\n" +
+            "    }\n" +
+            "    static int sum(int[] values) {\n" +
+            "        int s = 0;\n" +
+            "        for (int v : values)\n" +
+            "            s = add(s, v);\n" +
+            "        return s;\n" +
+            "    }\n" +
+            "    static int fib(int n) {\n" +
+            "        if (n < 2)\n" +
+            "            return n;\n" +
+            "        return add(fib(n - 1), fib(n - 2));\n" +
+            "    }\n" +
+            "    static int check(int n) {\n" +
+            "        if (n < 0)\n" +
+            "            throw new IllegalArgumentException();\n" +
+            "        return n;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        int a = sum(new int[] { 1, 2, 3 });\n" +
+            "        int b = fib(check(args.length));\n" +
+            "        System.out.println(max(a, b));\n" +
+            "        System.out.println(total);\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void parallelBuildMatchesSequentialTest() {
+        for (Supplier<SDG> flavour : FLAVOURS) {
+            SDG sequential = flavour.get(), parallel = flavour.get();
+            parallel.setParallelism(8);
+            sequential.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+            parallel.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+            assert parallel.createBuilder().buildsCFGsInParallel();
+            String name = sequential.getClass().getSimpleName();
+            assert describe(sequential).equals(describe(parallel)) : "The " + name + " depends on the parallelism";
+            // The nodes are in the same order, so each one is sliced in both graphs
+            List<GraphNode<?>> sequentialNodes = List.copyOf(sequential.vertexSet());
+            List<GraphNode<?>> parallelNodes = List.copyOf(parallel.vertexSet());
+            for (int i = 0; i < sequentialNodes.size(); i++) {
+                GraphNode<?> node = sequentialNodes.get(i), parallelNode = parallelNodes.get(i);
+                assert sequential.slice(g -> Set.of(node)).toAst().toString()
+                        .equals(parallel.slice(g -> Set.of(parallelNode)).toAst().toString()) :
+                        "The slice of the " + name + " of " + node.getLabel() + " depends on the parallelism";
+            }
+        }
+    }
+
+    /** Describe the nodes of a graph by their kind and label, and its arcs by their kind and the
+     *  position of their nodes, in the order of its vertex and edge sets. */
+    private static List<String> describe(SDG sdg) {
+        List<String> description = new ArrayList<>();
+        Map<GraphNode<?>, Integer> positions = new HashMap<>();
+        for (GraphNode<?> node : sdg.vertexSet()) {
+            positions.put(node, positions.size());
+            description.add(node.getClass().getSimpleName() + " " + node.getLabel());
+        }
+        for (Arc arc : sdg.edgeSet())
+            description.add(arc.getClass().getSimpleName() + " " + arc.getLabel() + ": "
+                    + positions.get(sdg.getEdgeSource(arc)) + " -> " + positions.get(sdg.getEdgeTarget(arc)));
+        return description;
+    }
+}
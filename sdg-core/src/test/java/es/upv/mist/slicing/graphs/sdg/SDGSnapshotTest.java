@@ -0,0 +1,118 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.slicing.FileLineSlicingCriterion;
+import es.upv.mist.slicing.utils.AnalysisContext;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SDGSnapshotTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** A program split in two files, with calls between them and loops. The classic graphs of the snapshots
+     *  don't represent the fields of objects. */
+    private static final String TEST = "public class Test {\n" +
+            "    static int add(int total, int n) {\n" +
+            "        return total + Util.square(n);\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        int total = 0;\n" +
+            "        int limit = args.length;\n" +
+            "        for (int i = 0; i < limit; i++)\n" +
+            "            total = add(total, i);\n" +
+            "        int other = Util.square(limit);\n" +
+            "        System.out.println(total);\n" +
+            "        System.out.println(other);\n" +
+            "    }\n" +
+            "}\n";
+    private static final String UTIL = "public class Util {\n" +
+            "    static int square(int n) {\n" +
+            "        int r = n * n;\n" +
+            "        return r;\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void snapshotSliceMatchesTest() throws IOException {
+        Path directory = Files.createTempDirectory("sdg");
+        try {
+            File test = write(directory, "Test.java", TEST), util = write(directory, "Util.java", UTIL);
+            // The classes of both files are resolved in a context of their own
+            AnalysisContext context = new AnalysisContext(new CombinedTypeSolver(new ReflectionTypeSolver(true),
+                    new JavaParserTypeSolver(directory)));
+            JavaParser parser = new JavaParser(context.newParserConfiguration().setAttributeComments(false));
+            SDG sdg = new SDG();
+            sdg.setContext(context);
+            sdg.build(new NodeList<>(parse(parser, test), parse(parser, util)));
+            List<FileLineSlicingCriterion> criteria = List.of(new FileLineSlicingCriterion(test, 11, "total"),
+                    new FileLineSlicingCriterion(test, 12, "other"), new FileLineSlicingCriterion(test, 3, "total"),
+                    new FileLineSlicingCriterion(test, 9, null), new FileLineSlicingCriterion(util, 4, "r"));
+            List<String> expected = criteria.stream().map(sc -> sdg.slice(sc).toAst().toString()).collect(Collectors.toList());
+            Path file = directory.resolve("sdg.snapshot");
+            SDGSnapshot.save(sdg, file);
+            SDGSnapshot snapshot = SDGSnapshot.load(file);
+            assert snapshot.nodeCount() == sdg.vertexSet().size() && snapshot.arcCount() == sdg.edgeSet().size();
+            for (int i = 0; i < criteria.size(); i++) {
+                FileLineSlicingCriterion sc = criteria.get(i);
+                BitSet slice = snapshot.slice(snapshot.findNodes(sc.getFile(), sc.getLineNumber(), sc.getVariable()));
+                assert snapshot.toAst(slice).toString().equals(expected.get(i)) : "The slice of the snapshot differs for " + sc;
+            }
+            // Criteria that can't be located
+            for (Runnable find : List.<Runnable>of(() -> snapshot.findNodes(new File(directory.toFile(), "Other.java"), 4, null),
+                    () -> snapshot.findNodes(test, 11, "missing"), () -> snapshot.findNodes(test, 1, null))) {
+                try {
+                    find.run();
+                    assert false : "A missing criterion was located";
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                    Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void onlyClassicGraphsAreSavedTest() throws IOException {
+        SDG sdg = new JSysDG();
+        sdg.build(new NodeList<>(StaticJavaParser.parse(UTIL)));
+        Path file = Files.createTempFile("sdg", ".snapshot");
+        try {
+            SDGSnapshot.save(sdg, file);
+            assert false : "The snapshot of a JSysDG was saved";
+        } catch (IllegalArgumentException ignored) {
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static CompilationUnit parse(JavaParser parser, File file) throws IOException {
+        return parser.parse(file).getResult().orElseThrow();
+    }
+
+    private static File write(Path directory, String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content).toFile();
+    }
+}
@@ -0,0 +1,91 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import es.upv.mist.slicing.graphs.augmented.PSDG;
+import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.nodes.SyntheticNode;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class SDGSyntheticNodesTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** Declarations with parameters, fields, return values and exceptions, and calls to them. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static int x;\n" +
+            "    int value;\n" +
+            "    int add(int a) {\n" +
+            "        if (a < 0)\n" +
+            "            throw new IllegalArgumentException();\n" +
+            "        value += a + x;\n" +
+            "        return value;\n" +
+            "    }\n" +
+            "    static void reset(Test t) {\n" +
+            "        t.value = 0;\n" +
+            "        x = 0;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        Test t = new Test();\n" +
+            "        try {\n" +
+            "            System.out.println(t.add(args.length));\n" +
+            "        } catch (IllegalArgumentException e) {\n" +
+            "            reset(t);\n" +
+            "        }\n" +
+            "        System.out.println(t.add(x));\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void registryMatchesScanTest() {
+        for (Supplier<SDG> flavour : List.<Supplier<SDG>>of(SDG::new, PSDG::new, ESSDG::new, JSysDG::new)) {
+            SDG sdg = flavour.get();
+            CompilationUnit unit = StaticJavaParser.parse(PROGRAM);
+            sdg.build(new NodeList<>(unit));
+            assertFindsAsScan(sdg, unit);
+        }
+    }
+
+    @Test
+    public void registryFollowsTheGraphTest() {
+        SDG sdg = new JSysDG();
+        CompilationUnit unit = StaticJavaParser.parse(PROGRAM);
+        sdg.build(new NodeList<>(unit));
+        MethodDeclaration add = unit.findFirst(MethodDeclaration.class, m -> m.getNameAsString().equals("add")).orElseThrow();
+        List<SyntheticNode<?>> nodes = List.copyOf(sdg.findSyntheticNodes(add));
+        assert nodes.size() > 2;
+        // Removed nodes are no longer found, and added ones are found last
+        SyntheticNode<?> first = nodes.get(0);
+        assert sdg.removeVertex(first);
+        assert !sdg.findSyntheticNodes(add).contains(first);
+        assertFindsAsScan(sdg, unit);
+        assert sdg.addVertex(first);
+        assert sdg.findSyntheticNodes(add).get(nodes.size() - 1) == first;
+        assertFindsAsScan(sdg, unit);
+    }
+
+    /** Check that the synthetic nodes found for each AST node are those found, in the same order, by the
+     *  scan of the vertex set that was used to locate them before the graph registered them. */
+    private static void assertFindsAsScan(SDG sdg, CompilationUnit unit) {
+        for (Node astNode : unit.findAll(Node.class)) {
+            List<GraphNode<?>> scan = sdg.vertexSet().stream()
+                    .filter(SyntheticNode.class::isInstance)
+                    .filter(n -> n.getAstNode() == astNode)
+                    .collect(Collectors.toList());
+            assert scan.equals(sdg.findSyntheticNodes(astNode))
+                    : "The synthetic nodes of " + astNode + " in " + sdg.getClass().getSimpleName() + " differ from a scan of the graph";
+        }
+    }
+}
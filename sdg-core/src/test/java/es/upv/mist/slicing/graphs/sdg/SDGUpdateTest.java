@@ -0,0 +1,192 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.Position;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.graphs.CallGraph;
+import es.upv.mist.slicing.graphs.ComponentScheduler;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.nodes.oo.MemberNode;
+import es.upv.mist.slicing.slicing.LineNumberCriterion;
+import es.upv.mist.slicing.slicing.SlicingCriterion;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.*;
+
+public class SDGUpdateTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** A program whose methods are declared before and after the criterion, which is in {@code main}. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static int total;\n" +
+            "    static int inc(int a) {\n" +
+            "        return a + 1;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        int x = inc(args.length);\n" +
+            "        total = twice(x);\n" +
+            "        System.out.println(total);\n" +
+            "    }\n" +
+            "    static int twice(int a) {\n" +
+            "        int r = inc(a);\n" +
+            "        return inc(r);\n" +
+            "    }\n" +
+            "}\n";
+    private static final SlicingCriterion CRITERION = new LineNumberCriterion(9, "total");
+
+    @Test
+    public void updateMatchesBuildTest() {
+        SDG sdg = new JSysDG();
+        sdg.setUpdatable(true);
+        sdg.build(new NodeList<>(parse(PROGRAM)));
+        // Parsing the same program again does not change the graph
+        assert !sdg.update(List.of(parse(PROGRAM)));
+        // A change to the body of a method only builds that method again, both in the same line of a method
+        // before the criterion and in a new line of a method after it, which moves the rest of the program
+        String program = PROGRAM;
+        for (String name : List.of("inc", "twice")) {
+            MethodDeclaration method = findMethod(sdg.getCompilationUnits().get(0), name);
+            assert CompilationUnitDiff.isReplaceable(method, method);
+            Set<GraphNode<?>> otherNodes = findNodesOutside(sdg, method);
+            program = addStatement(program, method, CRITERION);
+            CompilationUnit edited = parse(program);
+            assert sdg.update(List.of(edited));
+            assert otherNodes.stream().allMatch(sdg::containsVertex) : "Other methods were built again after editing " + name;
+            assertMatchesBuild(sdg, edited, CRITERION);
+        }
+        // A new class requires building the whole graph again
+        CompilationUnit edited = parse(program);
+        edited.addClass("AddedByUpdateTest");
+        assert sdg.update(List.of(edited));
+        assert sdg.getCompilationUnits().size() == 1;
+        assertMatchesBuild(sdg, edited, CRITERION);
+    }
+
+    @Test
+    public void calleeEditUpdatesSummaryArcsTest() {
+        String program = "public class Test {\n" +
+                "    static int f(int a, int b) {\n" +
+                "        return %s;\n" +
+                "    }\n" +
+                "    static int g(int a, int b) {\n" +
+                "        return f(a, b);\n" +
+                "    }\n" +
+                "    public static void main(String[] args) {\n" +
+                "        int x = 1;\n" +
+                "        int y = 2;\n" +
+                "        System.out.println(g(x, y));\n" +
+                "    }\n" +
+                "}\n";
+        CompilationUnit unit = parse(String.format(program, "a"));
+        SDG sdg = new JSysDG();
+        sdg.setUpdatable(true);
+        sdg.build(new NodeList<>(unit));
+        Set<GraphNode<?>> mainNodes = findNodesOutside(sdg, findMethod(unit, "f"));
+        mainNodes.retainAll(findNodesOutside(sdg, findMethod(unit, "g")));
+        List<String> previous = listSummaryArcs(sdg);
+        // The output of f depends on the other parameter: f and its caller g are built again, and
+        // main is kept, but the summary arcs of its call to g change
+        CompilationUnit edited = parse(String.format(program, "b"));
+        assert sdg.update(List.of(edited));
+        assert mainNodes.stream().allMatch(sdg::containsVertex) : "The main method was built again";
+        assert !listSummaryArcs(sdg).equals(previous) : "The summary arcs didn't change";
+        assertMatchesBuild(sdg, edited, null);
+        // The output of f depends on both parameters
+        previous = listSummaryArcs(sdg);
+        edited = parse(String.format(program, "a + b"));
+        assert sdg.update(List.of(edited));
+        assert !listSummaryArcs(sdg).equals(previous) : "The summary arcs didn't change";
+        assertMatchesBuild(sdg, edited, null);
+    }
+
+    /** Check that the updated graph is equivalent to one built from the given unit: it has the same number
+     *  of nodes and arcs, the same summary arcs and, if there is a criterion, the same slice. */
+    protected static void assertMatchesBuild(SDG sdg, CompilationUnit unit, SlicingCriterion sc) {
+        SDG expected = new JSysDG();
+        expected.build(new NodeList<>(unit.clone()));
+        assert sdg.vertexSet().size() == expected.vertexSet().size()
+                && sdg.edgeSet().size() == expected.edgeSet().size() : "The updated graph differs from a new one";
+        assert listSummaryArcs(sdg).equals(listSummaryArcs(expected)) :
+                "The summary arcs of the updated graph differ from those of a new one";
+        if (sc == null)
+            return;
+        assert sdg.slice(sc).toAst().toString().equals(expected.slice(sc).toAst().toString()) :
+                "The slice of the updated graph differs from that of a new one";
+    }
+
+    protected static MethodDeclaration findMethod(CompilationUnit unit, String name) {
+        return unit.getClassByName("Test").orElseThrow().getMethodsByName(name).get(0);
+    }
+
+    /** List the summary arcs of a graph by the description of their nodes, which doesn't depend on their ids. */
+    protected static List<String> listSummaryArcs(SDG sdg) {
+        List<String> arcs = new ArrayList<>();
+        for (Arc arc : sdg.edgeSet())
+            if (arc.isSummaryArc())
+                arcs.add(describe(sdg.getEdgeSource(arc)) + " -> " + describe(sdg.getEdgeTarget(arc)));
+        Collections.sort(arcs);
+        return arcs;
+    }
+
+    /** Describe a node by its kind, label and line, including those of its parents if it is a member node. */
+    protected static String describe(GraphNode<?> node) {
+        String description = node.getClass().getSimpleName() + " " + node.getLabel();
+        if (node.getAstNode() != null && node.getAstNode().getBegin().isPresent())
+            description += " @" + node.getAstNode().getBegin().get().line;
+        if (node instanceof MemberNode && ((MemberNode) node).getParent() != null)
+            return describe(((MemberNode) node).getParent()) + " / " + description;
+        return description;
+    }
+
+    /** The nodes of the graph that don't belong to the method or the methods that it may call recursively. */
+    protected static Set<GraphNode<?>> findNodesOutside(SDG sdg, MethodDeclaration method) {
+        CallGraph callGraph = sdg.builder.callGraph;
+        CallGraph.Vertex vertex = callGraph.findVertexByDeclaration(method);
+        Set<CallableDeclaration<?>> component = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (List<CallGraph.Vertex> c : new ComponentScheduler<>(callGraph).getComponents())
+            if (c.contains(vertex))
+                c.forEach(v -> component.add(v.getDeclaration()));
+        Set<GraphNode<?>> nodes = new HashSet<>();
+        for (GraphNode<?> node : sdg.vertexSet()) {
+            GraphNode<?> owner = node;
+            while (owner instanceof MemberNode && ((MemberNode) owner).getParent() != null)
+                owner = ((MemberNode) owner).getParent();
+            Node astNode = owner.getAstNode();
+            Optional<?> declaration = astNode instanceof CallableDeclaration ? Optional.of(astNode) :
+                    Optional.ofNullable(astNode).flatMap(n -> n.findAncestor(CallableDeclaration.class));
+            if (declaration.isEmpty() || !component.contains(declaration.get()))
+                nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /** Parse a version of the program that is stored in the same file as the others. */
+    protected static CompilationUnit parse(String program) {
+        CompilationUnit unit = StaticJavaParser.parse(program);
+        unit.setStorage(Path.of("Test.java"));
+        return unit;
+    }
+
+    /** Insert a declaration at the beginning of the body of the given method. If the method begins
+     *  after the criterion, it is placed in a new line, which moves the rest of the program. */
+    protected static String addStatement(String program, MethodDeclaration method, SlicingCriterion sc) {
+        List<String> lines = new ArrayList<>(List.of(program.split("\n")));
+        Position brace = method.getBody().orElseThrow().getBegin().orElseThrow();
+        String line = lines.get(brace.line - 1);
+        String statement = brace.line > ((LineNumberCriterion) sc).getLineNumber() ?
+                "\n        int addedByUpdateTest = 0;" : " int addedByUpdateTest = 0;";
+        lines.set(brace.line - 1, line.substring(0, brace.column) + statement + line.substring(brace.column));
+        return String.join("\n", lines);
+    }
+}
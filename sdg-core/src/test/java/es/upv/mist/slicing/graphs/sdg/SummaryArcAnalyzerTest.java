@@ -0,0 +1,166 @@
+package es.upv.mist.slicing.graphs.sdg;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.NodeList;
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.graphs.CallGraph;
+import es.upv.mist.slicing.graphs.augmented.PSDG;
+import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.nodes.SyntheticNode;
+import es.upv.mist.slicing.slicing.SlicingAlgorithm;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class SummaryArcAnalyzerTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** Calls whose summary arcs depend on those of other calls, through a chain, a cycle and a recursion. */
+    private static final String CALLS = "public class Test {\n" +
+            "    static int x;\n" +
+            "    static int add(int a, int b) {\n" +
+            "        return a + b;\n" +
+            "    }\n" +
+            "    static int first(int a, int b) {\n" +
+            "        return add(a, 0);\n" +
+            "    }\n" +
+            "    static int even(int n, int v) {\n" +
+            "        if (n == 0)\n" +
+            "            return v;\n" +
+            "        return odd(n - 1, v);\n" +
+            "    }\n" +
+            "    static int odd(int n, int v) {\n" +
+            "        if (n == 0)\n" +
+            "            return x;\n" +
+            "        return even(n - 1, v);\n" +
+            "    }\n" +
+            "    static int fact(int n, int acc) {\n" +
+            "        if (n <= 1)\n" +
+            "            return acc;\n" +
+            "        x = n;\n" +
+            "        return fact(n - 1, acc * n);\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        int a = 1, b = 2;\n" +
+            "        x = 3;\n" +
+            "        System.out.println(first(a, b));\n" +
+            "        System.out.println(even(a, b));\n" +
+            "        System.out.println(fact(a, b) + x);\n" +
+            "    }\n" +
+            "}\n";
+    /** Calls that throw exceptions and modify the fields of objects. */
+    private static final String OBJECTS = "public class Test {\n" +
+            "    static class Box {\n" +
+            "        int value;\n" +
+            "        int other;\n" +
+            "        void set(int v, int w) {\n" +
+            "            if (v < 0)\n" +
+            "                throw new IllegalArgumentException();\n" +
+            "            value = v;\n" +
+            "        }\n" +
+            "        int get() {\n" +
+            "            return value;\n" +
+            "        }\n" +
+            "    }\n" +
+            "    static void fill(Box box, int n) {\n" +
+            "        for (int i = 0; i < n; i++)\n" +
+            "            box.set(i, n);\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        Box box = new Box();\n" +
+            "        try {\n" +
+            "            fill(box, 3);\n" +
+            "        } catch (IllegalArgumentException e) {\n" +
+            "            box.other = 1;\n" +
+            "        }\n" +
+            "        System.out.println(box.get());\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void analysisMatchesExhaustiveAnalysisTest() {
+        List<Supplier<SDG>> flavours = List.of(SDG::new, PSDG::new, ESSDG::new, JSysDG::new);
+        for (Supplier<SDG> flavour : flavours) {
+            for (String program : List.of(CALLS, OBJECTS)) {
+                SDG sdg = flavour.get();
+                sdg.setUpdatable(true);
+                sdg.build(new NodeList<>(StaticJavaParser.parse(program)));
+                Set<String> expected = listSummaryArcs(sdg, HashSet::new);
+                assert !expected.isEmpty();
+                sdg.removeAllEdges(sdg.edgeSet().stream().filter(Arc::isSummaryArc).collect(Collectors.toList()));
+                exhaustiveAnalysis(sdg.builder.createSummaryArcAnalyzer());
+                assert listSummaryArcs(sdg, HashSet::new).equals(expected) : "The summary arcs of " + sdg.getClass().getSimpleName()
+                        + " differ from those of the exhaustive analysis";
+            }
+        }
+    }
+
+    @Test
+    public void reusedAlgorithmMatchesNewTest() {
+        for (Supplier<SDG> flavour : List.<Supplier<SDG>>of(ESSDG::new, JSysDG::new)) {
+            SDG sdg = flavour.get();
+            sdg.setUpdatable(true);
+            sdg.build(new NodeList<>(StaticJavaParser.parse(OBJECTS)));
+            AbstractSummaryArcAnalyzer<?, ?, ?> analyzer = sdg.builder.createSummaryArcAnalyzer();
+            // The analyzer traverses every formal-out node of a component with the same algorithm
+            for (int i = 0; i < 2; i++) {
+                if (i == 1)
+                    sdg.freeze();
+                SlicingAlgorithm algorithm = sdg.createSlicingAlgorithm();
+                for (CallGraph.Vertex vertex : analyzer.graph.vertexSet())
+                    for (SyntheticNode<?> formalOut : analyzer.getFormalOutNodes(vertex.getDeclaration()))
+                        assert algorithm.traverseProcedure(formalOut).equals(sdg.createSlicingAlgorithm().traverseProcedure(formalOut))
+                                : "The slice of a reused algorithm depends on the previous ones";
+            }
+        }
+    }
+
+    @Test
+    public void parallelAnalysisMatchesSequentialTest() {
+        for (String program : List.of(CALLS, OBJECTS)) {
+            SDG sequential = new JSysDG(), parallel = new JSysDG();
+            parallel.setParallelism(4);
+            sequential.build(new NodeList<>(StaticJavaParser.parse(program)));
+            parallel.build(new NodeList<>(StaticJavaParser.parse(program)));
+            assert listSummaryArcs(sequential, ArrayList::new).equals(listSummaryArcs(parallel, ArrayList::new))
+                    : "The summary arcs depend on the parallelism";
+        }
+    }
+
+    /**
+     * Place the summary arcs as the previous analyzer did, without a work-list: traverse every formal-out node
+     * with a new slicing algorithm and connect the formal-in nodes it reaches in every call to its declaration,
+     * until no new arc is added.
+     */
+    private static <FormalOut extends SyntheticNode<?>, FormalIn extends SyntheticNode<?>> void exhaustiveAnalysis(
+            AbstractSummaryArcAnalyzer<?, FormalOut, FormalIn> analyzer) {
+        for (CallGraph.Vertex vertex : analyzer.graph.vertexSet())
+            analyzer.addedArcs.put(vertex, new ArrayList<>());
+        boolean changed;
+        do {
+            changed = false;
+            for (CallGraph.Vertex vertex : analyzer.graph.vertexSet()) {
+                for (FormalOut formalOut : analyzer.getFormalOutNodes(vertex.getDeclaration())) {
+                    Set<FormalIn> formalIns = analyzer.findFormalIn(analyzer.sdg.createSlicingAlgorithm().traverseProcedure(formalOut));
+                    for (CallGraph.Edge<?> edge : analyzer.graph.incomingEdgesOf(vertex))
+                        changed |= !analyzer.saveSummaryArcs(edge, formalOut, formalIns).isEmpty();
+                }
+            }
+        } while (changed);
+    }
+
+    /** List the summary arcs of a graph, by the ids of their nodes, in the order of its edge set. */
+    private static <C extends Collection<String>> C listSummaryArcs(SDG sdg, Supplier<C> collection) {
+        return sdg.edgeSet().stream()
+                .filter(Arc::isSummaryArc)
+                .map(arc -> sdg.getEdgeSource(arc).getId() + " -> " + sdg.getEdgeTarget(arc).getId())
+                .collect(Collectors.toCollection(collection));
+    }
+}
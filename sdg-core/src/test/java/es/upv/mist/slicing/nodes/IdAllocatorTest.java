@@ -0,0 +1,123 @@
+package es.upv.mist.slicing.nodes;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.NodeList;
+import es.upv.mist.slicing.graphs.cfg.CFG;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.graphs.sdg.SDG;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class IdAllocatorTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static int sum(int[] a) {\n" +
+            "        int s = 0;\n" +
+            "        for (int i = 0; i < a.length; i++)\n" +
+            "            if (a[i] > 0)\n" +
+            "                s += a[i];\n" +
+            "        return s;\n" +
+            "    }\n" +
+            "    static int max(int[] a) {\n" +
+            "        int m = a[0];\n" +
+            "        for (int x : a)\n" +
+            "            m = x > m ? x : m;\n" +
+            "        return m;\n" +
+            "    }\n" +
+            "    static int count(int[] a, int v) {\n" +
+            "        int c = 0;\n" +
+            "        int i = 0;\n" +
+            "        while (i < a.length) {\n" +
+            "            if (a[i] == v)\n" +
+            "                c++;\n" +
+            "            i++;\n" +
+            "        }\n" +
+            "        return c;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        int[] a = {3, -1, 4, 1, 5};\n" +
+            "        int s = sum(a);\n" +
+            "        int m = max(a);\n" +
+            "        int c = count(a, m);\n" +
+            "        System.out.println(s + m + c);\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void idsAreUniqueDenseAndIndependentOfParallelismTest() {
+        for (Supplier<SDG> flavour : List.<Supplier<SDG>>of(SDG::new, JSysDG::new)) {
+            SDG sequential = flavour.get(), parallel = flavour.get();
+            parallel.setParallelism(4);
+            sequential.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+            parallel.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+            assert listIds(sequential).equals(listIds(parallel)) : "The ids depend on the parallelism";
+        }
+    }
+
+    /** List the id and label of the nodes of a graph, checking that the ids of the nodes of the SDG are dense and follow
+     *  the order of its vertex set, and that they are unique among the nodes of the SDG and its CFGs. */
+    private static List<String> listIds(SDG sdg) {
+        int expected = 0;
+        for (GraphNode<?> node : sdg.vertexSet()) {
+            assert node.getId() == expected : "The ids are not dense";
+            assert sdg.getNode(expected++) == node;
+            assert sdg.indexOf(node) == node.getId();
+        }
+        Map<Long, GraphNode<?>> byId = new HashMap<>();
+        for (GraphNode<?> node : sdg.vertexSet())
+            byId.put(node.getId(), node);
+        for (CFG cfg : sdg.getCFGs())
+            for (GraphNode<?> node : cfg.vertexSet())
+                assert byId.computeIfAbsent(node.getId(), id -> node) == node : "Two nodes have the id " + node.getId();
+        assert sdg.getCFGs().stream().map(cfg -> cfg.getRootNode().getId()).distinct().count() == sdg.getCFGs().size();
+        return sdg.vertexSet().stream()
+                .map(n -> n.getId() + ": " + n.getLabel())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void renumberFollowsGivenOrderTest() throws InterruptedException {
+        IdAllocator allocator = new IdAllocator();
+        List<GraphNode<?>> first = newNodes(100), second = newNodes(100);
+        first.forEach(allocator::assign);
+        Thread thread = new Thread(() -> second.forEach(allocator::assign));
+        thread.start();
+        thread.join();
+        // Provisional ids are unique, and the nodes can be found by them
+        assert first.stream().mapToLong(GraphNode::getId).distinct().count() == 100;
+        for (GraphNode<?> node : second)
+            assert allocator.getNode((int) node.getId()) == node;
+        // The order skips the last node of the first thread, which is numbered afterwards
+        List<GraphNode<?>> order = new ArrayList<>(second);
+        order.addAll(first.subList(0, 99));
+        allocator.renumber(order);
+        for (int id = 0; id < order.size(); id++) {
+            assert order.get(id).getId() == id;
+            assert allocator.getNode(id) == order.get(id);
+        }
+        assert first.get(99).getId() == 199;
+        assert allocator.getBound() == 200;
+        // New nodes follow the final ids, and removed ids are not reused
+        allocator.remove(first.get(0));
+        assert allocator.getNode((int) first.get(0).getId()) == null;
+        GraphNode<?> added = newNodes(1).get(0);
+        allocator.assign(added);
+        allocator.renumber(List.of(added));
+        assert added.getId() == 200;
+    }
+
+    private static List<GraphNode<?>> newNodes(int count) {
+        List<GraphNode<?>> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            nodes.add(new GraphNode<>("node " + i, null, new LinkedList<>()));
+        return nodes;
+    }
+}
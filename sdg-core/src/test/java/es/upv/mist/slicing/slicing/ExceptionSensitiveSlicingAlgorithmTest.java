@@ -0,0 +1,172 @@
+package es.upv.mist.slicing.slicing;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.NodeList;
+import es.upv.mist.slicing.arcs.Arc;
+import es.upv.mist.slicing.arcs.ArcKind;
+import es.upv.mist.slicing.graphs.exceptionsensitive.ESSDG;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+public class ExceptionSensitiveSlicingAlgorithmTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** Exceptions thrown and caught in several methods, which create conditional control dependencies,
+     *  pseudo-predicates and object flow between the fields of the objects. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static class Box {\n" +
+            "        int value;\n" +
+            "    }\n" +
+            "    static int check(Box b, int n) throws Exception {\n" +
+            "        if (n < 0)\n" +
+            "            throw new Exception();\n" +
+            "        b.value = n;\n" +
+            "        return n;\n" +
+            "    }\n" +
+            "    static int sum(Box b, int n) {\n" +
+            "        int s = 0;\n" +
+            "        for (int i = 0; i < n; i++) {\n" +
+            "            try {\n" +
+            "                s += check(b, i - 2);\n" +
+            "            } catch (Exception e) {\n" +
+            "                if (s > 10)\n" +
+            "                    break;\n" +
+            "                continue;\n" +
+            "            }\n" +
+            "            s++;\n" +
+            "        }\n" +
+            "        return s;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) throws Exception {\n" +
+            "        Box b = new Box();\n" +
+            "        int s = sum(b, args.length);\n" +
+            "        check(b, s);\n" +
+            "        System.out.println(b.value + s);\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void reachedKindsMatchTraversedArcsTest() {
+        ESSDG essdg = new ESSDG();
+        essdg.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+        JSysDG jsysdg = new JSysDG();
+        jsysdg.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+        for (int i = 0; i < 2; i++) {
+            if (i == 1) {
+                essdg.freeze();
+                jsysdg.freeze();
+            }
+            int conditional = sliceAll(essdg, CheckedAlgorithm::new) + sliceAll(jsysdg, CheckedJSysDGAlgorithm::new);
+            assert conditional > 0 : "No node was reached by a conditional control dependency";
+        }
+    }
+
+    /** Slice every node of the graph with a new checked algorithm, both backward and intraprocedurally.
+     *  @return The number of queries about nodes reached by conditional control dependencies. */
+    private static <G extends ESSDG> int sliceAll(G sdg, Function<G, ? extends Checked> constructor) {
+        int conditional = 0;
+        for (GraphNode<?> node : List.copyOf(sdg.vertexSet())) {
+            for (boolean procedure : new boolean[] { false, true }) {
+                Checked algorithm = constructor.apply(sdg);
+                if (procedure)
+                    algorithm.traverseProcedure(node);
+                else
+                    algorithm.traverse(Set.of(node));
+                conditional += algorithm.conditionalQueries();
+            }
+        }
+        return conditional;
+    }
+
+    /** The kinds of the traversed arcs whose source is the given node, found by scanning the traversed arcs,
+     *  as the algorithm did before it recorded them per node. */
+    private static int scanReachedKinds(ExceptionSensitiveSlicingAlgorithm algorithm, GraphNode<?> node) {
+        int kinds = 0;
+        if (algorithm.frozen != null) {
+            int id = algorithm.frozen.getId(node);
+            for (int arc = algorithm.traversedArcs.nextSetBit(0); arc != -1; arc = algorithm.traversedArcs.nextSetBit(arc + 1))
+                if (algorithm.frozen.getSource(arc) == id)
+                    kinds |= algorithm.frozen.getKind(arc).mask();
+        } else {
+            for (Arc arc : algorithm.traversedArcSet)
+                if (algorithm.graph.getEdgeSource(arc) == node)
+                    kinds |= arc.getKind().mask();
+        }
+        return kinds;
+    }
+
+    /** Check the kinds of arcs that an algorithm has recorded for a node against a scan of its traversed arcs.
+     *  @return Whether the node has been reached by a conditional control dependency. */
+    private static boolean check(ExceptionSensitiveSlicingAlgorithm algorithm, GraphNode<?> node, int kinds) {
+        assert kinds == scanReachedKinds(algorithm, node) : "The kinds that reached " + node + " differ from the traversed arcs";
+        return (kinds & ArcKind.CONDITIONAL_CONTROL_DEPENDENCIES) != 0;
+    }
+
+    /** An algorithm that checks each query about the kinds of arcs that have reached a node. */
+    private interface Checked extends SlicingAlgorithm {
+        int conditionalQueries();
+    }
+
+    private static class CheckedAlgorithm extends ExceptionSensitiveSlicingAlgorithm implements Checked {
+        protected int conditionalQueries = 0;
+
+        CheckedAlgorithm(ESSDG graph) {
+            super(graph);
+        }
+
+        @Override
+        protected int reachedKinds(GraphNode<?> node) {
+            int kinds = super.reachedKinds(node);
+            if (check(this, node, kinds))
+                conditionalQueries++;
+            return kinds;
+        }
+
+        @Override
+        protected boolean hasOnlyBeenReachedBy(int node, int kinds) {
+            check(this, frozen.getNode(node), reachedKindsById[node]);
+            return super.hasOnlyBeenReachedBy(node, kinds);
+        }
+
+        @Override
+        public int conditionalQueries() {
+            return conditionalQueries;
+        }
+    }
+
+    private static class CheckedJSysDGAlgorithm extends JSysDGSlicingAlgorithm implements Checked {
+        protected int conditionalQueries = 0;
+
+        CheckedJSysDGAlgorithm(JSysDG graph) {
+            super(graph);
+        }
+
+        @Override
+        protected int reachedKinds(GraphNode<?> node) {
+            int kinds = super.reachedKinds(node);
+            if (check(this, node, kinds))
+                conditionalQueries++;
+            return kinds;
+        }
+
+        @Override
+        protected boolean hasOnlyBeenReachedBy(int node, int kinds) {
+            check(this, frozen.getNode(node), reachedKindsById[node]);
+            return super.hasOnlyBeenReachedBy(node, kinds);
+        }
+
+        @Override
+        public int conditionalQueries() {
+            return conditionalQueries;
+        }
+    }
+}
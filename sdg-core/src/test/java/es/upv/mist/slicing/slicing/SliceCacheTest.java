@@ -0,0 +1,122 @@
+package es.upv.mist.slicing.slicing;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.NodeList;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.graphs.sdg.SDG;
+import es.upv.mist.slicing.nodes.GraphNode;
+import es.upv.mist.slicing.utils.StaticTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SliceCacheTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static int inc(int x) {\n" +
+            "        return x + 1;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        int a = 1;\n" +
+            "        int b = inc(a);\n" +
+            "        int c = 2;\n" +
+            "        System.out.println(b);\n" +
+            "        System.out.println(c);\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void cachedSliceMatchesTest() {
+        SDG sdg = new JSysDG();
+        sdg.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+        SlicingCriterion sc = new LineNumberCriterion(9, "b");
+        SlicingCriterion other = new LineNumberCriterion(10, "c");
+        Slice expected = sdg.slice(sc);
+        sdg.enableSliceCache(1);
+        SliceCache cache = sdg.getSliceCache();
+        Slice first = sdg.slice(sc);
+        assert first.equals(expected) && first.getCriterion().equals(expected.getCriterion());
+        assert cache.getMisses() == 1 && cache.getHits() == 0;
+        // Hits return a copy of the stored slice
+        Slice second = sdg.slice(sc);
+        assert second.equals(first) && second != first && cache.getHits() == 1;
+        // Another criterion evicts the first slice
+        sdg.slice(other);
+        assert cache.size() == 1 && cache.getMisses() == 2;
+        assert sdg.slice(sc).equals(first) && cache.getMisses() == 3;
+        // Modifying the graph discards the slices
+        sdg.removeEdge(sdg.edgeSet().iterator().next());
+        assert cache.size() == 0;
+    }
+
+    @Test
+    public void copiesAreIndependentTest() {
+        GraphNode<?> criterion = newNode(), other = newNode();
+        SliceCache cache = new SliceCache(4);
+        Slice first = cache.get(Set.of(criterion), SlicingAlgorithm.class, () -> new Slice(Set.of(criterion)));
+        first.add(other);
+        Slice second = cache.get(Set.of(criterion), SlicingAlgorithm.class, () -> { throw new AssertionError(); });
+        assert second.size() == 1 && second.contains(criterion) && !second.contains(other);
+    }
+
+    @Test
+    public void slicesAreComputedOutsideTheLockTest() throws Exception {
+        GraphNode<?> slow = newNode(), fast = newNode();
+        SliceCache cache = new SliceCache(4);
+        CountDownLatch slowStarted = new CountDownLatch(1), fastDone = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Callable<Slice> slowRequest = () -> cache.get(Set.of(slow), SlicingAlgorithm.class, () -> {
+                computations.incrementAndGet();
+                slowStarted.countDown();
+                try {
+                    // Only finishes if another slice can be computed meanwhile
+                    if (!fastDone.await(10, TimeUnit.SECONDS))
+                        throw new IllegalStateException("The cache was locked while computing a slice");
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return new Slice(Set.of(slow));
+            });
+            Future<Slice> first = executor.submit(slowRequest);
+            slowStarted.await();
+            // A request for the same slice waits for the pending computation
+            Future<Slice> waiting = executor.submit(slowRequest);
+            Future<Slice> other = executor.submit(() -> cache.get(Set.of(fast), SlicingAlgorithm.class,
+                    () -> new Slice(Set.of(fast))));
+            assert other.get(10, TimeUnit.SECONDS).contains(fast);
+            fastDone.countDown();
+            assert first.get(10, TimeUnit.SECONDS).contains(slow);
+            assert waiting.get(10, TimeUnit.SECONDS).contains(slow);
+            assert computations.get() == 1;
+            assert cache.getMisses() == 2 && cache.getHits() == 1;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedSlicesAreNotStoredTest() {
+        GraphNode<?> criterion = newNode();
+        SliceCache cache = new SliceCache(4);
+        try {
+            cache.get(Set.of(criterion), SlicingAlgorithm.class, () -> { throw new IllegalStateException(); });
+            assert false : "The exception of the slicer was not thrown";
+        } catch (IllegalStateException ignored) {
+        }
+        assert cache.size() == 0;
+        assert cache.get(Set.of(criterion), SlicingAlgorithm.class, () -> new Slice(Set.of(criterion))).contains(criterion);
+    }
+
+    private static GraphNode<?> newNode() {
+        return new GraphNode<>("node", null, new LinkedList<>());
+    }
+}
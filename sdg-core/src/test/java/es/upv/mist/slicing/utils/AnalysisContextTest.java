@@ -0,0 +1,68 @@
+package es.upv.mist.slicing.utils;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import es.upv.mist.slicing.graphs.jsysdg.JSysDG;
+import es.upv.mist.slicing.graphs.sdg.SDG;
+import es.upv.mist.slicing.slicing.LineNumberCriterion;
+import es.upv.mist.slicing.slicing.SlicingCriterion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class AnalysisContextTest {
+    static {
+        StaticTypeSolver.addTypeSolverJRE();
+        StaticJavaParser.getConfiguration().setAttributeComments(false);
+    }
+
+    /** A program whose slice requires resolving calls to its own methods and to those of the JRE. */
+    private static final String PROGRAM = "public class Test {\n" +
+            "    static int sum(int n) {\n" +
+            "        int s = 0;\n" +
+            "        for (int i = 0; i < n; i++)\n" +
+            "            s += Math.abs(i - 2);\n" +
+            "        return s;\n" +
+            "    }\n" +
+            "    public static void main(String[] args) {\n" +
+            "        int s = sum(args.length);\n" +
+            "        int unused = Math.max(1, 2);\n" +
+            "        System.out.println(s);\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void concurrentContextsTest() throws Exception {
+        SlicingCriterion sc = new LineNumberCriterion(11, "s");
+        SDG sdg = new JSysDG();
+        sdg.build(new NodeList<>(StaticJavaParser.parse(PROGRAM)));
+        String expected = sdg.slice(sc).toAst().toString();
+        assert expected.contains("s += Math.abs(i - 2);") && !expected.contains("unused");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Each graph is built and sliced in its own context, with its own type solver and id allocator
+            List<Future<String>> slices = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                slices.add(executor.submit(() -> buildAndSlice(sc)));
+            for (Future<String> slice : slices)
+                assert slice.get().equals(expected) : "The slice built in its own context differs";
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** Build a graph in a new context, with its own type solver, and slice it. */
+    private static String buildAndSlice(SlicingCriterion sc) {
+        AnalysisContext context = new AnalysisContext(new ReflectionTypeSolver(true));
+        JavaParser parser = new JavaParser(context.newParserConfiguration().setAttributeComments(false));
+        SDG sdg = new JSysDG();
+        sdg.setContext(context);
+        sdg.build(new NodeList<>(parser.parse(PROGRAM).getResult().orElseThrow()));
+        assert sdg.getContext().getClassGraph().getContext() == context;
+        return sdg.slice(sc).toAst().toString();
+    }
+}
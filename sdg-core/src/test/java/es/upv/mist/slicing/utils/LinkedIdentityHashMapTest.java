@@ -0,0 +1,50 @@
+package es.upv.mist.slicing.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class LinkedIdentityHashMapTest {
+    @Test
+    public void keysAreComparedByIdentityInInsertionOrderTest() {
+        String a1 = new String("a"), a2 = new String("a"), b = "b", c = "c";
+        Map<String, Integer> map = new LinkedIdentityHashMap<>();
+        map.put(c, 1);
+        map.put(a1, 2);
+        map.put(b, 3);
+        map.put(a2, 4);
+        assert map.size() == 4;
+        assert map.get(a1) == 2 && map.get(a2) == 4;
+        assert !map.containsKey(new String("b"));
+        assert keys(map).equals(List.of(c, a1, b, a2));
+        // Replacing a value keeps the position of its key
+        assert map.put(a1, 5) == 2;
+        assert keys(map).equals(List.of(c, a1, b, a2));
+        // Removing the first, a middle and the last key relinks the rest
+        assert map.remove(c) == 1;
+        assert map.remove(b) == 3;
+        assert keys(map).equals(List.of(a1, a2));
+        assert map.remove(a2) == 4;
+        assert map.remove(a2) == null;
+        map.put(c, 6);
+        assert keys(map).equals(List.of(a1, c));
+        for (Iterator<Map.Entry<String, Integer>> it = map.entrySet().iterator(); it.hasNext(); )
+            if (it.next().getKey() == a1)
+                it.remove();
+        assert keys(map).equals(List.of(c)) && map.get(c) == 6;
+        map.entrySet().iterator().next().setValue(7);
+        assert map.get(c) == 7;
+        map.clear();
+        assert map.isEmpty() && keys(map).isEmpty();
+    }
+
+    private static List<String> keys(Map<String, Integer> map) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : map.entrySet())
+            keys.add(entry.getKey());
+        return keys;
+    }
+}
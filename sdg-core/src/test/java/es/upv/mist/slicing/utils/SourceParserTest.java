@@ -0,0 +1,37 @@
+package es.upv.mist.slicing.utils;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.Problem;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.NodeList;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+public class SourceParserTest {
+    @Test
+    public void parallelParseMatchesSequentialTest() throws IOException {
+        Path folder = Path.of(Thread.currentThread().getContextClassLoader().getResource("regression").getPath());
+        List<Path> files = SourceParser.findJavaFiles(List.of(folder));
+        assert files.size() > 1 && files.stream().allMatch(Files::isRegularFile);
+        ParserConfiguration configuration = new ParserConfiguration().setAttributeComments(false);
+        List<Problem> sequentialProblems = new LinkedList<>();
+        NodeList<CompilationUnit> sequential = new SourceParser(configuration, 1).parse(files, sequentialProblems);
+        // The order of the files given does not change the result
+        List<Path> shuffled = new ArrayList<>(files);
+        Collections.shuffle(shuffled);
+        List<Problem> parallelProblems = new LinkedList<>();
+        NodeList<CompilationUnit> parallel = new SourceParser(configuration, 4)
+                .parse(SourceParser.findJavaFiles(shuffled), parallelProblems);
+        assert sequential.size() == parallel.size() && sequentialProblems.size() == parallelProblems.size();
+        for (int i = 0; i < sequential.size(); i++)
+            assert sequential.get(i).getStorage().orElseThrow().getPath().equals(parallel.get(i).getStorage().orElseThrow().getPath())
+                    && sequential.get(i).toString().equals(parallel.get(i).toString());
+    }
+}